@@ -17,11 +17,12 @@ package com.coremedia.iso;
 
 import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.Container;
-import com.coremedia.iso.boxes.UserBox;
 import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.util.LongHashMap;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
@@ -31,15 +32,59 @@ import java.util.logging.Logger;
 public abstract class AbstractBoxParser implements BoxParser {
 
     private static Logger LOG = Logger.getLogger(AbstractBoxParser.class.getName());
-    ThreadLocal<ByteBuffer> header = new ThreadLocal<ByteBuffer>() {
+    /**
+     * Number of bytes read ahead when a header isn't in the current window. Small boxes like the children
+     * of <code>stbl</code> or <code>traf</code> are then parsed without touching the data source again.
+     */
+    private static final int WINDOW_SIZE = 4096;
+    /**
+     * Largest possible header: size, type, largesize and usertype.
+     */
+    private static final int MAX_HEADER_SIZE = 32;
+    private static final int MAX_USER_TYPES = 64;
+
+    ThreadLocal<ParseState> state = new ThreadLocal<ParseState>() {
         @Override
-        protected ByteBuffer initialValue() {
-            return ByteBuffer.allocate(32);
+        protected ParseState initialValue() {
+            return new ParseState();
         }
     };
+    /**
+     * User types seen so far. Boxes of the same user type share the array.
+     */
+    private final LongHashMap<byte[]> userTypes = new LongHashMap<byte[]>();
+    private ContentRetention contentRetention = ContentRetention.SLICE;
 
     public abstract Box createBox(String type, byte[] userType, String parent);
 
+    public ContentRetention getContentRetention() {
+        return contentRetention;
+    }
+
+    /**
+     * Sets what the boxes parsed by this parser keep of their raw content after parsing. Applies to
+     * boxes parsed after the call.
+     *
+     * @param contentRetention {@link ContentRetention#SLICE} (default) or {@link ContentRetention#COPY}
+     */
+    public void setContentRetention(ContentRetention contentRetention) {
+        this.contentRetention = contentRetention;
+    }
+
+    /**
+     * Creates a box for the given packed type. Subclasses should override this method to dispatch on the
+     * packed types directly, the default implementation converts the types and calls
+     * {@link #createBox(String, byte[], String)}.
+     *
+     * @param type       the box's packed type
+     * @param userType   the box's user type (uuid boxes only)
+     * @param parentType the parent's packed type or 0 if there is no parent box
+     * @return a new box instance
+     */
+    public Box createBox(int type, byte[] userType, int parentType) {
+        return createBox(FourCC.toString(type), userType, parentType == 0 ? "" : FourCC.toString(parentType));
+    }
+
     /**
      * Parses the next size and type, creates a box instance and parses the box's content.
      *
@@ -49,64 +94,173 @@ public abstract class AbstractBoxParser implements BoxParser {
      * @throws java.io.IOException if reading from <code>in</code> fails
      */
     public Box parseBox(DataSource byteChannel, Container parent) throws IOException {
+        ParseState state = this.state.get();
+        ByteBuffer header = state.header;
         long startPos = byteChannel.position();
-        header.get().rewind().limit(8);
-
-        int bytesRead = 0;
-        int b = 0;
-        while ((b = byteChannel.read(header.get())) != 8) {
-            if (b < 0) {
-                byteChannel.position(startPos);
-                throw new EOFException();
-            } else {
-                bytesRead += b;
-            }
+        int available = state.readHeader(byteChannel, startPos, 8);
+        if (available < 8) {
+            throw new EOFException();
         }
-        header.get().rewind();
 
-        long size = IsoTypeReader.readUInt32(header.get());
+        long size = IsoTypeReader.readUInt32(header);
         // do plausibility check
         if (size < 8 && size > 1) {
             LOG.severe("Plausibility check failed: size < 8 (size = " + size + "). Stop parsing!");
             return null;
         }
 
-
-        String type = IsoTypeReader.read4cc(header.get());
-        //System.err.println(type);
+        int type = FourCC.read(header);
         byte[] usertype = null;
         long contentSize;
+        int headerSize = 8;
 
         if (size == 1) {
-            header.get().limit(16);
-            byteChannel.read(header.get());
-            header.get().position(8);
-            size = IsoTypeReader.readUInt64(header.get());
+            if (available < 16) {
+                available = state.readMoreHeader(byteChannel, startPos, 16);
+            }
+            if (available < 16) {
+                throw new EOFException();
+            }
+            size = IsoTypeReader.readUInt64(header);
+            headerSize = 16;
             contentSize = size - 16;
         } else if (size == 0) {
-            contentSize = byteChannel.size() - byteChannel.position();
+            contentSize = byteChannel.size() - startPos - 8;
             size = contentSize + 8;
         } else {
             contentSize = size - 8;
         }
-        if (UserBox.TYPE.equals(type)) {
-            header.get().limit(header.get().limit() + 16);
-            byteChannel.read(header.get());
-            usertype = new byte[16];
-            for (int i = header.get().position() - 16; i < header.get().position(); i++) {
-                usertype[i - (header.get().position() - 16)] = header.get().get(i);
+        if (type == FourCC.UUID) {
+            if (available < headerSize + 16) {
+                available = state.readMoreHeader(byteChannel, startPos, headerSize + 16);
             }
+            if (available < headerSize + 16) {
+                throw new EOFException();
+            }
+            usertype = userType(header, headerSize);
+            headerSize += 16;
             contentSize -= 16;
         }
-        Box box = createBox(type, usertype, (parent instanceof Box) ? ((Box) parent).getType() : "");
+        byteChannel.position(startPos + headerSize);
+        Box box = createBox(type, usertype, (parent instanceof Box) ? FourCC.typeOf((Box) parent) : 0);
         box.setParent(parent);
-        //LOG.finest("Parsing " + box.getType());
-        // System.out.println("parsing " + Mp4Arrays.toString(box.getType()) + " " + box.getClass().getName() + " size=" + size);
-        header.get().rewind();
+        header.position(0).limit(headerSize);
 
-        box.parse(byteChannel, header.get(), contentSize, this);
+        box.parse(byteChannel, header, contentSize, this);
         return box;
     }
 
+    private byte[] userType(ByteBuffer header, int offset) {
+        long msb = header.getLong(offset);
+        long lsb = header.getLong(offset + 8);
+        long key = msb * 31 + lsb;
+        byte[] userType = userTypes.get(key);
+        if (userType == null || !equals(userType, header, offset)) {
+            userType = new byte[16];
+            for (int i = 0; i < 16; i++) {
+                userType[i] = header.get(offset + i);
+            }
+            if (userTypes.size() < MAX_USER_TYPES) {
+                userTypes.put(key, userType);
+            }
+        }
+        return userType;
+    }
+
+    private static boolean equals(byte[] userType, ByteBuffer header, int offset) {
+        for (int i = 0; i < 16; i++) {
+            if (userType[i] != header.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Per-thread scratch space of {@link #parseBox(com.googlecode.mp4parser.DataSource, com.coremedia.iso.boxes.Container)}:
+     * the header buffer handed to the boxes and a read-ahead window of the data source parsed last.
+     */
+    static class ParseState {
+        final ByteBuffer header = ByteBuffer.allocate(MAX_HEADER_SIZE);
+        final ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+        /**
+         * Weak so that a thread that is done parsing doesn't keep e.g. a large in-memory source alive.
+         */
+        WeakReference<DataSource> windowSource;
+        long windowStart;
+        long windowSourceSize;
+        /**
+         * The window ends with the data source - there is nothing to read beyond.
+         */
+        boolean windowAtEnd;
+
+        /**
+         * Copies up to {@link #MAX_HEADER_SIZE} bytes at <code>position</code> into {@link #header}. Reads
+         * from the data source only if they are not in the window yet. Doesn't change the data source's
+         * position.
+         * <p/>
+         * Sources of unknown size (e.g. a {@link com.googlecode.mp4parser.StreamingDataSourceImpl} that is
+         * still receiving) bypass the window: reading ahead would block until bytes arrive that the box
+         * doesn't need. Only <code>count</code> bytes are read then, {@link #readMoreHeader} reads the rest.
+         *
+         * @param count the number of bytes that are needed at least
+         * @return the number of bytes available in <code>header</code>
+         */
+        int readHeader(DataSource dataSource, long position, int count) throws IOException {
+            if (dataSource.size() == Long.MAX_VALUE) {
+                header.clear().limit(0);
+                return readMoreHeader(dataSource, position, count);
+            }
+            long windowEnd = windowStart + window.limit();
+            if (windowSource == null || dataSource != windowSource.get() || position < windowStart ||
+                    (position + MAX_HEADER_SIZE > windowEnd && (!windowAtEnd || dataSource.size() != windowSourceSize))) {
+                fillWindow(dataSource, position);
+                windowEnd = windowStart + window.limit();
+            }
+            int available = (int) Math.max(0, Math.min(MAX_HEADER_SIZE, windowEnd - position));
+            header.clear();
+            for (int i = 0; i < available; i++) {
+                header.put(i, window.get((int) (position - windowStart) + i));
+            }
+            header.limit(available);
+            return available;
+        }
 
+        /**
+         * Reads the header of the box at <code>position</code> up to <code>count</code> bytes directly from
+         * the data source. The bytes already in {@link #header} are kept, as is its position.
+         *
+         * @return the number of bytes available in <code>header</code>
+         */
+        int readMoreHeader(DataSource dataSource, long position, int count) throws IOException {
+            int headerPosition = header.position();
+            header.position(header.limit()).limit(count);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = dataSource.read(header, position + header.position());
+            }
+            int available = header.position();
+            header.limit(available).position(headerPosition);
+            return available;
+        }
+
+        private void fillWindow(DataSource dataSource, long position) throws IOException {
+            if (windowSource == null || windowSource.get() != dataSource) {
+                windowSource = new WeakReference<DataSource>(dataSource);
+            }
+            windowStart = position;
+            windowSourceSize = dataSource.size();
+            long remaining = windowSourceSize - position;
+            window.clear();
+            if (remaining < window.capacity()) {
+                window.limit((int) Math.max(0, remaining));
+            }
+            int read = 0;
+            while (window.hasRemaining() && read >= 0) {
+                read = dataSource.read(window, position + window.position());
+            }
+            windowAtEnd = read < 0 || remaining <= window.capacity();
+            window.flip();
+        }
+    }
 }
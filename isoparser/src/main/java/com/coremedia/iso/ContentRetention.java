@@ -0,0 +1,28 @@
+package com.coremedia.iso;
+
+/**
+ * Decides what a box keeps of its raw content once it has been parsed. The raw content is handed out by
+ * the <code>DataSource</code>, e.g. as a slice of a memory mapped region, and everything a box keeps
+ * of it (leftover bytes, opaque payloads, sample tables read as views) keeps that whole buffer alive.
+ * <p/>
+ * Set it on the parser before opening a file:
+ * <pre>
+ *     PropertyBoxParserImpl boxParser = new PropertyBoxParserImpl();
+ *     boxParser.setContentRetention(ContentRetention.COPY);
+ *     IsoFile isoFile = new IsoFile(dataSource, boxParser);
+ * </pre>
+ *
+ * @see AbstractBoxParser#setContentRetention(ContentRetention)
+ * @see IsoFile#getRetainedBytes()
+ */
+public enum ContentRetention {
+    /**
+     * Parsed boxes keep slices of the data source's buffers. Nothing is copied. This is the default.
+     */
+    SLICE,
+    /**
+     * Parsed boxes copy the raw bytes they keep to the heap and drop the data source's buffer. Costs a
+     * copy per box but lets a memory mapped region be released as soon as parsing is done.
+     */
+    COPY
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012 Sebastian Annies, Hamburg
+ *
+ * Licensed under the Apache License, Version 2.0 (the License);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an AS IS BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.coremedia.iso;
+
+import com.coremedia.iso.boxes.Box;
+import com.googlecode.mp4parser.AbstractBox;
+import com.googlecode.mp4parser.AbstractContainerBox;
+import com.googlecode.mp4parser.util.LongHashMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Four character codes packed into an <code>int</code> in file byte order (big endian) - the first
+ * character is the most significant byte. Comparing and hashing these ints is much cheaper than working
+ * with the <code>String</code> representation. The <code>String</code>s returned by {@link #toString(int)}
+ * are interned so that decoding the type of a known box doesn't allocate.
+ */
+public final class FourCC {
+    /**
+     * Upper limit for the number of interned types. Corrupt files must not fill up the memory.
+     */
+    private static final int MAX_INTERNED = 4096;
+    private static final LongHashMap<String> INTERNED = new LongHashMap<String>();
+
+    public static final int FTYP = of("ftyp");
+    public static final int MOOV = of("moov");
+    public static final int MVHD = of("mvhd");
+    public static final int TRAK = of("trak");
+    public static final int TKHD = of("tkhd");
+    public static final int MDIA = of("mdia");
+    public static final int MINF = of("minf");
+    public static final int STBL = of("stbl");
+    public static final int STSD = of("stsd");
+    public static final int STTS = of("stts");
+    public static final int CTTS = of("ctts");
+    public static final int STSC = of("stsc");
+    public static final int STSZ = of("stsz");
+    public static final int STCO = of("stco");
+    public static final int CO64 = of("co64");
+    public static final int STSS = of("stss");
+    public static final int MVEX = of("mvex");
+    public static final int TREX = of("trex");
+    public static final int MOOF = of("moof");
+    public static final int MFHD = of("mfhd");
+    public static final int TRAF = of("traf");
+    public static final int TFHD = of("tfhd");
+    public static final int TFDT = of("tfdt");
+    public static final int TRUN = of("trun");
+    public static final int MFRA = of("mfra");
+    public static final int MDAT = of("mdat");
+    public static final int FREE = of("free");
+    public static final int SKIP = of("skip");
+    public static final int UDTA = of("udta");
+    public static final int META = of("meta");
+    public static final int UUID = of("uuid");
+
+    private FourCC() {
+    }
+
+    /**
+     * Packs the given four character code into an int. Missing characters are treated as 0.
+     *
+     * @param fourCC the type as <code>String</code>, <code>null</code> is packed to 0
+     * @return the packed type
+     */
+    public static int of(String fourCC) {
+        int result = 0;
+        if (fourCC != null) {
+            for (int i = 0; i < 4; i++) {
+                result = (result << 8) | (i < fourCC.length() ? fourCC.charAt(i) & 0xFF : 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the packed type of a box. Boxes derived from {@link AbstractBox} or {@link AbstractContainerBox}
+     * know their packed type, the type of all other boxes is packed on each call.
+     *
+     * @param box any box
+     * @return the box's packed type
+     */
+    public static int typeOf(Box box) {
+        if (box instanceof AbstractBox) {
+            return ((AbstractBox) box).getTypeInt();
+        } else if (box instanceof AbstractContainerBox) {
+            return ((AbstractContainerBox) box).getTypeInt();
+        }
+        return of(box.getType());
+    }
+
+    /**
+     * Gets the <code>String</code> representation of a packed type.
+     *
+     * @param fourCC the packed type
+     * @return the four character code
+     */
+    public static String toString(int fourCC) {
+        String s = INTERNED.get(fourCC);
+        if (s == null) {
+            char[] chars = new char[]{
+                    (char) ((fourCC >>> 24) & 0xFF),
+                    (char) ((fourCC >>> 16) & 0xFF),
+                    (char) ((fourCC >>> 8) & 0xFF),
+                    (char) (fourCC & 0xFF)};
+            s = new String(chars);
+            if (INTERNED.size() < MAX_INTERNED) {
+                s = s.intern();
+                INTERNED.put(fourCC, s);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Reads a four character code from the buffer.
+     *
+     * @param bb source buffer
+     * @return the packed type
+     */
+    public static int read(ByteBuffer bb) {
+        return bb.getInt();
+    }
+
+    /**
+     * Writes a four character code to the buffer.
+     *
+     * @param bb     sink buffer
+     * @param fourCC the packed type
+     */
+    public static void write(ByteBuffer bb, int fourCC) {
+        bb.putInt(fourCC);
+    }
+}
@@ -19,9 +19,11 @@ package com.coremedia.iso;
 import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.MovieBox;
 import com.googlecode.mp4parser.BasicContainer;
+import com.googlecode.mp4parser.BoxIndex;
 import com.googlecode.mp4parser.DataSource;
 import com.googlecode.mp4parser.FileDataSourceImpl;
 import com.googlecode.mp4parser.annotations.DoNotParseDetail;
+import com.googlecode.mp4parser.util.ByteRangeCache;
 import com.googlecode.mp4parser.util.Logger;
 
 import java.io.Closeable;
@@ -29,6 +31,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * The most upper container for ISO Boxes. It is a container box that is a file.
@@ -64,6 +68,36 @@ public class IsoFile extends BasicContainer implements Closeable {
         initContainer(dataSource, dataSource.size(), boxParser);
     }
 
+    /**
+     * Opens a file but creates only the boxes selected by the profile. All other boxes are kept as
+     * {@link com.coremedia.iso.boxes.UnknownBox}es that are never parsed.
+     *
+     * @param dataSource the data source
+     * @param profile    selects the boxes to be created, e.g. {@link ParseProfile#METADATA}
+     * @throws IOException in case I/O error
+     */
+    public IsoFile(DataSource dataSource, ParseProfile profile) throws IOException {
+        this(dataSource, new ProfiledBoxParser(new PropertyBoxParserImpl(), profile));
+    }
+
+    /**
+     * Opens a file with a previously created index. Boxes are parsed only when they are accessed and
+     * path lookups skip the boxes in front of the target.
+     *
+     * @param dataSource the data source
+     * @param boxIndex   index of the <code>dataSource</code>'s boxes
+     * @throws IOException in case I/O error
+     * @see BoxIndex#loadOrScan(File, File)
+     */
+    public IsoFile(DataSource dataSource, BoxIndex boxIndex) throws IOException {
+        this(dataSource, new PropertyBoxParserImpl(), boxIndex);
+    }
+
+    public IsoFile(DataSource dataSource, BoxParser boxParser, BoxIndex boxIndex) throws IOException {
+        this(dataSource, boxParser);
+        setBoxIndex(boxIndex, -1);
+    }
+
     public static byte[] fourCCtoBytes(String fourCC) {
         byte[] result = new byte[4];
         if (fourCC != null) {
@@ -107,11 +141,26 @@ public class IsoFile extends BasicContainer implements Closeable {
         return null;
     }
 
+    /**
+     * Reports how many bytes of raw box content are held in memory, e.g. to find out what keeps memory
+     * mapped regions of a long open file alive. Only boxes that have been parsed already are looked at -
+     * calling this method doesn't parse anything.
+     *
+     * @return retained bytes per box type, types without retained bytes are left out
+     * @see ContentRetention
+     */
+    public Map<String, Long> getRetainedBytes() {
+        Map<String, Long> retained = new TreeMap<String, Long>();
+        collectRetainedBytes(retained);
+        return retained;
+    }
+
     public void getBox(WritableByteChannel os) throws IOException {
         writeContainer(os);
     }
 
     public void close() throws IOException {
+        ByteRangeCache.getDefault().invalidate(this);
         this.dataSource.close();
     }
 
@@ -19,7 +19,9 @@ import com.googlecode.mp4parser.util.IntHashMap;
 
 import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public final class IsoTypeReader {
 
@@ -42,6 +44,131 @@ public final class IsoTypeReader {
         return i;
     }
 
+    /**
+     * Size of the chunks the bulk readers copy out of buffers that don't expose their backing array.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Reads <code>n</code> 32 bit values in bulk. Heap buffers are decoded straight from their backing
+     * array, direct (e.g. memory mapped) buffers are copied through an <code>IntBuffer</code> view in a
+     * single block copy. Read-only heap buffers are copied out in chunks first - that's still much faster
+     * than <code>n</code> single reads.
+     *
+     * @param bb     the source, its position is advanced by <code>4 * n</code>
+     * @param dst    the destination
+     * @param offset index of the first value in <code>dst</code>
+     * @param n      number of values to read
+     */
+    public static void readInt32Array(ByteBuffer bb, int[] dst, int offset, int n) {
+        if (bb.remaining() < n * 4) {
+            throw new BufferUnderflowException();
+        }
+        if (bb.order() != ByteOrder.BIG_ENDIAN) {
+            for (int i = offset; i < offset + n; i++) {
+                dst[i] = bb.getInt();
+            }
+        } else if (bb.hasArray()) {
+            decodeInt32(bb.array(), bb.arrayOffset() + bb.position(), dst, offset, n);
+            bb.position(bb.position() + n * 4);
+        } else if (bb.isDirect()) {
+            bb.asIntBuffer().get(dst, offset, n);
+            bb.position(bb.position() + n * 4);
+        } else {
+            byte[] chunk = new byte[Math.min(n * 4, CHUNK_SIZE)];
+            for (int done = 0; done < n; ) {
+                int count = Math.min(chunk.length / 4, n - done);
+                bb.get(chunk, 0, count * 4);
+                decodeInt32(chunk, 0, dst, offset + done, count);
+                done += count;
+            }
+        }
+    }
+
+    private static void decodeInt32(byte[] a, int p, int[] dst, int offset, int n) {
+        for (int i = offset; i < offset + n; i++, p += 4) {
+            dst[i] = (a[p] << 24) | ((a[p + 1] & 0xFF) << 16) | ((a[p + 2] & 0xFF) << 8) | (a[p + 3] & 0xFF);
+        }
+    }
+
+    /**
+     * Reads <code>n</code> unsigned 32 bit values in bulk.
+     *
+     * @param bb     the source, its position is advanced by <code>4 * n</code>
+     * @param dst    the destination
+     * @param offset index of the first value in <code>dst</code>
+     * @param n      number of values to read
+     * @see #readInt32Array(java.nio.ByteBuffer, int[], int, int)
+     */
+    public static void readUInt32Array(ByteBuffer bb, long[] dst, int offset, int n) {
+        if (bb.remaining() < n * 4) {
+            throw new BufferUnderflowException();
+        }
+        if (bb.order() != ByteOrder.BIG_ENDIAN) {
+            for (int i = offset; i < offset + n; i++) {
+                dst[i] = bb.getInt() & 0xFFFFFFFFL;
+            }
+        } else if (bb.hasArray()) {
+            decodeUInt32(bb.array(), bb.arrayOffset() + bb.position(), dst, offset, n);
+            bb.position(bb.position() + n * 4);
+        } else {
+            // absolute reads widen straight into the destination, a bulk copy wouldn't save anything
+            int p = bb.position();
+            for (int i = offset; i < offset + n; i++, p += 4) {
+                dst[i] = bb.getInt(p) & 0xFFFFFFFFL;
+            }
+            bb.position(p);
+        }
+    }
+
+    private static void decodeUInt32(byte[] a, int p, long[] dst, int offset, int n) {
+        for (int i = offset; i < offset + n; i++, p += 4) {
+            dst[i] = ((a[p] & 0xFFL) << 24) | ((a[p + 1] & 0xFF) << 16) | ((a[p + 2] & 0xFF) << 8) | (a[p + 3] & 0xFF);
+        }
+    }
+
+    /**
+     * Reads <code>n</code> unsigned 64 bit values in bulk.
+     *
+     * @param bb     the source, its position is advanced by <code>8 * n</code>
+     * @param dst    the destination
+     * @param offset index of the first value in <code>dst</code>
+     * @param n      number of values to read
+     * @see #readInt32Array(java.nio.ByteBuffer, int[], int, int)
+     */
+    public static void readUInt64Array(ByteBuffer bb, long[] dst, int offset, int n) {
+        if (bb.remaining() < n * 8) {
+            throw new BufferUnderflowException();
+        }
+        long signs = 0;
+        if (bb.order() == ByteOrder.BIG_ENDIAN && bb.hasArray()) {
+            signs = decodeInt64(bb.array(), bb.arrayOffset() + bb.position(), dst, offset, n);
+            bb.position(bb.position() + n * 8);
+        } else {
+            int p = bb.position();
+            for (int i = offset; i < offset + n; i++, p += 8) {
+                signs |= dst[i] = bb.getLong(p);
+            }
+            bb.position(p);
+        }
+        if (signs < 0) {
+            throw new RuntimeException("I don't know how to deal with UInt64! long is not sufficient and I don't want to use BigInt");
+        }
+    }
+
+    /**
+     * @return all values or'ed, negative if any of the values is negative
+     */
+    private static long decodeInt64(byte[] a, int p, long[] dst, int offset, int n) {
+        long signs = 0;
+        for (int i = offset; i < offset + n; i++, p += 8) {
+            int high = (a[p] << 24) | ((a[p + 1] & 0xFF) << 16) | ((a[p + 2] & 0xFF) << 8) | (a[p + 3] & 0xFF);
+            int low = (a[p + 4] << 24) | ((a[p + 5] & 0xFF) << 16) | ((a[p + 6] & 0xFF) << 8) | (a[p + 7] & 0xFF);
+            signs |= dst[i] = ((long) high << 32) | (low & 0xFFFFFFFFL);
+        }
+        return signs;
+    }
+
     public static int readUInt24(ByteBuffer bb) {
         int result = 0;
         result += readUInt16(bb) << 8;
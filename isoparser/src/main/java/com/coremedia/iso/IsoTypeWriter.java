@@ -15,7 +15,9 @@
  */
 package com.coremedia.iso;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public final class IsoTypeWriter {
 
@@ -30,6 +32,102 @@ public final class IsoTypeWriter {
 
     }
 
+    /**
+     * Number of values narrowed at once by {@link #writeUInt32Array(java.nio.ByteBuffer, long[], int, int)}.
+     */
+    private static final int CHUNK = 1024;
+
+    /**
+     * Writes <code>n</code> 32 bit values in bulk. Heap buffers are written straight to their backing
+     * array, all other buffers through an <code>IntBuffer</code> view.
+     *
+     * @param bb     the sink, its position is advanced by <code>4 * n</code>
+     * @param src    the values
+     * @param offset index of the first value in <code>src</code>
+     * @param n      number of values to write
+     */
+    public static void writeInt32Array(ByteBuffer bb, int[] src, int offset, int n) {
+        if (bb.remaining() < n * 4) {
+            throw new BufferOverflowException();
+        }
+        if (bb.hasArray() && bb.order() == ByteOrder.BIG_ENDIAN) {
+            byte[] a = bb.array();
+            int p = bb.arrayOffset() + bb.position();
+            for (int i = offset; i < offset + n; i++, p += 4) {
+                int v = src[i];
+                a[p] = (byte) (v >>> 24);
+                a[p + 1] = (byte) (v >>> 16);
+                a[p + 2] = (byte) (v >>> 8);
+                a[p + 3] = (byte) v;
+            }
+        } else {
+            bb.asIntBuffer().put(src, offset, n);
+        }
+        bb.position(bb.position() + n * 4);
+    }
+
+    /**
+     * Writes <code>n</code> unsigned 32 bit values in bulk.
+     *
+     * @param bb     the sink, its position is advanced by <code>4 * n</code>
+     * @param src    the values
+     * @param offset index of the first value in <code>src</code>
+     * @param n      number of values to write
+     * @see #writeInt32Array(java.nio.ByteBuffer, int[], int, int)
+     */
+    public static void writeUInt32Array(ByteBuffer bb, long[] src, int offset, int n) {
+        if (bb.remaining() < n * 4) {
+            throw new BufferOverflowException();
+        }
+        int[] chunk = new int[Math.min(n, CHUNK)];
+        for (int done = 0; done < n; ) {
+            int count = Math.min(chunk.length, n - done);
+            for (int i = 0; i < count; i++) {
+                long u = src[offset + done + i];
+                assert u >= 0 && u <= 1L << 32 : "The given long is not in the range of uint32 (" + u + ")";
+                chunk[i] = (int) u;
+            }
+            writeInt32Array(bb, chunk, 0, count);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes <code>n</code> unsigned 64 bit values in bulk.
+     *
+     * @param bb     the sink, its position is advanced by <code>8 * n</code>
+     * @param src    the values
+     * @param offset index of the first value in <code>src</code>
+     * @param n      number of values to write
+     * @see #writeInt32Array(java.nio.ByteBuffer, int[], int, int)
+     */
+    public static void writeUInt64Array(ByteBuffer bb, long[] src, int offset, int n) {
+        if (bb.remaining() < n * 8) {
+            throw new BufferOverflowException();
+        }
+        if (bb.hasArray() && bb.order() == ByteOrder.BIG_ENDIAN) {
+            byte[] a = bb.array();
+            int p = bb.arrayOffset() + bb.position();
+            for (int i = offset; i < offset + n; i++, p += 8) {
+                long v = src[i];
+                assert v >= 0 : "The given long is negative";
+                int high = (int) (v >>> 32);
+                int low = (int) v;
+                a[p] = (byte) (high >>> 24);
+                a[p + 1] = (byte) (high >>> 16);
+                a[p + 2] = (byte) (high >>> 8);
+                a[p + 3] = (byte) high;
+                a[p + 4] = (byte) (low >>> 24);
+                a[p + 5] = (byte) (low >>> 16);
+                a[p + 6] = (byte) (low >>> 8);
+                a[p + 7] = (byte) low;
+            }
+        } else {
+            bb.asLongBuffer().put(src, offset, n);
+        }
+        bb.position(bb.position() + n * 8);
+    }
+
     public static void writeUInt32BE(ByteBuffer bb, long u) {
         assert u >= 0 && u <= 1L << 32 : "The given long is not in the range of uint32 (" + u + ")";
         writeUInt16BE(bb, (int) u & 0xFFFF);
@@ -0,0 +1,92 @@
+package com.coremedia.iso;
+
+import java.util.Arrays;
+
+/**
+ * Decides which boxes are created with their actual implementation and which are skipped. A skipped box
+ * becomes an {@link com.coremedia.iso.boxes.UnknownBox} that knows its type, offset and size (its header)
+ * but never looks at its content. Skipped containers don't create any child boxes. Skipped boxes are
+ * written back unchanged.
+ * <p/>
+ * Profiles are immutable, e.g.
+ * <pre>
+ *     ParseProfile.ALL.topLevel("ftyp", "moov").skip("udta", "meta")   // metadata probing
+ *     ParseProfile.ALL.skip("moof")                                   // fragments by header only
+ * </pre>
+ *
+ * @see ProfiledBoxParser
+ */
+public final class ParseProfile {
+    /**
+     * Skips nothing.
+     */
+    public static final ParseProfile ALL = new ParseProfile(null, new int[0]);
+    /**
+     * Creates only <code>ftyp</code> and <code>moov</code> on the top level and skips user data,
+     * meta data and free space wherever they appear. Suitable to read durations, track and sample
+     * description information.
+     */
+    public static final ParseProfile METADATA = ALL.topLevel("ftyp", "moov").skip("udta", "meta", "free", "skip");
+
+    /**
+     * Sorted, <code>null</code> if all top level boxes are created.
+     */
+    private final int[] topLevel;
+    /**
+     * Sorted.
+     */
+    private final int[] skipped;
+
+    private ParseProfile(int[] topLevel, int[] skipped) {
+        this.topLevel = topLevel;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Gets a profile that creates only the given top level boxes. All other top level boxes are skipped.
+     *
+     * @param types the types of the top level boxes to create
+     * @return a new profile
+     */
+    public ParseProfile topLevel(String... types) {
+        return new ParseProfile(toSortedInts(types), skipped);
+    }
+
+    /**
+     * Gets a profile that additionally skips the given types at any level.
+     *
+     * @param types the types to skip
+     * @return a new profile
+     */
+    public ParseProfile skip(String... types) {
+        int[] more = toSortedInts(types);
+        int[] all = new int[skipped.length + more.length];
+        System.arraycopy(skipped, 0, all, 0, skipped.length);
+        System.arraycopy(more, 0, all, skipped.length, more.length);
+        Arrays.sort(all);
+        return new ParseProfile(topLevel, all);
+    }
+
+    /**
+     * Checks if a box is to be skipped.
+     *
+     * @param type       the box's packed type
+     * @param parentType the parent's packed type or 0 for top level boxes
+     * @return <code>true</code> if the box must not be created with its actual implementation
+     */
+    public boolean isSkipped(int type, int parentType) {
+        if (parentType == 0 && topLevel != null && Arrays.binarySearch(topLevel, type) < 0) {
+            return true;
+        }
+        return Arrays.binarySearch(skipped, type) >= 0;
+    }
+
+    private static int[] toSortedInts(String[] types) {
+        int[] ints = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            ints[i] = FourCC.of(types[i]);
+        }
+        Arrays.sort(ints);
+        return ints;
+    }
+}
@@ -0,0 +1,37 @@
+package com.coremedia.iso;
+
+import com.coremedia.iso.boxes.Box;
+import com.coremedia.iso.boxes.UnknownBox;
+
+/**
+ * A <code>BoxParser</code> that creates {@link UnknownBox}es for all boxes skipped by a {@link ParseProfile}
+ * and leaves all other boxes to another parser. No box class is looked up or instantiated for skipped
+ * boxes and the children of skipped containers are never parsed.
+ */
+public class ProfiledBoxParser extends AbstractBoxParser {
+    private final AbstractBoxParser delegate;
+    private final ParseProfile profile;
+
+    public ProfiledBoxParser(AbstractBoxParser delegate, ParseProfile profile) {
+        this.delegate = delegate;
+        this.profile = profile;
+        setContentRetention(delegate.getContentRetention());
+    }
+
+    @Override
+    public Box createBox(String type, byte[] userType, String parent) {
+        return createBox(FourCC.of(type), userType, FourCC.of(parent));
+    }
+
+    @Override
+    public Box createBox(int type, byte[] userType, int parentType) {
+        if (profile.isSkipped(type, parentType)) {
+            return new UnknownBox(FourCC.toString(type), userType);
+        }
+        return delegate.createBox(type, userType, parentType);
+    }
+
+    public ParseProfile getProfile() {
+        return profile;
+    }
+}
@@ -16,6 +16,7 @@
 package com.coremedia.iso;
 
 import com.coremedia.iso.boxes.Box;
+import com.googlecode.mp4parser.util.LongHashMap;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -23,8 +24,10 @@ import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -79,55 +82,208 @@ public class PropertyBoxParserImpl extends AbstractBoxParser {
 
     @Override
     public Box createBox(String type, byte[] userType, String parent) {
+        BoxFactory factory;
+        if (userType == null && type.length() == 4 && (parent == null || parent.length() <= 4)) {
+            factory = getFactory(FourCC.of(type), type, FourCC.of(parent), parent);
+        } else {
+            factory = getUserTypeFactory(type, userType, parent);
+        }
+        return factory.create(type, userType, parent);
+    }
 
-        invoke(type, userType, parent);
-        String[] param = this.param.get();
-        try {
-            Class<Box> clazz = (Class<Box>) Class.forName(clazzName.get());
-            if (param.length > 0) {
-                Class[] constructorArgsClazz = new Class[param.length];
-                Object[] constructorArgs = new Object[param.length];
-                for (int i = 0; i < param.length; i++) {
-                    if ("userType".equals(param[i])) {
-                        constructorArgs[i] = userType;
-                        constructorArgsClazz[i] = byte[].class;
-                    } else if ("type".equals(param[i])) {
-                        constructorArgs[i] = type;
-                        constructorArgsClazz[i] = String.class;
-                    } else if ("parent".equals(param[i])) {
-                        constructorArgs[i] = parent;
-                        constructorArgsClazz[i] = String.class;
-                    } else {
-                        throw new InternalError("No such param: " + param[i]);
-                    }
-                }
+    @Override
+    public Box createBox(int type, byte[] userType, int parentType) {
+        String typeString = FourCC.toString(type);
+        String parentString = parentType == 0 ? "" : FourCC.toString(parentType);
+        BoxFactory factory;
+        if (userType == null) {
+            factory = getFactory(type, typeString, parentType, parentString);
+        } else {
+            factory = getUserTypeFactory(typeString, userType, parentString);
+        }
+        return factory.create(typeString, userType, parentString);
+    }
 
-                Constructor<Box> constructorObject = clazz.getConstructor(constructorArgsClazz);
-                return constructorObject.newInstance(constructorArgs);
+    private BoxFactory getFactory(int type, String typeString, int parentType, String parentString) {
+        long key = ((long) parentType << 32) | (type & 0xFFFFFFFFL);
+        BoxFactory factory = factories.get(key);
+        if (factory == null) {
+            factory = compile(lookup(typeString, null, parentString));
+            factories.put(key, factory);
+        }
+        return factory;
+    }
+
+    private BoxFactory getUserTypeFactory(String type, byte[] userType, String parent) {
+        if (!"uuid".equals(type)) {
+            // not cached - the lookup rejects it
+            return compile(lookup(type, userType, parent));
+        }
+        UserTypeKey key = new UserTypeKey(parent, userType);
+        BoxFactory factory = userTypeFactories.get(key);
+        if (factory == null) {
+            factory = compile(lookup(type, userType, parent));
+            userTypeFactories.put(new UserTypeKey(parent, userType.clone()), factory);
+        }
+        return factory;
+    }
+
+    /**
+     * Resolves the class and the constructor described by a mapping entry like
+     * <code>com.coremedia.iso.boxes.sampleentry.AudioSampleEntry(type)</code>.
+     */
+    BoxFactory compile(String constructor) {
+        String clazzName;
+        String[] param;
+        if (!constructor.endsWith(")")) {
+            param = EMPTY_STRING_ARRAY;
+            clazzName = constructor;
+        } else {
+            Matcher m = constuctorPattern.matcher(constructor);
+            boolean matches = m.matches();
+            if (!matches) {
+                throw new RuntimeException("Cannot work with that constructor: " + constructor);
+            }
+            clazzName = m.group(1);
+            if (m.group(2).length() == 0) {
+                param = EMPTY_STRING_ARRAY;
             } else {
-                return clazz.newInstance();
+                param = m.group(2).split(",");
             }
-
+        }
+        try {
+            Class<Box> clazz = (Class<Box>) Class.forName(clazzName);
+            int[] params = new int[param.length];
+            Class[] constructorArgsClazz = new Class[param.length];
+            for (int i = 0; i < param.length; i++) {
+                if ("userType".equals(param[i])) {
+                    params[i] = BoxFactory.USER_TYPE;
+                    constructorArgsClazz[i] = byte[].class;
+                } else if ("type".equals(param[i])) {
+                    params[i] = BoxFactory.TYPE;
+                    constructorArgsClazz[i] = String.class;
+                } else if ("parent".equals(param[i])) {
+                    params[i] = BoxFactory.PARENT;
+                    constructorArgsClazz[i] = String.class;
+                } else {
+                    throw new InternalError("No such param: " + param[i]);
+                }
+            }
+            return new BoxFactory(clazz.getConstructor(constructorArgsClazz), params);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
-        } catch (InstantiationException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
 
+    static final class UserTypeKey {
+        final String parent;
+        final byte[] userType;
+        final int hash;
 
-    StringBuilder buildLookupStrings = new StringBuilder();
+        UserTypeKey(String parent, byte[] userType) {
+            this.parent = parent;
+            this.userType = userType;
+            this.hash = 31 * (parent == null ? 0 : parent.hashCode()) + Arrays.hashCode(userType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof UserTypeKey)) {
+                return false;
+            }
+            UserTypeKey that = (UserTypeKey) o;
+            return (parent == null ? that.parent == null : parent.equals(that.parent)) &&
+                    Arrays.equals(userType, that.userType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A pre-resolved constructor of a box class together with the description of its arguments.
+     */
+    static class BoxFactory {
+        static final int TYPE = 0;
+        static final int USER_TYPE = 1;
+        static final int PARENT = 2;
+        static final Object[] NO_ARGS = new Object[0];
+
+        final Constructor<Box> constructor;
+        final int[] params;
+
+        BoxFactory(Constructor<Box> constructor, int[] params) {
+            this.constructor = constructor;
+            this.params = params;
+        }
+
+        Box create(String type, byte[] userType, String parent) {
+            Object[] constructorArgs = NO_ARGS;
+            if (params.length > 0) {
+                constructorArgs = new Object[params.length];
+                for (int i = 0; i < params.length; i++) {
+                    switch (params[i]) {
+                        case TYPE:
+                            constructorArgs[i] = type;
+                            break;
+                        case USER_TYPE:
+                            constructorArgs[i] = userType;
+                            break;
+                        default:
+                            constructorArgs[i] = parent;
+                    }
+                }
+            }
+            try {
+                return constructor.newInstance(constructorArgs);
+            } catch (InstantiationException e) {
+                throw new RuntimeException(e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+
+    /**
+     * Factories of boxes without user type by parent and box type.
+     */
+    LongHashMap<BoxFactory> factories = new LongHashMap<BoxFactory>();
+    /**
+     * Factories of <code>uuid</code> boxes by parent and user type.
+     */
+    ConcurrentHashMap<UserTypeKey, BoxFactory> userTypeFactories = new ConcurrentHashMap<UserTypeKey, BoxFactory>();
     ThreadLocal<String> clazzName = new ThreadLocal<String>();
     ThreadLocal<String[]> param = new ThreadLocal<String[]>();
     static String[] EMPTY_STRING_ARRAY = new String[0];
 
+    /**
+     * Resolves the class and constructor parameters for the given box and stores them in thread locals.
+     *
+     * @deprecated {@link #createBox(String, byte[], String)} doesn't need this anymore
+     */
+    @Deprecated
     public void invoke(String type, byte[] userType, String parent) {
+        BoxFactory factory = compile(lookup(type, userType, parent));
+        clazzName.set(factory.constructor.getDeclaringClass().getName());
+        String[] param = new String[factory.params.length];
+        for (int i = 0; i < param.length; i++) {
+            param[i] = factory.params[i] == BoxFactory.TYPE ? "type" : factory.params[i] == BoxFactory.USER_TYPE ? "userType" : "parent";
+        }
+        this.param.set(param);
+    }
+
+    /**
+     * Looks up the mapping entry for the given box. Plain type entries take precedence over
+     * <code>parent-type</code> entries, the <code>default</code> entry is the fallback.
+     */
+    String lookup(String type, byte[] userType, String parent) {
         String constructor;
         if (userType != null) {
             if (!"uuid".equals((type))) {
@@ -143,10 +299,7 @@ public class PropertyBoxParserImpl extends AbstractBoxParser {
         } else {
             constructor = mapping.getProperty((type));
             if (constructor == null) {
-                String lookup = buildLookupStrings.append(parent).append('-').append(type).toString();
-                buildLookupStrings.setLength(0);
-                constructor = mapping.getProperty(lookup);
-
+                constructor = mapping.getProperty(parent + '-' + type);
             }
         }
         if (constructor == null) {
@@ -155,22 +308,6 @@ public class PropertyBoxParserImpl extends AbstractBoxParser {
         if (constructor == null) {
             throw new RuntimeException("No box object found for " + type);
         }
-        if (!constructor.endsWith(")")) {
-            param.set( EMPTY_STRING_ARRAY);
-            clazzName.set(constructor);
-        } else {
-            Matcher m = constuctorPattern.matcher(constructor);
-            boolean matches = m.matches();
-            if (!matches) {
-                throw new RuntimeException("Cannot work with that constructor: " + constructor);
-            }
-            clazzName.set( m.group(1));
-            if (m.group(2).length() == 0) {
-                param.set(EMPTY_STRING_ARRAY);
-            } else {
-                param.set(m.group(2).length() > 0 ? m.group(2).split(",") : new String[]{});
-            }
-        }
-
+        return constructor;
     }
 }
@@ -49,26 +49,32 @@ public class AlbumBox extends AbstractFullBox {
      * @return the language code
      */
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getAlbumTitle() {
+        ensureParsed();
         return albumTitle;
     }
 
     public int getTrackNumber() {
+        ensureParsed();
         return trackNumber;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setAlbumTitle(String albumTitle) {
+        ensureParsed();
         this.albumTitle = albumTitle;
     }
 
     public void setTrackNumber(int trackNumber) {
+        ensureParsed();
         this.trackNumber = trackNumber;
     }
 
@@ -101,6 +107,7 @@ public class AlbumBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder buffer = new StringBuilder();
         buffer.append("AlbumBox[language=").append(getLanguage()).append(";");
         buffer.append("albumTitle=").append(getAlbumTitle());
@@ -49,6 +49,7 @@ public class AuthorBox extends AbstractFullBox {
      * @return the language code
      */
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
@@ -58,14 +59,17 @@ public class AuthorBox extends AbstractFullBox {
      * @return the author
      */
     public String getAuthor() {
+        ensureParsed();
         return author;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setAuthor(String author) {
+        ensureParsed();
         this.author = author;
     }
 
@@ -90,6 +94,7 @@ public class AuthorBox extends AbstractFullBox {
 
 
     public String toString() {
+        ensureParsed();
         return "AuthorBox[language=" + getLanguage() + ";author=" + getAuthor() + "]";
     }
 }
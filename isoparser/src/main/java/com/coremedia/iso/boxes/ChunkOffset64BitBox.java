@@ -2,8 +2,11 @@ package com.coremedia.iso.boxes;
 
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
+import com.googlecode.mp4parser.util.ChannelHelper;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -13,6 +16,11 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  */
 public class ChunkOffset64BitBox extends ChunkOffsetBox {
     public static final String TYPE = "co64";
+    /**
+     * Read-only view of the parsed offsets. The <code>long[]</code> is only created when the offsets are
+     * requested as array, from then on it is the authoritative representation.
+     */
+    private ByteBuffer chunkOffsetsView;
     private long[] chunkOffsets;
 
     public ChunkOffset64BitBox() {
@@ -20,36 +28,81 @@ public class ChunkOffset64BitBox extends ChunkOffsetBox {
     }
 
     @Override
-    public long[] getChunkOffsets() {
+    public synchronized long[] getChunkOffsets() {
+        ensureParsed();
+        if (chunkOffsets == null && chunkOffsetsView != null) {
+            long[] chunkOffsets = new long[chunkOffsetsView.limit() / 8];
+            IsoTypeReader.readUInt64Array(chunkOffsetsView.duplicate(), chunkOffsets, 0, chunkOffsets.length);
+            this.chunkOffsets = chunkOffsets;
+        }
         return chunkOffsets;
     }
 
     @Override
-    public void setChunkOffsets(long[] chunkOffsets) {
+    public int getChunkCount() {
+        ensureParsed();
+        long[] chunkOffsets = this.chunkOffsets;
+        return chunkOffsets != null ? chunkOffsets.length : chunkOffsetsView.limit() / 8;
+    }
+
+    @Override
+    public long getChunkOffset(int index) {
+        ensureParsed();
+        long[] chunkOffsets = this.chunkOffsets;
+        return chunkOffsets != null ? chunkOffsets[index] : chunkOffsetsView.getLong(index * 8);
+    }
+
+    @Override
+    public synchronized void setChunkOffsets(long[] chunkOffsets) {
+        ensureParsed();
         this.chunkOffsets = chunkOffsets;
+        this.chunkOffsetsView = null;
     }
 
     @Override
     protected long getContentSize() {
-        return 8 + 8 * chunkOffsets.length;
+        return 8 + 8 * getChunkCount();
+    }
+
+    @Override
+    protected long getRetainedContentBytes() {
+        ByteBuffer chunkOffsetsView = this.chunkOffsetsView;
+        return chunkOffsetsView != null ? chunkOffsetsView.limit() : 0;
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
         int entryCount = l2i(IsoTypeReader.readUInt32(content));
-        chunkOffsets = new long[entryCount];
-        for (int i = 0; i < entryCount; i++) {
-            chunkOffsets[i] = IsoTypeReader.readUInt64(content);
-        }
+        chunkOffsetsView = retain(((ByteBuffer) content.slice().limit(entryCount * 8)).asReadOnlyBuffer());
+        content.position(content.position() + entryCount * 8);
+        chunkOffsets = null;
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsets.length);
-        for (long chunkOffset : chunkOffsets) {
-            IsoTypeWriter.writeUInt64(byteBuffer, chunkOffset);
+        if (chunkOffsets == null) {
+            IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsetsView.limit() / 8);
+            byteBuffer.put(chunkOffsetsView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsets.length);
+            IsoTypeWriter.writeUInt64Array(byteBuffer, chunkOffsets, 0, chunkOffsets.length);
+        }
+    }
+
+    @Override
+    protected void writeContent(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        ByteBuffer chunkOffsetsView = this.chunkOffsetsView;
+        long[] chunkOffsets = this.chunkOffsets;
+        writeVersionAndFlags(buffer);
+        if (chunkOffsets == null) {
+            IsoTypeWriter.writeUInt32(buffer, chunkOffsetsView.limit() / 8);
+            flush(os, buffer);
+            ChannelHelper.writeFully(os, chunkOffsetsView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(buffer, chunkOffsets.length);
+            writeUInt64Array(os, buffer, chunkOffsets);
         }
     }
 
@@ -15,8 +15,19 @@ public abstract class ChunkOffsetBox extends AbstractFullBox {
 
     public abstract void setChunkOffsets(long[] chunkOffsets);
 
+    public int getChunkCount() {
+        ensureParsed();
+        return getChunkOffsets().length;
+    }
+
+    public long getChunkOffset(int index) {
+        ensureParsed();
+        return getChunkOffsets()[index];
+    }
+
     public String toString() {
-        return this.getClass().getSimpleName() + "[entryCount=" + getChunkOffsets().length + "]";
+        ensureParsed();
+        return this.getClass().getSimpleName() + "[entryCount=" + getChunkCount() + "]";
     }
 
 }
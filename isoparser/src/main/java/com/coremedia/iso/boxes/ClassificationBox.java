@@ -42,34 +42,42 @@ public class ClassificationBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getClassificationEntity() {
+        ensureParsed();
         return classificationEntity;
     }
 
     public int getClassificationTableIndex() {
+        ensureParsed();
         return classificationTableIndex;
     }
 
     public String getClassificationInfo() {
+        ensureParsed();
         return classificationInfo;
     }
 
     public void setClassificationEntity(String classificationEntity) {
+        ensureParsed();
         this.classificationEntity = classificationEntity;
     }
 
     public void setClassificationTableIndex(int classificationTableIndex) {
+        ensureParsed();
         this.classificationTableIndex = classificationTableIndex;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setClassificationInfo(String classificationInfo) {
+        ensureParsed();
         this.classificationInfo = classificationInfo;
     }
 
@@ -99,6 +107,7 @@ public class ClassificationBox extends AbstractFullBox {
 
 
     public String toString() {
+        ensureParsed();
         StringBuilder buffer = new StringBuilder();
         buffer.append("ClassificationBox[language=").append(getLanguage());
         buffer.append("classificationEntity=").append(getClassificationEntity());
@@ -64,42 +64,52 @@ public class CompositionShiftLeastGreatestAtom extends AbstractFullBox {
 
 
     public int getCompositionOffsetToDisplayOffsetShift() {
+        ensureParsed();
         return compositionOffsetToDisplayOffsetShift;
     }
 
     public void setCompositionOffsetToDisplayOffsetShift(int compositionOffsetToDisplayOffsetShift) {
+        ensureParsed();
         this.compositionOffsetToDisplayOffsetShift = compositionOffsetToDisplayOffsetShift;
     }
 
     public int getLeastDisplayOffset() {
+        ensureParsed();
         return leastDisplayOffset;
     }
 
     public void setLeastDisplayOffset(int leastDisplayOffset) {
+        ensureParsed();
         this.leastDisplayOffset = leastDisplayOffset;
     }
 
     public int getGreatestDisplayOffset() {
+        ensureParsed();
         return greatestDisplayOffset;
     }
 
     public void setGreatestDisplayOffset(int greatestDisplayOffset) {
+        ensureParsed();
         this.greatestDisplayOffset = greatestDisplayOffset;
     }
 
     public int getDisplayStartTime() {
+        ensureParsed();
         return displayStartTime;
     }
 
     public void setDisplayStartTime(int displayStartTime) {
+        ensureParsed();
         this.displayStartTime = displayStartTime;
     }
 
     public int getDisplayEndTime() {
+        ensureParsed();
         return displayEndTime;
     }
 
     public void setDisplayEndTime(int displayEndTime) {
+        ensureParsed();
         this.displayEndTime = displayEndTime;
     }
 }
@@ -44,45 +44,107 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
 public class CompositionTimeToSample extends AbstractFullBox {
     public static final String TYPE = "ctts";
 
-    List<Entry> entries = Collections.emptyList();
+    volatile List<Entry> entries = Collections.emptyList();
+    /**
+     * Parsed table. The entries are only created when {@link #getEntries()} is called, from then on they
+     * are the authoritative representation (the arrays are kept for readers that haven't seen the
+     * entries yet).
+     * <p/>
+     * Readers that don't lock read the arrays before the entries, {@link #setEntries(java.util.List)} sets
+     * the entries before it drops the arrays. A reader that sees no entries has therefore seen the arrays.
+     */
+    private volatile int[] counts;
+    private volatile int[] offsets;
 
     public CompositionTimeToSample() {
         super(TYPE);
     }
 
     protected long getContentSize() {
-        return 8 + 8 * entries.size();
+        return 8 + 8 * getEntryCount();
     }
 
-    public List<Entry> getEntries() {
+    public synchronized List<Entry> getEntries() {
+        ensureParsed();
+        if (entries == null) {
+            List<Entry> entries = new ArrayList<Entry>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                entries.add(new Entry(counts[i], offsets[i]));
+            }
+            this.entries = entries;
+        }
         return entries;
     }
 
-    public void setEntries(List<Entry> entries) {
+    public synchronized void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
+        this.counts = null;
+        this.offsets = null;
+    }
+
+    public int getEntryCount() {
+        ensureParsed();
+        int[] counts = this.counts;
+        List<Entry> entries = this.entries;
+        return entries == null ? counts.length : entries.size();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return number of consecutive samples with the entry's offset
+     */
+    public int getSampleCount(int index) {
+        ensureParsed();
+        int[] counts = this.counts;
+        List<Entry> entries = this.entries;
+        return entries == null ? counts[index] : entries.get(index).getCount();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return the composition time offset of the entry's samples
+     */
+    public int getSampleOffset(int index) {
+        ensureParsed();
+        int[] offsets = this.offsets;
+        List<Entry> entries = this.entries;
+        return entries == null ? offsets[index] : entries.get(index).getOffset();
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
         int numberOfEntries = l2i(IsoTypeReader.readUInt32(content));
-        entries = new ArrayList<Entry>(numberOfEntries);
+        counts = new int[numberOfEntries];
+        offsets = new int[numberOfEntries];
         for (int i = 0; i < numberOfEntries; i++) {
-            Entry e = new Entry(l2i(IsoTypeReader.readUInt32(content)), content.getInt());
-            entries.add(e);
+            counts[i] = l2i(IsoTypeReader.readUInt32(content));
+            offsets[i] = content.getInt();
         }
+        entries = null;
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
+        int[] counts = this.counts;
+        int[] offsets = this.offsets;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            byteBuffer.putInt(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                byteBuffer.putInt(counts[i]);
+                byteBuffer.putInt(offsets[i]);
+            }
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
 
-        for (Entry entry : entries) {
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getCount());
-            byteBuffer.putInt(entry.getOffset());
+            for (Entry entry : entries) {
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getCount());
+                byteBuffer.putInt(entry.getOffset());
+            }
         }
-
     }
 
 
@@ -44,18 +44,22 @@ public class CopyrightBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getCopyright() {
+        ensureParsed();
         return copyright;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setCopyright(String copyright) {
+        ensureParsed();
         this.copyright = copyright;
     }
 
@@ -79,6 +83,7 @@ public class CopyrightBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "CopyrightBox[language=" + getLanguage() + ";copyright=" + getCopyright() + "]";
     }
 
@@ -49,6 +49,7 @@ public class DataEntryUrlBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "DataEntryUrlBox[]";
     }
 }
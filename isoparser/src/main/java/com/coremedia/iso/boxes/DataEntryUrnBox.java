@@ -38,10 +38,12 @@ public class DataEntryUrnBox extends AbstractFullBox {
     }
 
     public String getName() {
+        ensureParsed();
         return name;
     }
 
     public String getLocation() {
+        ensureParsed();
         return location;
     }
 
@@ -65,6 +67,7 @@ public class DataEntryUrnBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "DataEntryUrlBox[name=" + getName() + ";location=" + getLocation() + "]";
     }
 }
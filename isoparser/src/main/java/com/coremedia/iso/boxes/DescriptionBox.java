@@ -38,10 +38,12 @@ public class DescriptionBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getDescription() {
+        ensureParsed();
         return description;
     }
 
@@ -65,14 +67,17 @@ public class DescriptionBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "DescriptionBox[language=" + getLanguage() + ";description=" + getDescription() + "]";
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setDescription(String description) {
+        ensureParsed();
         this.description = description;
     }
 }
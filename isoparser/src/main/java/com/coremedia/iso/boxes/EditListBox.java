@@ -66,10 +66,12 @@ public class EditListBox extends AbstractFullBox {
 
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -106,6 +108,7 @@ public class EditListBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "EditListBox{" +
                 "entries=" + entries +
                 '}';
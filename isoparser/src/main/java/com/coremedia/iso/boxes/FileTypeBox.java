@@ -83,6 +83,7 @@ public class FileTypeBox extends AbstractBox {
      * @return the brand identifier
      */
     public String getMajorBrand() {
+        ensureParsed();
         return majorBrand;
     }
 
@@ -92,6 +93,7 @@ public class FileTypeBox extends AbstractBox {
      * @param majorBrand the new major brand
      */
     public void setMajorBrand(String majorBrand) {
+        ensureParsed();
         this.majorBrand = majorBrand;
     }
 
@@ -101,6 +103,7 @@ public class FileTypeBox extends AbstractBox {
      * @param minorVersion the version number of the major brand
      */
     public void setMinorVersion(long minorVersion) {
+        ensureParsed();
         this.minorVersion = minorVersion;
     }
 
@@ -111,6 +114,7 @@ public class FileTypeBox extends AbstractBox {
      * @see FileTypeBox#getMajorBrand()
      */
     public long getMinorVersion() {
+        ensureParsed();
         return minorVersion;
     }
 
@@ -120,10 +124,12 @@ public class FileTypeBox extends AbstractBox {
      * @return the compatible brands
      */
     public List<String> getCompatibleBrands() {
+        ensureParsed();
         return compatibleBrands;
     }
 
     public void setCompatibleBrands(List<String> compatibleBrands) {
+        ensureParsed();
         this.compatibleBrands = compatibleBrands;
     }
 
@@ -40,10 +40,12 @@ public class FreeSpaceBox extends AbstractBox {
     }
 
     public void setData(byte[] data) {
+        ensureParsed();
         this.data = data;
     }
 
     public byte[] getData() {
+        ensureParsed();
         return data;
     }
 
@@ -59,6 +61,7 @@ public class FreeSpaceBox extends AbstractBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "FreeSpaceBox[size=" + data.length + ";type=" + getType() + "]";
     }
 }
@@ -40,18 +40,22 @@ public class GenreBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getGenre() {
+        ensureParsed();
         return genre;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setGenre(String genre) {
+        ensureParsed();
         this.genre = genre;
     }
 
@@ -75,6 +79,7 @@ public class GenreBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "GenreBox[language=" + getLanguage() + ";genre=" + getGenre() + "]";
     }
 
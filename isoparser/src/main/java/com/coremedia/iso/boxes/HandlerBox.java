@@ -76,6 +76,7 @@ public class HandlerBox extends AbstractFullBox {
     }
 
     public String getHandlerType() {
+        ensureParsed();
         return handlerType;
     }
 
@@ -85,18 +86,22 @@ public class HandlerBox extends AbstractFullBox {
      * @param name the new human readable name
      */
     public void setName(String name) {
+        ensureParsed();
         this.name = name;
     }
 
     public void setHandlerType(String handlerType) {
+        ensureParsed();
         this.handlerType = handlerType;
     }
 
     public String getName() {
+        ensureParsed();
         return name;
     }
 
     public String getHumanReadableTrackType() {
+        ensureParsed();
         return readableTypes.get(handlerType) != null ? readableTypes.get(handlerType) : "Unknown Handler Type";
     }
 
@@ -147,6 +152,7 @@ public class HandlerBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "HandlerBox[handlerType=" + getHandlerType() + ";name=" + getName() + "]";
     }
 }
@@ -40,18 +40,22 @@ public class HintMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public int getMaxPduSize() {
+        ensureParsed();
         return maxPduSize;
     }
 
     public int getAvgPduSize() {
+        ensureParsed();
         return avgPduSize;
     }
 
     public long getMaxBitrate() {
+        ensureParsed();
         return maxBitrate;
     }
 
     public long getAvgBitrate() {
+        ensureParsed();
         return avgBitrate;
     }
 
@@ -82,6 +86,7 @@ public class HintMediaHeaderBox extends AbstractMediaHeaderBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "HintMediaHeaderBox{" +
                 "maxPduSize=" + maxPduSize +
                 ", avgPduSize=" + avgPduSize +
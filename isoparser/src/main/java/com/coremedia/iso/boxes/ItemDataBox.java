@@ -17,10 +17,12 @@ public class ItemDataBox extends AbstractBox {
     }
 
     public ByteBuffer getData() {
+        ensureParsed();
         return data;
     }
 
     public void setData(ByteBuffer data) {
+        ensureParsed();
         this.data = data;
     }
 
@@ -29,10 +31,15 @@ public class ItemDataBox extends AbstractBox {
         return data.limit();
     }
 
+    @Override
+    protected long getRetainedContentBytes() {
+        return data != null ? data.limit() : 0;
+    }
+
 
     @Override
     public void _parseDetails(ByteBuffer content) {
-        data = content.slice();
+        data = retain(content.slice());
         content.position(content.position() + content.remaining());
     }
 
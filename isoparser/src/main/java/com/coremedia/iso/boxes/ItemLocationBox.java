@@ -117,47 +117,58 @@ public class ItemLocationBox extends AbstractFullBox {
 
 
     public int getOffsetSize() {
+        ensureParsed();
         return offsetSize;
     }
 
     public void setOffsetSize(int offsetSize) {
+        ensureParsed();
         this.offsetSize = offsetSize;
     }
 
     public int getLengthSize() {
+        ensureParsed();
         return lengthSize;
     }
 
     public void setLengthSize(int lengthSize) {
+        ensureParsed();
         this.lengthSize = lengthSize;
     }
 
     public int getBaseOffsetSize() {
+        ensureParsed();
         return baseOffsetSize;
     }
 
     public void setBaseOffsetSize(int baseOffsetSize) {
+        ensureParsed();
         this.baseOffsetSize = baseOffsetSize;
     }
 
     public int getIndexSize() {
+        ensureParsed();
         return indexSize;
     }
 
     public void setIndexSize(int indexSize) {
+        ensureParsed();
         this.indexSize = indexSize;
     }
 
     public List<Item> getItems() {
+        ensureParsed();
         return items;
     }
 
     public void setItems(List<Item> items) {
+        ensureParsed();
         this.items = items;
     }
 
 
     public Item createItem(int itemId, int constructionMethod, int dataReferenceIndex, long baseOffset, List<Extent> extents) {
+        ensureParsed();
         return new Item(itemId, constructionMethod, dataReferenceIndex, baseOffset, extents);
     }
 
@@ -283,6 +294,7 @@ public class ItemLocationBox extends AbstractFullBox {
 
 
     public Extent createExtent(long extentOffset, long extentLength, long extentIndex) {
+        ensureParsed();
         return new Extent(extentOffset, extentLength, extentIndex);
     }
 
@@ -38,18 +38,22 @@ public class KeywordsBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String[] getKeywords() {
+        ensureParsed();
         return keywords;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setKeywords(String[] keywords) {
+        ensureParsed();
         this.keywords = keywords;
     }
 
@@ -85,6 +89,7 @@ public class KeywordsBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuffer buffer = new StringBuffer();
         buffer.append("KeywordsBox[language=").append(getLanguage());
         for (int i = 0; i < keywords.length; i++) {
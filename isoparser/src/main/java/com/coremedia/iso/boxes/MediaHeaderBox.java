@@ -44,22 +44,27 @@ public class MediaHeaderBox extends AbstractFullBox {
     }
 
     public Date getCreationTime() {
+        ensureParsed();
         return creationTime;
     }
 
     public Date getModificationTime() {
+        ensureParsed();
         return modificationTime;
     }
 
     public long getTimescale() {
+        ensureParsed();
         return timescale;
     }
 
     public long getDuration() {
+        ensureParsed();
         return duration;
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
@@ -77,22 +82,27 @@ public class MediaHeaderBox extends AbstractFullBox {
     }
 
     public void setCreationTime(Date creationTime) {
+        ensureParsed();
         this.creationTime = creationTime;
     }
 
     public void setModificationTime(Date modificationTime) {
+        ensureParsed();
         this.modificationTime = modificationTime;
     }
 
     public void setTimescale(long timescale) {
+        ensureParsed();
         this.timescale = timescale;
     }
 
     public void setDuration(long duration) {
+        ensureParsed();
         this.duration = duration;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
@@ -116,6 +126,7 @@ public class MediaHeaderBox extends AbstractFullBox {
 
 
     public String toString() {
+        ensureParsed();
         StringBuilder result = new StringBuilder();
         result.append("MediaHeaderBox[");
         result.append("creationTime=").append(getCreationTime());
@@ -61,34 +61,42 @@ public class MovieHeaderBox extends AbstractFullBox {
     }
 
     public Date getCreationTime() {
+        ensureParsed();
         return creationTime;
     }
 
     public Date getModificationTime() {
+        ensureParsed();
         return modificationTime;
     }
 
     public long getTimescale() {
+        ensureParsed();
         return timescale;
     }
 
     public long getDuration() {
+        ensureParsed();
         return duration;
     }
 
     public double getRate() {
+        ensureParsed();
         return rate;
     }
 
     public float getVolume() {
+        ensureParsed();
         return volume;
     }
 
     public Matrix getMatrix() {
+        ensureParsed();
         return matrix;
     }
 
     public long getNextTrackId() {
+        ensureParsed();
         return nextTrackId;
     }
 
@@ -137,6 +145,7 @@ public class MovieHeaderBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder result = new StringBuilder();
         result.append("MovieHeaderBox[");
         result.append("creationTime=").append(getCreationTime());
@@ -193,6 +202,7 @@ public class MovieHeaderBox extends AbstractFullBox {
 
 
     public void setCreationTime(Date creationTime) {
+        ensureParsed();
         this.creationTime = creationTime;
         if (DateHelper.convert(creationTime) >= (1l << 32)) {
             setVersion(1);
@@ -201,6 +211,7 @@ public class MovieHeaderBox extends AbstractFullBox {
     }
 
     public void setModificationTime(Date modificationTime) {
+        ensureParsed();
         this.modificationTime = modificationTime;
         if (DateHelper.convert(modificationTime) >= (1l << 32)) {
             setVersion(1);
@@ -209,10 +220,12 @@ public class MovieHeaderBox extends AbstractFullBox {
     }
 
     public void setTimescale(long timescale) {
+        ensureParsed();
         this.timescale = timescale;
     }
 
     public void setDuration(long duration) {
+        ensureParsed();
         this.duration = duration;
         if (duration >= (1l << 32)) {
             setVersion(1);
@@ -220,66 +233,82 @@ public class MovieHeaderBox extends AbstractFullBox {
     }
 
     public void setRate(double rate) {
+        ensureParsed();
         this.rate = rate;
     }
 
     public void setVolume(float volume) {
+        ensureParsed();
         this.volume = volume;
     }
 
     public void setMatrix(Matrix matrix) {
+        ensureParsed();
         this.matrix = matrix;
     }
 
     public void setNextTrackId(long nextTrackId) {
+        ensureParsed();
         this.nextTrackId = nextTrackId;
     }
 
     public int getPreviewTime() {
+        ensureParsed();
         return previewTime;
     }
 
     public void setPreviewTime(int previewTime) {
+        ensureParsed();
         this.previewTime = previewTime;
     }
 
     public int getPreviewDuration() {
+        ensureParsed();
         return previewDuration;
     }
 
     public void setPreviewDuration(int previewDuration) {
+        ensureParsed();
         this.previewDuration = previewDuration;
     }
 
     public int getPosterTime() {
+        ensureParsed();
         return posterTime;
     }
 
     public void setPosterTime(int posterTime) {
+        ensureParsed();
         this.posterTime = posterTime;
     }
 
     public int getSelectionTime() {
+        ensureParsed();
         return selectionTime;
     }
 
     public void setSelectionTime(int selectionTime) {
+        ensureParsed();
         this.selectionTime = selectionTime;
     }
 
     public int getSelectionDuration() {
+        ensureParsed();
         return selectionDuration;
     }
 
     public void setSelectionDuration(int selectionDuration) {
+        ensureParsed();
         this.selectionDuration = selectionDuration;
     }
 
     public int getCurrentTime() {
+        ensureParsed();
         return currentTime;
     }
 
     public void setCurrentTime(int currentTime) {
+        ensureParsed();
         this.currentTime = currentTime;
     }
 }
@@ -44,26 +44,32 @@ public final class OmaDrmAccessUnitFormatBox extends AbstractFullBox {
     }
 
     public boolean isSelectiveEncryption() {
+        ensureParsed();
         return selectiveEncryption;
     }
 
     public int getKeyIndicatorLength() {
+        ensureParsed();
         return keyIndicatorLength;
     }
 
     public int getInitVectorLength() {
+        ensureParsed();
         return initVectorLength;
     }
 
     public void setInitVectorLength(int initVectorLength) {
+        ensureParsed();
         this.initVectorLength = initVectorLength;
     }
 
     public void setKeyIndicatorLength(int keyIndicatorLength) {
+        ensureParsed();
         this.keyIndicatorLength = keyIndicatorLength;
     }
 
     public void setAllBits(byte allBits) {
+        ensureParsed();
         this.allBits = allBits;
         selectiveEncryption = (allBits & 0x80) == 0x80;
     }
@@ -40,11 +40,13 @@ public class OriginalFormatBox extends AbstractBox {
     }
 
     public String getDataFormat() {
+        ensureParsed();
         return dataFormat;
     }
 
 
     public void setDataFormat(String dataFormat) {
+        ensureParsed();
         assert dataFormat.length() == 4;
         this.dataFormat = dataFormat;
     }
@@ -65,6 +67,7 @@ public class OriginalFormatBox extends AbstractBox {
 
 
     public String toString() {
+        ensureParsed();
         return "OriginalFormatBox[dataFormat=" + getDataFormat() + "]";
     }
 }
@@ -39,18 +39,22 @@ public class PerformerBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getPerformer() {
+        ensureParsed();
         return performer;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setPerformer(String performer) {
+        ensureParsed();
         this.performer = performer;
     }
 
@@ -74,6 +78,7 @@ public class PerformerBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "PerformerBox[language=" + getLanguage() + ";performer=" + getPerformer() + "]";
     }
 }
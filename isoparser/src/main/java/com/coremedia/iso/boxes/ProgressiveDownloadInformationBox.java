@@ -36,10 +36,12 @@ public class ProgressiveDownloadInformationBox extends AbstractFullBox {
     }
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -110,6 +112,7 @@ public class ProgressiveDownloadInformationBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "ProgressiveDownloadInfoBox{" +
                 "entries=" + entries +
                 '}';
@@ -44,22 +44,27 @@ public class RatingBox extends AbstractFullBox {
 
 
     public void setRatingEntity(String ratingEntity) {
+        ensureParsed();
         this.ratingEntity = ratingEntity;
     }
 
     public void setRatingCriteria(String ratingCriteria) {
+        ensureParsed();
         this.ratingCriteria = ratingCriteria;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setRatingInfo(String ratingInfo) {
+        ensureParsed();
         this.ratingInfo = ratingInfo;
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
@@ -71,6 +76,7 @@ public class RatingBox extends AbstractFullBox {
      * @return the rating organization
      */
     public String getRatingEntity() {
+        ensureParsed();
         return ratingEntity;
     }
 
@@ -81,10 +87,12 @@ public class RatingBox extends AbstractFullBox {
      * @return the actual rating
      */
     public String getRatingCriteria() {
+        ensureParsed();
         return ratingCriteria;
     }
 
     public String getRatingInfo() {
+        ensureParsed();
         return ratingInfo;
     }
 
@@ -113,6 +121,7 @@ public class RatingBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder buffer = new StringBuilder();
         buffer.append("RatingBox[language=").append(getLanguage());
         buffer.append("ratingEntity=").append(getRatingEntity());
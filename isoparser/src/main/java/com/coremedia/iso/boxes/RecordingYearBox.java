@@ -40,10 +40,12 @@ public class RecordingYearBox extends AbstractFullBox {
     }
 
     public int getRecordingYear() {
+        ensureParsed();
         return recordingYear;
     }
 
     public void setRecordingYear(int recordingYear) {
+        ensureParsed();
         this.recordingYear = recordingYear;
     }
 
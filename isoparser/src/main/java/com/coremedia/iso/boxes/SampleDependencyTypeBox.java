@@ -16,7 +16,6 @@
 
 package com.coremedia.iso.boxes;
 
-import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
 import com.googlecode.mp4parser.AbstractFullBox;
 
@@ -40,7 +39,16 @@ import java.util.List;
 public class SampleDependencyTypeBox extends AbstractFullBox {
     public static final String TYPE = "sdtp";
 
-    private List<Entry> entries = new ArrayList<Entry>();
+    private volatile List<Entry> entries = new ArrayList<Entry>();
+    /**
+     * One byte per sample as parsed. The entries are only created when {@link #getEntries()} is called,
+     * from then on they are the authoritative representation (the array is kept for readers that haven't
+     * seen the entries yet).
+     * <p/>
+     * Readers that don't lock read the array before the entries, {@link #setEntries(java.util.List)} sets
+     * the entries before it drops the array. A reader that sees no entries has therefore seen the array.
+     */
+    private volatile byte[] values;
 
     public static class Entry {
 
@@ -117,38 +125,83 @@ public class SampleDependencyTypeBox extends AbstractFullBox {
 
     @Override
     protected long getContentSize() {
-        return 4 + entries.size();
+        return 4 + getSampleCount();
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        for (Entry entry : entries) {
-            IsoTypeWriter.writeUInt8(byteBuffer, entry.value);
+        byte[] values = this.values;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            byteBuffer.put(values);
+        } else {
+            for (Entry entry : entries) {
+                IsoTypeWriter.writeUInt8(byteBuffer, entry.value);
+            }
         }
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
-        while (content.remaining() > 0) {
-            entries.add(new Entry(IsoTypeReader.readUInt8(content)));
-        }
+        values = new byte[content.remaining()];
+        content.get(values);
+        entries = null;
     }
 
-    public List<Entry> getEntries() {
+    public synchronized List<Entry> getEntries() {
+        ensureParsed();
+        if (entries == null) {
+            List<Entry> entries = new ArrayList<Entry>(values.length);
+            for (byte value : values) {
+                entries.add(new Entry(value & 0xFF));
+            }
+            this.entries = entries;
+        }
         return entries;
     }
 
-    public void setEntries(List<Entry> entries) {
+    public synchronized void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
+        this.values = null;
+    }
+
+    public int getSampleCount() {
+        ensureParsed();
+        byte[] values = this.values;
+        List<Entry> entries = this.entries;
+        return entries == null ? values.length : entries.size();
+    }
+
+    public int getSampleDependsOn(int index) {
+        ensureParsed();
+        byte[] values = this.values;
+        List<Entry> entries = this.entries;
+        return entries == null ? (values[index] >> 4) & 0x03 : entries.get(index).getSampleDependsOn();
+    }
+
+    public int getSampleIsDependentOn(int index) {
+        ensureParsed();
+        byte[] values = this.values;
+        List<Entry> entries = this.entries;
+        return entries == null ? (values[index] >> 2) & 0x03 : entries.get(index).getSampleIsDependentOn();
+    }
+
+    public int getSampleHasRedundancy(int index) {
+        ensureParsed();
+        byte[] values = this.values;
+        List<Entry> entries = this.entries;
+        return entries == null ? values[index] & 0x03 : entries.get(index).getSampleHasRedundancy();
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("SampleDependencyTypeBox");
-        sb.append("{entries=").append(entries);
+        sb.append("{entries=").append(getEntries());
         sb.append('}');
         return sb.toString();
     }
@@ -20,8 +20,11 @@ package com.coremedia.iso.boxes;
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
 import com.googlecode.mp4parser.AbstractFullBox;
+import com.googlecode.mp4parser.util.ChannelHelper;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -33,6 +36,11 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
 public class SampleSizeBox extends AbstractFullBox {
     private long sampleSize;
     private long[] sampleSizes = new long[0];
+    /**
+     * Read-only view of the parsed sample sizes. The <code>long[]</code> is only created when the sizes
+     * are requested as array, from then on it is the authoritative representation.
+     */
+    private ByteBuffer sampleSizesView;
     public static final String TYPE = "stsz";
     int sampleCount;
 
@@ -48,41 +56,64 @@ public class SampleSizeBox extends AbstractFullBox {
      * @return the sampleSize field
      */
     public long getSampleSize() {
+        ensureParsed();
         return sampleSize;
     }
 
     public void setSampleSize(long sampleSize) {
+        ensureParsed();
         this.sampleSize = sampleSize;
     }
 
 
     public long getSampleSizeAtIndex(int index) {
+        ensureParsed();
         if (sampleSize > 0) {
             return sampleSize;
         } else {
-            return sampleSizes[index];
+            long[] sampleSizes = this.sampleSizes;
+            if (sampleSizes != null) {
+                return sampleSizes[index];
+            }
+            return sampleSizesView.getInt(index * 4) & 0xFFFFFFFFL;
         }
     }
 
     public long getSampleCount() {
+        ensureParsed();
         if (sampleSize > 0) {
             return sampleCount;
         } else {
-            return sampleSizes.length;
+            long[] sampleSizes = this.sampleSizes;
+            return sampleSizes != null ? sampleSizes.length : sampleSizesView.limit() / 4;
         }
 
     }
 
-    public long[] getSampleSizes() {
+    public synchronized long[] getSampleSizes() {
+        ensureParsed();
+        if (sampleSizes == null) {
+            long[] sampleSizes = new long[sampleSizesView.limit() / 4];
+            IsoTypeReader.readUInt32Array(sampleSizesView.duplicate(), sampleSizes, 0, sampleSizes.length);
+            this.sampleSizes = sampleSizes;
+        }
         return sampleSizes;
     }
 
-    public void setSampleSizes(long[] sampleSizes) {
+    public synchronized void setSampleSizes(long[] sampleSizes) {
+        ensureParsed();
         this.sampleSizes = sampleSizes;
+        this.sampleSizesView = null;
     }
 
     protected long getContentSize() {
-        return 12 + (sampleSize == 0 ? sampleSizes.length * 4 : 0);
+        return 12 + (sampleSize == 0 ? getSampleCount() * 4 : 0);
+    }
+
+    @Override
+    protected long getRetainedContentBytes() {
+        ByteBuffer sampleSizesView = this.sampleSizesView;
+        return sampleSizesView != null ? sampleSizesView.limit() : 0;
     }
 
     @Override
@@ -92,11 +123,9 @@ public class SampleSizeBox extends AbstractFullBox {
         sampleCount = l2i(IsoTypeReader.readUInt32(content));
 
         if (sampleSize == 0) {
-            sampleSizes = new long[(int) sampleCount];
-
-            for (int i = 0; i < sampleCount; i++) {
-                sampleSizes[i] = IsoTypeReader.readUInt32(content);
-            }
+            sampleSizesView = retain(((ByteBuffer) content.slice().limit(sampleCount * 4)).asReadOnlyBuffer());
+            content.position(content.position() + sampleCount * 4);
+            sampleSizes = null;
         }
     }
 
@@ -106,9 +135,12 @@ public class SampleSizeBox extends AbstractFullBox {
         IsoTypeWriter.writeUInt32(byteBuffer, sampleSize);
 
         if (sampleSize == 0) {
-            IsoTypeWriter.writeUInt32(byteBuffer, sampleSizes.length);
-            for (long sampleSize1 : sampleSizes) {
-                IsoTypeWriter.writeUInt32(byteBuffer, sampleSize1);
+            if (sampleSizes == null) {
+                IsoTypeWriter.writeUInt32(byteBuffer, sampleSizesView.limit() / 4);
+                byteBuffer.put(sampleSizesView.duplicate());
+            } else {
+                IsoTypeWriter.writeUInt32(byteBuffer, sampleSizes.length);
+                IsoTypeWriter.writeUInt32Array(byteBuffer, sampleSizes, 0, sampleSizes.length);
             }
         } else {
             IsoTypeWriter.writeUInt32(byteBuffer, sampleCount);
@@ -116,7 +148,28 @@ public class SampleSizeBox extends AbstractFullBox {
 
     }
 
+    @Override
+    protected void writeContent(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        ByteBuffer sampleSizesView = this.sampleSizesView;
+        long[] sampleSizes = this.sampleSizes;
+        if (sampleSize != 0 || sampleSizes == null && sampleSizesView == null) {
+            getContent(buffer);
+        } else if (sampleSizes == null) {
+            writeVersionAndFlags(buffer);
+            IsoTypeWriter.writeUInt32(buffer, sampleSize);
+            IsoTypeWriter.writeUInt32(buffer, sampleSizesView.limit() / 4);
+            flush(os, buffer);
+            ChannelHelper.writeFully(os, sampleSizesView.duplicate());
+        } else {
+            writeVersionAndFlags(buffer);
+            IsoTypeWriter.writeUInt32(buffer, sampleSize);
+            IsoTypeWriter.writeUInt32(buffer, sampleSizes.length);
+            writeUInt32Array(os, buffer, sampleSizes);
+        }
+    }
+
     public String toString() {
+        ensureParsed();
         return "SampleSizeBox[sampleSize=" + getSampleSize() + ";sampleCount=" + getSampleCount() + "]";
     }
 }
@@ -23,8 +23,6 @@ import com.googlecode.mp4parser.AbstractFullBox;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
@@ -36,7 +34,18 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  * contains a sample, its position, and the associated sample description. Defined in ISO/IEC 14496-12.
  */
 public class SampleToChunkBox extends AbstractFullBox {
-    List<Entry> entries = Collections.emptyList();
+    volatile List<Entry> entries = Collections.emptyList();
+    /**
+     * Parsed table as unsigned 32 bit values. The entries are only created when {@link #getEntries()}
+     * is called, from then on they are the authoritative representation (the arrays are kept for
+     * readers that haven't seen the entries yet).
+     * <p/>
+     * Readers that don't lock read the arrays before the entries, {@link #setEntries(java.util.List)} sets
+     * the entries before it drops the arrays. A reader that sees no entries has therefore seen the arrays.
+     */
+    private volatile int[] firstChunks;
+    private volatile int[] samplesPerChunk;
+    private volatile int[] sampleDescriptionIndices;
 
     public static final String TYPE = "stsc";
 
@@ -44,16 +53,71 @@ public class SampleToChunkBox extends AbstractFullBox {
         super(TYPE);
     }
 
-    public List<Entry> getEntries() {
+    public synchronized List<Entry> getEntries() {
+        ensureParsed();
+        if (entries == null) {
+            List<Entry> entries = new ArrayList<Entry>(firstChunks.length);
+            for (int i = 0; i < firstChunks.length; i++) {
+                entries.add(new Entry(
+                        firstChunks[i] & 0xFFFFFFFFL,
+                        samplesPerChunk[i] & 0xFFFFFFFFL,
+                        sampleDescriptionIndices[i] & 0xFFFFFFFFL));
+            }
+            this.entries = entries;
+        }
         return entries;
     }
 
-    public void setEntries(List<Entry> entries) {
+    public synchronized void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
+        this.firstChunks = null;
+        this.samplesPerChunk = null;
+        this.sampleDescriptionIndices = null;
+    }
+
+    public int getEntryCount() {
+        ensureParsed();
+        int[] firstChunks = this.firstChunks;
+        List<Entry> entries = this.entries;
+        return entries == null ? firstChunks.length : entries.size();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return the first chunk (1-based) the entry applies to
+     */
+    public long getFirstChunk(int index) {
+        ensureParsed();
+        int[] firstChunks = this.firstChunks;
+        List<Entry> entries = this.entries;
+        return entries == null ? firstChunks[index] & 0xFFFFFFFFL : entries.get(index).getFirstChunk();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return number of samples in each of the entry's chunks
+     */
+    public long getSamplesPerChunk(int index) {
+        ensureParsed();
+        int[] samplesPerChunk = this.samplesPerChunk;
+        List<Entry> entries = this.entries;
+        return entries == null ? samplesPerChunk[index] & 0xFFFFFFFFL : entries.get(index).getSamplesPerChunk();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return the sample description index of the entry's chunks
+     */
+    public long getSampleDescriptionIndex(int index) {
+        ensureParsed();
+        int[] sampleDescriptionIndices = this.sampleDescriptionIndices;
+        List<Entry> entries = this.entries;
+        return entries == null ? sampleDescriptionIndices[index] & 0xFFFFFFFFL : entries.get(index).getSampleDescriptionIndex();
     }
 
     protected long getContentSize() {
-        return entries.size() * 12 + 8;
+        return getEntryCount() * 12 + 8;
     }
 
     @Override
@@ -61,28 +125,44 @@ public class SampleToChunkBox extends AbstractFullBox {
         parseVersionAndFlags(content);
 
         int entryCount = l2i(IsoTypeReader.readUInt32(content));
-        entries = new ArrayList<Entry>(entryCount);
+        firstChunks = new int[entryCount];
+        samplesPerChunk = new int[entryCount];
+        sampleDescriptionIndices = new int[entryCount];
         for (int i = 0; i < entryCount; i++) {
-            entries.add(new Entry(
-                    IsoTypeReader.readUInt32(content),
-                    IsoTypeReader.readUInt32(content),
-                    IsoTypeReader.readUInt32(content)));
+            firstChunks[i] = content.getInt();
+            samplesPerChunk[i] = content.getInt();
+            sampleDescriptionIndices[i] = content.getInt();
         }
+        entries = null;
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
-        for (Entry entry : entries) {
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getFirstChunk());
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getSamplesPerChunk());
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getSampleDescriptionIndex());
+        int[] firstChunks = this.firstChunks;
+        int[] samplesPerChunk = this.samplesPerChunk;
+        int[] sampleDescriptionIndices = this.sampleDescriptionIndices;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            byteBuffer.putInt(firstChunks.length);
+            for (int i = 0; i < firstChunks.length; i++) {
+                byteBuffer.putInt(firstChunks[i]);
+                byteBuffer.putInt(samplesPerChunk[i]);
+                byteBuffer.putInt(sampleDescriptionIndices[i]);
+            }
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
+            for (Entry entry : entries) {
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getFirstChunk());
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getSamplesPerChunk());
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getSampleDescriptionIndex());
+            }
         }
     }
 
     public String toString() {
-        return "SampleToChunkBox[entryCount=" + entries.size() + "]";
+        ensureParsed();
+        return "SampleToChunkBox[entryCount=" + getEntryCount() + "]";
     }
 
     /**
@@ -93,20 +173,17 @@ public class SampleToChunkBox extends AbstractFullBox {
      * @return number of samples per chunk
      */
     public long[] blowup(int chunkCount) {
+        ensureParsed();
         long[] numberOfSamples = new long[chunkCount];
-        int j = 0;
-        List<SampleToChunkBox.Entry> sampleToChunkEntries = new LinkedList<Entry>(entries);
-        Collections.reverse(sampleToChunkEntries);
-        Iterator<Entry> iterator = sampleToChunkEntries.iterator();
-        SampleToChunkBox.Entry currentEntry = iterator.next();
+        int entry = getEntryCount() - 1;
 
         for (int i = numberOfSamples.length; i > 1; i--) {
-            numberOfSamples[i - 1] = currentEntry.getSamplesPerChunk();
-            if (i == currentEntry.getFirstChunk()) {
-                currentEntry = iterator.next();
+            numberOfSamples[i - 1] = getSamplesPerChunk(entry);
+            if (i == getFirstChunk(entry)) {
+                entry--;
             }
         }
-        numberOfSamples[0] = currentEntry.getSamplesPerChunk();
+        numberOfSamples[0] = getSamplesPerChunk(entry);
         return numberOfSamples;
     }
 
@@ -42,27 +42,33 @@ public class SchemeTypeBox extends AbstractFullBox {
     }
 
     public String getSchemeType() {
+        ensureParsed();
         return schemeType;
     }
 
     public long getSchemeVersion() {
+        ensureParsed();
         return schemeVersion;
     }
 
     public String getSchemeUri() {
+        ensureParsed();
         return schemeUri;
     }
 
     public void setSchemeType(String schemeType) {
+        ensureParsed();
         assert schemeType != null && schemeType.length() == 4 : "SchemeType may not be null or not 4 bytes long";
         this.schemeType = schemeType;
     }
 
     public void setSchemeVersion(int schemeVersion) {
+        ensureParsed();
         this.schemeVersion = schemeVersion;
     }
 
     public void setSchemeUri(String schemeUri) {
+        ensureParsed();
         this.schemeUri = schemeUri;
     }
 
@@ -91,6 +97,7 @@ public class SchemeTypeBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder buffer = new StringBuilder();
         buffer.append("Schema Type Box[");
         buffer.append("schemeUri=").append(schemeUri).append("; ");
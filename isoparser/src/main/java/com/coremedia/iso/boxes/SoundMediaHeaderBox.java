@@ -34,6 +34,7 @@ public class SoundMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public float getBalance() {
+        ensureParsed();
         return balance;
     }
 
@@ -56,6 +57,7 @@ public class SoundMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "SoundMediaHeaderBox[balance=" + getBalance() + "]";
     }
 }
@@ -18,8 +18,11 @@ package com.coremedia.iso.boxes;
 
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
+import com.googlecode.mp4parser.util.ChannelHelper;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -30,42 +33,92 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
 public class StaticChunkOffsetBox extends ChunkOffsetBox {
     public static final String TYPE = "stco";
 
+    /**
+     * Read-only view of the parsed offsets. The <code>long[]</code> is only created when the offsets are
+     * requested as array, from then on it is the authoritative representation.
+     */
+    private ByteBuffer chunkOffsetsView;
     private long[] chunkOffsets = new long[0];
 
     public StaticChunkOffsetBox() {
         super(TYPE);
     }
 
-    public long[] getChunkOffsets() {
+    public synchronized long[] getChunkOffsets() {
+        ensureParsed();
+        if (chunkOffsets == null && chunkOffsetsView != null) {
+            long[] chunkOffsets = new long[chunkOffsetsView.limit() / 4];
+            IsoTypeReader.readUInt32Array(chunkOffsetsView.duplicate(), chunkOffsets, 0, chunkOffsets.length);
+            this.chunkOffsets = chunkOffsets;
+        }
         return chunkOffsets;
     }
 
+    @Override
+    public int getChunkCount() {
+        ensureParsed();
+        long[] chunkOffsets = this.chunkOffsets;
+        return chunkOffsets != null ? chunkOffsets.length : chunkOffsetsView.limit() / 4;
+    }
+
+    @Override
+    public long getChunkOffset(int index) {
+        ensureParsed();
+        long[] chunkOffsets = this.chunkOffsets;
+        return chunkOffsets != null ? chunkOffsets[index] : chunkOffsetsView.getInt(index * 4) & 0xFFFFFFFFL;
+    }
+
     protected long getContentSize() {
-        return 8 + chunkOffsets.length * 4;
+        return 8 + getChunkCount() * 4;
     }
 
     @Override
-    public void setChunkOffsets(long[] chunkOffsets) {
+    protected long getRetainedContentBytes() {
+        ByteBuffer chunkOffsetsView = this.chunkOffsetsView;
+        return chunkOffsetsView != null ? chunkOffsetsView.limit() : 0;
+    }
+
+    @Override
+    public synchronized void setChunkOffsets(long[] chunkOffsets) {
+        ensureParsed();
         this.chunkOffsets = chunkOffsets;
+        this.chunkOffsetsView = null;
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
         int entryCount = l2i(IsoTypeReader.readUInt32(content));
-        chunkOffsets = new long[entryCount];
-        for (int i = 0; i < entryCount; i++) {
-            chunkOffsets[i] = IsoTypeReader.readUInt32(content);
-        }
+        chunkOffsetsView = retain(((ByteBuffer) content.slice().limit(entryCount * 4)).asReadOnlyBuffer());
+        content.position(content.position() + entryCount * 4);
+        chunkOffsets = null;
 
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsets.length);
-        for (long chunkOffset : chunkOffsets) {
-            IsoTypeWriter.writeUInt32(byteBuffer, chunkOffset);
+        if (chunkOffsets == null) {
+            IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsetsView.limit() / 4);
+            byteBuffer.put(chunkOffsetsView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, chunkOffsets.length);
+            IsoTypeWriter.writeUInt32Array(byteBuffer, chunkOffsets, 0, chunkOffsets.length);
+        }
+    }
+
+    @Override
+    protected void writeContent(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        ByteBuffer chunkOffsetsView = this.chunkOffsetsView;
+        long[] chunkOffsets = this.chunkOffsets;
+        writeVersionAndFlags(buffer);
+        if (chunkOffsets == null) {
+            IsoTypeWriter.writeUInt32(buffer, chunkOffsetsView.limit() / 4);
+            flush(os, buffer);
+            ChannelHelper.writeFully(os, chunkOffsetsView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(buffer, chunkOffsets.length);
+            writeUInt32Array(os, buffer, chunkOffsets);
         }
     }
 
@@ -48,10 +48,12 @@ public class SubSampleInformationBox extends AbstractFullBox {
     }
 
     public List<SubSampleEntry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<SubSampleEntry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -122,6 +124,7 @@ public class SubSampleInformationBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "SubSampleInformationBox{" +
                 "entryCount=" + entries.size() +
                 ", entries=" + entries +
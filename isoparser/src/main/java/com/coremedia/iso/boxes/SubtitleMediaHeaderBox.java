@@ -28,6 +28,7 @@ public class SubtitleMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "SubtitleMediaHeaderBox";
     }
 }
@@ -19,8 +19,11 @@ package com.coremedia.iso.boxes;
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
 import com.googlecode.mp4parser.AbstractFullBox;
+import com.googlecode.mp4parser.util.ChannelHelper;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -33,6 +36,11 @@ public class SyncSampleBox extends AbstractFullBox {
     public static final String TYPE = "stss";
 
     private long[] sampleNumber;
+    /**
+     * Read-only view of the parsed sample numbers. The <code>long[]</code> is only created when the
+     * numbers are requested as array, from then on it is the authoritative representation.
+     */
+    private ByteBuffer sampleNumberView;
 
     public SyncSampleBox() {
         super(TYPE);
@@ -43,12 +51,40 @@ public class SyncSampleBox extends AbstractFullBox {
      *
      * @return random access sample numbers.
      */
-    public long[] getSampleNumber() {
+    public synchronized long[] getSampleNumber() {
+        ensureParsed();
+        if (sampleNumber == null && sampleNumberView != null) {
+            long[] sampleNumber = new long[sampleNumberView.limit() / 4];
+            IsoTypeReader.readUInt32Array(sampleNumberView.duplicate(), sampleNumber, 0, sampleNumber.length);
+            this.sampleNumber = sampleNumber;
+        }
         return sampleNumber;
     }
 
+    public int getEntryCount() {
+        ensureParsed();
+        long[] sampleNumber = this.sampleNumber;
+        return sampleNumber != null ? sampleNumber.length : sampleNumberView.limit() / 4;
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return number of the <code>index</code>th random access sample
+     */
+    public long getSampleNumber(int index) {
+        ensureParsed();
+        long[] sampleNumber = this.sampleNumber;
+        return sampleNumber != null ? sampleNumber[index] : sampleNumberView.getInt(index * 4) & 0xFFFFFFFFL;
+    }
+
     protected long getContentSize() {
-        return sampleNumber.length * 4 + 8;
+        return getEntryCount() * 4 + 8;
+    }
+
+    @Override
+    protected long getRetainedContentBytes() {
+        ByteBuffer sampleNumberView = this.sampleNumberView;
+        return sampleNumberView != null ? sampleNumberView.limit() : 0;
     }
 
     @Override
@@ -56,29 +92,48 @@ public class SyncSampleBox extends AbstractFullBox {
         parseVersionAndFlags(content);
         int entryCount = l2i(IsoTypeReader.readUInt32(content));
 
-        sampleNumber = new long[entryCount];
-        for (int i = 0; i < entryCount; i++) {
-            sampleNumber[i] = IsoTypeReader.readUInt32(content);
-        }
+        sampleNumberView = retain(((ByteBuffer) content.slice().limit(entryCount * 4)).asReadOnlyBuffer());
+        content.position(content.position() + entryCount * 4);
+        sampleNumber = null;
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
 
-        IsoTypeWriter.writeUInt32(byteBuffer, sampleNumber.length);
-
-        for (long aSampleNumber : sampleNumber) {
-            IsoTypeWriter.writeUInt32(byteBuffer, aSampleNumber);
+        if (sampleNumber == null) {
+            IsoTypeWriter.writeUInt32(byteBuffer, sampleNumberView.limit() / 4);
+            byteBuffer.put(sampleNumberView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, sampleNumber.length);
+            IsoTypeWriter.writeUInt32Array(byteBuffer, sampleNumber, 0, sampleNumber.length);
         }
 
     }
 
+    @Override
+    protected void writeContent(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        ByteBuffer sampleNumberView = this.sampleNumberView;
+        long[] sampleNumber = this.sampleNumber;
+        writeVersionAndFlags(buffer);
+        if (sampleNumber == null) {
+            IsoTypeWriter.writeUInt32(buffer, sampleNumberView.limit() / 4);
+            flush(os, buffer);
+            ChannelHelper.writeFully(os, sampleNumberView.duplicate());
+        } else {
+            IsoTypeWriter.writeUInt32(buffer, sampleNumber.length);
+            writeUInt32Array(os, buffer, sampleNumber);
+        }
+    }
+
     public String toString() {
-        return "SyncSampleBox[entryCount=" + sampleNumber.length + "]";
+        ensureParsed();
+        return "SyncSampleBox[entryCount=" + getEntryCount() + "]";
     }
 
-    public void setSampleNumber(long[] sampleNumber) {
+    public synchronized void setSampleNumber(long[] sampleNumber) {
+        ensureParsed();
         this.sampleNumber = sampleNumber;
+        this.sampleNumberView = null;
     }
 }
@@ -44,48 +44,102 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
 public class TimeToSampleBox extends AbstractFullBox {
     public static final String TYPE = "stts";
 
-    List<Entry> entries = Collections.emptyList();
+    volatile List<Entry> entries = Collections.emptyList();
+    /**
+     * Parsed table as unsigned 32 bit values, count and delta of each entry next to each other just as
+     * in the file. The entries are only created when {@link #getEntries()} is called, from then on they
+     * are the authoritative representation (the table is kept for readers that haven't seen the entries
+     * yet).
+     * <p/>
+     * Readers that don't lock read the table before the entries, {@link #setEntries(java.util.List)} sets
+     * the entries before it drops the table. A reader that sees no entries has therefore seen the table.
+     */
+    private volatile int[] table;
 
     public TimeToSampleBox() {
         super(TYPE);
     }
 
     protected long getContentSize() {
-        return 8 + entries.size() * 8;
+        return 8 + getEntryCount() * 8;
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
         int entryCount = l2i(IsoTypeReader.readUInt32(content));
-        entries = new ArrayList<Entry>(entryCount);
-
-        for (int i = 0; i < entryCount; i++) {
-            entries.add(new Entry(IsoTypeReader.readUInt32(content), IsoTypeReader.readUInt32(content)));
-        }
-
+        table = new int[entryCount * 2];
+        IsoTypeReader.readInt32Array(content, table, 0, table.length);
+        entries = null;
     }
 
     @Override
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
-        for (Entry entry : entries) {
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getCount());
-            IsoTypeWriter.writeUInt32(byteBuffer, entry.getDelta());
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            byteBuffer.putInt(table.length / 2);
+            IsoTypeWriter.writeInt32Array(byteBuffer, table, 0, table.length);
+        } else {
+            IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
+            for (Entry entry : entries) {
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getCount());
+                IsoTypeWriter.writeUInt32(byteBuffer, entry.getDelta());
+            }
         }
     }
 
-    public List<Entry> getEntries() {
+    public synchronized List<Entry> getEntries() {
+        ensureParsed();
+        if (entries == null) {
+            List<Entry> entries = new ArrayList<Entry>(table.length / 2);
+            for (int i = 0; i < table.length; i += 2) {
+                entries.add(new Entry(table[i] & 0xFFFFFFFFL, table[i + 1] & 0xFFFFFFFFL));
+            }
+            this.entries = entries;
+        }
         return entries;
     }
 
-    public void setEntries(List<Entry> entries) {
+    public synchronized void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
+        this.table = null;
+    }
+
+    public int getEntryCount() {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? table.length / 2 : entries.size();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return number of consecutive samples with the entry's delta
+     */
+    public long getSampleCount(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? table[index * 2] & 0xFFFFFFFFL : entries.get(index).getCount();
+    }
+
+    /**
+     * @param index index of the table entry
+     * @return the decoding time delta of the entry's samples
+     */
+    public long getSampleDelta(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? table[index * 2 + 1] & 0xFFFFFFFFL : entries.get(index).getDelta();
     }
 
     public String toString() {
-        return "TimeToSampleBox[entryCount=" + entries.size() + "]";
+        ensureParsed();
+        return "TimeToSampleBox[entryCount=" + getEntryCount() + "]";
     }
 
     public static class Entry {
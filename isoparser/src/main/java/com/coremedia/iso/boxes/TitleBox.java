@@ -44,10 +44,12 @@ public class TitleBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getTitle() {
+        ensureParsed();
         return title;
     }
 
@@ -57,10 +59,12 @@ public class TitleBox extends AbstractFullBox {
      * @param language 3-letter ISO-639 code
      */
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setTitle(String title) {
+        ensureParsed();
         this.title = title;
     }
 
@@ -84,6 +88,7 @@ public class TitleBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "TitleBox[language=" + getLanguage() + ";title=" + getTitle() + "]";
     }
 }
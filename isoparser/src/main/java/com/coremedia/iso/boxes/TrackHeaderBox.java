@@ -58,42 +58,52 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public Date getCreationTime() {
+        ensureParsed();
         return creationTime;
     }
 
     public Date getModificationTime() {
+        ensureParsed();
         return modificationTime;
     }
 
     public long getTrackId() {
+        ensureParsed();
         return trackId;
     }
 
     public long getDuration() {
+        ensureParsed();
         return duration;
     }
 
     public int getLayer() {
+        ensureParsed();
         return layer;
     }
 
     public int getAlternateGroup() {
+        ensureParsed();
         return alternateGroup;
     }
 
     public float getVolume() {
+        ensureParsed();
         return volume;
     }
 
     public Matrix getMatrix() {
+        ensureParsed();
         return matrix;
     }
 
     public double getWidth() {
+        ensureParsed();
         return width;
     }
 
     public double getHeight() {
+        ensureParsed();
         return height;
     }
 
@@ -140,6 +150,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void getContent(ByteBuffer byteBuffer) {
+        ensureParsed();
         writeVersionAndFlags(byteBuffer);
         if (getVersion() == 1) {
             IsoTypeWriter.writeUInt64(byteBuffer, DateHelper.convert(creationTime));
@@ -168,6 +179,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder result = new StringBuilder();
         result.append("TrackHeaderBox[");
         result.append("creationTime=").append(getCreationTime());
@@ -194,6 +206,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setCreationTime(Date creationTime) {
+        ensureParsed();
         this.creationTime = creationTime;
         if (DateHelper.convert(creationTime) >= (1l << 32)) {
             setVersion(1);
@@ -201,6 +214,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setModificationTime(Date modificationTime) {
+        ensureParsed();
         this.modificationTime = modificationTime;
         if (DateHelper.convert(modificationTime) >= (1l << 32)) {
             setVersion(1);
@@ -209,10 +223,12 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setTrackId(long trackId) {
+        ensureParsed();
         this.trackId = trackId;
     }
 
     public void setDuration(long duration) {
+        ensureParsed();
         this.duration = duration;
         if (duration >= (1l << 32)) {
             setFlags(1);
@@ -220,47 +236,58 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setLayer(int layer) {
+        ensureParsed();
         this.layer = layer;
     }
 
     public void setAlternateGroup(int alternateGroup) {
+        ensureParsed();
         this.alternateGroup = alternateGroup;
     }
 
     public void setVolume(float volume) {
+        ensureParsed();
         this.volume = volume;
     }
 
     public void setMatrix(Matrix matrix) {
+        ensureParsed();
         this.matrix = matrix;
     }
 
     public void setWidth(double width) {
+        ensureParsed();
         this.width = width;
     }
 
     public void setHeight(double height) {
+        ensureParsed();
         this.height = height;
     }
 
 
     public boolean isEnabled() {
+        ensureParsed();
         return (getFlags() & 1) > 0;
     }
 
     public boolean isInMovie() {
+        ensureParsed();
         return (getFlags() & 2) > 0;
     }
 
     public boolean isInPreview() {
+        ensureParsed();
         return (getFlags() & 4) > 0;
     }
 
     public boolean isInPoster() {
+        ensureParsed();
         return (getFlags() & 8) > 0;
     }
 
     public void setEnabled(boolean enabled) {
+        ensureParsed();
         if (enabled) {
             setFlags(getFlags() | 1);
         } else {
@@ -269,6 +296,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setInMovie(boolean inMovie) {
+        ensureParsed();
         if (inMovie) {
             setFlags(getFlags() | 2);
         } else {
@@ -277,6 +305,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setInPreview(boolean inPreview) {
+        ensureParsed();
         if (inPreview) {
             setFlags(getFlags() | 4);
         } else {
@@ -285,6 +314,7 @@ public class TrackHeaderBox extends AbstractFullBox {
     }
 
     public void setInPoster(boolean inPoster) {
+        ensureParsed();
         if (inPoster) {
             setFlags(getFlags() | 8);
         } else {
@@ -32,14 +32,23 @@ public class UnknownBox extends AbstractBox {
         super(type);
     }
 
+    public UnknownBox(String type, byte[] userType) {
+        super(type, userType);
+    }
+
     @Override
     protected long getContentSize() {
         return data.limit();
     }
 
+    @Override
+    protected long getRetainedContentBytes() {
+        return data != null ? data.limit() : 0;
+    }
+
     @Override
     public void _parseDetails(ByteBuffer content) {
-        data = content;
+        data = retain(content);
         content.position(content.position() + content.remaining());
     }
 
@@ -50,10 +59,12 @@ public class UnknownBox extends AbstractBox {
     }
 
     public ByteBuffer getData() {
+        ensureParsed();
         return data;
     }
 
     public void setData(ByteBuffer data) {
+        ensureParsed();
         this.data = data;
     }
 }
@@ -38,6 +38,7 @@ public class UserBox extends AbstractBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "UserBox[type=" + (getType()) +
                 ";userType=" + new String(getUserType()) +
                 ";contentLength=" + data.length + "]";
@@ -45,10 +46,12 @@ public class UserBox extends AbstractBox {
 
 
     public byte[] getData() {
+        ensureParsed();
         return data;
     }
 
     public void setData(byte[] data) {
+        ensureParsed();
         this.data = data;
     }
 
@@ -37,10 +37,12 @@ public class VideoMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public int getGraphicsmode() {
+        ensureParsed();
         return graphicsmode;
     }
 
     public int[] getOpcolor() {
+        ensureParsed();
         return opcolor;
     }
 
@@ -69,14 +71,17 @@ public class VideoMediaHeaderBox extends AbstractMediaHeaderBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "VideoMediaHeaderBox[graphicsmode=" + getGraphicsmode() + ";opcolor0=" + getOpcolor()[0] + ";opcolor1=" + getOpcolor()[1] + ";opcolor2=" + getOpcolor()[2] + "]";
     }
 
     public void setOpcolor(int[] opcolor) {
+        ensureParsed();
         this.opcolor = opcolor;
     }
 
     public void setGraphicsmode(int graphicsmode) {
+        ensureParsed();
         this.graphicsmode = graphicsmode;
     }
 }
@@ -18,10 +18,12 @@ public class XmlBox extends AbstractFullBox {
     }
 
     public String getXml() {
+        ensureParsed();
         return xml;
     }
 
     public void setXml(String xml) {
+        ensureParsed();
         this.xml = xml;
     }
 
@@ -44,6 +46,7 @@ public class XmlBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "XmlBox{" +
                 "xml='" + xml + '\'' +
                 '}';
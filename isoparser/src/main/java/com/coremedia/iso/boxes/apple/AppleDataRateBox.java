@@ -51,6 +51,7 @@ public class AppleDataRateBox extends AbstractFullBox {
 
 
     public long getDataRate() {
+        ensureParsed();
         return dataRate;
     }
 }
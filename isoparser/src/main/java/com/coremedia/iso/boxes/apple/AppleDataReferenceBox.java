@@ -61,14 +61,17 @@ public class AppleDataReferenceBox extends AbstractFullBox {
     }
 
     public long getDataReferenceSize() {
+        ensureParsed();
         return dataReferenceSize;
     }
 
     public String getDataReferenceType() {
+        ensureParsed();
         return dataReferenceType;
     }
 
     public String getDataReference() {
+        ensureParsed();
         return dataReference;
     }
 }
@@ -32,90 +32,112 @@ public final class AppleLosslessSpecificBox extends AbstractFullBox {
     private long sampleRate; // 32bit
 
     public long getMaxSamplePerFrame() {
+        ensureParsed();
         return maxSamplePerFrame;
     }
 
     public void setMaxSamplePerFrame(int maxSamplePerFrame) {
+        ensureParsed();
         this.maxSamplePerFrame = maxSamplePerFrame;
     }
 
     public int getUnknown1() {
+        ensureParsed();
         return unknown1;
     }
 
     public void setUnknown1(int unknown1) {
+        ensureParsed();
         this.unknown1 = unknown1;
     }
 
     public int getSampleSize() {
+        ensureParsed();
         return sampleSize;
     }
 
     public void setSampleSize(int sampleSize) {
+        ensureParsed();
         this.sampleSize = sampleSize;
     }
 
     public int getHistoryMult() {
+        ensureParsed();
         return historyMult;
     }
 
     public void setHistoryMult(int historyMult) {
+        ensureParsed();
         this.historyMult = historyMult;
     }
 
     public int getInitialHistory() {
+        ensureParsed();
         return initialHistory;
     }
 
     public void setInitialHistory(int initialHistory) {
+        ensureParsed();
         this.initialHistory = initialHistory;
     }
 
     public int getKModifier() {
+        ensureParsed();
         return kModifier;
     }
 
     public void setKModifier(int kModifier) {
+        ensureParsed();
         this.kModifier = kModifier;
     }
 
     public int getChannels() {
+        ensureParsed();
         return channels;
     }
 
     public void setChannels(int channels) {
+        ensureParsed();
         this.channels = channels;
     }
 
     public int getUnknown2() {
+        ensureParsed();
         return unknown2;
     }
 
     public void setUnknown2(int unknown2) {
+        ensureParsed();
         this.unknown2 = unknown2;
     }
 
     public long getMaxCodedFrameSize() {
+        ensureParsed();
         return maxCodedFrameSize;
     }
 
     public void setMaxCodedFrameSize(int maxCodedFrameSize) {
+        ensureParsed();
         this.maxCodedFrameSize = maxCodedFrameSize;
     }
 
     public long getBitRate() {
+        ensureParsed();
         return bitRate;
     }
 
     public void setBitRate(int bitRate) {
+        ensureParsed();
         this.bitRate = bitRate;
     }
 
     public long getSampleRate() {
+        ensureParsed();
         return sampleRate;
     }
 
     public void setSampleRate(int sampleRate) {
+        ensureParsed();
         this.sampleRate = sampleRate;
     }
 
@@ -30,10 +30,12 @@ public class TrickPlayBox extends AbstractFullBox {
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
@@ -101,6 +103,7 @@ public class TrickPlayBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("TrickPlayBox");
         sb.append("{entries=").append(entries);
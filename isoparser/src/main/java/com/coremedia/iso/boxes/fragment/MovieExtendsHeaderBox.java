@@ -63,10 +63,12 @@ public class MovieExtendsHeaderBox extends AbstractFullBox {
     }
 
     public long getFragmentDuration() {
+        ensureParsed();
         return fragmentDuration;
     }
 
     public void setFragmentDuration(long fragmentDuration) {
+        ensureParsed();
         this.fragmentDuration = fragmentDuration;
     }
 }
@@ -41,13 +41,11 @@ public class MovieFragmentBox extends AbstractContainerBox {
     public List<Long> getSyncSamples(SampleDependencyTypeBox sdtp) {
         List<Long> result = new ArrayList<Long>();
 
-        final List<SampleDependencyTypeBox.Entry> sampleEntries = sdtp.getEntries();
-        long i = 1;
-        for (SampleDependencyTypeBox.Entry sampleEntry : sampleEntries) {
-            if (sampleEntry.getSampleDependsOn() == 2) {
-                result.add(i);
+        int sampleCount = sdtp.getSampleCount();
+        for (int i = 0; i < sampleCount; i++) {
+            if (sdtp.getSampleDependsOn(i) == 2) {
+                result.add((long) i + 1);
             }
-            i++;
         }
 
         return result;
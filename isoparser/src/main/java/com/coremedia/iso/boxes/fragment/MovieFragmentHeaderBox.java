@@ -57,15 +57,18 @@ public class MovieFragmentHeaderBox extends AbstractFullBox {
     }
 
     public long getSequenceNumber() {
+        ensureParsed();
         return sequenceNumber;
     }
 
     public void setSequenceNumber(long sequenceNumber) {
+        ensureParsed();
         this.sequenceNumber = sequenceNumber;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "MovieFragmentHeaderBox{" +
                 "sequenceNumber=" + sequenceNumber +
                 '}';
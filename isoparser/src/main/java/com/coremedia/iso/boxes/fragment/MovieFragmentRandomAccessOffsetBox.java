@@ -54,10 +54,12 @@ public class MovieFragmentRandomAccessOffsetBox extends AbstractFullBox {
     }
 
     public long getMfraSize() {
+        ensureParsed();
         return mfraSize;
     }
 
     public void setMfraSize(long mfraSize) {
+        ensureParsed();
         this.mfraSize = mfraSize;
     }
 }
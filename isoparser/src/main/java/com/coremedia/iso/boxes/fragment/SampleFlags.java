@@ -46,7 +46,13 @@ public class SampleFlags {
     }
 
     public SampleFlags(ByteBuffer bb) {
-        long a = IsoTypeReader.readUInt32(bb);
+        this(IsoTypeReader.readUInt32(bb));
+    }
+
+    /**
+     * @param a the flags as unsigned 32 bit value
+     */
+    public SampleFlags(long a) {
         reserved = (byte) ((a & 0xF0000000) >> 28);
         isLeading = (byte) ((a & 0x0C000000) >> 26);
         sampleDependsOn = (byte) ((a & 0x03000000) >> 24);
@@ -55,11 +61,17 @@ public class SampleFlags {
         samplePaddingValue = (byte) ((a & 0x000e0000) >> 17);
         sampleIsDifferenceSample = ((a & 0x00010000) >> 16) > 0;
         sampleDegradationPriority = (int) (a & 0x0000ffff);
-
     }
 
 
     public void getContent(ByteBuffer os) {
+        IsoTypeWriter.writeUInt32(os, getValue());
+    }
+
+    /**
+     * @return the flags as unsigned 32 bit value
+     */
+    public long getValue() {
         long a = 0;
         a |= reserved << 28;
         a |= isLeading << 26;
@@ -69,7 +81,7 @@ public class SampleFlags {
         a |= samplePaddingValue << 17;
         a |= (sampleIsDifferenceSample ? 1 : 0) << 16;
         a |= sampleDegradationPriority;
-        IsoTypeWriter.writeUInt32(os, a);
+        return a;
     }
 
     public int getReserved() {
@@ -70,46 +70,57 @@ public class TrackExtendsBox extends AbstractFullBox {
     }
 
     public long getTrackId() {
+        ensureParsed();
         return trackId;
     }
 
     public long getDefaultSampleDescriptionIndex() {
+        ensureParsed();
         return defaultSampleDescriptionIndex;
     }
 
     public long getDefaultSampleDuration() {
+        ensureParsed();
         return defaultSampleDuration;
     }
 
     public long getDefaultSampleSize() {
+        ensureParsed();
         return defaultSampleSize;
     }
 
     public SampleFlags getDefaultSampleFlags() {
+        ensureParsed();
         return defaultSampleFlags;
     }
 
     public String getDefaultSampleFlagsStr() {
+        ensureParsed();
         return defaultSampleFlags.toString();
     }
 
     public void setTrackId(long trackId) {
+        ensureParsed();
         this.trackId = trackId;
     }
 
     public void setDefaultSampleDescriptionIndex(long defaultSampleDescriptionIndex) {
+        ensureParsed();
         this.defaultSampleDescriptionIndex = defaultSampleDescriptionIndex;
     }
 
     public void setDefaultSampleDuration(long defaultSampleDuration) {
+        ensureParsed();
         this.defaultSampleDuration = defaultSampleDuration;
     }
 
     public void setDefaultSampleSize(long defaultSampleSize) {
+        ensureParsed();
         this.defaultSampleSize = defaultSampleSize;
     }
 
     public void setDefaultSampleFlags(SampleFlags defaultSampleFlags) {
+        ensureParsed();
         this.defaultSampleFlags = defaultSampleFlags;
 
     }
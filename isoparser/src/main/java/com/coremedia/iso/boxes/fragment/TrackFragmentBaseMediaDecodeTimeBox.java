@@ -63,15 +63,18 @@ public class TrackFragmentBaseMediaDecodeTimeBox extends AbstractFullBox {
 
 
     public long getBaseMediaDecodeTime() {
+        ensureParsed();
         return baseMediaDecodeTime;
     }
 
     public void setBaseMediaDecodeTime(long baseMediaDecodeTime) {
+        ensureParsed();
         this.baseMediaDecodeTime = baseMediaDecodeTime;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "TrackFragmentBaseMediaDecodeTimeBox{" +
                 "baseMediaDecodeTime=" + baseMediaDecodeTime +
                 '}';
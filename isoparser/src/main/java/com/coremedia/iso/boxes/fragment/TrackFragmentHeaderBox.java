@@ -124,62 +124,77 @@ public class TrackFragmentHeaderBox extends AbstractFullBox {
     }
 
     public boolean hasBaseDataOffset() {
+        ensureParsed();
         return (getFlags() & 0x1) != 0;
     }
 
     public boolean hasSampleDescriptionIndex() {
+        ensureParsed();
         return (getFlags() & 0x2) != 0;
     }
 
     public boolean hasDefaultSampleDuration() {
+        ensureParsed();
         return (getFlags() & 0x8) != 0;
     }
 
     public boolean hasDefaultSampleSize() {
+        ensureParsed();
         return (getFlags() & 0x10) != 0;
     }
 
     public boolean hasDefaultSampleFlags() {
+        ensureParsed();
         return (getFlags() & 0x20) != 0;
     }
 
     public long getTrackId() {
+        ensureParsed();
         return trackId;
     }
 
     public long getBaseDataOffset() {
+        ensureParsed();
         return baseDataOffset;
     }
 
     public long getSampleDescriptionIndex() {
+        ensureParsed();
         return sampleDescriptionIndex;
     }
 
     public long getDefaultSampleDuration() {
+        ensureParsed();
         return defaultSampleDuration;
     }
 
     public long getDefaultSampleSize() {
+        ensureParsed();
         return defaultSampleSize;
     }
 
     public SampleFlags getDefaultSampleFlags() {
+        ensureParsed();
         return defaultSampleFlags;
     }
 
     public boolean isDurationIsEmpty() {
+        ensureParsed();
         return durationIsEmpty;
     }
 
     public boolean isDefaultBaseIsMoof() {
+        ensureParsed();
         return defaultBaseIsMoof;
     }
 
     public void setTrackId(long trackId) {
+        ensureParsed();
         this.trackId = trackId;
     }
 
     public void setBaseDataOffset(long baseDataOffset) {
+        ensureParsed();
         if (baseDataOffset == -1) {
             setFlags(getFlags() & (Integer.MAX_VALUE ^ 0x1));
         } else {
@@ -189,6 +204,7 @@ public class TrackFragmentHeaderBox extends AbstractFullBox {
     }
 
     public void setSampleDescriptionIndex(long sampleDescriptionIndex) {
+        ensureParsed();
         if (sampleDescriptionIndex == -1) {
             setFlags(getFlags() & (Integer.MAX_VALUE ^ 0x2));
         } else {
@@ -198,32 +214,38 @@ public class TrackFragmentHeaderBox extends AbstractFullBox {
     }
 
     public void setDefaultSampleDuration(long defaultSampleDuration) {
+        ensureParsed();
         setFlags(getFlags() | 0x8); // activate the field
         this.defaultSampleDuration = defaultSampleDuration;
     }
 
     public void setDefaultSampleSize(long defaultSampleSize) {
+        ensureParsed();
         setFlags(getFlags() | 0x10); // activate the field
         this.defaultSampleSize = defaultSampleSize;
     }
 
     public void setDefaultSampleFlags(SampleFlags defaultSampleFlags) {
+        ensureParsed();
         setFlags(getFlags() | 0x20); // activate the field
         this.defaultSampleFlags = defaultSampleFlags;
     }
 
     public void setDurationIsEmpty(boolean durationIsEmpty) {
+        ensureParsed();
         setFlags(getFlags() | 0x10000); // activate the field
         this.durationIsEmpty = durationIsEmpty;
     }
 
     public void setDefaultBaseIsMoof(boolean defaultBaseIsMoof) {
+        ensureParsed();
         setFlags(getFlags() | 0x20000); // activate the field
         this.defaultBaseIsMoof = defaultBaseIsMoof;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("TrackFragmentHeaderBox");
         sb.append("{trackId=").append(trackId);
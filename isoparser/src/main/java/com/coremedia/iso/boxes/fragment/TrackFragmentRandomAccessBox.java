@@ -143,50 +143,62 @@ public class TrackFragmentRandomAccessBox extends AbstractFullBox {
 
 
     public void setTrackId(long trackId) {
+        ensureParsed();
         this.trackId = trackId;
     }
 
     public void setLengthSizeOfTrafNum(int lengthSizeOfTrafNum) {
+        ensureParsed();
         this.lengthSizeOfTrafNum = lengthSizeOfTrafNum;
     }
 
     public void setLengthSizeOfTrunNum(int lengthSizeOfTrunNum) {
+        ensureParsed();
         this.lengthSizeOfTrunNum = lengthSizeOfTrunNum;
     }
 
     public void setLengthSizeOfSampleNum(int lengthSizeOfSampleNum) {
+        ensureParsed();
         this.lengthSizeOfSampleNum = lengthSizeOfSampleNum;
     }
 
     public long getTrackId() {
+        ensureParsed();
         return trackId;
     }
 
     public int getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public int getLengthSizeOfTrafNum() {
+        ensureParsed();
         return lengthSizeOfTrafNum;
     }
 
     public int getLengthSizeOfTrunNum() {
+        ensureParsed();
         return lengthSizeOfTrunNum;
     }
 
     public int getLengthSizeOfSampleNum() {
+        ensureParsed();
         return lengthSizeOfSampleNum;
     }
 
     public long getNumberOfEntries() {
+        ensureParsed();
         return entries.size();
     }
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return Collections.unmodifiableList(entries);
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -288,6 +300,7 @@ public class TrackFragmentRandomAccessBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "TrackFragmentRandomAccessBox{" +
                 "trackId=" + trackId +
                 ", entries=" + entries +
@@ -51,11 +51,118 @@ public class TrackRunBox extends AbstractFullBox {
     public static final String TYPE = "trun";
     private int dataOffset;
     private SampleFlags firstSampleFlags;
-    private List<Entry> entries = new ArrayList<Entry>();
+    private volatile List<Entry> entries = new ArrayList<Entry>();
+    /**
+     * Parsed sample table as in the file: the fields present (see {@link #tableFlags}) of each sample
+     * next to each other. The entries are only created when {@link #getEntries()} is called, from then
+     * on they are the authoritative representation (the table is kept for readers that haven't seen the
+     * entries yet).
+     * <p/>
+     * Readers that don't lock read the table before the entries, {@link #setEntries(java.util.List)} sets
+     * the entries before it drops the table. A reader that sees no entries has therefore seen the table.
+     */
+    private int sampleCount;
+    private volatile int[] table;
+    /**
+     * The sample field flags (<code>0xF00</code>) at the time the table was parsed.
+     */
+    private int tableFlags;
+
+
+    public synchronized List<Entry> getEntries() {
+        ensureParsed();
+        if (entries == null) {
+            List<Entry> entries = new ArrayList<Entry>(sampleCount);
+            for (int i = 0; i < sampleCount; i++) {
+                Entry entry = new Entry();
+                entry.sampleDuration = value(table, 0x100, i) & 0xFFFFFFFFL;
+                entry.sampleSize = value(table, 0x200, i) & 0xFFFFFFFFL;
+                entry.sampleFlags = (tableFlags & 0x400) == 0x400 ? new SampleFlags(value(table, 0x400, i) & 0xFFFFFFFFL) : null;
+                entry.sampleCompositionTimeOffset = value(table, 0x800, i);
+                entries.add(entry);
+            }
+            this.entries = entries;
+        }
+        return entries;
+    }
 
+    /**
+     * @param table the parsed table as read by the caller
+     * @param field the flag of the field, e.g. <code>0x200</code> for the sample size
+     * @param index index of the sample within this run
+     * @return the field's value in the parsed table or 0 if the field isn't present
+     */
+    private int value(int[] table, int field, int index) {
+        if ((tableFlags & field) == 0) {
+            return 0;
+        }
+        return table[index * Integer.bitCount(tableFlags) + Integer.bitCount(tableFlags & (field - 1))];
+    }
 
-    public List<Entry> getEntries() {
-        return entries;
+    /**
+     * @param index index of the sample within this run
+     * @return the sample's duration or 0 if the durations aren't present
+     */
+    public long getSampleDuration(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? value(table, 0x100, index) & 0xFFFFFFFFL : entries.get(index).getSampleDuration();
+    }
+
+    /**
+     * @param index index of the sample within this run
+     * @return the sample's size or 0 if the sizes aren't present
+     */
+    public long getSampleSize(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? value(table, 0x200, index) & 0xFFFFFFFFL : entries.get(index).getSampleSize();
+    }
+
+    /**
+     * Creates a new <code>SampleFlags</code> object on each call unless the entries have been created. Use
+     * {@link #getSampleFlagsInt(int)} when going through many samples.
+     *
+     * @param index index of the sample within this run
+     * @return the sample's flags or <code>null</code> if the flags aren't present
+     */
+    public SampleFlags getSampleFlags(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            return (tableFlags & 0x400) == 0x400 ? new SampleFlags(value(table, 0x400, index) & 0xFFFFFFFFL) : null;
+        }
+        return entries.get(index).getSampleFlags();
+    }
+
+    /**
+     * @param index index of the sample within this run
+     * @return the sample's flags as the 32 bits stored in the file or 0 if the flags aren't present
+     * @see SampleFlags#SampleFlags(long)
+     */
+    public int getSampleFlagsInt(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        if (entries == null) {
+            return value(table, 0x400, index);
+        }
+        SampleFlags sampleFlags = entries.get(index).getSampleFlags();
+        return sampleFlags == null ? 0 : (int) sampleFlags.getValue();
+    }
+
+    /**
+     * @param index index of the sample within this run
+     * @return the sample's composition time offset or 0 if the offsets aren't present
+     */
+    public long getSampleCompositionTimeOffset(int index) {
+        ensureParsed();
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        return entries == null ? value(table, 0x800, index) : entries.get(index).getSampleCompositionTimeOffset();
     }
 
     public static class Entry {
@@ -118,6 +225,7 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public void setDataOffset(int dataOffset) {
+        ensureParsed();
         if (dataOffset == -1) {
             setFlags(getFlags() & (0xFFFFFF ^ 1));
         } else {
@@ -127,11 +235,12 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public long[] getSampleCompositionTimeOffsets() {
+        ensureParsed();
         if (isSampleCompositionTimeOffsetPresent()) {
-            long[] result = new long[entries.size()];
+            long[] result = new long[l2i(getSampleCount())];
 
             for (int i = 0; i < result.length; i++) {
-                result[i] = entries.get(i).getSampleCompositionTimeOffset();
+                result[i] = getSampleCompositionTimeOffset(i);
             }
             return result;
         }
@@ -166,13 +275,13 @@ public class TrackRunBox extends AbstractFullBox {
         if ((flags & 0x800) == 0x800) { //sampleCompositionTimeOffsetPresent
             entrySize += 4;
         }
-        size += entrySize * entries.size();
+        size += entrySize * getSampleCount();
         return size;
     }
 
     protected void getContent(ByteBuffer byteBuffer) {
         writeVersionAndFlags(byteBuffer);
-        IsoTypeWriter.writeUInt32(byteBuffer, entries.size());
+        IsoTypeWriter.writeUInt32(byteBuffer, getSampleCount());
         int flags = getFlags();
 
         if ((flags & 0x1) == 1) { //dataOffsetPresent
@@ -182,21 +291,42 @@ public class TrackRunBox extends AbstractFullBox {
             firstSampleFlags.getContent(byteBuffer);
         }
 
-        for (Entry entry : entries) {
-            if ((flags & 0x100) == 0x100) { //sampleDurationPresent
-                IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleDuration);
-            }
-            if ((flags & 0x200) == 0x200) { //sampleSizePresent
-                IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleSize);
-            }
-            if ((flags & 0x400) == 0x400) { //sampleFlagsPresent
-                entry.sampleFlags.getContent(byteBuffer);
+        int[] table = this.table;
+        List<Entry> entries = this.entries;
+        if (entries == null && (flags & 0xF00) == tableFlags) {
+            IsoTypeWriter.writeInt32Array(byteBuffer, table, 0, table.length);
+        } else if (entries == null) {
+            for (int i = 0; i < sampleCount; i++) {
+                if ((flags & 0x100) == 0x100) { //sampleDurationPresent
+                    byteBuffer.putInt(value(table, 0x100, i));
+                }
+                if ((flags & 0x200) == 0x200) { //sampleSizePresent
+                    byteBuffer.putInt(value(table, 0x200, i));
+                }
+                if ((flags & 0x400) == 0x400) { //sampleFlagsPresent
+                    byteBuffer.putInt(value(table, 0x400, i));
+                }
+                if ((flags & 0x800) == 0x800) { //sampleCompositionTimeOffsetPresent
+                    byteBuffer.putInt(value(table, 0x800, i));
+                }
             }
-            if ((flags & 0x800) == 0x800) { //sampleCompositionTimeOffsetPresent
-                if (getVersion() == 0) {
-                    IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleCompositionTimeOffset);
-                } else {
-                    byteBuffer.putInt((int) entry.sampleCompositionTimeOffset);
+        } else {
+            for (Entry entry : entries) {
+                if ((flags & 0x100) == 0x100) { //sampleDurationPresent
+                    IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleDuration);
+                }
+                if ((flags & 0x200) == 0x200) { //sampleSizePresent
+                    IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleSize);
+                }
+                if ((flags & 0x400) == 0x400) { //sampleFlagsPresent
+                    entry.sampleFlags.getContent(byteBuffer);
+                }
+                if ((flags & 0x800) == 0x800) { //sampleCompositionTimeOffsetPresent
+                    if (getVersion() == 0) {
+                        IsoTypeWriter.writeUInt32(byteBuffer, entry.sampleCompositionTimeOffset);
+                    } else {
+                        byteBuffer.putInt((int) entry.sampleCompositionTimeOffset);
+                    }
                 }
             }
         }
@@ -216,55 +346,52 @@ public class TrackRunBox extends AbstractFullBox {
             firstSampleFlags = new SampleFlags(content);
         }
 
-        for (int i = 0; i < sampleCount; i++) {
-            Entry entry = new Entry();
-            if ((getFlags() & 0x100) == 0x100) { //sampleDurationPresent
-                entry.sampleDuration = IsoTypeReader.readUInt32(content);
-            }
-            if ((getFlags() & 0x200) == 0x200) { //sampleSizePresent
-                entry.sampleSize = IsoTypeReader.readUInt32(content);
-            }
-            if ((getFlags() & 0x400) == 0x400) { //sampleFlagsPresent
-                entry.sampleFlags = new SampleFlags(content);
-            }
-            if ((getFlags() & 0x800) == 0x800) { //sampleCompositionTimeOffsetPresent
-                entry.sampleCompositionTimeOffset = content.getInt();
-            }
-            entries.add(entry);
-        }
-
+        this.sampleCount = l2i(sampleCount);
+        tableFlags = getFlags() & 0xF00;
+        table = new int[this.sampleCount * Integer.bitCount(tableFlags)];
+        IsoTypeReader.readInt32Array(content, table, 0, table.length);
+        entries = null;
     }
 
     public long getSampleCount() {
-        return entries.size();
+        ensureParsed();
+        List<Entry> entries = this.entries;
+        return entries == null ? sampleCount : entries.size();
     }
 
     public boolean isDataOffsetPresent() {
+        ensureParsed();
         return (getFlags() & 0x1) == 1;
     }
 
     public boolean isFirstSampleFlagsPresent() {
+        ensureParsed();
         return (getFlags() & 0x4) == 0x4;
     }
 
 
     public boolean isSampleSizePresent() {
+        ensureParsed();
         return (getFlags() & 0x200) == 0x200;
     }
 
     public boolean isSampleDurationPresent() {
+        ensureParsed();
         return (getFlags() & 0x100) == 0x100;
     }
 
     public boolean isSampleFlagsPresent() {
+        ensureParsed();
         return (getFlags() & 0x400) == 0x400;
     }
 
     public boolean isSampleCompositionTimeOffsetPresent() {
+        ensureParsed();
         return (getFlags() & 0x800) == 0x800;
     }
 
     public void setDataOffsetPresent(boolean v) {
+        ensureParsed();
         if (v) {
             setFlags(getFlags() | 0x01);
         } else {
@@ -273,6 +400,7 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public void setSampleSizePresent(boolean v) {
+        ensureParsed();
         if (v) {
             setFlags(getFlags() | 0x200);
         } else {
@@ -281,6 +409,7 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public void setSampleDurationPresent(boolean v) {
+        ensureParsed();
 
         if (v) {
             setFlags(getFlags() | 0x100);
@@ -290,6 +419,7 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public void setSampleFlagsPresent(boolean v) {
+        ensureParsed();
         if (v) {
             setFlags(getFlags() | 0x400);
         } else {
@@ -298,6 +428,7 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public void setSampleCompositionTimeOffsetPresent(boolean v) {
+        ensureParsed();
         if (v) {
             setFlags(getFlags() | 0x800);
         } else {
@@ -307,14 +438,17 @@ public class TrackRunBox extends AbstractFullBox {
     }
 
     public int getDataOffset() {
+        ensureParsed();
         return dataOffset;
     }
 
     public SampleFlags getFirstSampleFlags() {
+        ensureParsed();
         return firstSampleFlags;
     }
 
     public void setFirstSampleFlags(SampleFlags firstSampleFlags) {
+        ensureParsed();
         if (firstSampleFlags == null) {
             setFlags(getFlags() & (0xFFFFFF ^ 0x4));
         } else {
@@ -325,9 +459,10 @@ public class TrackRunBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("TrackRunBox");
-        sb.append("{sampleCount=").append(entries.size());
+        sb.append("{sampleCount=").append(getSampleCount());
         sb.append(", dataOffset=").append(dataOffset);
         sb.append(", dataOffsetPresent=").append(isDataOffsetPresent());
         sb.append(", sampleSizePresent=").append(isSampleSizePresent());
@@ -339,7 +474,9 @@ public class TrackRunBox extends AbstractFullBox {
         return sb.toString();
     }
 
-    public void setEntries(List<Entry> entries) {
+    public synchronized void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
+        this.table = null;
     }
 }
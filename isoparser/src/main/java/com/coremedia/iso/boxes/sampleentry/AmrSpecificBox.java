@@ -44,22 +44,27 @@ public class AmrSpecificBox extends AbstractBox {
     }
 
     public String getVendor() {
+        ensureParsed();
         return vendor;
     }
 
     public int getDecoderVersion() {
+        ensureParsed();
         return decoderVersion;
     }
 
     public int getModeSet() {
+        ensureParsed();
         return modeSet;
     }
 
     public int getModeChangePeriod() {
+        ensureParsed();
         return modeChangePeriod;
     }
 
     public int getFramesPerSample() {
+        ensureParsed();
         return framesPerSample;
     }
 
@@ -82,6 +87,7 @@ public class AmrSpecificBox extends AbstractBox {
 
 
     public void getContent(ByteBuffer byteBuffer) {
+        ensureParsed();
         byteBuffer.put(IsoFile.fourCCtoBytes(vendor));
         IsoTypeWriter.writeUInt8(byteBuffer, decoderVersion);
         IsoTypeWriter.writeUInt16(byteBuffer, modeSet);
@@ -90,6 +96,7 @@ public class AmrSpecificBox extends AbstractBox {
     }
 
     public String toString() {
+        ensureParsed();
         StringBuilder buffer = new StringBuilder();
         buffer.append("AmrSpecificBox[vendor=").append(getVendor());
         buffer.append(";decoderVersion=").append(getDecoderVersion());
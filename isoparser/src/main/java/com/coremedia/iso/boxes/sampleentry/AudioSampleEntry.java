@@ -16,6 +16,7 @@
 
 package com.coremedia.iso.boxes.sampleentry;
 
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.BoxParser;
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
@@ -80,6 +81,7 @@ public final class AudioSampleEntry extends AbstractSampleEntry {
 
     public void setType(String type) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
     }
 
     public int getChannelCount() {
@@ -17,6 +17,7 @@
 package com.coremedia.iso.boxes.sampleentry;
 
 import com.coremedia.iso.BoxParser;
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
 
@@ -66,6 +67,7 @@ public class TextSampleEntry extends AbstractSampleEntry {
 
     public void setType(String type) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
     }
 
     @Override
@@ -17,11 +17,14 @@
 package com.coremedia.iso.boxes.sampleentry;
 
 import com.coremedia.iso.BoxParser;
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.IsoTypeWriter;
 import com.coremedia.iso.Utf8;
 import com.coremedia.iso.boxes.Container;
+import com.googlecode.mp4parser.ConcurrentDataSource;
 import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.util.DataSourceHelper;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -89,6 +92,7 @@ public final class VisualSampleEntry extends AbstractSampleEntry implements Cont
 
     public void setType(String type) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
     }
 
     public int getWidth() {
@@ -187,7 +191,7 @@ public final class VisualSampleEntry extends AbstractSampleEntry implements Cont
         assert 0xFFFF == tmp;
 
 
-        final DataSource dsLimited = new DataSource() {
+        final DataSource dsLimited = new ConcurrentDataSource() {
 
             public int read(ByteBuffer byteBuffer) throws IOException {
                 if (endPosition == dataSource.position()) {
@@ -202,6 +206,19 @@ public final class VisualSampleEntry extends AbstractSampleEntry implements Cont
                 }
             }
 
+            public int read(ByteBuffer byteBuffer, long position) throws IOException {
+                if (position >= endPosition) {
+                    return -1;
+                } else if (byteBuffer.remaining() > endPosition - position) {
+                    ByteBuffer bb = ByteBuffer.allocate(l2i(endPosition - position));
+                    dataSource.read(bb, position);
+                    byteBuffer.put((ByteBuffer) bb.flip());
+                    return bb.limit();
+                } else {
+                    return dataSource.read(byteBuffer, position);
+                }
+            }
+
             public long size() throws IOException {
                 return endPosition;
             }
@@ -222,6 +239,14 @@ public final class VisualSampleEntry extends AbstractSampleEntry implements Cont
                 return dataSource.map(startPosition, size);
             }
 
+            public boolean supportsConcurrentReads() {
+                return DataSourceHelper.supportsConcurrentReads(dataSource);
+            }
+
+            public boolean hasPositionPerThread() {
+                return DataSourceHelper.hasPositionPerThread(dataSource);
+            }
+
             public void close() throws IOException {
                 dataSource.close();
             }
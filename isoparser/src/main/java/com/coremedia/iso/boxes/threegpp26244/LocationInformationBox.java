@@ -28,66 +28,82 @@ public class LocationInformationBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public String getName() {
+        ensureParsed();
         return name;
     }
 
     public void setName(String name) {
+        ensureParsed();
         this.name = name;
     }
 
     public int getRole() {
+        ensureParsed();
         return role;
     }
 
     public void setRole(int role) {
+        ensureParsed();
         this.role = role;
     }
 
     public double getLongitude() {
+        ensureParsed();
         return longitude;
     }
 
     public void setLongitude(double longitude) {
+        ensureParsed();
         this.longitude = longitude;
     }
 
     public double getLatitude() {
+        ensureParsed();
         return latitude;
     }
 
     public void setLatitude(double latitude) {
+        ensureParsed();
         this.latitude = latitude;
     }
 
     public double getAltitude() {
+        ensureParsed();
         return altitude;
     }
 
     public void setAltitude(double altitude) {
+        ensureParsed();
         this.altitude = altitude;
     }
 
     public String getAstronomicalBody() {
+        ensureParsed();
         return astronomicalBody;
     }
 
     public void setAstronomicalBody(String astronomicalBody) {
+        ensureParsed();
         this.astronomicalBody = astronomicalBody;
     }
 
     public String getAdditionalNotes() {
+        ensureParsed();
         return additionalNotes;
     }
 
     public void setAdditionalNotes(String additionalNotes) {
+        ensureParsed();
         this.additionalNotes = additionalNotes;
     }
 
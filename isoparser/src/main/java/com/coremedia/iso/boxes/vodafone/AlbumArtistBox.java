@@ -40,18 +40,22 @@ public class AlbumArtistBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getAlbumArtist() {
+        ensureParsed();
         return albumArtist;
     }
 
     public void setLanguage(String language) {
+        ensureParsed();
         this.language = language;
     }
 
     public void setAlbumArtist(String albumArtist) {
+        ensureParsed();
         this.albumArtist = albumArtist;
     }
 
@@ -74,6 +78,7 @@ public class AlbumArtistBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "AlbumArtistBox[language=" + getLanguage() + ";albumArtist=" + getAlbumArtist() + "]";
     }
 }
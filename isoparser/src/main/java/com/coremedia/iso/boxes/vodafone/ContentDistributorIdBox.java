@@ -38,10 +38,12 @@ public class ContentDistributorIdBox extends AbstractFullBox {
     }
 
     public String getLanguage() {
+        ensureParsed();
         return language;
     }
 
     public String getContentDistributorId() {
+        ensureParsed();
         return contentDistributorId;
     }
 
@@ -66,6 +68,7 @@ public class ContentDistributorIdBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "ContentDistributorIdBox[language=" + getLanguage() + ";contentDistributorId=" + getContentDistributorId() + "]";
     }
 }
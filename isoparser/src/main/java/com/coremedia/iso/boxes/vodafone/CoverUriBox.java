@@ -36,10 +36,12 @@ public class CoverUriBox extends AbstractFullBox {
     }
 
     public String getCoverUri() {
+        ensureParsed();
         return coverUri;
     }
 
     public void setCoverUri(String coverUri) {
+        ensureParsed();
         this.coverUri = coverUri;
     }
 
@@ -62,6 +64,7 @@ public class CoverUriBox extends AbstractFullBox {
 
 
     public String toString() {
+        ensureParsed();
         return "CoverUriBox[coverUri=" + getCoverUri() + "]";
     }
 }
@@ -37,10 +37,12 @@ public class LyricsUriBox extends AbstractFullBox {
     }
 
     public String getLyricsUri() {
+        ensureParsed();
         return lyricsUri;
     }
 
     public void setLyricsUri(String lyricsUri) {
+        ensureParsed();
         this.lyricsUri = lyricsUri;
     }
 
@@ -62,6 +64,7 @@ public class LyricsUriBox extends AbstractFullBox {
     }
 
     public String toString() {
+        ensureParsed();
         return "LyricsUriBox[lyricsUri=" + getLyricsUri() + "]";
     }
 }
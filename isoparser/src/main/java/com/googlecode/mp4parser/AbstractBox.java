@@ -16,20 +16,25 @@
 
 package com.googlecode.mp4parser;
 
+import com.coremedia.iso.AbstractBoxParser;
 import com.coremedia.iso.BoxParser;
+import com.coremedia.iso.ContentRetention;
 import com.coremedia.iso.Hex;
-import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.IsoTypeWriter;
 import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.Container;
-import com.coremedia.iso.boxes.UserBox;
 import com.googlecode.mp4parser.annotations.DoNotParseDetail;
+import com.googlecode.mp4parser.util.ChannelHelper;
 import com.googlecode.mp4parser.util.Logger;
 import com.googlecode.mp4parser.util.Path;
+import com.googlecode.mp4parser.util.ScratchBuffer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.List;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -41,16 +46,27 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  * <li>{@link #getContentSize()}</li>
  * </ol>
  * additionally this new box has to be put into the <code>isoparser-default.properties</code> file so that
- * it is accessible by the <code>PropertyBoxParserImpl</code>
+ * it is accessible by the <code>PropertyBoxParserImpl</code>. Public methods that access parsed fields must
+ * call {@link #ensureParsed()} before doing so.
  */
 public abstract class AbstractBox implements Box {
     private static Logger LOG = Logger.getLogger(AbstractBox.class);
+    private static final byte[] ZEROS = new byte[1024];
 
     protected String type;
+    /**
+     * {@link #type} packed into an <code>int</code>. Subclasses that change <code>type</code> have to
+     * update it as well.
+     */
+    protected int typeInt;
     private byte[] userType;
     private Container parent;
     boolean isParsed;
     boolean isRead;
+    /**
+     * Parsed with {@link ContentRetention#COPY}.
+     */
+    boolean copyRetained;
 
 
     private ByteBuffer content;
@@ -83,12 +99,14 @@ public abstract class AbstractBox implements Box {
 
     protected AbstractBox(String type) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
         isRead = true;
         isParsed = true;
     }
 
     protected AbstractBox(String type, byte[] userType) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
         this.userType = userType;
         isRead = true;
         isParsed = true;
@@ -129,6 +147,8 @@ public abstract class AbstractBox implements Box {
         this.offset = contentStartPosition - header.remaining();
         this.memMapSize = contentSize;
         this.dataSource = dataSource;
+        this.copyRetained = boxParser instanceof AbstractBoxParser &&
+                ((AbstractBoxParser) boxParser).getContentRetention() == ContentRetention.COPY;
 
         dataSource.position(dataSource.position() + contentSize);
         isRead = false;
@@ -137,33 +157,189 @@ public abstract class AbstractBox implements Box {
     }
 
     public void getBox(WritableByteChannel os) throws IOException {
+        ByteBuffer scratch = ScratchBuffer.acquire();
+        try {
+            write(os, scratch);
+        } finally {
+            ScratchBuffer.release(scratch);
+        }
+    }
+
+    /**
+     * Writes the box through the given scratch buffer instead of allocating a buffer of the box's size.
+     *
+     * @param os      the sink
+     * @param scratch empty buffer of at least {@link ScratchBuffer#SIZE} bytes, empty again on return
+     * @throws IOException If some I/O error occurs
+     */
+    void write(WritableByteChannel os, ByteBuffer scratch) throws IOException {
+        getHeader(scratch);
         if (isRead) {
             if (isParsed) {
-                ByteBuffer bb = ByteBuffer.allocate(l2i(getSize()));
-                getHeader(bb);
-                getContent(bb);
+                writeContent(os, scratch);
                 if (deadBytes != null) {
-                    deadBytes.rewind();
-                    while (deadBytes.remaining() > 0) {
-                        bb.put(deadBytes);
+                    ByteBuffer dead = (ByteBuffer) deadBytes.duplicate().rewind();
+                    if (dead.remaining() > scratch.remaining()) {
+                        flush(os, scratch);
+                        ChannelHelper.writeFully(os, dead);
+                    } else {
+                        scratch.put(dead);
                     }
                 }
-                os.write((ByteBuffer) bb.rewind());
+                flush(os, scratch);
             } else {
-                ByteBuffer header = ByteBuffer.allocate((isSmallBox() ? 8 : 16) + (UserBox.TYPE.equals(getType()) ? 16 : 0));
-                getHeader(header);
-                os.write((ByteBuffer) header.rewind());
-                os.write((ByteBuffer) content.position(0));
+                scratch.flip();
+                ByteBuffer content = (ByteBuffer) this.content.duplicate().position(0);
+                if (os instanceof GatheringByteChannel) {
+                    ChannelHelper.writeFully((GatheringByteChannel) os, new ByteBuffer[]{scratch, content});
+                } else {
+                    ChannelHelper.writeFully(os, scratch);
+                    ChannelHelper.writeFully(os, content);
+                }
+                scratch.clear();
             }
+        } else {
+            flush(os, scratch);
+            dataSource.transferTo(contentStartPosition, memMapSize, os);
+        }
+    }
 
+    /**
+     * Serializes the whole box into <code>scratch</code> if it fits. Unparsed boxes add their raw content
+     * as a buffer of its own so that it isn't copied.
+     *
+     * @param scratch space for serialized boxes, its position is advanced by the bytes used
+     * @param out     the buffers to be written, the box's buffers are appended
+     * @return <code>false</code> if the box doesn't fit and nothing has been appended
+     */
+    boolean gather(ByteBuffer scratch, List<ByteBuffer> out) {
+        if (!isRead) {
+            return false;
+        }
+        if (isParsed) {
+            long size = getSize();
+            if (size > scratch.remaining()) {
+                return false;
+            }
+            ByteBuffer box = (ByteBuffer) scratch.slice().limit((int) size);
+            getHeader(box);
+            putContent(box, getContentSize());
+            if (deadBytes != null) {
+                box.put((ByteBuffer) deadBytes.duplicate().rewind());
+            }
+            scratch.position(scratch.position() + (int) size);
+            out.add((ByteBuffer) box.flip());
         } else {
-            ByteBuffer header = ByteBuffer.allocate((isSmallBox() ? 8 : 16) + (UserBox.TYPE.equals(getType()) ? 16 : 0));
+            if (scratch.remaining() < 32) { // largest possible header
+                return false;
+            }
+            ByteBuffer header = scratch.slice();
             getHeader(header);
-            os.write((ByteBuffer) header.rewind());
-            dataSource.transferTo(contentStartPosition, memMapSize, os);
+            scratch.position(scratch.position() + header.position());
+            out.add((ByteBuffer) header.flip());
+            out.add((ByteBuffer) this.content.duplicate().position(0));
         }
+        return true;
     }
 
+    /**
+     * Writes the box's content. Bytes may be left in <code>buffer</code> - the caller writes them after
+     * the call. Implementations that write to <code>os</code> directly have to {@link #flush flush} the
+     * buffer first.
+     * <p/>
+     * The default implementation calls {@link #getContent(java.nio.ByteBuffer)} on <code>buffer</code>
+     * if the content fits and allocates a buffer of the content's size otherwise. Boxes with large
+     * contents override this to write their content in chunks.
+     *
+     * @param os     the sink
+     * @param buffer the scratch buffer, has at least 1 KiB remaining
+     * @throws IOException If some I/O error occurs
+     */
+    protected void writeContent(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        long contentSize = getContentSize();
+        if (contentSize > buffer.remaining()) {
+            flush(os, buffer);
+        }
+        if (contentSize <= buffer.remaining()) {
+            putContent(buffer, contentSize);
+        } else {
+            ByteBuffer bb = ByteBuffer.allocate(l2i(contentSize));
+            getContent(bb);
+            ChannelHelper.writeFully(os, (ByteBuffer) bb.rewind());
+        }
+    }
+
+    /**
+     * Writes exactly <code>contentSize</code> bytes as if into a freshly allocated buffer: overflows fail and
+     * the content starts out zeroed (bit writers rely on that).
+     */
+    private void putContent(ByteBuffer buffer, long contentSize) {
+        ByteBuffer bb = (ByteBuffer) buffer.slice().limit((int) contentSize);
+        while (bb.hasRemaining()) {
+            bb.put(ZEROS, 0, Math.min(ZEROS.length, bb.remaining()));
+        }
+        bb.rewind();
+        getContent(bb);
+        buffer.position(buffer.position() + (int) contentSize);
+    }
+
+    /**
+     * Writes all bytes in the buffer to the channel and clears the buffer.
+     *
+     * @param os     the sink
+     * @param buffer buffer in write mode (not flipped yet)
+     * @throws IOException If some I/O error occurs
+     */
+    protected static void flush(WritableByteChannel os, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        ChannelHelper.writeFully(os, buffer);
+        buffer.clear();
+    }
+
+
+    /**
+     * Writes unsigned 32 bit values in chunks that fit into <code>buffer</code>, flushing it whenever
+     * it's full. For {@link #writeContent(java.nio.channels.WritableByteChannel, java.nio.ByteBuffer)}
+     * implementations of boxes with large tables.
+     *
+     * @param os     the sink
+     * @param buffer the scratch buffer
+     * @param values the values to write
+     * @throws IOException If some I/O error occurs
+     */
+    protected static void writeUInt32Array(WritableByteChannel os, ByteBuffer buffer, long[] values) throws IOException {
+        int written = 0;
+        while (written < values.length) {
+            if (buffer.remaining() < 4) {
+                flush(os, buffer);
+            }
+            int n = Math.min(values.length - written, buffer.remaining() / 4);
+            IsoTypeWriter.writeUInt32Array(buffer, values, written, n);
+            written += n;
+        }
+    }
+
+    /**
+     * Writes unsigned 64 bit values in chunks that fit into <code>buffer</code>, flushing it whenever
+     * it's full.
+     *
+     * @param os     the sink
+     * @param buffer the scratch buffer
+     * @param values the values to write
+     * @throws IOException If some I/O error occurs
+     * @see #writeUInt32Array(java.nio.channels.WritableByteChannel, java.nio.ByteBuffer, long[])
+     */
+    protected static void writeUInt64Array(WritableByteChannel os, ByteBuffer buffer, long[] values) throws IOException {
+        int written = 0;
+        while (written < values.length) {
+            if (buffer.remaining() < 8) {
+                flush(os, buffer);
+            }
+            int n = Math.min(values.length - written, buffer.remaining() / 8);
+            IsoTypeWriter.writeUInt64Array(buffer, values, written, n);
+            written += n;
+        }
+    }
 
     /**
      * Parses the raw content of the box. It surrounds the actual parsing
@@ -178,13 +354,58 @@ public abstract class AbstractBox implements Box {
             content.rewind();
             _parseDetails(content);
             if (content.remaining() > 0) {
-                deadBytes = content.slice();
+                deadBytes = retain(content.slice());
             }
             this.content = null;
             assert verify(content);
         }
     }
 
+    /**
+     * Must be called by implementations for each part of the content they keep after parsing (instead of
+     * keeping a slice of the content directly).
+     *
+     * @param bytes part of the content passed to {@link #_parseDetails(java.nio.ByteBuffer)}
+     * @return <code>bytes</code> itself or - if the box has been parsed with {@link ContentRetention#COPY} -
+     * a heap copy of its remaining bytes. The copy is read-only if <code>bytes</code> is.
+     */
+    protected final ByteBuffer retain(ByteBuffer bytes) {
+        if (!copyRetained || bytes == null) {
+            return bytes;
+        }
+        ByteBuffer copy = ByteBuffer.allocate(bytes.remaining());
+        copy.put(bytes.duplicate());
+        copy.rewind();
+        return bytes.isReadOnly() ? copy.asReadOnlyBuffer() : copy;
+    }
+
+    /**
+     * Gets the number of raw content bytes this box holds on to: the content of a read but unparsed box,
+     * leftover bytes of a parsed box and the parts of the content kept by the implementation. Fields
+     * decoded from the content are not counted.
+     *
+     * @return retained bytes, 0 if the box hasn't been read yet
+     * @see com.coremedia.iso.IsoFile#getRetainedBytes()
+     */
+    @DoNotParseDetail
+    public long getRetainedBytes() {
+        ByteBuffer content = this.content;
+        ByteBuffer deadBytes = this.deadBytes;
+        return (content != null ? content.limit() : 0) +
+                (deadBytes != null ? deadBytes.limit() : 0) +
+                (isParsed ? getRetainedContentBytes() : 0);
+    }
+
+    /**
+     * Gets the number of bytes of the content kept after parsing, i.e. of the buffers passed through
+     * {@link #retain(java.nio.ByteBuffer)}. Boxes keeping such buffers override this.
+     *
+     * @return the retained bytes of a parsed box
+     */
+    protected long getRetainedContentBytes() {
+        return 0;
+    }
+
     /**
      * Sets the 'dead' bytes. These bytes are left if the content of the box
      * has been parsed but not all bytes have been used up.
@@ -205,7 +426,7 @@ public abstract class AbstractBox implements Box {
         long size = (isRead ? (isParsed ? getContentSize() : (content != null ? content.limit() : 0)) : memMapSize);
         size += (8 + // size|type
                 (size >= ((1L << 32) - 8) ? 8 : 0) + // 32bit - 8 byte size and type
-                (UserBox.TYPE.equals(getType()) ? 16 : 0));
+                (getTypeInt() == FourCC.UUID ? 16 : 0));
         size += (deadBytes == null ? 0 : deadBytes.limit());
         return size;
     }
@@ -215,9 +436,26 @@ public abstract class AbstractBox implements Box {
         return type;
     }
 
+    /**
+     * The box's 4-cc type packed into an <code>int</code>.
+     *
+     * @return the type of the box as int
+     * @see FourCC#typeOf(com.coremedia.iso.boxes.Box)
+     */
+    @DoNotParseDetail
+    public int getTypeInt() {
+        return typeInt;
+    }
+
+    /**
+     * The user type of a <code>uuid</code> box. Boxes of the same user type may share the array internally,
+     * so each call returns a copy.
+     *
+     * @return the 16 bytes user type or <code>null</code> if this isn't a <code>uuid</code> box
+     */
     @DoNotParseDetail
     public byte[] getUserType() {
-        return userType;
+        return userType == null ? null : userType.clone();
     }
 
     @DoNotParseDetail
@@ -230,6 +468,18 @@ public abstract class AbstractBox implements Box {
         this.parent = parent;
     }
 
+    /**
+     * Parses the details unless that has been done already. Every public method of a box that reads or
+     * changes parsed fields calls this first. Only methods marked with
+     * {@link com.googlecode.mp4parser.annotations.DoNotParseDetail} skip it. <code>EnsureParsedGuardTest</code>
+     * checks that for the boxes of this module.
+     */
+    protected final void ensureParsed() {
+        if (!isParsed) {
+            parseDetails();
+        }
+    }
+
     /**
      * Check if details are parsed.
      *
@@ -285,7 +535,7 @@ public abstract class AbstractBox implements Box {
 
     private boolean isSmallBox() {
         int baseSize = 8;
-        if (UserBox.TYPE.equals(getType())) {
+        if (getTypeInt() == FourCC.UUID) {
             baseSize += 16;
         }
         if (isRead) {
@@ -302,13 +552,13 @@ public abstract class AbstractBox implements Box {
     private void getHeader(ByteBuffer byteBuffer) {
         if (isSmallBox()) {
             IsoTypeWriter.writeUInt32(byteBuffer, this.getSize());
-            byteBuffer.put(IsoFile.fourCCtoBytes(getType()));
+            FourCC.write(byteBuffer, getTypeInt());
         } else {
             IsoTypeWriter.writeUInt32(byteBuffer, 1);
-            byteBuffer.put(IsoFile.fourCCtoBytes(getType()));
+            FourCC.write(byteBuffer, getTypeInt());
             IsoTypeWriter.writeUInt64(byteBuffer, getSize());
         }
-        if (UserBox.TYPE.equals(getType())) {
+        if (getTypeInt() == FourCC.UUID) {
             byteBuffer.put(getUserType());
         }
     }
@@ -17,6 +17,7 @@
 package com.googlecode.mp4parser;
 
 import com.coremedia.iso.BoxParser;
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.IsoTypeWriter;
 import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.Container;
@@ -33,12 +34,18 @@ public class AbstractContainerBox extends BasicContainer implements Box {
 
     Container parent;
     protected String type;
+    /**
+     * {@link #type} packed into an <code>int</code>. Subclasses that change <code>type</code> have to
+     * update it as well.
+     */
+    protected int typeInt;
     protected boolean largeBox;
     private long offset;
 
 
     public AbstractContainerBox(String type) {
         this.type = type;
+        this.typeInt = FourCC.of(type);
     }
 
     public Container getParent() {
@@ -62,15 +69,28 @@ public class AbstractContainerBox extends BasicContainer implements Box {
         return type;
     }
 
+    /**
+     * The box's 4-cc type packed into an <code>int</code>.
+     *
+     * @return the type of the box as int
+     * @see FourCC#typeOf(com.coremedia.iso.boxes.Box)
+     */
+    public int getTypeInt() {
+        return typeInt;
+    }
+
     protected ByteBuffer getHeader() {
         ByteBuffer header;
-        if (largeBox || getSize() >= (1L << 32)) {
-            header = ByteBuffer.wrap(new byte[]{0, 0, 0, 1, type.getBytes()[0], type.getBytes()[1], type.getBytes()[2], type.getBytes()[3], 0, 0, 0, 0, 0, 0, 0, 0});
-            header.position(8);
-            IsoTypeWriter.writeUInt64(header, getSize());
+        long size = getSize();
+        if (largeBox || size >= (1L << 32)) {
+            header = ByteBuffer.allocate(16);
+            IsoTypeWriter.writeUInt32(header, 1);
+            FourCC.write(header, getTypeInt());
+            IsoTypeWriter.writeUInt64(header, size);
         } else {
-            header = ByteBuffer.wrap(new byte[]{0, 0, 0, 0, type.getBytes()[0], type.getBytes()[1], type.getBytes()[2], type.getBytes()[3]});
-            IsoTypeWriter.writeUInt32(header, getSize());
+            header = ByteBuffer.allocate(8);
+            IsoTypeWriter.writeUInt32(header, size);
+            FourCC.write(header, getTypeInt());
         }
         header.rewind();
         return header;
@@ -84,8 +104,13 @@ public class AbstractContainerBox extends BasicContainer implements Box {
 
 
     public void getBox(WritableByteChannel writableByteChannel) throws IOException {
-        writableByteChannel.write(getHeader());
-        writeContainer(writableByteChannel);
+        boolean sizePass = beginSizePass();
+        try {
+            writableByteChannel.write(getHeader());
+            writeContainer(writableByteChannel);
+        } finally {
+            endSizePass(sizePass);
+        }
     }
 
     public void initContainer(DataSource dataSource, long containerSize, BoxParser boxParser) throws IOException {
@@ -49,6 +49,7 @@ public abstract class AbstractFullBox extends AbstractBox implements FullBox {
     }
 
     public void setVersion(int version) {
+        ensureParsed();
         this.version = version;
     }
 
@@ -62,6 +63,7 @@ public abstract class AbstractFullBox extends AbstractBox implements FullBox {
     }
 
     public void setFlags(int flags) {
+        ensureParsed();
         this.flags = flags;
     }
 
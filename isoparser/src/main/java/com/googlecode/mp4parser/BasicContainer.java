@@ -1,10 +1,16 @@
 package com.googlecode.mp4parser;
 
 import com.coremedia.iso.BoxParser;
+import com.coremedia.iso.FourCC;
+import com.coremedia.iso.IsoTypeReader;
 import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.Container;
+import com.googlecode.mp4parser.util.ChannelHelper;
+import com.googlecode.mp4parser.util.DataSourceHelper;
 import com.googlecode.mp4parser.util.LazyList;
 import com.googlecode.mp4parser.util.Logger;
+import com.googlecode.mp4parser.util.ScratchBuffer;
+import com.googlecode.mp4parser.util.SnapshotList;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
@@ -12,8 +18,14 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
@@ -37,18 +49,35 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
         }
     };
     private static Logger LOG = Logger.getLogger(BasicContainer.class);
+    private static final int MAX_MEMOIZED_PATHS = 32;
+    /**
+     * Box classes whose <code>getBox</code> is inherited unchanged from <code>AbstractBox</code> or
+     * <code>AbstractContainerBox</code> and can therefore be serialized into a gathering write.
+     */
+    private static final Map<Class<?>, Boolean> DEFAULT_GET_BOX = new ConcurrentHashMap<Class<?>, Boolean>();
+    /**
+     * Container sizes computed during the {@link #beginSizePass() size pass} running on this thread.
+     */
+    private static final ThreadLocal<Map<BasicContainer, Long>> SIZE_PASS = new ThreadLocal<Map<BasicContainer, Long>>();
     protected BoxParser boxParser;
     protected DataSource dataSource;
     Box lookahead = null;
     long parsePosition = 0;
     long startPosition = 0;
     long endPosition = 0;
-    private List<Box> boxes = new ArrayList<Box>();
+    private List<Box> boxes = new Children();
+    private BoxIndex boxIndex;
+    private int boxIndexEntry = -1;
+    private Map<Integer, Box> indexedBoxes;
+    private volatile Map<Object, List<Box>> pathMemo;
 
     public BasicContainer() {
     }
 
     public List<Box> getBoxes() {
+        if (boxIndex != null) {
+            parseIndexedBoxes();
+        }
         if (dataSource != null && lookahead != EOF) {
             return new LazyList<Box>(boxes, this);
         } else {
@@ -57,21 +86,72 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
     }
 
     public void setBoxes(List<Box> boxes) {
-        this.boxes = new ArrayList<Box>(boxes);
+        this.boxes = new Children(boxes);
         this.lookahead = EOF;
         this.dataSource = null;
+        this.boxIndex = null;
+        this.indexedBoxes = null;
+        invalidatePaths();
     }
 
     protected long getContainerSize() {
+        Map<BasicContainer, Long> sizePass = SIZE_PASS.get();
+        if (sizePass != null) {
+            Long size = sizePass.get(this);
+            if (size != null) {
+                return size;
+            }
+        }
         long contentSize = 0;
         for (int i = 0; i < getBoxes().size(); i++) {
             // it's quicker to iterate an array list like that since no iterator
             // needs to be instantiated
             contentSize += boxes.get(i).getSize();
         }
+        if (sizePass != null) {
+            sizePass.put(this, contentSize);
+        }
         return contentSize;
     }
 
+    /**
+     * Starts a size pass on the current thread. Until it is ended each container sums up the sizes of its
+     * children only once, later calls get the remembered sum. Without a pass every <code>getSize()</code>
+     * walks the whole subtree - code that needs the sizes of many nested boxes, like writing a file or
+     * computing offsets within it, would walk the same subtrees over and over again.
+     * <p/>
+     * Box sizes must not change while the pass is running. Nested calls are allowed, only the outermost
+     * pass ends it:
+     * <pre>
+     * boolean begun = BasicContainer.beginSizePass();
+     * try {
+     *     ...
+     * } finally {
+     *     BasicContainer.endSizePass(begun);
+     * }
+     * </pre>
+     *
+     * @return <code>true</code> if a new pass has been started, <code>false</code> if one is running already
+     */
+    public static boolean beginSizePass() {
+        if (SIZE_PASS.get() != null) {
+            return false;
+        }
+        SIZE_PASS.set(new IdentityHashMap<BasicContainer, Long>());
+        return true;
+    }
+
+    /**
+     * Ends the size pass started by {@link #beginSizePass()} and forgets the sizes it has seen.
+     *
+     * @param begun the value <code>beginSizePass()</code> returned
+     */
+    public static void endSizePass(boolean begun) {
+        if (begun) {
+            SIZE_PASS.remove();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Box> List<T> getBoxes(Class<T> clazz) {
         List<T> boxesToBeReturned = null;
@@ -126,17 +206,121 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
     /**
      * Add <code>box</code> to the container and sets the parent correctly. If <code>box</code> is <code>null</code>
      * nochange will be performed and no error thrown.
+     * <p/>
+     * Iterators of {@link #getBoxes()} created before keep walking the boxes they started with. Adding boxes
+     * while other threads read the children is safe as long as they go through {@link #getBoxes()} of a
+     * parsed container or synchronize on the list it returns.
      *
      * @param box will be added to the container
      */
     public void addBox(Box box) {
         if (box != null) {
-            boxes = new ArrayList<Box>(getBoxes());
+            List<Box> boxes = allBoxes();
             box.setParent(this);
-            boxes.add(box);
+            synchronized (boxes) {
+                boxes.add(box);
+            }
+        }
+    }
+
+    /**
+     * Adds all boxes to the container and sets their parent. <code>null</code> elements are skipped.
+     * The same rules as for {@link #addBox(Box)} apply.
+     *
+     * @param boxes will be added to the container in the given order
+     */
+    public void addBoxes(Collection<? extends Box> boxes) {
+        List<Box> all = allBoxes();
+        synchronized (all) {
+            if (all instanceof SnapshotList) {
+                ((SnapshotList<Box>) all).ensureCapacity(all.size() + boxes.size());
+            }
+            for (Box box : boxes) {
+                if (box != null) {
+                    box.setParent(this);
+                    all.add(box);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the remembered result of a path lookup that started at this container.
+     *
+     * @param key identifies the lookup
+     * @return the boxes found or <code>null</code> if the lookup hasn't been remembered
+     * @see com.googlecode.mp4parser.util.CompiledPath
+     */
+    public List<Box> getMemoizedPath(Object key) {
+        Map<Object, List<Box>> pathMemo = this.pathMemo;
+        return pathMemo == null ? null : pathMemo.get(key);
+    }
+
+    /**
+     * Remembers the result of a path lookup that started at this container until the children of this
+     * container or of one of the containers below it change - no matter whether that's through
+     * {@link #addBox(Box)} or through the list returned by {@link #getBoxes()}.
+     *
+     * @param key    identifies the lookup
+     * @param result the boxes found, must not be modified afterwards
+     */
+    public void memoizePath(Object key, List<Box> result) {
+        Map<Object, List<Box>> pathMemo = this.pathMemo;
+        if (pathMemo == null) {
+            this.pathMemo = pathMemo = new ConcurrentHashMap<Object, List<Box>>();
+        }
+        if (pathMemo.size() < MAX_MEMOIZED_PATHS) {
+            pathMemo.put(key, result);
+        }
+    }
+
+    private void invalidatePaths() {
+        BasicContainer container = this;
+        while (container != null) {
+            container.pathMemo = null;
+            Container parent = container instanceof Box ? ((Box) container).getParent() : null;
+            container = parent instanceof BasicContainer ? (BasicContainer) parent : null;
         }
     }
 
+    /**
+     * Adds the {@link AbstractBox#getRetainedBytes() retained bytes} of all boxes below this container to
+     * the totals per box type. Only boxes that have been created already are visited, nothing is parsed.
+     *
+     * @param retained retained bytes per box type, updated in place
+     */
+    protected void collectRetainedBytes(Map<String, Long> retained) {
+        Box[] created;
+        synchronized (boxes) {
+            created = boxes.toArray(new Box[boxes.size()]);
+        }
+        for (Box box : created) {
+            if (box instanceof AbstractBox) {
+                long bytes = ((AbstractBox) box).getRetainedBytes();
+                if (bytes > 0) {
+                    Long total = retained.get(box.getType());
+                    retained.put(box.getType(), total != null ? total + bytes : bytes);
+                }
+            }
+            if (box instanceof BasicContainer) {
+                ((BasicContainer) box).collectRetainedBytes(retained);
+            }
+        }
+    }
+
+    /**
+     * Gets the list that backs {@link #getBoxes()} after all remaining children have been parsed. Boxes
+     * can be appended to it in place.
+     */
+    private List<Box> allBoxes() {
+        List<Box> all = getBoxes();
+        if (all instanceof LazyList) {
+            all.size(); // parses the remaining boxes
+            all = ((LazyList<Box>) all).getUnderlying();
+        }
+        return all;
+    }
+
     public void initContainer(DataSource dataSource, long containerSize, BoxParser boxParser) throws IOException {
 
         this.dataSource = dataSource;
@@ -146,6 +330,85 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
         this.boxParser = boxParser;
     }
 
+    /**
+     * Lets this container look up its children in a <code>BoxIndex</code> instead of parsing all boxes in
+     * front of the requested one. Must be called before any child has been parsed.
+     *
+     * @param boxIndex the index of the file this container has been parsed from
+     * @param entry    the container's own entry in the index, <code>-1</code> for the file itself
+     */
+    protected void setBoxIndex(BoxIndex boxIndex, int entry) {
+        this.boxIndex = boxIndex;
+        this.boxIndexEntry = entry;
+        this.indexedBoxes = new HashMap<Integer, Box>();
+    }
+
+    /**
+     * @return the index used to look up children or <code>null</code> if there is none or all children
+     * have been parsed already
+     */
+    public BoxIndex getBoxIndex() {
+        return boxIndex;
+    }
+
+    /**
+     * Gets the <code>index</code>th child of the given type. With a <code>BoxIndex</code> only the
+     * requested child is parsed.
+     *
+     * @param type  the child's type
+     * @param index zero based index among the children of the same type
+     * @return the child or <code>null</code> if there is no such child
+     */
+    public Box getIndexedBox(String type, int index) {
+        synchronized (getParseLock()) {
+            if (boxIndex != null) {
+                int entry = boxIndex.findChild(boxIndexEntry, FourCC.of(type), index);
+                if (entry >= 0) {
+                    return parseIndexedBox(entry);
+                }
+            }
+        }
+        for (Box box : getBoxes()) {
+            if (box.getType().equals(type) && index-- == 0) {
+                return box;
+            }
+        }
+        return null;
+    }
+
+    private Box parseIndexedBox(int entry) {
+        Box box = indexedBoxes.get(entry);
+        if (box == null) {
+            try {
+                dataSource.position(boxIndex.getOffset(entry));
+                box = boxParser.parseBox(dataSource, this);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            if (box instanceof BasicContainer && BoxIndex.isContainer(boxIndex.getTypeInt(entry))) {
+                ((BasicContainer) box).setBoxIndex(boxIndex, entry);
+            }
+            indexedBoxes.put(entry, box);
+        }
+        return box;
+    }
+
+    private void parseIndexedBoxes() {
+        synchronized (getParseLock()) {
+            if (boxIndex == null) {
+                return;
+            }
+            for (int entry : boxIndex.getChildren(boxIndexEntry)) {
+                boxes.add(parseIndexedBox(entry));
+                parsePosition = Math.max(parsePosition, boxIndex.getOffset(entry) + boxIndex.getSize(entry));
+            }
+            // boxes the header scan couldn't handle are left to the sequential parser
+            lookahead = parsePosition >= endPosition ? EOF : null;
+            boxIndex = null;
+            indexedBoxes = null;
+        }
+    }
+
     public void remove() {
         throw new UnsupportedOperationException();
     }
@@ -154,17 +417,10 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
         if (lookahead == EOF) {
             return false;
         }
-        if (lookahead != null) {
-            return true;
-        } else {
-            try {
-                lookahead = next();
-                return true;
-            } catch (NoSuchElementException e) {
-                lookahead = EOF;
-                return false;
-            }
+        if (lookahead == null) {
+            lookahead = parseNext();
         }
+        return lookahead != EOF;
     }
 
     public Box next() {
@@ -172,28 +428,177 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
             Box b = lookahead;
             lookahead = null;
             return b;
-        } else {
-           // LOG.logDebug("Parsing next() box");
-            if (dataSource == null || parsePosition >= endPosition) {
-                lookahead = EOF;
-                throw new NoSuchElementException();
+        }
+        Box b = parseNext();
+        if (b == EOF) {
+            throw new NoSuchElementException();
+        }
+        return b;
+    }
+
+    /**
+     * Parses the box at the parse position. Reaching the end of the container is the normal way for the
+     * iteration to stop, so it's reported by returning {@link #EOF} rather than by an exception - one
+     * exception per container would cost more than parsing all its children.
+     *
+     * @return the next box or {@link #EOF} if there are no more boxes
+     */
+    private Box parseNext() {
+        // LOG.logDebug("Parsing next() box");
+        if (dataSource == null || parsePosition >= endPosition) {
+            lookahead = EOF;
+            return EOF;
+        }
+
+        try {
+            synchronized (getParseLock()) {
+                dataSource.position(parsePosition);
+                Box b = boxParser.parseBox(dataSource, this);
+                //System.err.println(b.getType());
+                parsePosition = dataSource.position();
+                return b;
             }
+        } catch (EOFException e) {
+            return EOF;
+        } catch (IOException e) {
+            return EOF;
+        }
+    }
 
-            try {
-                synchronized (dataSource) {
-                    dataSource.position(parsePosition);
-                    Box b = boxParser.parseBox(dataSource, this);
-                    //System.err.println(b.getType());
-                    parsePosition = dataSource.position();
-                    return b;
+    /**
+     * Parses all direct children of this container on the given executor. A quick scan of the box headers
+     * (size and type only) determines where each child starts, the children themselves are then parsed
+     * concurrently - each task reads through its own view of the <code>DataSource</code> so that the tasks
+     * don't contend for the shared position. The result is the same as calling {@link #getBoxes()} and
+     * iterating over all children.
+     * <p/>
+     * The <code>DataSource</code> needs to support concurrent positional reads
+     * ({@link DataSource#read(ByteBuffer, long)}). Trailing bytes that don't form a valid box header are
+     * left to the sequential parser. The children must not be accessed by other threads while this method
+     * runs.
+     *
+     * @param executor runs the parse tasks, one task per child box
+     * @param deep     if <code>true</code> each task also parses the complete subtree of its child including
+     *                 the details of all boxes
+     * @throws IOException If some I/O error occurs
+     */
+    public void parseParallel(ExecutorService executor, final boolean deep) throws IOException {
+        if (dataSource == null) {
+            return;
+        }
+        if (boxIndex != null) {
+            parseIndexedBoxes();
+        }
+        long offset;
+        synchronized (getParseLock()) {
+            if (lookahead == EOF) {
+                return;
+            }
+            if (lookahead != null) {
+                boxes.add(lookahead);
+                lookahead = null;
+            }
+            offset = parsePosition;
+        }
+        // the tasks use the data source's monitor for map() and transferTo() - don't hold it while waiting
+        final DataSource source = dataSource instanceof PositionalDataSource ?
+                ((PositionalDataSource) dataSource).source : dataSource;
+        List<Future<Box>> futures = new ArrayList<Future<Box>>();
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while (offset + 8 <= endPosition) {
+            header.clear();
+            if (readFully(header, offset) < 8) {
+                break;
+            }
+            long size = IsoTypeReader.readUInt32(header);
+            if (size == 1) {
+                header.clear();
+                if (readFully(header, offset + 8) < 8) {
+                    break;
                 }
-            } catch (EOFException e) {
-                throw new NoSuchElementException();
-            } catch (IOException e) {
-                throw new NoSuchElementException();
+                size = IsoTypeReader.readUInt64(header);
+            } else if (size == 0) {
+                size = endPosition - offset;
+            }
+            if (size < 8 || offset + size > endPosition) {
+                break;
+            }
+            final long boxStart = offset;
+            futures.add(executor.submit(new Callable<Box>() {
+                public Box call() throws Exception {
+                    Box box = boxParser.parseBox(new PositionalDataSource(source, boxStart), BasicContainer.this);
+                    if (deep) {
+                        parseSubtree(box);
+                    }
+                    return box;
+                }
+            }));
+            offset += size;
+        }
+        List<Box> parsed = new ArrayList<Box>(futures.size());
+        try {
+            for (Future<Box> future : futures) {
+                parsed.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing " + this);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        synchronized (getParseLock()) {
+            boxes.addAll(parsed);
+            parsePosition = offset;
+            if (parsePosition >= endPosition) {
+                lookahead = EOF;
+            }
+        }
+        if (deep && lookahead != EOF) {
+            for (Box box : getBoxes()) {
+                parseSubtree(box);
             }
         }
+    }
+
+    private int readFully(ByteBuffer bb, long position) throws IOException {
+        int total = 0;
+        while (bb.hasRemaining()) {
+            int read = dataSource.read(bb, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        bb.flip();
+        return total;
+    }
 
+    private static void parseSubtree(Box box) {
+        if (box instanceof AbstractBox) {
+            ((AbstractBox) box).parseDetails();
+        }
+        if (box instanceof Container) {
+            for (Box child : ((Container) box).getBoxes()) {
+                parseSubtree(child);
+            }
+        }
+    }
+
+    /**
+     * Gets the monitor guarding the parse position. <code>DataSource</code>s with a shared position
+     * need to be locked as a whole while a {@link ConcurrentDataSource} that keeps the position per thread
+     * only needs this container to be locked.
+     *
+     * @return the object to synchronize on while parsing the next box
+     */
+    private Object getParseLock() {
+        return DataSourceHelper.hasPositionPerThread(dataSource) ? this : dataSource;
     }
 
     public String toString() {
@@ -212,13 +617,100 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
 
 
     public final void writeContainer(WritableByteChannel bb) throws IOException {
+        // each container header needs the size of its subtree
+        boolean sizePass = beginSizePass();
+        try {
+            if (bb instanceof GatheringByteChannel) {
+                GatheringByteChannel channel = (GatheringByteChannel) bb;
+                ByteBuffer scratch = ScratchBuffer.acquire();
+                List<ByteBuffer> pending = new ArrayList<ByteBuffer>();
+                try {
+                    gatherContainer(channel, scratch, pending);
+                    flush(channel, scratch, pending);
+                } finally {
+                    ScratchBuffer.release(scratch);
+                }
+            } else {
+                for (Box box : getBoxes()) {
+                    box.getBox(bb);
+                }
+            }
+        } finally {
+            endSizePass(sizePass);
+        }
+    }
+
+    /**
+     * Collects the serialized children - descending into child containers - and writes them with a single
+     * gathering write whenever the scratch buffer is full. Boxes that bring their own <code>getBox</code>
+     * implementation are written by it.
+     */
+    private void gatherContainer(GatheringByteChannel channel, ByteBuffer scratch, List<ByteBuffer> pending) throws IOException {
         for (Box box : getBoxes()) {
-            box.getBox(bb);
+            if (box instanceof AbstractBox && hasDefaultGetBox(box, AbstractBox.class)) {
+                AbstractBox abstractBox = (AbstractBox) box;
+                if (!abstractBox.gather(scratch, pending)) {
+                    flush(channel, scratch, pending);
+                    if (!abstractBox.gather(scratch, pending)) {
+                        abstractBox.write(channel, scratch);
+                    }
+                }
+            } else if (box instanceof AbstractContainerBox && hasDefaultGetBox(box, AbstractContainerBox.class)) {
+                pending.add(((AbstractContainerBox) box).getHeader());
+                ((BasicContainer) box).gatherContainer(channel, scratch, pending);
+            } else {
+                flush(channel, scratch, pending);
+                box.getBox(channel);
+            }
+        }
+    }
+
+    private static void flush(GatheringByteChannel channel, ByteBuffer scratch, List<ByteBuffer> pending) throws IOException {
+        if (!pending.isEmpty()) {
+            ChannelHelper.writeFully(channel, pending.toArray(new ByteBuffer[pending.size()]));
+            pending.clear();
         }
+        scratch.clear();
+    }
+
+    private static boolean hasDefaultGetBox(Box box, Class<?> base) {
+        Class<? extends Box> clazz = box.getClass();
+        Boolean result = DEFAULT_GET_BOX.get(clazz);
+        if (result == null) {
+            try {
+                result = clazz.getMethod("getBox", WritableByteChannel.class).getDeclaringClass() == base;
+            } catch (NoSuchMethodException e) {
+                result = false;
+            }
+            DEFAULT_GET_BOX.put(clazz, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the data source {@link #getByteBuffer(long, long)} reads from.
+     *
+     * @return the data source or <code>null</code> if the content is held in memory, e.g. after
+     * {@link #setBoxes(List)}
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Gets the position in {@link #getDataSource()} that the <code>rangeStart</code> of
+     * {@link #getByteBuffer(long, long)} is relative to.
+     *
+     * @return the start position of this container in its data source
+     */
+    public long getStartPosition() {
+        return startPosition;
     }
 
     public ByteBuffer getByteBuffer(long rangeStart, long size) throws IOException {
-        if (this.dataSource != null) {
+        if (DataSourceHelper.supportsConcurrentReads(this.dataSource)) {
+            return this.dataSource.map(this.startPosition + rangeStart, size);
+        } else if (this.dataSource != null) {
             synchronized (this.dataSource) {
                 return this.dataSource.map(this.startPosition + rangeStart, size);
             }
@@ -260,4 +752,133 @@ public class BasicContainer implements Container, Iterator<Box>, Closeable {
     public void close() throws IOException {
         dataSource.close();
     }
+
+    /**
+     * The children of a container. Any change to the list drops the remembered path lookups of the container
+     * and its parents - callers may change the list returned by {@link #getBoxes()} directly. All changes
+     * go through the methods below, the inherited ones and the iterators included.
+     */
+    private class Children extends SnapshotList<Box> {
+        Children() {
+        }
+
+        Children(Collection<? extends Box> boxes) {
+            super(boxes);
+        }
+
+        @Override
+        public boolean add(Box box) {
+            super.add(box);
+            invalidatePaths();
+            return true;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Box> c) {
+            boolean changed = super.addAll(c);
+            invalidatePaths();
+            return changed;
+        }
+
+        @Override
+        public void add(int index, Box box) {
+            super.add(index, box);
+            invalidatePaths();
+        }
+
+        @Override
+        public Box set(int index, Box box) {
+            Box old = super.set(index, box);
+            invalidatePaths();
+            return old;
+        }
+
+        @Override
+        public Box remove(int index) {
+            Box old = super.remove(index);
+            invalidatePaths();
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            invalidatePaths();
+        }
+    }
+
+    /**
+     * A view of a <code>DataSource</code> with its own position. Reads go to the positional read method of
+     * the underlying source so that several views can be read concurrently. Boxes parsed through a view
+     * keep using it for lazy parsing later on.
+     */
+    private static class PositionalDataSource implements ConcurrentDataSource {
+        private final DataSource source;
+        private long position;
+
+        PositionalDataSource(DataSource source, long position) {
+            this.source = source;
+            this.position = position;
+        }
+
+        public synchronized int read(ByteBuffer byteBuffer) throws IOException {
+            int read = source.read(byteBuffer, position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        public int read(ByteBuffer byteBuffer, long position) throws IOException {
+            return source.read(byteBuffer, position);
+        }
+
+        public long size() throws IOException {
+            return source.size();
+        }
+
+        public synchronized long position() throws IOException {
+            return position;
+        }
+
+        public synchronized void position(long nuPos) throws IOException {
+            this.position = nuPos;
+        }
+
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            if (DataSourceHelper.supportsConcurrentReads(source)) {
+                return source.transferTo(position, count, target);
+            }
+            synchronized (source) {
+                return source.transferTo(position, count, target);
+            }
+        }
+
+        public ByteBuffer map(long startPosition, long size) throws IOException {
+            if (DataSourceHelper.supportsConcurrentReads(source)) {
+                return source.map(startPosition, size);
+            }
+            synchronized (source) {
+                return source.map(startPosition, size);
+            }
+        }
+
+        public boolean supportsConcurrentReads() {
+            return DataSourceHelper.supportsConcurrentReads(source);
+        }
+
+        public boolean hasPositionPerThread() {
+            // all threads share the position of this view
+            return false;
+        }
+
+        public void close() throws IOException {
+            source.close();
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
 }
@@ -0,0 +1,407 @@
+package com.googlecode.mp4parser;
+
+import com.coremedia.iso.FourCC;
+import com.coremedia.iso.IsoTypeReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Offset, size, type and parent of every box in a file, found by reading the box headers only. Boxes that
+ * are known to contain nothing but other boxes (<code>moov</code>, <code>trak</code>, ...) are descended
+ * into, all other boxes are leaves of the index.
+ * <p/>
+ * An index can be stored in a small binary sidecar file next to the MP4 so that re-opening the same file
+ * doesn't need to walk the box tree again. An {@link com.coremedia.iso.IsoFile} opened with an index
+ * parses only the boxes that are actually accessed - {@link com.googlecode.mp4parser.util.Path#getPath}
+ * jumps straight to the target box. The sidecar records size and modification time of the MP4 it was
+ * created for and is ignored by {@link #load(File, File)} when they don't match anymore.
+ */
+public class BoxIndex {
+    private static final int MAGIC = FourCC.of("bidx");
+    private static final int VERSION = 1;
+    private static final int[] CONTAINERS;
+
+    static {
+        String[] containers = new String[]{
+                "moov", "trak", "edts", "mdia", "minf", "dinf", "stbl",
+                "mvex", "moof", "traf", "mfra", "udta", "tref"};
+        CONTAINERS = new int[containers.length];
+        for (int i = 0; i < containers.length; i++) {
+            CONTAINERS[i] = FourCC.of(containers[i]);
+        }
+        Arrays.sort(CONTAINERS);
+    }
+
+    private final long fileSize;
+    private final long lastModified;
+    private int count;
+    private long[] offsets;
+    private long[] sizes;
+    private int[] types;
+    private int[] parents;
+    /**
+     * Direct children of the root (at 0) and of each entry (at entry + 1), computed on first use.
+     */
+    private int[][] children;
+
+    private BoxIndex(long fileSize, long lastModified, int capacity) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.offsets = new long[capacity];
+        this.sizes = new long[capacity];
+        this.types = new int[capacity];
+        this.parents = new int[capacity];
+    }
+
+    /**
+     * Creates the index of a file. The file's size and modification time are recorded for invalidation.
+     *
+     * @param file the MP4 file
+     * @return the index of all boxes in <code>file</code>
+     * @throws IOException If some I/O error occurs
+     */
+    public static BoxIndex scan(File file) throws IOException {
+        FileDataSourceImpl dataSource = new FileDataSourceImpl(file);
+        try {
+            return scan(dataSource, file.length(), file.lastModified());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Creates the index of a <code>DataSource</code>. The index can't be validated against a file.
+     *
+     * @param dataSource the data to be indexed
+     * @return the index of all boxes in <code>dataSource</code>
+     * @throws IOException If some I/O error occurs
+     */
+    public static BoxIndex scan(DataSource dataSource) throws IOException {
+        return scan(dataSource, dataSource.size(), -1);
+    }
+
+    private static BoxIndex scan(DataSource dataSource, long fileSize, long lastModified) throws IOException {
+        BoxIndex index = new BoxIndex(fileSize, lastModified, 64);
+        index.scan(dataSource, ByteBuffer.allocate(16), 0, dataSource.size(), -1);
+        return index;
+    }
+
+    private void scan(DataSource dataSource, ByteBuffer header, long start, long end, int parent) throws IOException {
+        long offset = start;
+        while (offset + 8 <= end) {
+            header.clear().limit(8);
+            if (readFully(dataSource, header, offset) < 8) {
+                return;
+            }
+            long size = IsoTypeReader.readUInt32(header);
+            int type = FourCC.read(header);
+            int headerSize = 8;
+            if (size == 1) {
+                header.clear().limit(8);
+                if (readFully(dataSource, header, offset + 8) < 8) {
+                    return;
+                }
+                size = IsoTypeReader.readUInt64(header);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - offset;
+            }
+            if (size < headerSize || offset + size > end) {
+                return;
+            }
+            int entry = add(offset, size, type, parent);
+            if (Arrays.binarySearch(CONTAINERS, type) >= 0) {
+                scan(dataSource, header, offset + headerSize, offset + size, entry);
+            }
+            offset += size;
+        }
+    }
+
+    private static int readFully(DataSource dataSource, ByteBuffer bb, long position) throws IOException {
+        int total = 0;
+        while (bb.hasRemaining()) {
+            int read = dataSource.read(bb, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        bb.flip();
+        return total;
+    }
+
+    private int add(long offset, long size, int type, int parent) {
+        if (count == offsets.length) {
+            int capacity = count * 2;
+            offsets = copyOf(offsets, capacity);
+            sizes = copyOf(sizes, capacity);
+            types = copyOf(types, capacity);
+            parents = copyOf(parents, capacity);
+        }
+        offsets[count] = offset;
+        sizes[count] = size;
+        types[count] = type;
+        parents[count] = parent;
+        return count++;
+    }
+
+    private static long[] copyOf(long[] original, int length) {
+        long[] copy = new long[length];
+        System.arraycopy(original, 0, copy, 0, Math.min(original.length, length));
+        return copy;
+    }
+
+    private static int[] copyOf(int[] original, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(original, 0, copy, 0, Math.min(original.length, length));
+        return copy;
+    }
+
+    /**
+     * Tells if a box of the given type is descended into while scanning.
+     *
+     * @param type the box type
+     * @return <code>true</code> if the children of such a box are part of the index
+     */
+    public static boolean isContainer(int type) {
+        return Arrays.binarySearch(CONTAINERS, type) >= 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getOffset(int entry) {
+        return offsets[entry];
+    }
+
+    public long getSize(int entry) {
+        return sizes[entry];
+    }
+
+    public int getTypeInt(int entry) {
+        return types[entry];
+    }
+
+    public String getType(int entry) {
+        return FourCC.toString(types[entry]);
+    }
+
+    /**
+     * @param entry an entry of the index
+     * @return the parent entry or <code>-1</code> if the box is a top level box
+     */
+    public int getParent(int entry) {
+        return parents[entry];
+    }
+
+    /**
+     * Gets the direct children of an entry.
+     *
+     * @param entry an entry or <code>-1</code> for the top level boxes
+     * @return the children's entries in file order
+     */
+    public synchronized int[] getChildren(int entry) {
+        if (children == null) {
+            int[] counts = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                counts[parents[i] + 1]++;
+            }
+            int[][] all = new int[count + 1][];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = new int[counts[i]];
+                counts[i] = 0;
+            }
+            for (int i = 0; i < count; i++) {
+                all[parents[i] + 1][counts[parents[i] + 1]++] = i;
+            }
+            children = all;
+        }
+        return children[entry + 1];
+    }
+
+    /**
+     * Finds the <code>index</code>th child of the given type.
+     *
+     * @param parent the parent entry or <code>-1</code> for the top level boxes
+     * @param type   the child's type
+     * @param index  zero based index among the siblings of the same type
+     * @return the child's entry or <code>-1</code> if there is no such child
+     */
+    public int findChild(int parent, int type, int index) {
+        for (int child : getChildren(parent)) {
+            if (types[child] == type && index-- == 0) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the entry of an absolute path like <code>/moov[0]/trak[1]/mdia[0]</code>. A missing index
+     * selects the first box of that type.
+     *
+     * @param path absolute path without wildcards
+     * @return the entry or <code>-1</code> if the path is not in the index
+     */
+    public int find(String path) {
+        int entry = -1;
+        for (String component : path.split("/")) {
+            if (component.length() == 0) {
+                continue;
+            }
+            int index = 0;
+            int bracket = component.indexOf('[');
+            if (bracket >= 0) {
+                index = Integer.parseInt(component.substring(bracket + 1, component.length() - 1));
+                component = component.substring(0, bracket);
+            }
+            entry = findChild(entry, FourCC.of(component), index);
+            if (entry < 0) {
+                return -1;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the absolute path of an entry in the form used by {@link com.googlecode.mp4parser.util.Path}.
+     *
+     * @param entry an entry of the index
+     * @return the path, e.g. <code>/moov[0]/trak[1]</code>
+     */
+    public String getPath(int entry) {
+        String path = "";
+        while (entry >= 0) {
+            int parent = parents[entry];
+            int index = 0;
+            for (int sibling : getChildren(parent)) {
+                if (sibling == entry) {
+                    break;
+                }
+                if (types[sibling] == types[entry]) {
+                    index++;
+                }
+            }
+            path = "/" + getType(entry) + "[" + index + "]" + path;
+            entry = parent;
+        }
+        return path;
+    }
+
+    /**
+     * Checks if the index has been created for the current state of the file.
+     *
+     * @param file the MP4 file
+     * @return <code>true</code> if size and modification time still match
+     */
+    public boolean isValidFor(File file) {
+        return file.length() == fileSize && file.lastModified() == lastModified;
+    }
+
+    public void write(File sidecar) throws IOException {
+        OutputStream os = new FileOutputStream(sidecar);
+        try {
+            write(os);
+        } finally {
+            os.close();
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os));
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeLong(fileSize);
+        dos.writeLong(lastModified);
+        dos.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            dos.writeInt(types[i]);
+            dos.writeInt(parents[i]);
+            dos.writeLong(offsets[i]);
+            dos.writeLong(sizes[i]);
+        }
+        dos.flush();
+    }
+
+    public static BoxIndex read(InputStream is) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+        if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+            throw new IOException("Not a box index");
+        }
+        long fileSize = dis.readLong();
+        long lastModified = dis.readLong();
+        int count = dis.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt box index");
+        }
+        BoxIndex index = new BoxIndex(fileSize, lastModified, Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            int type = dis.readInt();
+            int parent = dis.readInt();
+            if (parent < -1 || parent >= i) {
+                throw new IOException("Corrupt box index");
+            }
+            index.add(dis.readLong(), dis.readLong(), type, parent);
+        }
+        return index;
+    }
+
+    /**
+     * Reads the sidecar of an MP4 file.
+     *
+     * @param sidecar the stored index
+     * @param file    the MP4 file the index belongs to
+     * @return the index or <code>null</code> if the sidecar doesn't exist, can't be read or is outdated
+     */
+    public static BoxIndex load(File sidecar, File file) {
+        if (!sidecar.exists()) {
+            return null;
+        }
+        try {
+            InputStream is = new FileInputStream(sidecar);
+            try {
+                BoxIndex index = read(is);
+                return index.isValidFor(file) ? index : null;
+            } finally {
+                is.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the sidecar of an MP4 file or - if it's missing or outdated - scans the file and writes a new
+     * sidecar.
+     *
+     * @param sidecar the stored index
+     * @param file    the MP4 file the index belongs to
+     * @return the index of <code>file</code>
+     * @throws IOException If some I/O error occurs
+     */
+    public static BoxIndex loadOrScan(File sidecar, File file) throws IOException {
+        BoxIndex index = load(sidecar, file);
+        if (index == null) {
+            index = scan(file);
+            index.write(sidecar);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "BoxIndex{" + count + " boxes}";
+    }
+}
@@ -0,0 +1,26 @@
+package com.googlecode.mp4parser;
+
+/**
+ * A <code>DataSource</code> that tells whether it may be used from several threads without locking it.
+ * Containers and samples lock any other <code>DataSource</code> while reading from it. Wrappers of a
+ * <code>DataSource</code> implement this interface and delegate to the source they wrap, see
+ * {@link com.googlecode.mp4parser.util.DataSourceHelper}.
+ */
+public interface ConcurrentDataSource extends DataSource {
+    /**
+     * Tells whether {@link #read(java.nio.ByteBuffer, long)}, {@link #map(long, long)} and
+     * {@link #transferTo(long, long, java.nio.channels.WritableByteChannel)} may be called from several threads
+     * at the same time.
+     *
+     * @return <code>true</code> if positional access needs no locking
+     */
+    boolean supportsConcurrentReads();
+
+    /**
+     * Tells whether {@link #position()}, {@link #position(long)} and {@link #read(java.nio.ByteBuffer)} work on
+     * a separate position for each thread. If so, boxes of different containers can be parsed at the same time.
+     *
+     * @return <code>true</code> if each thread has its own position
+     */
+    boolean hasPositionPerThread();
+}
@@ -0,0 +1,99 @@
+package com.googlecode.mp4parser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link DataSource} implementation for concurrent access from multiple threads. In contrast to
+ * {@link FileDataSourceImpl} it never touches the shared position of the underlying <code>FileChannel</code>
+ * but solely relies on the positional <code>read</code>, <code>transferTo</code> and <code>map</code>
+ * operations which may proceed concurrently. The position exposed via {@link #position()} is kept
+ * per thread so that box parsing in one thread doesn't interfere with box parsing or sample reading
+ * in any other thread.
+ * <p/>
+ * Containers parsed from this <code>DataSource</code> synchronize on themselves instead of the
+ * <code>DataSource</code>. Threads working on different parts of the file therefore never contend.
+ */
+public class ConcurrentFileDataSourceImpl implements ConcurrentDataSource {
+    FileChannel fc;
+    String filename;
+
+    private final ThreadLocal<long[]> position = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    public ConcurrentFileDataSourceImpl(File f) throws FileNotFoundException {
+        this(new FileInputStream(f).getChannel(), f.getName());
+    }
+
+    public ConcurrentFileDataSourceImpl(String f) throws FileNotFoundException {
+        this(new File(f));
+    }
+
+    public ConcurrentFileDataSourceImpl(FileChannel fc) {
+        this(fc, "unknown");
+    }
+
+    public ConcurrentFileDataSourceImpl(FileChannel fc, String filename) {
+        this.fc = fc;
+        this.filename = filename;
+    }
+
+    public int read(ByteBuffer byteBuffer) throws IOException {
+        long[] pos = position.get();
+        int read = fc.read(byteBuffer, pos[0]);
+        if (read > 0) {
+            pos[0] += read;
+        }
+        return read;
+    }
+
+    public int read(ByteBuffer byteBuffer, long position) throws IOException {
+        return fc.read(byteBuffer, position);
+    }
+
+    public long size() throws IOException {
+        return fc.size();
+    }
+
+    public long position() throws IOException {
+        return position.get()[0];
+    }
+
+    public void position(long nuPos) throws IOException {
+        position.get()[0] = nuPos;
+    }
+
+    public boolean supportsConcurrentReads() {
+        return true;
+    }
+
+    public boolean hasPositionPerThread() {
+        return true;
+    }
+
+    public long transferTo(long startPosition, long count, WritableByteChannel sink) throws IOException {
+        return fc.transferTo(startPosition, count, sink);
+    }
+
+    public ByteBuffer map(long startPosition, long size) throws IOException {
+        return fc.map(FileChannel.MapMode.READ_ONLY, startPosition, size);
+    }
+
+    public void close() throws IOException {
+        fc.close();
+    }
+
+    @Override
+    public String toString() {
+        return filename;
+    }
+}
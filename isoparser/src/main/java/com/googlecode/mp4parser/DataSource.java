@@ -20,6 +20,21 @@ public interface DataSource extends Closeable {
      */
     int read(ByteBuffer byteBuffer) throws IOException;
 
+    /**
+     * Reads a sequence of bytes from this DataSource into the given buffer,
+     * starting at the given position. The DataSource's current position is
+     * not changed by this method which makes it suitable for concurrent
+     * access from multiple threads.
+     *
+     * @param byteBuffer sink for this read operation
+     * @param position   the position within the DataSource at which the read is to begin;
+     *                   must be non-negative
+     * @return number of bytes actually read, -1 if the given position is greater
+     * than or equal to the DataSource's size
+     * @throws IOException If some I/O error occurs
+     */
+    int read(ByteBuffer byteBuffer, long position) throws IOException;
+
 
     /**
      * Returns the current size of this DataSource.<br>
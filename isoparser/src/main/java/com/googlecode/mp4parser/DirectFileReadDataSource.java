@@ -46,6 +46,16 @@ public class DirectFileReadDataSource implements DataSource {
         return ((bytesRead < 0) && (totalRead == 0)) ? -1 : totalRead;
     }
 
+    public synchronized int read(ByteBuffer byteBuffer, long position) throws IOException {
+        long oldPosition = raf.getFilePointer();
+        try {
+            raf.seek(position);
+            return read(byteBuffer);
+        } finally {
+            raf.seek(oldPosition);
+        }
+    }
+
     public int readAllInOnce(ByteBuffer byteBuffer) throws IOException {
         byte[] buf = new byte[byteBuffer.remaining()];
         int read = raf.read(buf);
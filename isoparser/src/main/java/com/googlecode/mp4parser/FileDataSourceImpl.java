@@ -1,5 +1,7 @@
 package com.googlecode.mp4parser;
 
+import com.googlecode.mp4parser.util.MappedRegionCache;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -11,6 +13,7 @@ import java.nio.channels.WritableByteChannel;
 public class FileDataSourceImpl implements DataSource {
     FileChannel fc;
     String filename;
+    MappedRegionCache regionCache;
 
 
     public FileDataSourceImpl(File f) throws FileNotFoundException {
@@ -18,6 +21,20 @@ public class FileDataSourceImpl implements DataSource {
         this.filename = f.getName();
     }
 
+    /**
+     * Creates a <code>DataSource</code> that serves {@link #map(long, long)} requests from a bounded
+     * cache of memory mapped regions instead of mapping each request separately.
+     *
+     * @param f              the file to be read
+     * @param maxMappedBytes upper limit for the size of all cached regions
+     * @throws FileNotFoundException if the file doesn't exist
+     * @see MappedRegionCache
+     */
+    public FileDataSourceImpl(File f, long maxMappedBytes) throws FileNotFoundException {
+        this(f);
+        this.regionCache = new MappedRegionCache(fc, maxMappedBytes);
+    }
+
     public FileDataSourceImpl(String f) throws FileNotFoundException {
         File file = new File(f);
         this.fc = new FileInputStream(file).getChannel();
@@ -38,6 +55,10 @@ public class FileDataSourceImpl implements DataSource {
         return fc.read(byteBuffer);
     }
 
+    public int read(ByteBuffer byteBuffer, long position) throws IOException {
+        return fc.read(byteBuffer, position);
+    }
+
     public synchronized long size() throws IOException {
         return fc.size();
     }
@@ -55,10 +76,25 @@ public class FileDataSourceImpl implements DataSource {
     }
 
     public synchronized ByteBuffer map(long startPosition, long size) throws IOException {
+        if (regionCache != null) {
+            return regionCache.map(startPosition, size);
+        }
         return fc.map(FileChannel.MapMode.READ_ONLY, startPosition, size);
     }
 
+    /**
+     * Gets the cache of mapped regions.
+     *
+     * @return the region cache or <code>null</code> if each <code>map()</code> call maps separately
+     */
+    public MappedRegionCache getRegionCache() {
+        return regionCache;
+    }
+
     public void close() throws IOException {
+        if (regionCache != null) {
+            regionCache.close();
+        }
         fc.close();
     }
 
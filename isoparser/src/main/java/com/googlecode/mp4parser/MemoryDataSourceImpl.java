@@ -36,6 +36,18 @@ public class MemoryDataSourceImpl implements DataSource {
         return size;
     }
 
+    public int read(ByteBuffer byteBuffer, long position) throws IOException {
+        if (position >= data.limit() && 0 != byteBuffer.remaining()) {
+            return -1;
+        }
+        ByteBuffer src = data.duplicate();
+        src.position(l2i(position));
+        int size = Math.min(byteBuffer.remaining(), src.remaining());
+        src.limit(src.position() + size);
+        byteBuffer.put(src);
+        return size;
+    }
+
     public long size() throws IOException {
         return data.capacity();
     }
@@ -2,93 +2,134 @@ package com.googlecode.mp4parser;
 
 import java.io.*;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 import static com.googlecode.mp4parser.util.CastUtils.l2i;
 
 /**
- * A rather naive DataSource implementation allowing multiple files as source. Not as performant and memory efficient
- * as a normal FileDataSourceImpl but helpful if video packets are dumped packet by packet to disk.
+ * A DataSource implementation allowing multiple files as source. Helpful if video packets are dumped packet by
+ * packet to disk. The files' sizes are determined once on construction and must not change afterwards. Each
+ * position is resolved to its file by binary search over the files' start offsets.
  */
 public class MultiFileDataSourceImpl implements DataSource {
     FileChannel[] fcs;
-    int index = 0;
+    /**
+     * <code>starts[i]</code> is the offset of the first byte of the i-th file, <code>starts[fcs.length]</code>
+     * is the total size.
+     */
+    long[] starts;
+    long position = 0;
 
 
-    public MultiFileDataSourceImpl(File... f) throws FileNotFoundException {
-
+    public MultiFileDataSourceImpl(File... f) throws IOException {
         this.fcs = new FileChannel[f.length];
+        this.starts = new long[f.length + 1];
         for (int i = 0; i < f.length; i++) {
             fcs[i] = new FileInputStream(f[i]).getChannel();
+            starts[i + 1] = starts[i] + fcs[i].size();
         }
     }
 
+    /**
+     * Gets the index of the file that contains the given position.
+     *
+     * @param position a position within this DataSource
+     * @return index of the file or <code>fcs.length</code> if <code>position</code> is beyond the end
+     */
+    int indexOf(long position) {
+        int index = Arrays.binarySearch(starts, position);
+        if (index < 0) {
+            return -index - 2;
+        }
+        // skip empty files
+        while (index < fcs.length && starts[index + 1] == position) {
+            index++;
+        }
+        return index;
+    }
 
     public int read(ByteBuffer byteBuffer) throws IOException {
-        int numOfBytesToRead = byteBuffer.remaining();
-        int numOfBytesRead = 0;
-        if ((numOfBytesRead = fcs[index].read(byteBuffer)) != numOfBytesToRead) {
-            index++;
-            return numOfBytesRead + read(byteBuffer);
-        } else {
-            return numOfBytesRead;
+        int numOfBytesRead = read(byteBuffer, position);
+        if (numOfBytesRead > 0) {
+            position += numOfBytesRead;
         }
+        return numOfBytesRead;
+    }
 
+    public int read(ByteBuffer byteBuffer, long position) throws IOException {
+        if (position >= starts[fcs.length]) {
+            return byteBuffer.remaining() > 0 ? -1 : 0;
+        }
+        int numOfBytesRead = 0;
+        int index = indexOf(position);
+        while (byteBuffer.remaining() > 0 && index < fcs.length) {
+            int read = fcs[index].read(byteBuffer, position - starts[index]);
+            if (read < 0) {
+                break;
+            }
+            numOfBytesRead += read;
+            position += read;
+            while (index < fcs.length && position >= starts[index + 1]) {
+                index++;
+            }
+        }
+        return numOfBytesRead;
     }
 
     public long size() throws IOException {
-        long size = 0;
-        for (FileChannel fileChannel : fcs) {
-            size += fileChannel.size();
-        }
-        return size;
+        return starts[fcs.length];
     }
 
     public long position() throws IOException {
-        long position = 0;
-        for (int i = 0; i < index; i++) {
-            position += fcs[i].size();
-
-        }
-        return position + fcs[index].position();
+        return position;
     }
 
     public void position(long nuPos) throws IOException {
-        for (int i = 0; i < fcs.length; i++) {
-            if ((nuPos - fcs[i].size()) < 0) {
-                fcs[i].position(nuPos);
-                index = i;
-                break;
-            } else {
-                nuPos -= fcs[i].size();
-            }
-        }
+        this.position = nuPos;
     }
 
     public long transferTo(long startPosition, long count, WritableByteChannel sink) throws IOException {
-        if (count == 0) {
-            return 0;
-        }
-        long currentPos = 0;
-        for (FileChannel fc : fcs) {
-            long size = fc.size();
-            if (startPosition >= currentPos && startPosition < currentPos + size && startPosition + count > currentPos) { // current fcs reaches into fcs
-                long bytesToTransfer = Math.min(count, size - (startPosition - currentPos));
-                fc.transferTo(startPosition - currentPos, bytesToTransfer, sink);
-                return bytesToTransfer + transferTo(startPosition + bytesToTransfer, count - bytesToTransfer, sink);
+        long end = Math.min(startPosition + count, starts[fcs.length]);
+        long transferred = 0;
+        int index = indexOf(startPosition);
+        while (startPosition + transferred < end && index < fcs.length) {
+            long pos = startPosition + transferred;
+            long bytesToTransfer = Math.min(end, starts[index + 1]) - pos;
+            long t = fcs[index].transferTo(pos - starts[index], bytesToTransfer, sink);
+            if (t <= 0) {
+                break;
+            }
+            transferred += t;
+            while (index < fcs.length && startPosition + transferred >= starts[index + 1]) {
+                index++;
             }
-            currentPos += size;
-
         }
-        return 0;
+        return transferred;
     }
 
+    /**
+     * Maps a part of the files into a <code>ByteBuffer</code>. A range that lies within a single
+     * file is memory mapped directly, a range spanning multiple files is read into one buffer.
+     *
+     * @param startPosition where the requested block start
+     * @param size          size of the requested block
+     * @return the requested portion of the <code>DataSource</code>
+     * @throws IOException If some I/O error occurs
+     */
     public ByteBuffer map(long startPosition, long size) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(l2i(size));
-        transferTo(startPosition, size, Channels.newChannel(baos));
-        return ByteBuffer.wrap(baos.toByteArray());
+        int index = indexOf(startPosition);
+        if (index < fcs.length && startPosition + size <= starts[index + 1]) {
+            return fcs[index].map(FileChannel.MapMode.READ_ONLY, startPosition - starts[index], size);
+        }
+        ByteBuffer bb = ByteBuffer.allocate(l2i(size));
+        while (bb.remaining() > 0) {
+            if (read(bb, startPosition + bb.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return (ByteBuffer) bb.rewind();
     }
 
 
@@ -0,0 +1,386 @@
+package com.googlecode.mp4parser;
+
+import com.googlecode.mp4parser.util.DataSourceHelper;
+import com.googlecode.mp4parser.util.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static com.googlecode.mp4parser.util.CastUtils.l2i;
+
+/**
+ * Decorates a <code>DataSource</code> with asynchronous read-ahead. Sample lists request their data
+ * chunk by chunk via {@link #map(long, long)}, builders write it via
+ * {@link #transferTo(long, long, WritableByteChannel)}. As soon as these requests are detected to move
+ * forward through the file the next blocks are read on a background thread so that the consumer (e.g. the
+ * <code>DefaultMp4Builder</code> writing the <code>mdat</code>) doesn't stall on each disk read.
+ * <p/>
+ * The blocks follow each other without a gap but know nothing about chunk boundaries. A request that lies
+ * within the blocks already read is served from them - if it spans several blocks their parts are copied
+ * together. All other requests are passed to the underlying <code>DataSource</code>. Blocks that have been
+ * passed without being used are recycled.
+ */
+public class ReadAheadDataSource implements ConcurrentDataSource {
+    private static final Logger LOG = Logger.getLogger(ReadAheadDataSource.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final int DEFAULT_DEPTH = 4;
+
+    /**
+     * Number of consecutive forward requests that need to be seen until reading ahead starts.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 2;
+
+    private final DataSource dataSource;
+    private final int blockSize;
+    private final int depth;
+
+    private final LinkedList<Block> blocks = new LinkedList<Block>();
+    private final LinkedList<ByteBuffer> pool = new LinkedList<ByteBuffer>();
+    private ExecutorService executor;
+
+    private long lastStart = -1;
+    private long lastEnd = -1;
+    private int sequentialCount = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long bytesReadAhead = 0;
+    private long stallNanos = 0;
+    private long savedNanos = 0;
+
+    public ReadAheadDataSource(DataSource dataSource) {
+        this(dataSource, DEFAULT_BLOCK_SIZE, DEFAULT_DEPTH);
+    }
+
+    /**
+     * @param dataSource the <code>DataSource</code> to read from
+     * @param blockSize  size of each block read ahead - requests larger than <code>depth</code> blocks are
+     *                   never served from the blocks
+     * @param depth      number of blocks read ahead of the current request
+     */
+    public ReadAheadDataSource(DataSource dataSource, int blockSize, int depth) {
+        this.dataSource = dataSource;
+        this.blockSize = blockSize;
+        this.depth = depth;
+    }
+
+    public synchronized ByteBuffer map(long startPosition, long size) throws IOException {
+        access(startPosition, size);
+        ByteBuffer result = fromBlocks(startPosition, size);
+        if (result == null) {
+            misses++;
+            result = dataSource.map(startPosition, size);
+        } else {
+            hits++;
+        }
+        if (sequentialCount >= SEQUENTIAL_THRESHOLD) {
+            readAhead(startPosition + size);
+        }
+        return result;
+    }
+
+    /**
+     * Writes from the block that contains <code>position</code> if there is one - at most up to the end of
+     * that block, callers have to transfer in a loop anyway. Otherwise the transfer is passed to the
+     * underlying <code>DataSource</code>.
+     */
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer src = null;
+        synchronized (this) {
+            access(position, count);
+            for (Block block : blocks) {
+                if (block.start <= position && position < block.start + block.size) {
+                    src = block.get(position, Math.min(count, block.start + block.size - position));
+                    break;
+                }
+            }
+            if (src == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            if (sequentialCount >= SEQUENTIAL_THRESHOLD) {
+                readAhead(src == null ? position + count : position + src.remaining());
+            }
+        }
+        // used blocks are never recycled, so the buffer can be written without holding the lock
+        if (src == null) {
+            return dataSource.transferTo(position, count, target);
+        }
+        return target.write(src);
+    }
+
+    /**
+     * Keeps track of whether the requests move forward through the file. A request may start within the
+     * previous one - a transfer is often continued where the previous call stopped.
+     */
+    private void access(long startPosition, long size) {
+        if (startPosition >= lastStart && startPosition - lastEnd <= blockSize) {
+            sequentialCount++;
+        } else {
+            sequentialCount = 0;
+            discard(Long.MAX_VALUE);
+        }
+        lastStart = startPosition;
+        lastEnd = startPosition + size;
+        discard(startPosition);
+    }
+
+    /**
+     * Gets the requested range from the blocks read ahead.
+     *
+     * @return the range or <code>null</code> if it isn't completely covered by the blocks
+     */
+    private ByteBuffer fromBlocks(long startPosition, long size) throws IOException {
+        long end = startPosition + size;
+        // the blocks are sorted and follow each other without a gap
+        Block first = null;
+        long covered = -1;
+        for (Block block : blocks) {
+            if (first != null) {
+                covered += block.size;
+            } else if (block.start <= startPosition && startPosition < block.start + block.size) {
+                first = block;
+                covered = block.start + block.size;
+            }
+            if (covered >= end) {
+                break;
+            }
+        }
+        if (covered < end) {
+            return null;
+        }
+        if (end <= first.start + first.size) {
+            return first.get(startPosition, size);
+        }
+        ByteBuffer result = ByteBuffer.allocate(l2i(size));
+        for (Block block : blocks) {
+            long position = startPosition + result.position();
+            if (!result.hasRemaining()) {
+                break;
+            } else if (block.start + block.size > position) {
+                ByteBuffer src = block.get(position, Math.min(result.remaining(), block.start + block.size - position));
+                if (src == null) {
+                    return null;
+                }
+                result.put(src);
+            }
+        }
+        return (ByteBuffer) result.rewind();
+    }
+
+    /**
+     * Removes all blocks ending before the given position.
+     *
+     * @param position blocks ending at or before this position are no longer needed
+     */
+    private void discard(long position) {
+        Iterator<Block> it = blocks.iterator();
+        while (it.hasNext()) {
+            Block block = it.next();
+            if (block.start + block.size <= position || position == Long.MAX_VALUE) {
+                it.remove();
+                block.recycle();
+            }
+        }
+    }
+
+    private void readAhead(long position) throws IOException {
+        long next = blocks.isEmpty() ? position : blocks.getLast().start + blocks.getLast().size;
+        long size = dataSource.size();
+        while (blocks.size() < depth && next < size) {
+            final Block block = new Block(next, (int) Math.min(blockSize, size - next));
+            blocks.add(block);
+            block.future = getExecutor().submit(block);
+            next += block.size;
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ReadAheadDataSource(" + dataSource + ")");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return executor;
+    }
+
+    private ByteBuffer allocate() {
+        ByteBuffer bb;
+        synchronized (pool) {
+            bb = pool.isEmpty() ? null : pool.removeFirst();
+        }
+        if (bb == null) {
+            bb = ByteBuffer.allocate(blockSize);
+        }
+        bb.clear();
+        return bb;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of bytes read ahead in blocks that were later used to serve a request.
+     *
+     * @return size of all used blocks
+     */
+    public synchronized long getBytesReadAhead() {
+        return bytesReadAhead;
+    }
+
+    /**
+     * Gets the time spent waiting for blocks that were requested while still being read.
+     *
+     * @return waiting time in nanoseconds
+     */
+    public synchronized long getStallNanos() {
+        return stallNanos;
+    }
+
+    /**
+     * Gets the time spent reading blocks in the background that were later used to serve a request.
+     * Requests served from these blocks would otherwise have waited for the disk.
+     *
+     * @return reading time in nanoseconds
+     */
+    public synchronized long getSavedNanos() {
+        return savedNanos;
+    }
+
+    public int read(ByteBuffer byteBuffer) throws IOException {
+        return dataSource.read(byteBuffer);
+    }
+
+    public int read(ByteBuffer byteBuffer, long position) throws IOException {
+        return dataSource.read(byteBuffer, position);
+    }
+
+    public long size() throws IOException {
+        return dataSource.size();
+    }
+
+    public long position() throws IOException {
+        return dataSource.position();
+    }
+
+    public void position(long nuPos) throws IOException {
+        dataSource.position(nuPos);
+    }
+
+    public boolean supportsConcurrentReads() {
+        // map is synchronized on this, everything else goes to the underlying source
+        return DataSourceHelper.supportsConcurrentReads(dataSource);
+    }
+
+    public boolean hasPositionPerThread() {
+        return DataSourceHelper.hasPositionPerThread(dataSource);
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            discard(Long.MAX_VALUE);
+            if (executor != null) {
+                // don't interrupt - an interrupted read closes FileChannels
+                executor.shutdown();
+            }
+        }
+        dataSource.close();
+    }
+
+    @Override
+    public String toString() {
+        return dataSource.toString();
+    }
+
+    private class Block implements Callable<ByteBuffer> {
+        final long start;
+        final int size;
+        Future<ByteBuffer> future;
+        long readNanos;
+        boolean used = false;
+
+        Block(long start, int size) {
+            this.start = start;
+            this.size = size;
+        }
+
+        public ByteBuffer call() throws IOException {
+            long begin = System.nanoTime();
+            ByteBuffer bb = allocate();
+            bb.limit(size);
+            while (bb.remaining() > 0) {
+                if (dataSource.read(bb, start + bb.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            bb.rewind();
+            readNanos = System.nanoTime() - begin;
+            return bb;
+        }
+
+        ByteBuffer get(long position, long length) throws IOException {
+            ByteBuffer bb;
+            long begin = System.nanoTime();
+            boolean done = future.isDone();
+            try {
+                bb = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                LOG.logWarn("Reading ahead failed: " + e.getCause());
+                return null;
+            }
+            if (done) {
+                savedNanos += readNanos;
+            } else {
+                stallNanos += System.nanoTime() - begin;
+            }
+            if (!used) {
+                bytesReadAhead += size;
+            }
+            used = true;
+            bb = bb.duplicate();
+            bb.position(l2i(position - start));
+            bb.limit(l2i(position - start + length));
+            return bb.slice().asReadOnlyBuffer();
+        }
+
+        void recycle() {
+            if (!future.cancel(false) && future.isDone() && !used) {
+                // the buffer has never been handed out, so it can be reused
+                try {
+                    ByteBuffer bb = future.get();
+                    synchronized (pool) {
+                        if (pool.size() < depth) {
+                            pool.add(bb);
+                        }
+                    }
+                } catch (Exception e) {
+                    // nothing to recycle
+                }
+            }
+        }
+    }
+}
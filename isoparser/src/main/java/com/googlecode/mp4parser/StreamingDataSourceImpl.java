@@ -0,0 +1,204 @@
+package com.googlecode.mp4parser;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import static com.googlecode.mp4parser.util.CastUtils.l2i;
+
+/**
+ * A <code>DataSource</code> reading from a non-seekable source like a pipe, a socket or an upload stream.
+ * Data is pulled from the source only when a position beyond the data received so far is accessed. The most
+ * recently received bytes are held in an in-memory window, older bytes are spilled to a temporary file so
+ * that they are still available when needed later (e.g. the <code>mdat</code> of a file with a trailing
+ * <code>moov</code>).
+ * <p/>
+ * Every byte that leaves the window is spilled, so the spill file grows to the size of the stream minus the
+ * window. That is intended: the source can't be rewound and boxes are parsed lazily - a box's content, a
+ * container's children and the samples are read from the <code>DataSource</code> again whenever they are
+ * first accessed, which may be long after the stream has moved on. Memory use is bounded by the window size,
+ * disk use isn't.
+ * <p/>
+ * The size of the data is unknown until the end of the stream has been reached. If it hasn't been given on
+ * construction {@link #size()} reports <code>Long.MAX_VALUE</code> until then. Parsing an
+ * <code>IsoFile</code> stops at the end of the stream in that case. Boxes with size 0 (extending to the end
+ * of the file) require the actual size.
+ */
+public class StreamingDataSourceImpl implements DataSource {
+    public static final int DEFAULT_WINDOW_SIZE = 4 * 1024 * 1024;
+
+    private final ReadableByteChannel source;
+    private final File spillFile;
+    private final FileChannel spill;
+    private final ByteBuffer window;
+    /**
+     * Position of the first byte within the window. All bytes before are in the spill file.
+     */
+    private long windowStart = 0;
+    private long size;
+    private boolean eof = false;
+    private long position = 0;
+
+    public StreamingDataSourceImpl(InputStream is) throws IOException {
+        this(Channels.newChannel(is));
+    }
+
+    public StreamingDataSourceImpl(ReadableByteChannel source) throws IOException {
+        this(source, -1, DEFAULT_WINDOW_SIZE, null);
+    }
+
+    /**
+     * @param source     the channel to read from
+     * @param size       the number of bytes the source is going to deliver, <code>-1</code> if unknown
+     * @param windowSize number of bytes kept in memory, at least 2 - the older half of the window is spilled
+     *                   when it is full
+     * @param tempDir    directory for the spill file, <code>null</code> for the default temporary-file directory
+     * @throws IOException if the spill file cannot be created
+     */
+    public StreamingDataSourceImpl(ReadableByteChannel source, long size, int windowSize, File tempDir) throws IOException {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("windowSize must be at least 2 but is " + windowSize);
+        }
+        this.source = source;
+        this.size = size;
+        this.window = ByteBuffer.allocate(windowSize);
+        this.spillFile = File.createTempFile("StreamingDataSourceImpl", ".spill", tempDir);
+        this.spillFile.deleteOnExit();
+        this.spill = new RandomAccessFile(spillFile, "rw").getChannel();
+    }
+
+    /**
+     * @return the number of bytes that have been copied to the spill file
+     */
+    synchronized long spilled() {
+        return windowStart;
+    }
+
+    private long received() {
+        return windowStart + window.position();
+    }
+
+    /**
+     * Reads from the source until at least <code>upTo</code> bytes have been received or the source is
+     * exhausted.
+     *
+     * @param upTo the number of bytes that are required
+     * @throws IOException If some I/O error occurs
+     */
+    private void fill(long upTo) throws IOException {
+        while (!eof && received() < upTo) {
+            if (!window.hasRemaining()) {
+                // spill the older half of the window
+                int half = window.capacity() / 2;
+                ByteBuffer older = (ByteBuffer) window.duplicate().flip().limit(half);
+                while (older.hasRemaining()) {
+                    spill.write(older, windowStart + older.position());
+                }
+                window.flip().position(half);
+                window.compact();
+                windowStart += half;
+            }
+            if (source.read(window) < 0) {
+                eof = true;
+                size = received();
+            }
+        }
+    }
+
+    public synchronized int read(ByteBuffer byteBuffer) throws IOException {
+        int read = read(byteBuffer, position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    public synchronized int read(ByteBuffer byteBuffer, long position) throws IOException {
+        fill(position + byteBuffer.remaining());
+        if (position >= received()) {
+            return byteBuffer.remaining() > 0 ? -1 : 0;
+        }
+        int numOfBytesRead = 0;
+        while (byteBuffer.hasRemaining() && position < windowStart) {
+            ByteBuffer dst = byteBuffer.duplicate();
+            dst.limit(dst.position() + l2i(Math.min(dst.remaining(), windowStart - position)));
+            int read = spill.read(dst, position);
+            byteBuffer.position(dst.position());
+            numOfBytesRead += read;
+            position += read;
+        }
+        if (byteBuffer.hasRemaining() && position < received()) {
+            ByteBuffer src = window.duplicate();
+            src.flip();
+            src.position(l2i(position - windowStart));
+            if (src.remaining() > byteBuffer.remaining()) {
+                src.limit(src.position() + byteBuffer.remaining());
+            }
+            numOfBytesRead += src.remaining();
+            byteBuffer.put(src);
+        }
+        return numOfBytesRead;
+    }
+
+    public synchronized long size() throws IOException {
+        return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    public synchronized long position() throws IOException {
+        return position;
+    }
+
+    public synchronized void position(long nuPos) throws IOException {
+        this.position = nuPos;
+    }
+
+    public synchronized long transferTo(long startPosition, long count, WritableByteChannel target) throws IOException {
+        fill(startPosition + count);
+        long end = Math.min(startPosition + count, received());
+        long transferred = 0;
+        if (startPosition < windowStart) {
+            transferred += spill.transferTo(startPosition, Math.min(end, windowStart) - startPosition, target);
+        }
+        if (end > windowStart && startPosition + transferred >= windowStart) {
+            ByteBuffer src = window.duplicate();
+            src.flip();
+            src.position(l2i(startPosition + transferred - windowStart));
+            src.limit(l2i(end - windowStart));
+            transferred += target.write(src);
+        }
+        return transferred;
+    }
+
+    public synchronized ByteBuffer map(long startPosition, long size) throws IOException {
+        fill(startPosition + size);
+        if (startPosition + size <= windowStart) {
+            return spill.map(FileChannel.MapMode.READ_ONLY, startPosition, size);
+        }
+        // the window's content moves as more data is received - copy
+        ByteBuffer bb = ByteBuffer.allocate(l2i(size));
+        while (bb.hasRemaining()) {
+            if (read(bb, startPosition + bb.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return (ByteBuffer) bb.rewind();
+    }
+
+    public synchronized void close() throws IOException {
+        source.close();
+        spill.close();
+        spillFile.delete();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingDataSourceImpl(" + source + ")";
+    }
+}
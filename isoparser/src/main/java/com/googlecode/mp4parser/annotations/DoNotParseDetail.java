@@ -27,10 +27,8 @@ import java.lang.annotation.*;
 @Inherited
 @Documented
 /**
- * Mark a method with this annotation to prevent triggering the call of
- * <code>AbstractBox#parseDetails()</code> before actually executing the
- * method.
- * @see com.googlecode.mp4parser.RequiresParseDetailAspect
+ * Marks a public method of a box that doesn't call <code>AbstractBox#ensureParsed()</code>
+ * before actually executing the method.
  */
 public @interface DoNotParseDetail {
 }
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.googlecode.mp4parser.util.CastUtils.l2i;
+
 /**
  * This track implementation is to be used when MP4 track is CENC encrypted.
  */
@@ -77,7 +79,7 @@ public class CencMp4TrackImplImpl extends Mp4TrackImpl implements CencEncryptedT
                         List<TrackRunBox> truns = traf.getBoxes(TrackRunBox.class);
                         int sampleNo = 0;
                         for (int i = 0; i < saioOffsets.length; i++) {
-                            int numSamples = truns.get(i).getEntries().size();
+                            int numSamples = l2i(truns.get(i).getSampleCount());
                             long offset = saioOffsets[i];
                             long length = 0;
 
@@ -107,7 +109,7 @@ public class CencMp4TrackImplImpl extends Mp4TrackImpl implements CencEncryptedT
             if (chunkOffsetBox == null) {
                 chunkOffsetBox = Path.getPath(trackBox, "mdia[0]/minf[0]/stbl[0]/co64[0]");
             }
-            long[] chunkSizes = trackBox.getSampleTableBox().getSampleToChunkBox().blowup(chunkOffsetBox.getChunkOffsets().length);
+            long[] chunkSizes = trackBox.getSampleTableBox().getSampleToChunkBox().blowup(chunkOffsetBox.getChunkCount());
 
 
             FindSaioSaizPair saizSaioPair = new FindSaioSaizPair((Container) Path.getPath(trackBox, "mdia[0]/minf[0]/stbl[0]")).invoke();
@@ -0,0 +1,177 @@
+package com.googlecode.mp4parser.authoring;
+
+import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.util.ByteBufferByteChannel;
+import com.googlecode.mp4parser.util.ChannelHelper;
+import com.googlecode.mp4parser.util.DataSourceHelper;
+import com.googlecode.mp4parser.util.ScratchBuffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+
+/**
+ * A sample that is stored in a <code>DataSource</code>. It is written with
+ * {@link DataSource#transferTo(long, long, WritableByteChannel)} so that remuxing a file-backed track to a
+ * <code>FileChannel</code> or a socket doesn't pull the sample's bytes through the heap.
+ * <p/>
+ * Samples that are adjacent in the same <code>DataSource</code> can be written with a single transfer, see
+ * {@link #writeTo(Iterable, WritableByteChannel)}. When a file is remuxed without changing its interleaving
+ * that's the whole <code>mdat</code> at once.
+ */
+public class DataSourceSample implements Sample {
+    /**
+     * How many transfers in a row may make no progress before {@link #transfer} gives up.
+     */
+    static final int MAX_ZERO_TRANSFERS = 16;
+
+    private final DataSource dataSource;
+    private final long offset;
+    private final long size;
+
+    /**
+     * @param dataSource where the sample is stored
+     * @param offset     position of the sample's first byte in <code>dataSource</code>
+     * @param size       size of the sample in bytes
+     */
+    public DataSourceSample(DataSource dataSource, long offset, long size) {
+        this.dataSource = dataSource;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        transfer(dataSource, offset, size, channel);
+    }
+
+    public ByteBuffer asByteBuffer() {
+        try {
+            if (DataSourceHelper.supportsConcurrentReads(dataSource)) {
+                return dataSource.map(offset, size);
+            }
+            synchronized (dataSource) {
+                return dataSource.map(offset, size);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("couldn't read sample " + this, e);
+        }
+    }
+
+    /**
+     * Writes samples one after the other with as few calls to the channel as possible. Runs of
+     * <code>DataSourceSample</code>s that follow each other without a gap in the same <code>DataSource</code>
+     * are written with a single transfer, even across chunks. Other samples are collected in a scratch buffer
+     * and written whenever it is full, only samples that don't fit into it are written on their own.
+     *
+     * @param samples the samples in the order they are to be written
+     * @param channel the target channel
+     * @throws IOException if reading a sample or writing to the channel fails
+     */
+    public static void writeTo(Iterable<? extends Sample> samples, WritableByteChannel channel) throws IOException {
+        ByteBuffer scratch = ScratchBuffer.acquire();
+        try {
+            WritableByteChannel toScratch = new ByteBufferByteChannel(scratch);
+            // at most one of the current run and the scratch buffer holds anything
+            DataSource runSource = null;
+            long runStart = 0;
+            long runEnd = 0;
+            Iterator<? extends Sample> it = samples.iterator();
+            while (it.hasNext()) {
+                Sample sample = it.next();
+                if (sample instanceof DataSourceSample) {
+                    DataSourceSample dataSourceSample = (DataSourceSample) sample;
+                    if (dataSourceSample.dataSource == runSource && dataSourceSample.offset == runEnd) {
+                        runEnd += dataSourceSample.size;
+                        continue;
+                    }
+                    if (runSource != null) {
+                        transfer(runSource, runStart, runEnd - runStart, channel);
+                    }
+                    flush(scratch, channel);
+                    runSource = dataSourceSample.dataSource;
+                    runStart = dataSourceSample.offset;
+                    runEnd = runStart + dataSourceSample.size;
+                } else {
+                    if (runSource != null) {
+                        transfer(runSource, runStart, runEnd - runStart, channel);
+                        runSource = null;
+                    }
+                    if (sample.getSize() > scratch.remaining()) {
+                        flush(scratch, channel);
+                    }
+                    sample.writeTo(sample.getSize() <= scratch.remaining() ? toScratch : channel);
+                }
+            }
+            if (runSource != null) {
+                transfer(runSource, runStart, runEnd - runStart, channel);
+            }
+            flush(scratch, channel);
+        } finally {
+            ScratchBuffer.release(scratch);
+        }
+    }
+
+    private static void flush(ByteBuffer scratch, WritableByteChannel channel) throws IOException {
+        if (scratch.position() > 0) {
+            scratch.flip();
+            ChannelHelper.writeFully(channel, scratch);
+            scratch.clear();
+        }
+    }
+
+    /**
+     * Transfers a range completely - a single <code>transferTo</code> may transfer less than requested.
+     * The target is expected to be a blocking channel. A non-blocking target that doesn't accept anything
+     * a few times in a row isn't waited for, the transfer fails with an <code>IOException</code> instead.
+     * Just as <code>BasicContainer</code> it locks the <code>DataSource</code> unless it
+     * {@link com.googlecode.mp4parser.ConcurrentDataSource#supportsConcurrentReads() supports concurrent reads}.
+     */
+    static void transfer(DataSource dataSource, long position, long count, WritableByteChannel target) throws IOException {
+        int attempts = 0;
+        while (count > 0) {
+            long transferred;
+            if (DataSourceHelper.supportsConcurrentReads(dataSource)) {
+                transferred = dataSource.transferTo(position, count, target);
+            } else {
+                synchronized (dataSource) {
+                    transferred = dataSource.transferTo(position, count, target);
+                }
+            }
+            if (transferred <= 0) {
+                if (position >= dataSource.size()) {
+                    throw new EOFException("Couldn't transfer " + count + " bytes at " + position + " from " + dataSource);
+                }
+                if (++attempts >= MAX_ZERO_TRANSFERS) {
+                    throw new IOException("Target accepted none of the " + count + " bytes at " + position + " " +
+                            attempts + " times in a row - is it a non-blocking channel?");
+                }
+                continue;
+            }
+            attempts = 0;
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DataSourceSample{" +
+                "offset=" + offset +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -23,7 +23,7 @@ import com.googlecode.mp4parser.BasicContainer;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.GroupEntry;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.SampleGroupDescriptionBox;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.SampleToGroupBox;
-import com.googlecode.mp4parser.util.Path;
+import com.googlecode.mp4parser.util.CompiledPath;
 
 import java.io.IOException;
 import java.util.*;
@@ -34,6 +34,12 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  * Represents a single track of an MP4 file.
  */
 public class Mp4TrackImpl extends AbstractTrack {
+    private static final CompiledPath SUBS = CompiledPath.compile("subs");
+    private static final CompiledPath ALL_SUBS = CompiledPath.compile("/moof/traf/subs");
+    private static final CompiledPath SGPDS = CompiledPath.compile("sgpd");
+    private static final CompiledPath SBGPS = CompiledPath.compile("sbgp");
+    private static final CompiledPath ELST = CompiledPath.compile("edts/elst");
+    private static final CompiledPath MVHD = CompiledPath.compile("../mvhd");
     TrackBox trackBox;
     IsoFile[] fragments;
     private List<Sample> samples;
@@ -76,7 +82,7 @@ public class Mp4TrackImpl extends AbstractTrack {
         if (stbl.getSyncSampleBox() != null) {
             syncSamples = stbl.getSyncSampleBox().getSampleNumber();
         }
-        subSampleInformationBox = Path.getPath(stbl, "subs");
+        subSampleInformationBox = SUBS.getPath(stbl);
 
         // gather all movie fragment boxes from the fragments
         List<MovieFragmentBox> movieFragmentBoxes = new ArrayList<MovieFragmentBox>();
@@ -93,7 +99,7 @@ public class Mp4TrackImpl extends AbstractTrack {
                 final List<TrackExtendsBox> trackExtendsBoxes = mvex.getBoxes(TrackExtendsBox.class);
                 for (TrackExtendsBox trex : trackExtendsBoxes) {
                     if (trex.getTrackId() == trackId) {
-                        List<SubSampleInformationBox> subss = Path.getPaths(((Box) trackBox.getParent()).getParent(), "/moof/traf/subs");
+                        List<SubSampleInformationBox> subss = ALL_SUBS.getPaths(((Box) trackBox.getParent()).getParent());
                         if (subss.size() > 0) {
                             subSampleInformationBox = new SubSampleInformationBox();
                         }
@@ -106,7 +112,7 @@ public class Mp4TrackImpl extends AbstractTrack {
                                 if (traf.getTrackFragmentHeaderBox().getTrackId() == trackId) {
 
 
-                                    SubSampleInformationBox subs = Path.getPath(traf, "subs");
+                                    SubSampleInformationBox subs = SUBS.getPath(traf);
                                     if (subs != null) {
                                         long difFromLastFragment = sampleNumber - lastSubsSample - 1;
                                         for (SubSampleInformationBox.SubSampleEntry subSampleEntry : subs.getEntries()) {
@@ -195,7 +201,7 @@ public class Mp4TrackImpl extends AbstractTrack {
             for (MovieFragmentBox movieFragmentBox : movieFragmentBoxes) {
                 for (TrackFragmentBox traf : movieFragmentBox.getBoxes(TrackFragmentBox.class)) {
                     if (traf.getTrackFragmentHeaderBox().getTrackId() == trackId) {
-                        sampleGroups = getSampleGroups(Path.<SampleGroupDescriptionBox>getPaths((Container) traf, "sgpd"), Path.<SampleToGroupBox>getPaths((Container) traf, "sbgp"), sampleGroups);
+                        sampleGroups = getSampleGroups(SGPDS.<SampleGroupDescriptionBox>getPaths(traf), SBGPS.<SampleToGroupBox>getPaths(traf), sampleGroups);
                     }
                 }
             }
@@ -218,8 +224,8 @@ public class Mp4TrackImpl extends AbstractTrack {
         trackMetaData.setWidth(tkhd.getWidth());
         trackMetaData.setLayer(tkhd.getLayer());
         trackMetaData.setMatrix(tkhd.getMatrix());
-        EditListBox elst = Path.getPath(trackBox, "edts/elst");
-        MovieHeaderBox mvhd = Path.getPath(trackBox, "../mvhd");
+        EditListBox elst = ELST.getPath(trackBox);
+        MovieHeaderBox mvhd = MVHD.getPath(trackBox);
         if (elst != null) {
             for (EditListBox.Entry e : elst.getEntries()) {
                 edits.add(new Edit(e.getMediaTime(), mdhd.getTimescale(), e.getMediaRate(), (double) e.getSegmentDuration() / mvhd.getTimescale()));
@@ -21,6 +21,7 @@ import com.coremedia.iso.IsoTypeWriter;
 import com.coremedia.iso.boxes.*;
 import com.googlecode.mp4parser.BasicContainer;
 import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.authoring.DataSourceSample;
 import com.googlecode.mp4parser.authoring.Edit;
 import com.googlecode.mp4parser.authoring.Movie;
 import com.googlecode.mp4parser.authoring.Sample;
@@ -30,7 +31,7 @@ import com.googlecode.mp4parser.boxes.dece.SampleEncryptionBox;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.GroupEntry;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.SampleGroupDescriptionBox;
 import com.googlecode.mp4parser.boxes.mp4.samplegrouping.SampleToGroupBox;
-import com.googlecode.mp4parser.util.Path;
+import com.googlecode.mp4parser.util.CompiledPath;
 import com.mp4parser.iso14496.part12.SampleAuxiliaryInformationOffsetsBox;
 import com.mp4parser.iso14496.part12.SampleAuxiliaryInformationSizesBox;
 import com.mp4parser.iso23001.part7.CencSampleAuxiliaryDataFormat;
@@ -48,6 +49,7 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  * Creates a plain MP4 file from a video. Plain as plain can be.
  */
 public class DefaultMp4Builder implements Mp4Builder {
+    private static final CompiledPath STSZS = CompiledPath.compile("trak/mdia/minf/stbl/stsz");
 
     private static Logger LOG = Logger.getLogger(DefaultMp4Builder.class.getName());
     Set<StaticChunkOffsetBox> chunkOffsetBoxes = new HashSet<StaticChunkOffsetBox>();
@@ -114,7 +116,7 @@ public class DefaultMp4Builder implements Mp4Builder {
         }
         Box moov = createMovieBox(movie, chunks);
         isoFile.addBox(moov);
-        List<SampleSizeBox> stszs = Path.getPaths(moov, "trak/mdia/minf/stbl/stsz");
+        List<SampleSizeBox> stszs = STSZS.getPaths(moov);
 
         long contentSize = 0;
         for (SampleSizeBox stsz : stszs) {
@@ -125,6 +127,18 @@ public class DefaultMp4Builder implements Mp4Builder {
         InterleaveChunkMdat mdat = new InterleaveChunkMdat(movie, chunks, contentSize);
         isoFile.addBox(mdat);
 
+        // patching the offsets doesn't change any size - sum up each container only once
+        boolean sizePass = BasicContainer.beginSizePass();
+        try {
+            patchOffsets(mdat);
+        } finally {
+            BasicContainer.endSizePass(sizePass);
+        }
+
+        return isoFile;
+    }
+
+    private void patchOffsets(InterleaveChunkMdat mdat) {
         /*
         dataOffset is where the first sample starts. In this special mdat the samples always start
         at offset 16 so that we can use the same offset for large boxes and small boxes
@@ -161,9 +175,6 @@ public class DefaultMp4Builder implements Mp4Builder {
             }
             saio.setOffsets(saioOffsets);
         }
-
-
-        return isoFile;
     }
 
     protected List<Sample> putSamples(Track track, List<Sample> samples) {
@@ -623,16 +634,15 @@ public class DefaultMp4Builder implements Mp4Builder {
             this.contentSize = contentSize;
             this.tracks = movie.getTracks();
 
+            // first sample of each track's next chunk
+            long[] firstSampleOfChunk = new long[tracks.size()];
             for (int i = 0; i < chunks.values().iterator().next().length; i++) {
-                for (Track track : tracks) {
-
+                for (int t = 0; t < tracks.size(); t++) {
+                    Track track = tracks.get(t);
                     int[] chunkSizes = chunks.get(track);
-                    long firstSampleOfChunk = 0;
-                    for (int j = 0; j < i; j++) {
-                        firstSampleOfChunk += chunkSizes[j];
-                    }
-                    List<Sample> chunk = DefaultMp4Builder.this.track2Sample.get(track).subList(l2i(firstSampleOfChunk), l2i(firstSampleOfChunk + chunkSizes[i]));
+                    List<Sample> chunk = DefaultMp4Builder.this.track2Sample.get(track).subList(l2i(firstSampleOfChunk[t]), l2i(firstSampleOfChunk[t] + chunkSizes[i]));
                     chunkList.add(chunk);
+                    firstSampleOfChunk[t] += chunkSizes[i];
                 }
 
             }
@@ -699,13 +709,44 @@ public class DefaultMp4Builder implements Mp4Builder {
             }
             bb.rewind();
             writableByteChannel.write(bb);
-            for (List<Sample> samples : chunkList) {
-                for (Sample sample : samples) {
-                    sample.writeTo(writableByteChannel);
+            // one pass over all chunks so that chunks that are adjacent in the source are transferred together
+            DataSourceSample.writeTo(new Iterable<Sample>() {
+                public Iterator<Sample> iterator() {
+                    return new SamplesOfChunks(chunkList.iterator());
                 }
+            }, writableByteChannel);
+
+        }
+
+    }
+
+    /**
+     * Iterates over the samples of a list of chunks as if they were one list.
+     */
+    private static class SamplesOfChunks implements Iterator<Sample> {
+        private final Iterator<List<Sample>> chunks;
+        private Iterator<Sample> samples = Collections.<Sample>emptyList().iterator();
+
+        SamplesOfChunks(Iterator<List<Sample>> chunks) {
+            this.chunks = chunks;
+        }
+
+        public boolean hasNext() {
+            while (!samples.hasNext() && chunks.hasNext()) {
+                samples = chunks.next().iterator();
             }
+            return samples.hasNext();
+        }
 
+        public Sample next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return samples.next();
         }
 
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 }
@@ -15,13 +15,14 @@
  */
 package com.googlecode.mp4parser.authoring.builder;
 
+import com.coremedia.iso.FourCC;
 import com.coremedia.iso.BoxParser;
-import com.coremedia.iso.IsoFile;
 import com.coremedia.iso.IsoTypeWriter;
 import com.coremedia.iso.boxes.*;
 import com.coremedia.iso.boxes.fragment.*;
 import com.googlecode.mp4parser.BasicContainer;
 import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.authoring.DataSourceSample;
 import com.googlecode.mp4parser.authoring.Edit;
 import com.googlecode.mp4parser.authoring.Movie;
 import com.googlecode.mp4parser.authoring.Sample;
@@ -171,9 +172,7 @@ public class FragmentedMp4Builder implements Mp4Builder {
         //isoFile.addBox(createPdin(movie));
         isoFile.addBox(createMoov(movie));
 
-        for (Box box : createMoofMdat(movie)) {
-            isoFile.addBox(box);
-        }
+        isoFile.addBoxes(createMoofMdat(movie));
         isoFile.addBox(createMfra(movie, isoFile));
 
         return isoFile;
@@ -214,14 +213,11 @@ public class FragmentedMp4Builder implements Mp4Builder {
             public void getBox(WritableByteChannel writableByteChannel) throws IOException {
                 ByteBuffer header = ByteBuffer.allocate(8);
                 IsoTypeWriter.writeUInt32(header, l2i(getSize()));
-                header.put(IsoFile.fourCCtoBytes(getType()));
+                FourCC.write(header, FourCC.MDAT);
                 header.rewind();
                 writableByteChannel.write(header);
 
-                List<Sample> samples = getSamples(startSample, endSample, track, i);
-                for (Sample sample : samples) {
-                    sample.writeTo(writableByteChannel);
-                }
+                DataSourceSample.writeTo(getSamples(startSample, endSample, track, i), writableByteChannel);
 
 
             }
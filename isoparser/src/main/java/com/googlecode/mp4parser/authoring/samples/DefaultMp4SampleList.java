@@ -1,11 +1,13 @@
 package com.googlecode.mp4parser.authoring.samples;
 
 import com.coremedia.iso.boxes.*;
+import com.googlecode.mp4parser.BasicContainer;
+import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.authoring.DataSourceSample;
 import com.googlecode.mp4parser.authoring.Sample;
+import com.googlecode.mp4parser.util.ByteRangeCache;
 
 import java.io.IOException;
-import java.lang.ref.SoftReference;
-import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
 import java.util.AbstractList;
@@ -21,13 +23,32 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
 
     Container topLevel;
     TrackBox trackBox = null;
-    SoftReference<ByteBuffer[]>[] cache = null;
+    /**
+     * Chunks are cached by their offset in <code>topLevel</code>.
+     */
+    ByteRangeCache cache = ByteRangeCache.getDefault();
+    /**
+     * The chunk of the previous {@link #get(int)} so that reading a chunk sample by sample doesn't go to
+     * the shared cache for each sample. A hint just as {@link #lastChunk}.
+     */
+    ChunkBuffers lastChunkBuffers;
     int[] chunkNumsStartSampleNum;
     long[] chunkOffsets;
-    long[] chunkSizes;
-    long[][] sampleOffsetsWithinChunks;
+    /**
+     * Absolute offset of each sample in the file. Together with the sizes in the <code>SampleSizeBox</code>
+     * it locates any sample without walking the chunks.
+     */
+    long[] sampleOffsets;
     SampleSizeBox ssb;
+    /**
+     * Only a hint for {@link #getChunkForSample(int)}, it's checked before use. Concurrent readers may
+     * overwrite each other's hint without any harm so it's neither synchronized nor volatile.
+     */
     int lastChunk = 0;
+    /**
+     * Built on first use by {@link #getTimeIndex()}.
+     */
+    private volatile TimeIndex timeIndex;
 
 
     public DefaultMp4SampleList(long track, Container topLevel) {
@@ -44,10 +65,7 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
             throw new RuntimeException("This MP4 does not contain track " + track);
         }
         chunkOffsets = trackBox.getSampleTableBox().getChunkOffsetBox().getChunkOffsets();
-        chunkSizes = new long[chunkOffsets.length];
 
-        cache = (SoftReference<ByteBuffer[]>[]) Array.newInstance(SoftReference.class, chunkOffsets.length);
-        sampleOffsetsWithinChunks = new long[chunkOffsets.length][];
         ssb = trackBox.getSampleTableBox().getSampleSizeBox();
         List<SampleToChunkBox.Entry> s2chunkEntries = trackBox.getSampleTableBox().getSampleToChunkBox().getEntries();
         SampleToChunkBox.Entry[] entries = s2chunkEntries.toArray(new SampleToChunkBox.Entry[s2chunkEntries.size()]);
@@ -79,8 +97,6 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
                     nextFirstChunk = Long.MAX_VALUE;
                 }
             }
-            sampleOffsetsWithinChunks[currentChunkNo - 1] = new long[currentSamplePerChunk];
-
         } while ((currentSampleNo += currentSamplePerChunk) <= lastSampleNo);
         chunkNumsStartSampleNum = new int[currentChunkNo + 1];
         // reset of algorithm
@@ -111,85 +127,222 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
         chunkNumsStartSampleNum[currentChunkNo] = Integer.MAX_VALUE;
 
         currentChunkNo = 0;
-        long sampleSum = 0;
-        for (int i = 1; i <= ssb.getSampleCount(); i++) {
+        sampleOffsets = new long[lastSampleNo];
+        long sampleOffset = 0;
+        for (int i = 1; i <= lastSampleNo; i++) {
             while (i == chunkNumsStartSampleNum[currentChunkNo]) {
                 // you might think that an if statement is enough but unfortunately you might as well declare chunks without any samples!
                 currentChunkNo++;
-                sampleSum = 0;
+                sampleOffset = chunkOffsets[currentChunkNo - 1];
             }
-            chunkSizes[currentChunkNo - 1] += ssb.getSampleSizeAtIndex(i - 1);
-            long[] sampleOffsetsWithinChunkscurrentChunkNo = sampleOffsetsWithinChunks[currentChunkNo - 1];
-            int chunkNumsStartSampleNumcurrentChunkNo = chunkNumsStartSampleNum[currentChunkNo - 1];
-            sampleOffsetsWithinChunkscurrentChunkNo[i - chunkNumsStartSampleNumcurrentChunkNo] = sampleSum;
-            sampleSum += ssb.getSampleSizeAtIndex(i - 1);
+            sampleOffsets[i - 1] = sampleOffset;
+            sampleOffset += ssb.getSampleSizeAtIndex(i - 1);
         }
 
     }
 
-    synchronized int getChunkForSample(int index) {
+    /**
+     * Finds the chunk of a sample. Linear access is answered from the chunk of the previous lookup, all
+     * other lookups do a binary search - jumping backwards costs the same as jumping forward.
+     */
+    int getChunkForSample(int index) {
         int sampleNum = index + 1;
-        // we always look for the next chunk in the last one to make linear access fast
-        if (sampleNum >= chunkNumsStartSampleNum[lastChunk] && sampleNum < chunkNumsStartSampleNum[lastChunk + 1]) {
-            return lastChunk;
-        } else if (sampleNum < chunkNumsStartSampleNum[lastChunk]) {
-            // we could search backwards but i don't believe there is much backward linear access
-            // I'd then rather suspect a start from scratch
-            lastChunk = 0;
-
-            while (chunkNumsStartSampleNum[lastChunk + 1] <= sampleNum) {
-                lastChunk++;
+        int chunk = lastChunk;
+        if (sampleNum < chunkNumsStartSampleNum[chunk] || sampleNum >= chunkNumsStartSampleNum[chunk + 1]) {
+            chunk++;
+            if (chunk + 1 >= chunkNumsStartSampleNum.length ||
+                    sampleNum < chunkNumsStartSampleNum[chunk] || sampleNum >= chunkNumsStartSampleNum[chunk + 1]) {
+                // chunks without any samples start with the same sample as their successor - take the last one
+                chunk = floor(chunkNumsStartSampleNum, sampleNum);
             }
-            return lastChunk;
+            lastChunk = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * @param index index of the sample
+     * @return the sample's offset in the file
+     */
+    public long getSampleOffset(int index) {
+        return sampleOffsets[index];
+    }
+
+    /**
+     * @param index index of the sample
+     * @return the sample's size in bytes
+     */
+    public long getSampleSize(int index) {
+        return ssb.getSampleSizeAtIndex(index);
+    }
+
+    /**
+     * @param index index of the sample
+     * @return the sample's decoding time in the track's timescale - 0 if the <code>TimeToSampleBox</code>
+     * is empty, there are no deltas to add up then
+     */
+    public long getDecodingTime(int index) {
+        if (index < 0 || index >= sampleOffsets.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        TimeIndex timeIndex = getTimeIndex();
+        if (timeIndex.startTimes.length == 0) {
+            return 0;
+        }
+        int entry = floor(timeIndex.firstSamples, index);
+        return timeIndex.startTimes[entry] + (index - timeIndex.firstSamples[entry]) * timeIndex.deltas[entry];
+    }
 
-        } else {
-            lastChunk += 1;
+    /**
+     * Finds the sample that is decoded at the given time, e.g. to start playback or to pick a thumbnail.
+     *
+     * @param decodingTime time in the track's timescale
+     * @return index of the last sample whose decoding time is not after <code>decodingTime</code> or
+     * <code>-1</code> if <code>decodingTime</code> is before the first sample
+     */
+    public int getSampleIndex(long decodingTime) {
+        TimeIndex timeIndex = getTimeIndex();
+        if (timeIndex.startTimes.length == 0 || decodingTime < timeIndex.startTimes[0]) {
+            return -1;
+        }
+        int entry = floor(timeIndex.startTimes, decodingTime);
+        long delta = timeIndex.deltas[entry];
+        long inEntry = timeIndex.firstSamples[entry + 1] - timeIndex.firstSamples[entry] - 1;
+        if (delta > 0) {
+            inEntry = Math.min(inEntry, (decodingTime - timeIndex.startTimes[entry]) / delta);
+        }
+        return (int) Math.min(timeIndex.firstSamples[entry] + inEntry, sampleOffsets.length - 1);
+    }
 
-            while (chunkNumsStartSampleNum[lastChunk + 1] <= sampleNum) {
-                lastChunk++;
+    /**
+     * @return the last index in <code>values</code> (ignoring the trailing sentinel) whose value is not greater
+     * than <code>key</code>
+     */
+    private static int floor(int[] values, int key) {
+        int low = 0;
+        int high = values.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
             }
-            return lastChunk;
         }
+        return low;
+    }
 
+    /**
+     * @return the last index in <code>values</code> whose value is not greater than <code>key</code>
+     */
+    private static int floor(long[] values, long key) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private TimeIndex getTimeIndex() {
+        TimeIndex timeIndex = this.timeIndex;
+        if (timeIndex == null) {
+            // threads racing here build equal indices, no need to lock
+            timeIndex = new TimeIndex(trackBox.getSampleTableBox().getTimeToSampleBox());
+            this.timeIndex = timeIndex;
+        }
+        return timeIndex;
     }
 
     @Override
-    public Sample get(int index) {
+    public Sample get(final int index) {
         if (index >= ssb.getSampleCount()) {
             throw new IndexOutOfBoundsException();
         }
 
+        final long sampleSize = ssb.getSampleSizeAtIndex(index);
+        DataSource dataSource = topLevel instanceof BasicContainer ? ((BasicContainer) topLevel).getDataSource() : null;
+        if (dataSource != null) {
+            // the chunk is only read if the sample's content is requested - writing it transfers it directly
+            long offset = ((BasicContainer) topLevel).getStartPosition() + sampleOffsets[index];
+            return new DataSourceSample(dataSource, offset, sampleSize) {
+                @Override
+                public ByteBuffer asByteBuffer() {
+                    return getSampleBuffer(index);
+                }
+
+                @Override
+                public String toString() {
+                    return "DefaultMp4Sample(size:" + sampleSize + ")";
+                }
+            };
+        }
+
+        final ByteBuffer sampleBuffer = getSampleBuffer(index);
+        return new Sample() {
+
+            public void writeTo(WritableByteChannel channel) throws IOException {
+                channel.write(asByteBuffer());
+            }
+
+            public long getSize() {
+                return sampleSize;
+            }
+
+            public ByteBuffer asByteBuffer() {
+                return sampleBuffer.duplicate();
+            }
+
+            @Override
+            public String toString() {
+                return "DefaultMp4Sample(size:" + sampleSize + ")";
+            }
+        };
+    }
+
+    /**
+     * Gets the content of a sample as a slice of its chunk. The chunk is read through the shared cache.
+     */
+    private ByteBuffer getSampleBuffer(int index) {
         int chunkNumber = getChunkForSample(index);
         int chunkStartSample = chunkNumsStartSampleNum[chunkNumber] - 1;
-        long chunkOffset = chunkOffsets[l2i(chunkNumber)];
-        int sampleInChunk = index - chunkStartSample;
-        long[] sampleOffsetsWithinChunk = sampleOffsetsWithinChunks[l2i(chunkNumber)];
-        long offsetWithInChunk = sampleOffsetsWithinChunk[sampleInChunk];
+        int chunkEndSample = Math.min(chunkNumsStartSampleNum[chunkNumber + 1] - 1, sampleOffsets.length);
+        long chunkOffset = chunkOffsets[chunkNumber];
+        long offsetWithInChunk = sampleOffsets[index] - chunkOffset;
 
 
-        SoftReference<ByteBuffer[]> chunkBuffersSr = cache[l2i(chunkNumber)];
-        ByteBuffer[] chunkBuffers = chunkBuffersSr != null ? chunkBuffersSr.get() : null;
+        ChunkBuffers last = lastChunkBuffers;
+        ByteBuffer[] chunkBuffers = last != null && last.chunk == chunkNumber ? last.buffers : cache.get(topLevel, chunkOffset);
         if (chunkBuffers == null) {
             List<ByteBuffer> _chunkBuffers = new ArrayList<ByteBuffer>();
             long currentStart = 0;
             try {
-                for (int i = 0; i < sampleOffsetsWithinChunk.length; i++) {
-                    if (sampleOffsetsWithinChunk[i] + ssb.getSampleSizeAtIndex(i + chunkStartSample) - currentStart > MAX_MAP_SIZE) {
+                for (int i = chunkStartSample; i < chunkEndSample; i++) {
+                    long sampleOffsetWithinChunk = sampleOffsets[i] - chunkOffset;
+                    if (sampleOffsetWithinChunk + ssb.getSampleSizeAtIndex(i) - currentStart > MAX_MAP_SIZE) {
                         _chunkBuffers.add(topLevel.getByteBuffer(
                                 chunkOffset + currentStart,
-                                sampleOffsetsWithinChunk[i] - currentStart));
-                        currentStart = sampleOffsetsWithinChunk[i];
+                                sampleOffsetWithinChunk - currentStart));
+                        currentStart = sampleOffsetWithinChunk;
                     }
                 }
                 _chunkBuffers.add(topLevel.getByteBuffer(
                         chunkOffset + currentStart,
-                        -currentStart + sampleOffsetsWithinChunk[sampleOffsetsWithinChunk.length - 1] + ssb.getSampleSizeAtIndex(chunkStartSample + sampleOffsetsWithinChunk.length - 1)));
+                        -currentStart + sampleOffsets[chunkEndSample - 1] - chunkOffset + ssb.getSampleSizeAtIndex(chunkEndSample - 1)));
                 chunkBuffers = _chunkBuffers.toArray(new ByteBuffer[_chunkBuffers.size()]);
-                cache[l2i(chunkNumber)] = new SoftReference<ByteBuffer[]>(chunkBuffers);
+                cache.put(topLevel, chunkOffset, chunkBuffers);
             } catch (IOException e) {
                 throw new IndexOutOfBoundsException(e.getMessage());
             }
         }
+        if (last == null || last.buffers != chunkBuffers) {
+            lastChunkBuffers = new ChunkBuffers(chunkNumber, chunkBuffers);
+        }
 
         ByteBuffer correctPartOfChunk = null;
 
@@ -202,28 +355,7 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
         }
 
 
-        final long sampleSize = ssb.getSampleSizeAtIndex(index);
-        final ByteBuffer finalCorrectPartOfChunk = correctPartOfChunk;
-        final long finalOffsetWithInChunk = offsetWithInChunk;
-        return new Sample() {
-
-            public void writeTo(WritableByteChannel channel) throws IOException {
-                channel.write(asByteBuffer());
-            }
-
-            public long getSize() {
-                return sampleSize;
-            }
-
-            public ByteBuffer asByteBuffer() {
-                return (ByteBuffer) ((ByteBuffer) finalCorrectPartOfChunk.position(l2i(finalOffsetWithInChunk))).slice().limit(l2i(sampleSize));
-            }
-
-            @Override
-            public String toString() {
-                return "DefaultMp4Sample(size:" + sampleSize + ")";
-            }
-        };
+        return (ByteBuffer) ((ByteBuffer) correctPartOfChunk.duplicate().position(l2i(offsetWithInChunk))).slice().limit(l2i(ssb.getSampleSizeAtIndex(index)));
     }
 
     @Override
@@ -231,4 +363,55 @@ public class DefaultMp4SampleList extends AbstractList<Sample> {
         return l2i(trackBox.getSampleTableBox().getSampleSizeBox().getSampleCount());
     }
 
+    static final class ChunkBuffers {
+        final int chunk;
+        final ByteBuffer[] buffers;
+
+        ChunkBuffers(int chunk, ByteBuffer[] buffers) {
+            this.chunk = chunk;
+            this.buffers = buffers;
+        }
+    }
+
+    /**
+     * Start time and delta of each run of samples in the <code>TimeToSampleBox</code>, small enough to be
+     * kept for the lifetime of the list even for long tracks.
+     */
+    private static final class TimeIndex {
+        /**
+         * Index of the first sample of each run, followed by the total number of samples.
+         */
+        final int[] firstSamples;
+        final long[] startTimes;
+        final long[] deltas;
+
+        TimeIndex(TimeToSampleBox stts) {
+            int entryCount = stts.getEntryCount();
+            int runs = 0;
+            for (int i = 0; i < entryCount; i++) {
+                if (stts.getSampleCount(i) > 0) {
+                    runs++;
+                }
+            }
+            firstSamples = new int[runs + 1];
+            startTimes = new long[runs];
+            deltas = new long[runs];
+            int run = 0;
+            long sample = 0;
+            long time = 0;
+            for (int i = 0; i < entryCount; i++) {
+                long count = stts.getSampleCount(i);
+                if (count > 0) {
+                    firstSamples[run] = l2i(sample);
+                    startTimes[run] = time;
+                    deltas[run] = stts.getSampleDelta(i);
+                    sample += count;
+                    time += count * deltas[run];
+                    run++;
+                }
+            }
+            firstSamples[runs] = l2i(sample);
+        }
+    }
+
 }
@@ -6,13 +6,14 @@ import com.coremedia.iso.boxes.Container;
 import com.coremedia.iso.boxes.MovieBox;
 import com.coremedia.iso.boxes.TrackBox;
 import com.coremedia.iso.boxes.fragment.*;
+import com.googlecode.mp4parser.BasicContainer;
+import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.authoring.DataSourceSample;
 import com.googlecode.mp4parser.authoring.Sample;
-import com.googlecode.mp4parser.authoring.SampleImpl;
-import com.googlecode.mp4parser.util.Path;
+import com.googlecode.mp4parser.util.ByteRangeCache;
+import com.googlecode.mp4parser.util.CompiledPath;
 
 import java.io.IOException;
-import java.lang.ref.SoftReference;
-import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
 import java.util.*;
@@ -23,21 +24,41 @@ import static com.googlecode.mp4parser.util.CastUtils.l2i;
  * Created by sannies on 25.05.13.
  */
 public class FragmentedMp4SampleList extends AbstractList<Sample> {
+    private static final CompiledPath TRAKS = CompiledPath.compile("moov[0]/trak");
+    private static final CompiledPath TREXS = CompiledPath.compile("moov[0]/mvex[0]/trex");
     Container topLevel;
     IsoFile[] fragments;
     TrackBox trackBox = null;
     TrackExtendsBox trex = null;
-    private SoftReference<Sample> sampleCache[];
-    private List<TrackFragmentBox> allTrafs;
-    private Map<TrackRunBox, SoftReference<ByteBuffer>>
-            trunDataCache = new HashMap<TrackRunBox, SoftReference<ByteBuffer>>();
-    private int firstSamples[];
-    private int size_ = -1;
+    /**
+     * The samples of a track run are cached together by their offset in the <code>moof</code> or - if
+     * the <code>tfhd</code> has a base data offset - in the <code>moof</code>'s parent.
+     */
+    ByteRangeCache cache = ByteRangeCache.getDefault();
+    /**
+     * Index of the first sample of each non-empty track run plus the number of samples as last element.
+     * Runs are found by binary search instead of walking the track fragments.
+     */
+    private final int[] runFirstSamples;
+    /**
+     * The container each run's data offsets are relative to.
+     */
+    private final Container[] runBases;
+    /**
+     * Offset of each sample in the base container of its run.
+     */
+    private final long[] sampleOffsets;
+    private final long[] sampleSizes;
+    /**
+     * Only a hint for {@link #getRunForSample(int)}, it's checked before use. Concurrent readers may
+     * overwrite each other's hint without any harm so it's neither synchronized nor volatile.
+     */
+    int lastRun = 0;
 
     public FragmentedMp4SampleList(long track, Container topLevel, IsoFile... fragments) {
         this.topLevel = topLevel;
         this.fragments = fragments;
-        List<TrackBox> tbs = Path.getPaths(topLevel, "moov[0]/trak");
+        List<TrackBox> tbs = TRAKS.getPaths(topLevel);
         for (TrackBox tb : tbs) {
             if (tb.getTrackHeaderBox().getTrackId() == track) {
                 trackBox = tb;
@@ -47,20 +68,32 @@ public class FragmentedMp4SampleList extends AbstractList<Sample> {
             throw new RuntimeException("This MP4 does not contain track " + track);
         }
 
-        List<TrackExtendsBox> trexs = Path.getPaths(topLevel, "moov[0]/mvex[0]/trex");
+        List<TrackExtendsBox> trexs = TREXS.getPaths(topLevel);
         for (TrackExtendsBox box : trexs) {
             if (box.getTrackId() == trackBox.getTrackHeaderBox().getTrackId()) {
                 trex = box;
             }
         }
-        sampleCache = (SoftReference<Sample>[]) Array.newInstance(SoftReference.class, size());
-        initAllFragments();
-    }
 
-    private List<TrackFragmentBox> initAllFragments() {
-        if (allTrafs != null) {
-            return allTrafs;
+        List<TrackFragmentBox> trafs = getTrackFragments();
+        int runs = 0;
+        int samples = 0;
+        for (TrackFragmentBox traf : trafs) {
+            for (Box box : traf.getBoxes()) {
+                if (box instanceof TrackRunBox && ((TrackRunBox) box).getSampleCount() > 0) {
+                    runs++;
+                    samples += l2i(((TrackRunBox) box).getSampleCount());
+                }
+            }
         }
+        runFirstSamples = new int[runs + 1];
+        runBases = new Container[runs];
+        sampleOffsets = new long[samples];
+        sampleSizes = new long[samples];
+        buildIndex(trafs);
+    }
+
+    private List<TrackFragmentBox> getTrackFragments() {
         List<TrackFragmentBox> trafs = new ArrayList<TrackFragmentBox>();
         for (MovieFragmentBox moof : topLevel.getBoxes(MovieFragmentBox.class)) {
             for (TrackFragmentBox trackFragmentBox : moof.getBoxes(TrackFragmentBox.class)) {
@@ -80,171 +113,173 @@ public class FragmentedMp4SampleList extends AbstractList<Sample> {
                 }
             }
         }
-        allTrafs = trafs;
-        int firstSample = 1;
-        firstSamples = new int[allTrafs.size()];
-        for (int i = 0; i < allTrafs.size(); i++) {
-            firstSamples[i] = firstSample;
-            firstSample += getTrafSize(allTrafs.get(i));
-        }
         return trafs;
     }
 
-    private int getTrafSize(TrackFragmentBox traf) {
-        List<Box> boxes = traf.getBoxes();
-        int size = 0;
-        for (int i = 0; i < boxes.size(); i++) {
-            Box b = boxes.get(i);
-            if (b instanceof TrackRunBox) {
-                size += l2i(((TrackRunBox) b).getSampleCount());
+    /**
+     * Resolves base data offsets, data offsets and sample sizes of all track runs once.
+     */
+    private void buildIndex(List<TrackFragmentBox> trafs) {
+        int run = 0;
+        int sample = 0;
+        for (TrackFragmentBox traf : trafs) {
+            MovieFragmentBox moof = (MovieFragmentBox) traf.getParent();
+            TrackFragmentHeaderBox tfhd = traf.getTrackFragmentHeaderBox();
+            Container base;
+            long baseDataOffset;
+            if (tfhd.hasBaseDataOffset()) {
+                base = moof.getParent();
+                baseDataOffset = tfhd.getBaseDataOffset();
+            } else {
+                base = moof;
+                baseDataOffset = 0;
+            }
+            long defaultSampleSize = -1;
+            if (tfhd.hasDefaultSampleSize()) {
+                defaultSampleSize = tfhd.getDefaultSampleSize();
+            } else if (trex != null) {
+                defaultSampleSize = trex.getDefaultSampleSize();
+            }
+            // a run without data offset starts right after the previous run
+            long offset = baseDataOffset;
+            for (Box box : traf.getBoxes()) {
+                if (!(box instanceof TrackRunBox)) {
+                    continue;
+                }
+                TrackRunBox trun = (TrackRunBox) box;
+                if (trun.isDataOffsetPresent()) {
+                    offset = baseDataOffset + trun.getDataOffset();
+                }
+                int sampleCount = l2i(trun.getSampleCount());
+                if (sampleCount == 0) {
+                    continue;
+                }
+                boolean sampleSizePresent = trun.isSampleSizePresent();
+                if (!sampleSizePresent && defaultSampleSize < 0) {
+                    throw new RuntimeException("File doesn't contain trex box but track fragments aren't fully self contained. Cannot determine sample size.");
+                }
+                runFirstSamples[run] = sample;
+                runBases[run] = base;
+                run++;
+                for (int i = 0; i < sampleCount; i++) {
+                    long size = sampleSizePresent ? trun.getSampleSize(i) : defaultSampleSize;
+                    sampleOffsets[sample] = offset;
+                    sampleSizes[sample] = size;
+                    offset += size;
+                    sample++;
+                }
             }
         }
-        return size;
+        runFirstSamples[run] = sample;
     }
 
-    @Override
-    public Sample get(int index) {
-
-        Sample cachedSample;
-        if (sampleCache[index] != null && (cachedSample = sampleCache[index].get()) != null) {
-            return cachedSample;
+    /**
+     * Finds the track run containing a sample. Checks the run of the previous call and the one after it
+     * first so that reading the samples in order doesn't search at all.
+     *
+     * @param index the sample's index
+     * @return the index of the run
+     */
+    private int getRunForSample(int index) {
+        int run = lastRun;
+        if (run + 1 < runFirstSamples.length && index >= runFirstSamples[run]) {
+            if (index < runFirstSamples[run + 1]) {
+                return run;
+            }
+            if (run + 2 < runFirstSamples.length && index < runFirstSamples[run + 2]) {
+                lastRun = run + 1;
+                return run + 1;
+            }
         }
-
-
-        int targetIndex = index + 1;
-        int j = firstSamples.length - 1;
-        while (targetIndex - firstSamples[j] < 0) {
-            j--;
+        int low = 0;
+        int high = runFirstSamples.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (runFirstSamples[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
         }
-        TrackFragmentBox trackFragmentBox = allTrafs.get(j);
-        // we got the correct traf.
-        int sampleIndexWithInTraf = targetIndex - firstSamples[j];
-        int previousTrunsSize = 0;
-        MovieFragmentBox moof = ((MovieFragmentBox) trackFragmentBox.getParent());
-
-        for (Box box : trackFragmentBox.getBoxes()) {
-            if (box instanceof TrackRunBox) {
-                TrackRunBox trun = (TrackRunBox) box;
-
+        lastRun = low;
+        return low;
+    }
 
-                if (trun.getEntries().size() < (sampleIndexWithInTraf - previousTrunsSize)) {
-                    previousTrunsSize += trun.getEntries().size();
-                } else {
-                    // we are in correct trun box
-
-
-                    List<TrackRunBox.Entry> trackRunEntries = trun.getEntries();
-                    TrackFragmentHeaderBox tfhd = trackFragmentBox.getTrackFragmentHeaderBox();
-                    boolean sampleSizePresent = trun.isSampleSizePresent();
-                    boolean hasDefaultSampleSize = tfhd.hasDefaultSampleSize();
-                    long defaultSampleSize = 0;
-                    if (!sampleSizePresent) {
-                        if (hasDefaultSampleSize) {
-                            defaultSampleSize = tfhd.getDefaultSampleSize();
-                        } else {
-                            if (trex == null) {
-                                throw new RuntimeException("File doesn't contain trex box but track fragments aren't fully self contained. Cannot determine sample size.");
-                            }
-                            defaultSampleSize = trex.getDefaultSampleSize();
-                        }
-                    }
+    /**
+     * Gets the offset of a sample in the container returned by its run's base - either the
+     * <code>moof</code> or the file the <code>moof</code> is in.
+     *
+     * @param index the sample's index
+     * @return offset of the sample's first byte
+     */
+    public long getSampleOffset(int index) {
+        return sampleOffsets[index];
+    }
 
-                    final SoftReference<ByteBuffer> trunDataRef = trunDataCache.get(trun);
-                    ByteBuffer trunData = trunDataRef != null ? trunDataRef.get() : null;
-                    if (trunData == null) {
-                        long offset = 0;
-                        Container base;
-                        if (tfhd.hasBaseDataOffset()) {
-                            offset += tfhd.getBaseDataOffset();
-                            base = moof.getParent();
-                        } else {
-                            base = moof;
-                        }
+    public long getSampleSize(int index) {
+        return sampleSizes[index];
+    }
 
-                        if (trun.isDataOffsetPresent()) {
-                            offset += trun.getDataOffset();
-                        }
-                        int size = 0;
-                        for (TrackRunBox.Entry e : trackRunEntries) {
-                            if (sampleSizePresent) {
-                                size += e.getSampleSize();
-                            } else {
-                                size += defaultSampleSize;
-                            }
-                        }
-                        try {
-                            trunData = base.getByteBuffer(offset, size);
-                            trunDataCache.put(trun, new SoftReference<ByteBuffer>(trunData));
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
+    @Override
+    public Sample get(final int index) {
+        if (index < 0 || index >= sampleOffsets.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        final int run = getRunForSample(index);
+        final long sampleSize = sampleSizes[index];
+        Container base = runBases[run];
+        DataSource dataSource = base instanceof BasicContainer ? ((BasicContainer) base).getDataSource() : null;
+        if (dataSource != null) {
+            // the run is only read if the sample's content is requested - writing it transfers it directly
+            return new DataSourceSample(dataSource, ((BasicContainer) base).getStartPosition() + sampleOffsets[index], sampleSize) {
+                @Override
+                public ByteBuffer asByteBuffer() {
+                    return getSampleBuffer(run, index);
+                }
+            };
+        }
 
-                    int offset = 0;
-                    for (int i = 0; i < (sampleIndexWithInTraf - previousTrunsSize); i++) {
-                        if (sampleSizePresent) {
-                            offset += trackRunEntries.get(i).getSampleSize();
-                        } else {
-                            offset += defaultSampleSize;
-                        }
-                    }
-                    final long sampleSize;
-                    if (sampleSizePresent) {
-                        sampleSize = trackRunEntries.get(sampleIndexWithInTraf- previousTrunsSize).getSampleSize();
-                    } else {
-                        sampleSize = defaultSampleSize;
-                    }
+        final ByteBuffer sampleBuffer = getSampleBuffer(run, index);
+        return new Sample() {
 
-                    final ByteBuffer finalTrunData = trunData;
-                    final int finalOffset = offset;
-                    Sample sample = new Sample() {
+            public void writeTo(WritableByteChannel channel) throws IOException {
+                channel.write(asByteBuffer());
+            }
 
-                        public void writeTo(WritableByteChannel channel) throws IOException {
-                            channel.write(asByteBuffer());
-                        }
+            public long getSize() {
+                return sampleSize;
+            }
 
-                        public long getSize() {
-                            return sampleSize;
-                        }
+            public ByteBuffer asByteBuffer() {
+                return sampleBuffer.duplicate();
+            }
+        };
+    }
 
-                        public ByteBuffer asByteBuffer() {
-                            return (ByteBuffer) ((ByteBuffer)finalTrunData.position(finalOffset)).slice().limit(l2i(sampleSize));
-                        }
-                    };
-                    sampleCache[index] = new SoftReference<Sample>(sample);
-                    return sample;
-                }
+    /**
+     * Gets the content of a sample as a slice of its track run. The run is read through the shared cache.
+     */
+    private ByteBuffer getSampleBuffer(int run, int index) {
+        Container base = runBases[run];
+        long runStart = sampleOffsets[runFirstSamples[run]];
+        ByteBuffer[] cached = cache.get(base, runStart);
+        ByteBuffer runData;
+        if (cached != null) {
+            runData = cached[0];
+        } else {
+            int lastSample = runFirstSamples[run + 1] - 1;
+            try {
+                runData = base.getByteBuffer(runStart, sampleOffsets[lastSample] + sampleSizes[lastSample] - runStart);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
+            cache.put(base, runStart, runData);
         }
-
-        throw new RuntimeException("Couldn't find sample in the traf I was looking");
+        return (ByteBuffer) ((ByteBuffer) runData.duplicate().position(l2i(sampleOffsets[index] - runStart))).slice().limit(l2i(sampleSizes[index]));
     }
 
     @Override
     public int size() {
-        if (size_ != -1) {
-            return size_;
-        }
-        int i = 0;
-        for (MovieFragmentBox moof : topLevel.getBoxes(MovieFragmentBox.class)) {
-            for (TrackFragmentBox trackFragmentBox : moof.getBoxes(TrackFragmentBox.class)) {
-                if (trackFragmentBox.getTrackFragmentHeaderBox().getTrackId() == trackBox.getTrackHeaderBox().getTrackId()) {
-                    i += trackFragmentBox.getBoxes(TrackRunBox.class).get(0).getSampleCount();
-                }
-            }
-        }
-        for (IsoFile fragment : fragments) {
-            for (MovieFragmentBox moof : fragment.getBoxes(MovieFragmentBox.class)) {
-                for (TrackFragmentBox trackFragmentBox : moof.getBoxes(TrackFragmentBox.class)) {
-                    if (trackFragmentBox.getTrackFragmentHeaderBox().getTrackId() == trackBox.getTrackHeaderBox().getTrackId()) {
-                        i += trackFragmentBox.getBoxes(TrackRunBox.class).get(0).getSampleCount();
-                    }
-                }
-            }
-        }
-        size_ = i;
-        return i;
+        return sampleOffsets.length;
     }
-
-
 }
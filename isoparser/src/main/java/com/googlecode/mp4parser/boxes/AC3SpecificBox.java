@@ -53,63 +53,78 @@ public class AC3SpecificBox extends AbstractBox {
     }
 
     public int getFscod() {
+        ensureParsed();
         return fscod;
     }
 
     public void setFscod(int fscod) {
+        ensureParsed();
         this.fscod = fscod;
     }
 
     public int getBsid() {
+        ensureParsed();
         return bsid;
     }
 
     public void setBsid(int bsid) {
+        ensureParsed();
         this.bsid = bsid;
     }
 
     public int getBsmod() {
+        ensureParsed();
         return bsmod;
     }
 
     public void setBsmod(int bsmod) {
+        ensureParsed();
         this.bsmod = bsmod;
     }
 
     public int getAcmod() {
+        ensureParsed();
         return acmod;
     }
 
     public void setAcmod(int acmod) {
+        ensureParsed();
         this.acmod = acmod;
     }
 
     public int getLfeon() {
+        ensureParsed();
         return lfeon;
     }
 
     public void setLfeon(int lfeon) {
+        ensureParsed();
         this.lfeon = lfeon;
     }
 
     public int getBitRateCode() {
+        ensureParsed();
         return bitRateCode;
     }
 
     public void setBitRateCode(int bitRateCode) {
+        ensureParsed();
         this.bitRateCode = bitRateCode;
     }
 
     public int getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public void setReserved(int reserved) {
+        ensureParsed();
         this.reserved = reserved;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "AC3SpecificBox{" +
                 "fscod=" + fscod +
                 ", bsid=" + bsid +
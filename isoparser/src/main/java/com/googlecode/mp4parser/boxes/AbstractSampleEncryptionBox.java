@@ -27,6 +27,7 @@ public abstract class AbstractSampleEncryptionBox extends AbstractFullBox {
     }
 
     public int getOffsetToFirstIV() {
+        ensureParsed();
         int offset = (getSize() > (1l << 32) ? 16 : 8);
         offset += isOverrideTrackEncryptionBoxParameters() ? (4 + kid.length) : 0;
         offset += 4; //num entries
@@ -87,10 +88,12 @@ public abstract class AbstractSampleEncryptionBox extends AbstractFullBox {
     }
 
     public List<CencSampleAuxiliaryDataFormat> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<CencSampleAuxiliaryDataFormat> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -171,6 +174,7 @@ public abstract class AbstractSampleEncryptionBox extends AbstractFullBox {
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) {
             return true;
         }
@@ -198,6 +202,7 @@ public abstract class AbstractSampleEncryptionBox extends AbstractFullBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         int result = algorithmId;
         result = 31 * result + ivSize;
         result = 31 * result + (kid != null ? Arrays.hashCode(kid) : 0);
@@ -206,6 +211,7 @@ public abstract class AbstractSampleEncryptionBox extends AbstractFullBox {
     }
 
     public List<Short> getEntrySizes() {
+        ensureParsed();
         List<Short> entrySizes = new ArrayList<Short>(entries.size());
         for (CencSampleAuxiliaryDataFormat entry : entries) {
             short size = (short) entry.iv.length;
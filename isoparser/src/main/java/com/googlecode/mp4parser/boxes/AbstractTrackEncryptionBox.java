@@ -22,28 +22,34 @@ public abstract class AbstractTrackEncryptionBox extends AbstractFullBox {
     }
 
     public int getDefaultAlgorithmId() {
+        ensureParsed();
         return defaultAlgorithmId;
     }
 
     public void setDefaultAlgorithmId(int defaultAlgorithmId) {
+        ensureParsed();
         this.defaultAlgorithmId = defaultAlgorithmId;
     }
 
     public int getDefaultIvSize() {
+        ensureParsed();
         return defaultIvSize;
     }
 
     public void setDefaultIvSize(int defaultIvSize) {
+        ensureParsed();
         this.defaultIvSize = defaultIvSize;
     }
 
     public UUID getDefault_KID() {
+        ensureParsed();
         ByteBuffer b = ByteBuffer.wrap(default_KID);
         b.order(ByteOrder.BIG_ENDIAN);
         return new UUID(b.getLong(), b.getLong());
     }
 
     public void setDefault_KID(UUID uuid) {
+        ensureParsed();
         ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
         bb.putLong(uuid.getMostSignificantBits());
         bb.putLong(uuid.getLeastSignificantBits());
@@ -74,6 +80,7 @@ public abstract class AbstractTrackEncryptionBox extends AbstractFullBox {
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
@@ -88,6 +95,7 @@ public abstract class AbstractTrackEncryptionBox extends AbstractFullBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         int result = defaultAlgorithmId;
         result = 31 * result + defaultIvSize;
         result = 31 * result + (default_KID != null ? Arrays.hashCode(default_KID) : 0);
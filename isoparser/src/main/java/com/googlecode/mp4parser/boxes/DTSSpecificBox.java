@@ -87,130 +87,162 @@ public class DTSSpecificBox extends AbstractBox {
     }
 
     public long getAvgBitRate() {
+        ensureParsed();
         return avgBitRate;
     }
 
     public void setAvgBitRate(long avgBitRate) {
+        ensureParsed();
         this.avgBitRate = avgBitRate;
     }
 
     public long getDTSSamplingFrequency() {
+        ensureParsed();
         return DTSSamplingFrequency;
     }
 
     public void setDTSSamplingFrequency(long DTSSamplingFrequency) {
+        ensureParsed();
         this.DTSSamplingFrequency = DTSSamplingFrequency;
     }
 
     public long getMaxBitRate() {
+        ensureParsed();
         return maxBitRate;
     }
 
     public void setMaxBitRate(long maxBitRate) {
+        ensureParsed();
         this.maxBitRate = maxBitRate;
     }
 
     public int getPcmSampleDepth() {
+        ensureParsed();
         return pcmSampleDepth;
     }
 
     public void setPcmSampleDepth(int pcmSampleDepth) {
+        ensureParsed();
         this.pcmSampleDepth = pcmSampleDepth;
     }
 
     public int getFrameDuration() {
+        ensureParsed();
         return frameDuration;
     }
 
     public void setFrameDuration(int frameDuration) {
+        ensureParsed();
         this.frameDuration = frameDuration;
     }
 
     public int getStreamConstruction() {
+        ensureParsed();
         return streamConstruction;
     }
 
     public void setStreamConstruction(int streamConstruction) {
+        ensureParsed();
         this.streamConstruction = streamConstruction;
     }
 
     public int getCoreLFEPresent() {
+        ensureParsed();
         return coreLFEPresent;
     }
 
     public void setCoreLFEPresent(int coreLFEPresent) {
+        ensureParsed();
         this.coreLFEPresent = coreLFEPresent;
     }
 
     public int getCoreLayout() {
+        ensureParsed();
         return coreLayout;
     }
 
     public void setCoreLayout(int coreLayout) {
+        ensureParsed();
         this.coreLayout = coreLayout;
     }
 
     public int getCoreSize() {
+        ensureParsed();
         return coreSize;
     }
 
     public void setCoreSize(int coreSize) {
+        ensureParsed();
         this.coreSize = coreSize;
     }
 
     public int getStereoDownmix() {
+        ensureParsed();
         return stereoDownmix;
     }
 
     public void setStereoDownmix(int stereoDownmix) {
+        ensureParsed();
         this.stereoDownmix = stereoDownmix;
     }
 
     public int getRepresentationType() {
+        ensureParsed();
         return representationType;
     }
 
     public void setRepresentationType(int representationType) {
+        ensureParsed();
         this.representationType = representationType;
     }
 
     public int getChannelLayout() {
+        ensureParsed();
         return channelLayout;
     }
 
     public void setChannelLayout(int channelLayout) {
+        ensureParsed();
         this.channelLayout = channelLayout;
     }
 
     public int getMultiAssetFlag() {
+        ensureParsed();
         return multiAssetFlag;
     }
 
     public void setMultiAssetFlag(int multiAssetFlag) {
+        ensureParsed();
         this.multiAssetFlag = multiAssetFlag;
     }
 
     public int getLBRDurationMod() {
+        ensureParsed();
         return LBRDurationMod;
     }
 
     public void setLBRDurationMod(int LBRDurationMod) {
+        ensureParsed();
         this.LBRDurationMod = LBRDurationMod;
     }
 
     public int getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public void setReserved(int reserved) {
+        ensureParsed();
         this.reserved = reserved;
     }
 
     public int getReservedBoxPresent() {
+        ensureParsed();
         return reservedBoxPresent;
     }
 
     public void setReservedBoxPresent(int reservedBoxPresent) {
+        ensureParsed();
         this.reservedBoxPresent = reservedBoxPresent;
     }
 
@@ -23,6 +23,7 @@ public class EC3SpecificBox extends AbstractBox {
 
     @Override
     public long getContentSize() {
+        ensureParsed();
         long size = 2;
         for (Entry entry : entries) {
             if (entry.num_dep_sub > 0) {
@@ -63,6 +64,7 @@ public class EC3SpecificBox extends AbstractBox {
 
     @Override
     public void getContent(ByteBuffer byteBuffer) {
+        ensureParsed();
         BitWriterBuffer bwb = new BitWriterBuffer(byteBuffer);
         bwb.writeBits(dataRate, 13);
         bwb.writeBits(entries.size() - 1, 3);
@@ -84,30 +86,37 @@ public class EC3SpecificBox extends AbstractBox {
 
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
     public void addEntry(Entry entry) {
+        ensureParsed();
         this.entries.add(entry);
     }
 
     public int getDataRate() {
+        ensureParsed();
         return dataRate;
     }
 
     public void setDataRate(int dataRate) {
+        ensureParsed();
         this.dataRate = dataRate;
     }
 
     public int getNumIndSub() {
+        ensureParsed();
         return numIndSub;
     }
 
     public void setNumIndSub(int numIndSub) {
+        ensureParsed();
         this.numIndSub = numIndSub;
     }
 
@@ -47,34 +47,42 @@ public class MLPSpecificBox extends AbstractBox {
     }
 
     public int getFormat_info() {
+        ensureParsed();
         return format_info;
     }
 
     public void setFormat_info(int format_info) {
+        ensureParsed();
         this.format_info = format_info;
     }
 
     public int getPeak_data_rate() {
+        ensureParsed();
         return peak_data_rate;
     }
 
     public void setPeak_data_rate(int peak_data_rate) {
+        ensureParsed();
         this.peak_data_rate = peak_data_rate;
     }
 
     public int getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public void setReserved(int reserved) {
+        ensureParsed();
         this.reserved = reserved;
     }
 
     public int getReserved2() {
+        ensureParsed();
         return reserved2;
     }
 
     public void setReserved2(int reserved2) {
+        ensureParsed();
         this.reserved2 = reserved2;
     }
 }
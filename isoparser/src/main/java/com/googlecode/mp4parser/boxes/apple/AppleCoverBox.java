@@ -19,14 +19,17 @@ public class AppleCoverBox extends AppleDataBox {
     }
     
     public byte[] getCoverData() {
+        ensureParsed();
         return data;
     }
     
     public void setJpg(byte[] data) {
+        ensureParsed();
         setImageData(data, IMAGE_TYPE_JPG);
     }
     
     public void setPng(byte[] data) {
+        ensureParsed();
         setImageData(data, IMAGE_TYPE_PNG);
     }
     
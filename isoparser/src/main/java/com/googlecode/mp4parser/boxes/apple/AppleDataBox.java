@@ -23,6 +23,7 @@ public abstract class AppleDataBox extends AbstractBox {
     }
 
     public String getLanguageString() {
+        ensureParsed();
         String lang = language.get("" + dataLanguage);
         if (lang == null) {
             ByteBuffer b = ByteBuffer.wrap(new byte[2]);
@@ -41,22 +42,27 @@ public abstract class AppleDataBox extends AbstractBox {
     }
 
     public int getDataType() {
+        ensureParsed();
         return dataType;
     }
 
     public int getDataCountry() {
+        ensureParsed();
         return dataCountry;
     }
 
     public void setDataCountry(int dataCountry) {
+        ensureParsed();
         this.dataCountry = dataCountry;
     }
 
     public int getDataLanguage() {
+        ensureParsed();
         return dataLanguage;
     }
 
     public void setDataLanguage(int dataLanguage) {
+        ensureParsed();
         this.dataLanguage = dataLanguage;
     }
 
@@ -14,18 +14,22 @@ public class AppleDiskNumberBox extends AppleDataBox {
     short b;
 
     public int getA() {
+        ensureParsed();
         return a;
     }
 
     public void setA(int a) {
+        ensureParsed();
         this.a = a;
     }
 
     public short getB() {
+        ensureParsed();
         return b;
     }
 
     public void setB(short b) {
+        ensureParsed();
         this.b = b;
     }
 
@@ -20,10 +20,12 @@ public class AppleGPSCoordinatesBox extends AbstractBox {
     }
     
 	public String getValue() {
+	    ensureParsed();
 		return coords;
 	}
 	
 	public void setValue( String iso6709String ) {
+	    ensureParsed();
 		lang = DEFAULT_LANG;
 		coords = iso6709String;
 	}
@@ -50,6 +52,7 @@ public class AppleGPSCoordinatesBox extends AbstractBox {
 	}
     
 	public String toString() {
+	    ensureParsed();
 		return "AppleGPSCoordinatesBox[" + coords + "]";
 	}
 	
@@ -25,10 +25,12 @@ public class AppleRecordingYearBox extends AppleDataBox {
     }
 
     public Date getDate() {
+        ensureParsed();
         return date;
     }
 
     public void setDate(Date date) {
+        ensureParsed();
         this.date = date;
     }
 
@@ -14,18 +14,22 @@ public class AppleTrackNumberBox extends AppleDataBox {
     int b;
 
     public int getA() {
+        ensureParsed();
         return a;
     }
 
     public void setA(int a) {
+        ensureParsed();
         this.a = a;
     }
 
     public int getB() {
+        ensureParsed();
         return b;
     }
 
     public void setB(int b) {
+        ensureParsed();
         this.b = b;
     }
 
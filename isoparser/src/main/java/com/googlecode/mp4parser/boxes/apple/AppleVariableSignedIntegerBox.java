@@ -17,14 +17,17 @@ public abstract class AppleVariableSignedIntegerBox extends AppleDataBox {
     int intLength = 1;
 
     public int getIntLength() {
+        ensureParsed();
         return intLength;
     }
 
     public void setIntLength(int intLength) {
+        ensureParsed();
         this.intLength = intLength;
     }
 
     public long getValue() {
+        ensureParsed();
         //patched by Tobias Bley / UltraMixer (04/25/2014)
         if (!isParsed())
         {
@@ -34,6 +37,7 @@ public abstract class AppleVariableSignedIntegerBox extends AppleDataBox {
     }
 
     public void setValue(long value) {
+        ensureParsed();
 
         if (value <= 127 && value > -128) {
             intLength = 1;
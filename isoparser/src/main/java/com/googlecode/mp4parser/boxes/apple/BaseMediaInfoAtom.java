@@ -52,55 +52,68 @@ public class BaseMediaInfoAtom extends AbstractFullBox {
     }
 
     public short getGraphicsMode() {
+        ensureParsed();
         return graphicsMode;
     }
 
     public void setGraphicsMode(short graphicsMode) {
+        ensureParsed();
         this.graphicsMode = graphicsMode;
     }
 
     public int getOpColorR() {
+        ensureParsed();
         return opColorR;
     }
 
     public void setOpColorR(int opColorR) {
+        ensureParsed();
         this.opColorR = opColorR;
     }
 
     public int getOpColorG() {
+        ensureParsed();
         return opColorG;
     }
 
     public void setOpColorG(int opColorG) {
+        ensureParsed();
         this.opColorG = opColorG;
     }
 
     public int getOpColorB() {
+        ensureParsed();
         return opColorB;
     }
 
     public void setOpColorB(int opColorB) {
+        ensureParsed();
         this.opColorB = opColorB;
     }
 
     public short getBalance() {
+        ensureParsed();
         return balance;
     }
 
     public void setBalance(short balance) {
+        ensureParsed();
         this.balance = balance;
     }
 
     public short getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public void setReserved(short reserved) {
+        ensureParsed();
         this.reserved = reserved;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "BaseMediaInfoAtom{" +
                 "graphicsMode=" + graphicsMode +
                 ", opColorR=" + opColorR +
@@ -43,18 +43,22 @@ public class CleanApertureAtom extends AbstractFullBox {
     }
 
     public double getWidth() {
+        ensureParsed();
         return width;
     }
 
     public void setWidth(double width) {
+        ensureParsed();
         this.width = width;
     }
 
     public double getHeight() {
+        ensureParsed();
         return height;
     }
 
     public void setHeight(double height) {
+        ensureParsed();
         this.height = height;
     }
 }
@@ -58,74 +58,92 @@ public class GenericMediaHeaderTextAtom extends AbstractBox {
     }
 
     public int getUnknown_1() {
+        ensureParsed();
         return unknown_1;
     }
 
     public void setUnknown_1(int unknown_1) {
+        ensureParsed();
         this.unknown_1 = unknown_1;
     }
 
     public int getUnknown_2() {
+        ensureParsed();
         return unknown_2;
     }
 
     public void setUnknown_2(int unknown_2) {
+        ensureParsed();
         this.unknown_2 = unknown_2;
     }
 
     public int getUnknown_3() {
+        ensureParsed();
         return unknown_3;
     }
 
     public void setUnknown_3(int unknown_3) {
+        ensureParsed();
         this.unknown_3 = unknown_3;
     }
 
     public int getUnknown_4() {
+        ensureParsed();
         return unknown_4;
     }
 
     public void setUnknown_4(int unknown_4) {
+        ensureParsed();
         this.unknown_4 = unknown_4;
     }
 
     public int getUnknown_5() {
+        ensureParsed();
         return unknown_5;
     }
 
     public void setUnknown_5(int unknown_5) {
+        ensureParsed();
         this.unknown_5 = unknown_5;
     }
 
     public int getUnknown_6() {
+        ensureParsed();
         return unknown_6;
     }
 
     public void setUnknown_6(int unknown_6) {
+        ensureParsed();
         this.unknown_6 = unknown_6;
     }
 
     public int getUnknown_7() {
+        ensureParsed();
         return unknown_7;
     }
 
     public void setUnknown_7(int unknown_7) {
+        ensureParsed();
         this.unknown_7 = unknown_7;
     }
 
     public int getUnknown_8() {
+        ensureParsed();
         return unknown_8;
     }
 
     public void setUnknown_8(int unknown_8) {
+        ensureParsed();
         this.unknown_8 = unknown_8;
     }
 
     public int getUnknown_9() {
+        ensureParsed();
         return unknown_9;
     }
 
     public void setUnknown_9(int unknown_9) {
+        ensureParsed();
         this.unknown_9 = unknown_9;
     }
 }
@@ -33,18 +33,22 @@ public class PixelAspectRationAtom extends AbstractBox {
 
 
     public int gethSpacing() {
+        ensureParsed();
         return hSpacing;
     }
 
     public void sethSpacing(int hSpacing) {
+        ensureParsed();
         this.hSpacing = hSpacing;
     }
 
     public int getvSpacing() {
+        ensureParsed();
         return vSpacing;
     }
 
     public void setvSpacing(int vSpacing) {
+        ensureParsed();
         this.vSpacing = vSpacing;
     }
 
@@ -86,16 +86,19 @@ public class TimeCodeBox extends AbstractBox implements SampleEntry, Container {
     }
 
     public int getDataReferenceIndex() {
+        ensureParsed();
         return dataReferenceIndex;
     }
 
     public void setDataReferenceIndex(int dataReferenceIndex) {
+        ensureParsed();
         this.dataReferenceIndex = dataReferenceIndex;
     }
 
 
     @Override
     public String toString() {
+        ensureParsed();
         return "TimeCodeBox{" +
                 "timeScale=" + timeScale +
                 ", frameDuration=" + frameDuration +
@@ -107,82 +110,102 @@ public class TimeCodeBox extends AbstractBox implements SampleEntry, Container {
     }
 
     public int getTimeScale() {
+        ensureParsed();
         return timeScale;
     }
 
     public void setTimeScale(int timeScale) {
+        ensureParsed();
         this.timeScale = timeScale;
     }
 
     public int getFrameDuration() {
+        ensureParsed();
         return frameDuration;
     }
 
     public void setFrameDuration(int frameDuration) {
+        ensureParsed();
         this.frameDuration = frameDuration;
     }
 
     public int getNumberOfFrames() {
+        ensureParsed();
         return numberOfFrames;
     }
 
     public void setNumberOfFrames(int numberOfFrames) {
+        ensureParsed();
         this.numberOfFrames = numberOfFrames;
     }
 
     public int getReserved1() {
+        ensureParsed();
         return reserved1;
     }
 
     public void setReserved1(int reserved1) {
+        ensureParsed();
         this.reserved1 = reserved1;
     }
 
     public int getReserved2() {
+        ensureParsed();
         return reserved2;
     }
 
     public void setReserved2(int reserved2) {
+        ensureParsed();
         this.reserved2 = reserved2;
     }
 
     public long getFlags() {
+        ensureParsed();
         return flags;
     }
 
     public void setFlags(long flags) {
+        ensureParsed();
         this.flags = flags;
     }
 
     public byte[] getRest() {
+        ensureParsed();
         return rest;
     }
 
     public void setRest(byte[] rest) {
+        ensureParsed();
         this.rest = rest;
     }
 
 
     public List<Box> getBoxes() {
+        ensureParsed();
         return Collections.emptyList();
     }
 
     public void setBoxes(List<Box> boxes) {
+        ensureParsed();
         throw new RuntimeException("Time Code Box doesn't accept any children");
     }
 
     public <T extends Box> List<T> getBoxes(Class<T> clazz) {
+        ensureParsed();
         return Collections.emptyList();
     }
 
     public <T extends Box> List<T> getBoxes(Class<T> clazz, boolean recursive) {
+        ensureParsed();
         return Collections.emptyList();
     }
 
     public ByteBuffer getByteBuffer(long start, long size) throws IOException {
+        ensureParsed();
         return null;
     }
 
     public void writeContainer(WritableByteChannel bb) throws IOException {
+        ensureParsed();
     }
 }
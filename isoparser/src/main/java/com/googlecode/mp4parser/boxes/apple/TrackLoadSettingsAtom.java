@@ -47,34 +47,42 @@ public class TrackLoadSettingsAtom extends AbstractBox {
     }
 
     public int getPreloadStartTime() {
+        ensureParsed();
         return preloadStartTime;
     }
 
     public void setPreloadStartTime(int preloadStartTime) {
+        ensureParsed();
         this.preloadStartTime = preloadStartTime;
     }
 
     public int getPreloadDuration() {
+        ensureParsed();
         return preloadDuration;
     }
 
     public void setPreloadDuration(int preloadDuration) {
+        ensureParsed();
         this.preloadDuration = preloadDuration;
     }
 
     public int getPreloadFlags() {
+        ensureParsed();
         return preloadFlags;
     }
 
     public void setPreloadFlags(int preloadFlags) {
+        ensureParsed();
         this.preloadFlags = preloadFlags;
     }
 
     public int getDefaultHints() {
+        ensureParsed();
         return defaultHints;
     }
 
     public void setDefaultHints(int defaultHints) {
+        ensureParsed();
         this.defaultHints = defaultHints;
     }
 }
@@ -19,6 +19,7 @@ public abstract class Utf8AppleDataBox extends AppleDataBox {
     }
 
     public String getValue() {
+        ensureParsed();
         //patched by Toias Bley / UltraMixer
         if(!isParsed())
         {
@@ -28,6 +29,7 @@ public abstract class Utf8AppleDataBox extends AppleDataBox {
     }
 
     public void setValue(String value) {
+        ensureParsed();
         this.value = value;
     }
 
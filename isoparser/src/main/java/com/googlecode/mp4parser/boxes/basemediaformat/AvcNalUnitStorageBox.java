@@ -42,31 +42,38 @@ public class AvcNalUnitStorageBox extends AbstractBox {
     }
 
     public AvcDecoderConfigurationRecord getAvcDecoderConfigurationRecord() {
+        ensureParsed();
         return avcDecoderConfigurationRecord;
     }
 
     // just to display sps in isoviewer no practical use
     public int getLengthSizeMinusOne() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.lengthSizeMinusOne;
     }
 
     public String[] getSPS() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getSPS();
     }
 
     public String[] getPPS() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getPPS();
     }
 
     public List<String> getSequenceParameterSetsAsStrings() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getSequenceParameterSetsAsStrings();
     }
 
     public List<String> getSequenceParameterSetExtsAsStrings() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getSequenceParameterSetExtsAsStrings();
     }
 
     public List<String> getPictureParameterSetsAsStrings() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getPictureParameterSetsAsStrings();
     }
 
@@ -87,6 +94,7 @@ public class AvcNalUnitStorageBox extends AbstractBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "AvcNalUnitStorageBox{" +
                 "SPS=" + avcDecoderConfigurationRecord.getSequenceParameterSetsAsStrings() +
                 ",PPS=" + avcDecoderConfigurationRecord.getPictureParameterSetsAsStrings() +
@@ -129,18 +129,22 @@ public class AssetInformationBox extends AbstractFullBox {
     }
 
     public String getApid() {
+        ensureParsed();
         return apid;
     }
 
     public void setApid(String apid) {
+        ensureParsed();
         this.apid = apid;
     }
 
     public String getProfileVersion() {
+        ensureParsed();
         return profileVersion;
     }
 
     public void setProfileVersion(String profileVersion) {
+        ensureParsed();
         assert profileVersion != null && profileVersion.length() == 4;
         this.profileVersion = profileVersion;
     }
@@ -42,18 +42,22 @@ public class BaseLocationBox extends AbstractFullBox {
     }
 
     public String getBaseLocation() {
+        ensureParsed();
         return baseLocation;
     }
 
     public void setBaseLocation(String baseLocation) {
+        ensureParsed();
         this.baseLocation = baseLocation;
     }
 
     public String getPurchaseLocation() {
+        ensureParsed();
         return purchaseLocation;
     }
 
     public void setPurchaseLocation(String purchaseLocation) {
+        ensureParsed();
         this.purchaseLocation = purchaseLocation;
     }
 
@@ -84,6 +88,7 @@ public class BaseLocationBox extends AbstractFullBox {
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
@@ -98,6 +103,7 @@ public class BaseLocationBox extends AbstractFullBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         int result = baseLocation != null ? baseLocation.hashCode() : 0;
         result = 31 * result + (purchaseLocation != null ? purchaseLocation.hashCode() : 0);
         return result;
@@ -105,6 +111,7 @@ public class BaseLocationBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "BaseLocationBox{" +
                 "baseLocation='" + baseLocation + '\'' +
                 ", purchaseLocation='" + purchaseLocation + '\'' +
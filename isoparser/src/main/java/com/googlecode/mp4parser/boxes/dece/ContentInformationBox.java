@@ -142,58 +142,72 @@ public class ContentInformationBox extends AbstractFullBox {
     }
 
     public String getMimeSubtypeName() {
+        ensureParsed();
         return mimeSubtypeName;
     }
 
     public void setMimeSubtypeName(String mimeSubtypeName) {
+        ensureParsed();
         this.mimeSubtypeName = mimeSubtypeName;
     }
 
     public String getProfileLevelIdc() {
+        ensureParsed();
         return profileLevelIdc;
     }
 
     public void setProfileLevelIdc(String profileLevelIdc) {
+        ensureParsed();
         this.profileLevelIdc = profileLevelIdc;
     }
 
     public String getCodecs() {
+        ensureParsed();
         return codecs;
     }
 
     public void setCodecs(String codecs) {
+        ensureParsed();
         this.codecs = codecs;
     }
 
     public String getProtection() {
+        ensureParsed();
         return protection;
     }
 
     public void setProtection(String protection) {
+        ensureParsed();
         this.protection = protection;
     }
 
     public String getLanguages() {
+        ensureParsed();
         return languages;
     }
 
     public void setLanguages(String languages) {
+        ensureParsed();
         this.languages = languages;
     }
 
     public Map<String, String> getBrandEntries() {
+        ensureParsed();
         return brandEntries;
     }
 
     public void setBrandEntries(Map<String, String> brandEntries) {
+        ensureParsed();
         this.brandEntries = brandEntries;
     }
 
     public Map<String, String> getIdEntries() {
+        ensureParsed();
         return idEntries;
     }
 
     public void setIdEntries(Map<String, String> idEntries) {
+        ensureParsed();
         this.idEntries = idEntries;
     }
 }
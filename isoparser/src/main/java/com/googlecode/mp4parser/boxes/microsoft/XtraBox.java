@@ -76,6 +76,11 @@ public class XtraBox extends AbstractBox {
         }
     }
 
+    @Override
+    protected long getRetainedContentBytes() {
+        return data != null ? data.limit() : 0;
+    }
+
     private int detailSize() {
         int size = 0;
         for (int i = 0; i < tags.size(); i++) {
@@ -86,6 +91,7 @@ public class XtraBox extends AbstractBox {
     }
 
     public String toString() {
+        ensureParsed();
         if (!this.isParsed()) {
             this.parseDetails();
         }
@@ -107,7 +113,7 @@ public class XtraBox extends AbstractBox {
     @Override
     public void _parseDetails(ByteBuffer content) {
         int boxSize = content.remaining();
-        data = content.slice(); //Keep this in case we fail to parse
+        data = retain(content.slice()); //Keep this in case we fail to parse
         successfulParse = false;
         try {
             tags.clear();
@@ -149,6 +155,7 @@ public class XtraBox extends AbstractBox {
      * @return Possibly empty (zero length) array of tag names present
      */
     public String[] getAllTagNames() {
+        ensureParsed();
         String names[] = new String[tags.size()];
         for (int i = 0; i < tags.size(); i++) {
             XtraTag tag = tags.elementAt(i);
@@ -164,6 +171,7 @@ public class XtraBox extends AbstractBox {
      * @return First String value found
      */
     public String getFirstStringValue(String name) {
+        ensureParsed();
         Object objs[] = getValues(name);
         for (Object obj : objs) {
             if (obj instanceof String) {
@@ -181,6 +189,7 @@ public class XtraBox extends AbstractBox {
      * @return First Date value found
      */
     public Date getFirstDateValue(String name) {
+        ensureParsed();
         Object objs[] = getValues(name);
         for (Object obj : objs) {
             if (obj instanceof Date) {
@@ -198,6 +207,7 @@ public class XtraBox extends AbstractBox {
      * @return First long value found
      */
     public Long getFirstLongValue(String name) {
+        ensureParsed();
         Object objs[] = getValues(name);
         for (Object obj : objs) {
             if (obj instanceof Long) {
@@ -214,6 +224,7 @@ public class XtraBox extends AbstractBox {
      * @return Possibly empty array of values (possible types are String, Long, Date and byte[] )
      */
     public Object[] getValues(String name) {
+        ensureParsed();
         XtraTag tag = getTagByName(name);
         Object values[];
         if (tag != null) {
@@ -234,6 +245,7 @@ public class XtraBox extends AbstractBox {
      * @param name Tag to remove
      */
     public void removeTag(String name) {
+        ensureParsed();
         XtraTag tag = getTagByName(name);
         if (tag != null) {
             tags.remove(tag);
@@ -247,6 +259,7 @@ public class XtraBox extends AbstractBox {
      * @param values New String values
      */
     public void setTagValues(String name, String values[]) {
+        ensureParsed();
         removeTag(name);
         XtraTag tag = new XtraTag(name);
         for (int i = 0; i < values.length; i++) {
@@ -263,6 +276,7 @@ public class XtraBox extends AbstractBox {
      * @param value New String value
      */
     public void setTagValue(String name, String value) {
+        ensureParsed();
         setTagValues(name, new String[]{value});
     }
 
@@ -274,6 +288,7 @@ public class XtraBox extends AbstractBox {
      * @param date New Date value
      */
     public void setTagValue(String name, Date date) {
+        ensureParsed();
         removeTag(name);
         XtraTag tag = new XtraTag(name);
         tag.values.addElement(new XtraValue(date));
@@ -287,6 +302,7 @@ public class XtraBox extends AbstractBox {
      * @param value New Long value
      */
     public void setTagValue(String name, long value) {
+        ensureParsed();
         removeTag(name);
         XtraTag tag = new XtraTag(name);
         tag.values.addElement(new XtraValue(value));
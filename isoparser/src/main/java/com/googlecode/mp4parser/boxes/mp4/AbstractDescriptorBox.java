@@ -40,6 +40,7 @@ public class AbstractDescriptorBox extends AbstractFullBox {
     }
 
     public ByteBuffer getData() {
+        ensureParsed();
         return data;
     }
 
@@ -55,26 +56,35 @@ public class AbstractDescriptorBox extends AbstractFullBox {
         return 4 + data.limit();
     }
 
+    @Override
+    protected long getRetainedContentBytes() {
+        return data != null ? data.limit() : 0;
+    }
+
     public BaseDescriptor getDescriptor() {
+        ensureParsed();
         return descriptor;
     }
 
     public String getDescriptorAsString() {
+        ensureParsed();
         return descriptor.toString();
     }
 
     public void setDescriptor(BaseDescriptor descriptor) {
+        ensureParsed();
         this.descriptor = descriptor;
     }
 
     public void setData(ByteBuffer data) {
+        ensureParsed();
         this.data = data;
     }
 
     @Override
     public void _parseDetails(ByteBuffer content) {
         parseVersionAndFlags(content);
-        data = content.slice();
+        data = retain(content.slice());
         content.position(content.position() + content.remaining());
         try {
             data.rewind();
@@ -33,15 +33,18 @@ public class ESDescriptorBox extends AbstractDescriptorBox {
     }
 
     public ESDescriptor getEsDescriptor() {
+        ensureParsed();
         return (ESDescriptor) super.getDescriptor();
     }
 
     public void setEsDescriptor(ESDescriptor esDescriptor) {
+        ensureParsed();
         super.setDescriptor(esDescriptor);
     }
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
@@ -53,6 +56,7 @@ public class ESDescriptorBox extends AbstractDescriptorBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         return data != null ? data.hashCode() : 0;
     }
 
@@ -143,23 +143,28 @@ public class SampleGroupDescriptionBox extends AbstractFullBox {
     }
 
     public int getDefaultLength() {
+        ensureParsed();
         return defaultLength;
     }
 
     public void setDefaultLength(int defaultLength) {
+        ensureParsed();
         this.defaultLength = defaultLength;
     }
 
     public List<GroupEntry> getGroupEntries() {
+        ensureParsed();
         return groupEntries;
     }
 
     public void setGroupEntries(List<GroupEntry> groupEntries) {
+        ensureParsed();
         this.groupEntries = groupEntries;
     }
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) {
             return true;
         }
@@ -181,6 +186,7 @@ public class SampleGroupDescriptionBox extends AbstractFullBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         int result = 0;
         result = 31 * result + defaultLength;
         result = 31 * result + (groupEntries != null ? groupEntries.hashCode() : 0);
@@ -189,6 +195,7 @@ public class SampleGroupDescriptionBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "SampleGroupDescriptionBox{" +
                 "groupingType='" + (groupEntries.size() > 0 ? groupEntries.get(0).getType() : "????") + '\'' +
                 ", defaultLength=" + defaultLength +
@@ -148,26 +148,32 @@ public class SampleToGroupBox extends AbstractFullBox {
     }
 
     public String getGroupingType() {
+        ensureParsed();
         return groupingType;
     }
 
     public void setGroupingType(String groupingType) {
+        ensureParsed();
         this.groupingType = groupingType;
     }
 
     public String getGroupingTypeParameter() {
+        ensureParsed();
         return groupingTypeParameter;
     }
 
     public void setGroupingTypeParameter(String groupingTypeParameter) {
+        ensureParsed();
         this.groupingTypeParameter = groupingTypeParameter;
     }
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 }
@@ -44,26 +44,32 @@ public class PiffSampleEncryptionBox extends AbstractSampleEncryptionBox {
     }
 
     public int getAlgorithmId() {
+        ensureParsed();
         return algorithmId;
     }
 
     public void setAlgorithmId(int algorithmId) {
+        ensureParsed();
         this.algorithmId = algorithmId;
     }
 
     public int getIvSize() {
+        ensureParsed();
         return ivSize;
     }
 
     public void setIvSize(int ivSize) {
+        ensureParsed();
         this.ivSize = ivSize;
     }
 
     public byte[] getKid() {
+        ensureParsed();
         return kid;
     }
 
     public void setKid(byte[] kid) {
+        ensureParsed();
         this.kid = kid;
     }
 
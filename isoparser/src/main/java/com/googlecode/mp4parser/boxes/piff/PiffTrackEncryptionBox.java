@@ -27,6 +27,7 @@ public class PiffTrackEncryptionBox extends AbstractTrackEncryptionBox {
 
     @Override
     public int getFlags() {
+        ensureParsed();
         return 0;
     }
 
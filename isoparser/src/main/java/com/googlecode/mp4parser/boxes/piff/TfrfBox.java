@@ -89,15 +89,18 @@ public class TfrfBox extends AbstractFullBox {
 
 
     public long getFragmentCount() {
+        ensureParsed();
         return entries.size();
     }
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("TfrfBox");
         sb.append("{entries=").append(entries);
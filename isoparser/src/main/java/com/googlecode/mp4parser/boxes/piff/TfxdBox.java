@@ -77,10 +77,12 @@ public class TfxdBox extends AbstractFullBox {
     }
 
     public long getFragmentAbsoluteTime() {
+        ensureParsed();
         return fragmentAbsoluteTime;
     }
 
     public long getFragmentAbsoluteDuration() {
+        ensureParsed();
         return fragmentAbsoluteDuration;
     }
 }
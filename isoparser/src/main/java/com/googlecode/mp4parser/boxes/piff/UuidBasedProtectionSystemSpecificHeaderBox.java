@@ -65,31 +65,38 @@ public class UuidBasedProtectionSystemSpecificHeaderBox extends AbstractFullBox
     }
 
     public UUID getSystemId() {
+        ensureParsed();
         return systemId;
     }
 
     public void setSystemId(UUID systemId) {
+        ensureParsed();
         this.systemId = systemId;
     }
 
     public String getSystemIdString() {
+        ensureParsed();
         return systemId.toString();
     }
 
     public ProtectionSpecificHeader getProtectionSpecificHeader() {
+        ensureParsed();
         return protectionSpecificHeader;
     }
 
     public String getProtectionSpecificHeaderString() {
+        ensureParsed();
         return protectionSpecificHeader.toString();
     }
 
     public void setProtectionSpecificHeader(ProtectionSpecificHeader protectionSpecificHeader) {
+        ensureParsed();
         this.protectionSpecificHeader = protectionSpecificHeader;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         final StringBuilder sb = new StringBuilder();
         sb.append("UuidBasedProtectionSystemSpecificHeaderBox");
         sb.append("{systemId=").append(systemId.toString());
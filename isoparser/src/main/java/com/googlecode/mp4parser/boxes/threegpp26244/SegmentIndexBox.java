@@ -126,50 +126,62 @@ public class SegmentIndexBox extends AbstractFullBox {
 
 
     public List<Entry> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<Entry> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
     public long getReferenceId() {
+        ensureParsed();
         return referenceId;
     }
 
     public void setReferenceId(long referenceId) {
+        ensureParsed();
         this.referenceId = referenceId;
     }
 
     public long getTimeScale() {
+        ensureParsed();
         return timeScale;
     }
 
     public void setTimeScale(long timeScale) {
+        ensureParsed();
         this.timeScale = timeScale;
     }
 
     public long getEarliestPresentationTime() {
+        ensureParsed();
         return earliestPresentationTime;
     }
 
     public void setEarliestPresentationTime(long earliestPresentationTime) {
+        ensureParsed();
         this.earliestPresentationTime = earliestPresentationTime;
     }
 
     public long getFirstOffset() {
+        ensureParsed();
         return firstOffset;
     }
 
     public void setFirstOffset(long firstOffset) {
+        ensureParsed();
         this.firstOffset = firstOffset;
     }
 
     public int getReserved() {
+        ensureParsed();
         return reserved;
     }
 
     public void setReserved(int reserved) {
+        ensureParsed();
         this.reserved = reserved;
     }
 
@@ -296,6 +308,7 @@ public class SegmentIndexBox extends AbstractFullBox {
 
     @Override
     public String toString() {
+        ensureParsed();
         return "SegmentIndexBox{" +
                 "entries=" + entries +
                 ", referenceId=" + referenceId +
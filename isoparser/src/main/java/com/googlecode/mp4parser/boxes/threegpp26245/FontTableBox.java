@@ -50,10 +50,12 @@ public class FontTableBox extends AbstractBox {
     }
 
     public List<FontRecord> getEntries() {
+        ensureParsed();
         return entries;
     }
 
     public void setEntries(List<FontRecord> entries) {
+        ensureParsed();
         this.entries = entries;
     }
 
@@ -0,0 +1,339 @@
+package com.googlecode.mp4parser.util;
+
+import com.coremedia.iso.boxes.Box;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches byte ranges read from a source (e.g. the chunks of a track read through its
+ * <code>IsoFile</code>) under a limit for the total number of bytes. A single instance is shared by all
+ * sample lists of the process (see {@link #getDefault()}) so that the limit applies to all open tracks
+ * together.
+ * <p/>
+ * The cache is a segmented LRU: new ranges enter a probationary segment, ranges requested again move on
+ * to a protected segment that takes up to 80% of the limit. Ranges read only once - e.g. while copying
+ * a file from front to back - are evicted before ranges that are requested over and over again. A hit in
+ * the protected segment only marks the range, marked ranges get a second chance when the segment is
+ * full. The most recently added range is always kept, even if it exceeds the limit on its own.
+ * <p/>
+ * Hits in the protected segment don't take any lock, so concurrent readers of ranges in use don't contend.
+ * Adding ranges and moving them between the segments is synchronized.
+ * <p/>
+ * Sources are referenced weakly. Ranges of a source that has been garbage collected are dropped.
+ * Buffers handed out by the cache are shared: callers must <code>duplicate()</code> them before changing
+ * their position or limit.
+ */
+public class ByteRangeCache {
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+    private static final ByteRangeCache DEFAULT = new ByteRangeCache(DEFAULT_MAX_BYTES);
+
+    private long maxBytes;
+
+    /**
+     * All cached ranges for lookups without locking. The segments below only keep the order for eviction.
+     */
+    private final ConcurrentHashMap<Object, Entry> ranges = new ConcurrentHashMap<Object, Entry>();
+    private final LinkedHashMap<Entry, Entry> probation = new LinkedHashMap<Entry, Entry>();
+    private final LinkedHashMap<Entry, Entry> protectedRanges = new LinkedHashMap<Entry, Entry>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<Object>();
+
+    private long probationBytes = 0;
+    private long protectedBytes = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long evictions = 0;
+
+    public ByteRangeCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the cache shared by all sample lists.
+     *
+     * @return the process-wide cache
+     */
+    public static ByteRangeCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the buffers cached for a range.
+     *
+     * @param source the container or data source the range has been read from
+     * @param offset where the range starts in <code>source</code>
+     * @return the cached buffers or <code>null</code> if the range isn't cached
+     */
+    public ByteBuffer[] get(Object source, long offset) {
+        Entry entry = ranges.get(new Probe(source, offset));
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isProtected) {
+            entry.referenced = true;
+        } else {
+            promote(entry);
+        }
+        hits.incrementAndGet();
+        return entry.buffers;
+    }
+
+    private synchronized void promote(Entry entry) {
+        if (probation.remove(entry) == null) {
+            // promoted or evicted by another thread in the meantime
+            return;
+        }
+        probationBytes -= entry.bytes;
+        protectedRanges.put(entry, entry);
+        entry.isProtected = true;
+        protectedBytes += entry.bytes;
+        while (protectedBytes > maxBytes / 5 * 4 && protectedRanges.size() > 1) {
+            Iterator<Entry> it = protectedRanges.values().iterator();
+            Entry demoted = it.next();
+            it.remove();
+            if (demoted.referenced) {
+                demoted.referenced = false;
+                protectedRanges.put(demoted, demoted);
+            } else {
+                protectedBytes -= demoted.bytes;
+                demoted.isProtected = false;
+                probation.put(demoted, demoted);
+                probationBytes += demoted.bytes;
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Adds a range to the cache, possibly evicting other ranges.
+     *
+     * @param source  the container or data source the range has been read from
+     * @param offset  where the range starts in <code>source</code>
+     * @param buffers the content of the range
+     */
+    public synchronized void put(Object source, long offset, ByteBuffer... buffers) {
+        expungeCollected();
+        Entry old = ranges.get(new Probe(source, offset));
+        if (old != null) {
+            remove(old);
+        }
+        Entry entry = new Entry(source, offset, buffers, collected);
+        ranges.put(entry, entry);
+        probation.put(entry, entry);
+        probationBytes += entry.bytes;
+        evict();
+    }
+
+    private void evict() {
+        while (probationBytes + protectedBytes > maxBytes && probation.size() + protectedRanges.size() > 1) {
+            // the newest range is the most recently used one in probation - don't evict it
+            Map<Entry, Entry> segment = probation.size() > 1 || protectedRanges.isEmpty() ? probation : protectedRanges;
+            Iterator<Entry> it = segment.values().iterator();
+            Entry victim = it.next();
+            it.remove();
+            ranges.remove(victim);
+            if (segment == probation) {
+                probationBytes -= victim.bytes;
+            } else {
+                protectedBytes -= victim.bytes;
+            }
+            evictions++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        ranges.remove(entry);
+        if (probation.remove(entry) != null) {
+            probationBytes -= entry.bytes;
+        }
+        if (protectedRanges.remove(entry) != null) {
+            protectedBytes -= entry.bytes;
+        }
+    }
+
+    private void expungeCollected() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            remove((Entry) ref);
+        }
+    }
+
+    /**
+     * Removes all ranges of a source, e.g. after it has been closed. Ranges of boxes within the source
+     * (e.g. the track runs of a <code>moof</code> in a file) are removed as well.
+     *
+     * @param source the container or data source
+     */
+    public synchronized void invalidate(Object source) {
+        expungeCollected();
+        probationBytes -= invalidate(probation, source);
+        protectedBytes -= invalidate(protectedRanges, source);
+    }
+
+    private long invalidate(Map<Entry, Entry> segment, Object source) {
+        long bytes = 0;
+        Iterator<Entry> it = segment.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (isWithin(entry.get(), source)) {
+                it.remove();
+                ranges.remove(entry);
+                bytes += entry.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isWithin(Object o, Object source) {
+        while (o != null) {
+            if (o == source) {
+                return true;
+            }
+            o = o instanceof Box ? ((Box) o).getParent() : null;
+        }
+        return false;
+    }
+
+    public synchronized void clear() {
+        ranges.clear();
+        probation.clear();
+        protectedRanges.clear();
+        probationBytes = 0;
+        protectedBytes = 0;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the limit. Ranges exceeding a lowered limit are evicted right away.
+     *
+     * @param maxBytes upper limit for the size of all cached ranges
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return hits divided by all requests, <code>0</code> if nothing has been requested yet
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long misses = this.misses.get();
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Gets the number of bytes currently held by cached ranges.
+     *
+     * @return size of all cached ranges
+     */
+    public synchronized long getCachedBytes() {
+        expungeCollected();
+        return probationBytes + protectedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ByteRangeCache{" +
+                "hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", evictions=" + evictions +
+                ", cachedBytes=" + (probationBytes + protectedBytes) +
+                ", maxBytes=" + maxBytes +
+                '}';
+    }
+
+    private static int hash(Object source, long offset) {
+        // offsets are often aligned - spread them so that their low bits aren't all the same
+        long h = offset * 0x9E3779B97F4A7C15L;
+        return System.identityHashCode(source) ^ (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Looks up an entry without creating a weak reference.
+     */
+    private static class Probe {
+        final Object source;
+        final long offset;
+        final int hash;
+
+        Probe(Object source, long offset) {
+            this.source = source;
+            this.offset = offset;
+            this.hash = hash(source, offset);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return entry.offset == offset && entry.get() == source;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Key and value in one - entries are only equal to themselves, lookups go through {@link Probe}.
+     */
+    private static class Entry extends WeakReference<Object> {
+        final long offset;
+        final int hash;
+        final ByteBuffer[] buffers;
+        final long bytes;
+        /**
+         * Written with the cache locked, read by lookups without locking.
+         */
+        volatile boolean isProtected;
+        /**
+         * Set by lookups without locking, a lost update only costs the range its second chance.
+         */
+        volatile boolean referenced;
+
+        Entry(Object source, long offset, ByteBuffer[] buffers, ReferenceQueue<Object> queue) {
+            super(source, queue);
+            this.offset = offset;
+            this.hash = hash(source, offset);
+            this.buffers = buffers;
+            long bytes = 0;
+            for (ByteBuffer buffer : buffers) {
+                bytes += buffer.remaining();
+            }
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
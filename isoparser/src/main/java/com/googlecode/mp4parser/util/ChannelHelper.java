@@ -18,7 +18,9 @@ package com.googlecode.mp4parser.util;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 
 public class ChannelHelper {
@@ -48,4 +50,39 @@ public class ChannelHelper {
 
 
 
-}
\ No newline at end of file
+    /**
+     * Writes the buffer's remaining bytes. Channels in non-blocking mode or channels that write in portions
+     * may need more than one call to <code>write</code>.
+     *
+     * @param channel the sink
+     * @param buf     the bytes to write, empty on return
+     * @throws IOException If some I/O error occurs
+     */
+    public static void writeFully(final WritableByteChannel channel, final ByteBuffer buf)
+            throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of all buffers with as few gathering writes as possible.
+     *
+     * @param channel the sink
+     * @param bufs    the bytes to write in order, all empty on return
+     * @throws IOException If some I/O error occurs
+     */
+    public static void writeFully(final GatheringByteChannel channel, final ByteBuffer[] bufs)
+            throws IOException {
+        int first = 0;
+        while (first < bufs.length) {
+            if (bufs[first].hasRemaining()) {
+                channel.write(bufs, first, bufs.length - first);
+            }
+            while (first < bufs.length && !bufs[first].hasRemaining()) {
+                first++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.googlecode.mp4parser.util;
+
+import com.coremedia.iso.FourCC;
+import com.coremedia.iso.boxes.Box;
+import com.coremedia.iso.boxes.Container;
+import com.googlecode.mp4parser.AbstractContainerBox;
+import com.googlecode.mp4parser.BasicContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A path expression as understood by {@link Path} that has been parsed once. Literal types are matched by
+ * their packed fourcc, only types containing regular expression characters (e.g. <code>enc.</code>) are
+ * matched with a <code>Pattern</code>.
+ * <p/>
+ * Results of paths without <code>..</code> are remembered by the container the lookup starts at (see
+ * {@link BasicContainer#getMemoizedPath(Object)}) so that repeated lookups like <code>moov/trak</code> don't
+ * walk the tree again.
+ */
+public final class CompiledPath {
+    private static final int MAX_CACHED = 256;
+    private static final Map<String, CompiledPath> CACHE = new ConcurrentHashMap<String, CompiledPath>();
+
+    private final String path;
+    private final boolean absolute;
+    private final Segment[] segments;
+    private final boolean memoizable;
+    /**
+     * Memo key for single results - full results are stored under the path itself.
+     */
+    private final Object firstOnly = new Object();
+
+    private CompiledPath(String path) {
+        this.path = path;
+        String rest = path;
+        absolute = rest.startsWith("/");
+        if (absolute) {
+            rest = rest.substring(1);
+        }
+        List<Segment> segments = new ArrayList<Segment>();
+        boolean memoizable = true;
+        while (rest.length() > 0) {
+            String now;
+            int slash = rest.indexOf('/');
+            if (slash >= 0) {
+                now = rest.substring(0, slash);
+                rest = rest.substring(slash + 1);
+            } else {
+                now = rest;
+                rest = "";
+            }
+            Matcher m = Path.component.matcher(now);
+            if (!m.matches()) {
+                throw new RuntimeException(now + " is invalid path.");
+            }
+            Segment segment = new Segment(m.group(1), m.group(2) != null ? Integer.parseInt(m.group(3)) : -1);
+            memoizable &= !segment.parent;
+            segments.add(segment);
+        }
+        this.segments = segments.toArray(new Segment[segments.size()]);
+        this.memoizable = memoizable;
+    }
+
+    /**
+     * Parses a path expression. Compiled paths are cached, compiling the same expression again is cheap.
+     *
+     * @param path e.g. <code>/moov[0]/trak</code> or <code>mdia/minf/stbl/stsd/enc.[0]/sinf</code>
+     * @return the compiled path
+     * @throws RuntimeException if one of the path's components is invalid
+     */
+    public static CompiledPath compile(String path) {
+        CompiledPath compiled = CACHE.get(path);
+        if (compiled == null) {
+            compiled = new CompiledPath(path);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.put(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    public <T extends Box> T getPath(Box box) {
+        return this.<T>getFirst(box);
+    }
+
+    public <T extends Box> T getPath(Container container) {
+        return this.<T>getFirst(container);
+    }
+
+    public <T extends Box> T getPath(AbstractContainerBox containerBox) {
+        return this.<T>getFirst(containerBox);
+    }
+
+    public <T extends Box> List<T> getPaths(Box box) {
+        return getPaths((Object) box, false);
+    }
+
+    public <T extends Box> List<T> getPaths(Container container) {
+        return getPaths((Object) container, false);
+    }
+
+    public <T extends Box> List<T> getPaths(AbstractContainerBox containerBox) {
+        return getPaths((Object) containerBox, false);
+    }
+
+    private <T extends Box> T getFirst(Object thing) {
+        List<T> all = getPaths(thing, true);
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends Box> List<T> getPaths(Object thing, boolean singleResult) {
+        if (absolute) {
+            while (thing instanceof Box) {
+                thing = ((Box) thing).getParent();
+            }
+        }
+        if (memoizable && segments.length > 0 && thing instanceof BasicContainer) {
+            BasicContainer container = (BasicContainer) thing;
+            List<Box> memo = container.getMemoizedPath(this);
+            if (memo == null && singleResult) {
+                memo = container.getMemoizedPath(firstOnly);
+            }
+            if (memo == null) {
+                memo = new ArrayList<Box>(singleResult ? 1 : 4);
+                collect(thing, 0, singleResult, memo);
+                container.memoizePath(singleResult ? firstOnly : this, memo);
+            }
+            if (singleResult) {
+                return (List<T>) (memo.isEmpty() ? Collections.emptyList() : Collections.singletonList(memo.get(0)));
+            } else {
+                return new ArrayList<T>((List<T>) memo);
+            }
+        }
+        List<Box> result = new ArrayList<Box>(singleResult ? 1 : 4);
+        collect(thing, 0, singleResult, result);
+        return (List<T>) result;
+    }
+
+    private void collect(Object thing, int segmentIndex, boolean singleResult, List<Box> out) {
+        if (segmentIndex == segments.length) {
+            if (thing instanceof Box) {
+                out.add((Box) thing);
+                return;
+            } else {
+                throw new RuntimeException("Result of path expression seems to be the root container. This is not allowed!");
+            }
+        }
+        Segment segment = segments[segmentIndex];
+        if (segment.parent) {
+            if (thing instanceof Box) {
+                collect(((Box) thing).getParent(), segmentIndex + 1, singleResult, out);
+            }
+        } else if (thing instanceof Container) {
+            int index = segment.index;
+            if (index >= 0 && segment.pattern == null && thing instanceof BasicContainer &&
+                    ((BasicContainer) thing).getBoxIndex() != null) {
+                // jump straight to the box instead of parsing all siblings in front of it
+                Box box = ((BasicContainer) thing).getIndexedBox(segment.type, index);
+                if (box != null) {
+                    collect(box, segmentIndex + 1, singleResult, out);
+                }
+                return;
+            }
+            int before = out.size();
+            int currentIndex = 0;
+            Iterator<Box> iterator = ((Container) thing).getBoxes().iterator();
+            while (iterator.hasNext()) {
+                Box box = iterator.next();
+                if (segment.matches(box)) {
+                    if (index == -1 || index == currentIndex) {
+                        collect(box, segmentIndex + 1, singleResult, out);
+                    }
+                    currentIndex++;
+                }
+                if ((singleResult || index >= 0) && out.size() > before) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static class Segment {
+        final boolean parent;
+        final String type;
+        final int fourCC;
+        /**
+         * Only set for types that aren't literal.
+         */
+        final Pattern pattern;
+        final int index;
+
+        Segment(String type, int index) {
+            this.parent = "..".equals(type);
+            this.type = type;
+            this.index = index;
+            this.fourCC = FourCC.of(type);
+            this.pattern = parent || Path.literalType.matcher(type).matches() ? null : Pattern.compile(type);
+        }
+
+        boolean matches(Box box) {
+            return pattern == null ? FourCC.typeOf(box) == fourCC : pattern.matcher(box.getType()).matches();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.googlecode.mp4parser.util;
+
+import com.googlecode.mp4parser.ConcurrentDataSource;
+import com.googlecode.mp4parser.DataSource;
+
+/**
+ * Queries the capabilities of a <code>DataSource</code>. Sources that don't implement
+ * {@link ConcurrentDataSource} need to be locked.
+ */
+public final class DataSourceHelper {
+    private DataSourceHelper() {
+    }
+
+    /**
+     * @param dataSource any <code>DataSource</code>
+     * @return <code>true</code> if positional reads, <code>map</code> and <code>transferTo</code> need no locking
+     * @see ConcurrentDataSource#supportsConcurrentReads()
+     */
+    public static boolean supportsConcurrentReads(DataSource dataSource) {
+        return dataSource instanceof ConcurrentDataSource && ((ConcurrentDataSource) dataSource).supportsConcurrentReads();
+    }
+
+    /**
+     * @param dataSource any <code>DataSource</code>
+     * @return <code>true</code> if each thread has its own position
+     * @see ConcurrentDataSource#hasPositionPerThread()
+     */
+    public static boolean hasPositionPerThread(DataSource dataSource) {
+        return dataSource instanceof ConcurrentDataSource && ((ConcurrentDataSource) dataSource).hasPositionPerThread();
+    }
+}
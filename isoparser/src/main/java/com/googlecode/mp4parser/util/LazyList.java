@@ -6,7 +6,9 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
- * This lazy list tries to postpone the size() call as much as possible.
+ * This lazy list tries to postpone the size() call as much as possible. Elements are pulled from the
+ * element source while holding the lock of the underlying list so that multiple threads may access
+ * the same lazy list.
  */
 public class LazyList<E> extends AbstractList<E> {
 
@@ -27,24 +29,24 @@ public class LazyList<E> extends AbstractList<E> {
 
     private void blowup() {
         LOG.logDebug("blowup running");
-        while (elementSource.hasNext()) {
-            underlying.add(elementSource.next());
+        synchronized (underlying) {
+            while (elementSource.hasNext()) {
+                underlying.add(elementSource.next());
+            }
         }
-
     }
 
     public E get(int i) {
-        if (underlying.size() > i) {
-            return underlying.get(i);
-        } else {
-            if (elementSource.hasNext()) {
-                underlying.add(elementSource.next());
-                return get(i);
-            } else {
-                throw new NoSuchElementException();
+        synchronized (underlying) {
+            while (underlying.size() <= i) {
+                if (elementSource.hasNext()) {
+                    underlying.add(elementSource.next());
+                } else {
+                    throw new NoSuchElementException();
+                }
             }
+            return underlying.get(i);
         }
-
     }
 
     public Iterator<E> iterator() {
@@ -52,16 +54,13 @@ public class LazyList<E> extends AbstractList<E> {
             int pos = 0;
 
             public boolean hasNext() {
-                return pos < underlying.size() || elementSource.hasNext();
+                synchronized (underlying) {
+                    return pos < underlying.size() || elementSource.hasNext();
+                }
             }
 
             public E next() {
-                if (pos < underlying.size()) {
-                    return underlying.get(pos++);
-                } else {
-                    underlying.add(elementSource.next());
-                    return next();
-                }
+                return get(pos++);
             }
 
             public void remove() {
@@ -0,0 +1,70 @@
+package com.googlecode.mp4parser.util;
+
+/**
+ * A hash map with primitive <code>long</code> keys for read-mostly data. Lookups don't lock and don't
+ * allocate. Each <code>put</code> copies the whole table which is fine as long as the map is small and
+ * updates are rare (e.g. caches filled on first use). <code>null</code> values are not supported.
+ */
+public class LongHashMap<V> {
+    private volatile Table table = new Table(16);
+
+    public V get(long key) {
+        return table.get(key);
+    }
+
+    public synchronized void put(long key, V value) {
+        Table old = table;
+        Table nu = new Table(old.size * 2 + 1 > old.keys.length ? old.keys.length * 2 : old.keys.length);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.values[i] != null) {
+                nu.insert(old.keys[i], old.values[i]);
+            }
+        }
+        nu.insert(key, value);
+        table = nu;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private class Table {
+        final long[] keys;
+        final Object[] values;
+        int size;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            return null;
+        }
+
+        void insert(long key, Object value) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == null) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.googlecode.mp4parser.util;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.googlecode.mp4parser.util.CastUtils.l2i;
+
+/**
+ * Maps a file in fixed-size, aligned regions and hands out slices of these regions instead of creating
+ * a new <code>MappedByteBuffer</code> for each request. Regions start at multiples of half the region
+ * size so that every request of up to half the region size lies completely within a single region.
+ * Larger requests are mapped directly and are not cached.
+ * <p/>
+ * The total size of all cached regions is limited. Once the limit is exceeded the least recently used
+ * regions are evicted from the cache. An evicted region is never unmapped explicitly: every slice handed
+ * out - and every buffer derived from such a slice - refers to its region, so the region stays mapped
+ * exactly as long as any of them is reachable. It is referenced weakly until the garbage collector finds
+ * it unreachable and releases the mapping. {@link #close()} evicts all regions in the same way, buffers
+ * obtained from this cache stay valid.
+ */
+public class MappedRegionCache {
+    public static final long DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel fc;
+    private final long regionSize;
+    private final long maxMappedBytes;
+
+    private final LinkedHashMap<Long, MappedByteBuffer> regions = new LinkedHashMap<Long, MappedByteBuffer>(16, 0.75f, true);
+    private final Set<RetiredRegion> retired = new HashSet<RetiredRegion>();
+    private final ReferenceQueue<MappedByteBuffer> released = new ReferenceQueue<MappedByteBuffer>();
+
+    private long cachedBytes = 0;
+    private long retiredBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public MappedRegionCache(FileChannel fc, long maxMappedBytes) {
+        this(fc, maxMappedBytes, DEFAULT_REGION_SIZE);
+    }
+
+    public MappedRegionCache(FileChannel fc, long maxMappedBytes, long regionSize) {
+        if (regionSize < 2 || regionSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("regionSize must be between 2 and " + Integer.MAX_VALUE);
+        }
+        this.fc = fc;
+        this.maxMappedBytes = maxMappedBytes;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Gets a read-only view of the requested portion of the file.
+     *
+     * @param startPosition where the requested block starts
+     * @param size          size of the requested block
+     * @return the requested block
+     * @throws IOException If some I/O error occurs
+     */
+    public synchronized ByteBuffer map(long startPosition, long size) throws IOException {
+        expungeReleased();
+        long step = regionSize / 2;
+        long regionStart = (startPosition / step) * step;
+        if (startPosition + size > regionStart + regionSize) {
+            misses++;
+            return fc.map(FileChannel.MapMode.READ_ONLY, startPosition, size);
+        }
+        MappedByteBuffer region = regions.get(regionStart);
+        if (region == null || startPosition + size > regionStart + region.capacity()) {
+            misses++;
+            if (region != null) {
+                // the file has grown since the region has been mapped
+                regions.remove(regionStart);
+                cachedBytes -= region.capacity();
+                retiredBytes += region.capacity();
+                retired.add(new RetiredRegion(region, released));
+            }
+            region = fc.map(FileChannel.MapMode.READ_ONLY, regionStart, java.lang.Math.min(regionSize, fc.size() - regionStart));
+            regions.put(regionStart, region);
+            cachedBytes += region.capacity();
+            evict();
+        } else {
+            hits++;
+        }
+        ByteBuffer slice = region.duplicate();
+        slice.position(l2i(startPosition - regionStart));
+        slice.limit(l2i(startPosition - regionStart + size));
+        return slice.slice();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Long, MappedByteBuffer>> it = regions.entrySet().iterator();
+        // always keep the most recently used region
+        while (cachedBytes > maxMappedBytes && regions.size() > 1) {
+            MappedByteBuffer region = it.next().getValue();
+            it.remove();
+            cachedBytes -= region.capacity();
+            retiredBytes += region.capacity();
+            retired.add(new RetiredRegion(region, released));
+            evictions++;
+        }
+    }
+
+    private void expungeReleased() {
+        Reference<? extends MappedByteBuffer> ref;
+        while ((ref = released.poll()) != null) {
+            RetiredRegion retiredRegion = (RetiredRegion) ref;
+            if (retired.remove(retiredRegion)) {
+                retiredBytes -= retiredRegion.capacity;
+            }
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of bytes currently held by cached regions.
+     *
+     * @return size of all cached regions
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Gets the number of bytes mapped by cached regions and by evicted regions that haven't been
+     * released by the garbage collector yet.
+     *
+     * @return size of all regions still mapped
+     */
+    public synchronized long getMappedBytes() {
+        expungeReleased();
+        return cachedBytes + retiredBytes;
+    }
+
+    /**
+     * Evicts all regions. They are released as soon as no buffer obtained from this cache is reachable
+     * anymore.
+     */
+    public synchronized void close() {
+        for (MappedByteBuffer region : regions.values()) {
+            retiredBytes += region.capacity();
+            retired.add(new RetiredRegion(region, released));
+        }
+        regions.clear();
+        cachedBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedRegionCache{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", cachedBytes=" + cachedBytes +
+                ", retiredBytes=" + retiredBytes +
+                '}';
+    }
+
+    private static class RetiredRegion extends WeakReference<MappedByteBuffer> {
+        final int capacity;
+
+        RetiredRegion(MappedByteBuffer region, ReferenceQueue<MappedByteBuffer> queue) {
+            super(region, queue);
+            this.capacity = region.capacity();
+        }
+    }
+}
@@ -20,11 +20,7 @@ import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.Container;
 import com.googlecode.mp4parser.AbstractContainerBox;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Path {
@@ -33,6 +29,7 @@ public class Path {
     }
 
     static Pattern component = Pattern.compile("(....|\\.\\.)(\\[(.*)\\])?");
+    static Pattern literalType = Pattern.compile("[a-zA-Z0-9 ]{4}");
 
     public static String createPath(Box box) {
         return createPath(box, "");
@@ -95,78 +92,8 @@ public class Path {
         return getPaths((Object) box, path, singleResult);
     }
 
-    @SuppressWarnings("unchecked")
     private static <T extends Box> List<T>  getPaths(Object thing, String path, boolean singleResult) {
-        if (path.startsWith("/")) {
-            path = path.substring(1);
-            while (thing instanceof Box) {
-                thing = ((Box) thing).getParent();
-            }
-        }
-
-        if (path.length() == 0) {
-            if (thing instanceof Box) {
-                return Collections.singletonList((T) thing);
-            } else {
-                throw new RuntimeException("Result of path expression seems to be the root container. This is not allowed!");
-            }
-        } else {
-            String later;
-            String now;
-            if (path.contains("/")) {
-                later = path.substring(path.indexOf('/') + 1);
-                now = path.substring(0, path.indexOf('/'));
-            } else {
-                now = path;
-                later = "";
-            }
-
-            Matcher m = component.matcher(now);
-            if (m.matches()) {
-                String type = m.group(1);
-                if ("..".equals(type)) {
-                    if (thing instanceof Box) {
-                        return Path.getPaths(((Box) thing).getParent(), later, singleResult);
-                    } else {
-                        return Collections.emptyList();
-                    }
-                } else {
-                    if (thing instanceof Container) {
-                        int index = -1;
-                        if (m.group(2) != null) {
-                            // we have a specific index
-                            String indexString = m.group(3);
-                            index = Integer.parseInt(indexString);
-                        }
-                        List<T> children = new LinkedList<T>();
-                        int currentIndex = 0;
-                        // I'm suspecting some Dalvik VM to create indexed loops from for-each loops
-                        // using the iterator instead makes sure that this doesn't happen
-                        // (and yes - it could be completely useless)
-                        Iterator<Box> iterator = ((Container) thing).getBoxes().iterator();
-                        while (iterator.hasNext()) {
-                            Box box1 = iterator.next();
-                            if (box1.getType().matches(type)) {
-                                if (index == -1 || index == currentIndex) {
-                                    children.addAll(Path.<T>getPaths(box1, later, singleResult));
-                                }
-                                currentIndex++;
-                            }
-                            if ((singleResult || index >= 0) && !children.isEmpty()) {
-                                return children;
-                            }
-                        }
-                        return children;
-                    } else {
-                        return Collections.emptyList();
-                    }
-                }
-            } else {
-                throw new RuntimeException(now + " is invalid path.");
-            }
-
-        }
-
+        return CompiledPath.compile(path).getPaths(thing, singleResult);
     }
 
 
@@ -0,0 +1,61 @@
+package com.googlecode.mp4parser.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable per-thread buffers for serializing boxes. Writing a box tree nests (a container writes its
+ * children while its own buffer is in use) so each thread keeps a small stack of buffers instead of a
+ * single one. The buffers are direct so that writing them to a <code>FileChannel</code> doesn't need
+ * another copy.
+ */
+public final class ScratchBuffer {
+    /**
+     * Capacity of each pooled buffer.
+     */
+    public static final int SIZE = 32 * 1024;
+    private static final int MAX_POOLED = 4;
+
+    private static final ThreadLocal<Pool> POOL = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    private ScratchBuffer() {
+    }
+
+    /**
+     * Takes a buffer from the current thread's pool or allocates a new one if the pool is empty.
+     *
+     * @return an empty buffer of {@link #SIZE} bytes
+     */
+    public static ByteBuffer acquire() {
+        Pool pool = POOL.get();
+        if (pool.size > 0) {
+            ByteBuffer buffer = pool.buffers[--pool.size];
+            pool.buffers[pool.size] = null;
+            buffer.clear();
+            return buffer;
+        }
+        return ByteBuffer.allocateDirect(SIZE);
+    }
+
+    /**
+     * Gives a buffer obtained by {@link #acquire()} back to the current thread's pool. The buffer must not be
+     * used afterwards.
+     *
+     * @param buffer the buffer no longer in use
+     */
+    public static void release(ByteBuffer buffer) {
+        Pool pool = POOL.get();
+        if (pool.size < MAX_POOLED && buffer.capacity() == SIZE && buffer.isDirect()) {
+            pool.buffers[pool.size++] = buffer;
+        }
+    }
+
+    private static class Pool {
+        final ByteBuffer[] buffers = new ByteBuffer[MAX_POOLED];
+        int size;
+    }
+}
@@ -0,0 +1,159 @@
+package com.googlecode.mp4parser.util;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An array backed list whose iterators never fail when the list changes. An iterator walks the elements
+ * the list had when the iterator was created, just as the iterators of a
+ * <code>CopyOnWriteArrayList</code>. Appending doesn't copy the array though: it uses spare capacity
+ * that no existing iterator looks at, so building a list element by element is linear. All other changes
+ * copy the array.
+ * <p/>
+ * The list isn't thread-safe. Threads that share it need to synchronize on it.
+ */
+public class SnapshotList<E> extends AbstractList<E> implements RandomAccess {
+    private static final Object[] EMPTY = new Object[0];
+    /**
+     * Capacity of the first array. Most containers have only a few children, growing one by one would copy
+     * the array for each of them.
+     */
+    private static final int MIN_CAPACITY = 4;
+
+    private Object[] elements;
+    private int size;
+
+    public SnapshotList() {
+        elements = EMPTY;
+    }
+
+    public SnapshotList(Collection<? extends E> c) {
+        Object[] array = c.toArray();
+        elements = new Object[array.length];
+        System.arraycopy(array, 0, elements, 0, array.length);
+        size = array.length;
+    }
+
+    /**
+     * Makes room for at least <code>minCapacity</code> elements so that appending up to that size doesn't
+     * grow the array again.
+     *
+     * @param minCapacity the number of elements expected
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            elements = copy(java.lang.Math.max(minCapacity, java.lang.Math.max(MIN_CAPACITY, elements.length + (elements.length >> 1))));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(E e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        ensureCapacity(size + c.size());
+        for (E e : c) {
+            elements[size++] = e;
+        }
+        return !c.isEmpty();
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index == size) {
+            add(element);
+            return;
+        }
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Object[] copy = new Object[size + 1];
+        System.arraycopy(elements, 0, copy, 0, index);
+        copy[index] = element;
+        System.arraycopy(elements, index, copy, index + 1, size - index);
+        elements = copy;
+        size++;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = get(index);
+        Object[] copy = copy(elements.length);
+        copy[index] = element;
+        elements = copy;
+        return old;
+    }
+
+    @Override
+    public E remove(int index) {
+        E old = get(index);
+        Object[] copy = new Object[size - 1];
+        System.arraycopy(elements, 0, copy, 0, index);
+        System.arraycopy(elements, index + 1, copy, index, size - index - 1);
+        elements = copy;
+        size--;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        elements = EMPTY;
+        size = 0;
+    }
+
+    private Object[] copy(int capacity) {
+        Object[] copy = new Object[capacity];
+        System.arraycopy(elements, 0, copy, 0, size);
+        return copy;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            final Object[] snapshot = elements;
+            final int snapshotSize = size;
+            int pos = 0;
+            int removed = 0;
+
+            public boolean hasNext() {
+                return pos < snapshotSize;
+            }
+
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (pos >= snapshotSize) {
+                    throw new NoSuchElementException();
+                }
+                return (E) snapshot[pos++];
+            }
+
+            public void remove() {
+                int index = pos - 1 - removed;
+                if (pos == 0 || index >= size || elements[index] != snapshot[pos - 1]) {
+                    throw new IllegalStateException();
+                }
+                SnapshotList.this.remove(index);
+                removed++;
+            }
+        };
+    }
+}
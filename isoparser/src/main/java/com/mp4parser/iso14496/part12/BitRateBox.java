@@ -72,6 +72,7 @@ public final class BitRateBox extends AbstractBox {
      * @return decoding buffer size
      */
     public long getBufferSizeDb() {
+        ensureParsed();
         return bufferSizeDb;
     }
 
@@ -80,6 +81,7 @@ public final class BitRateBox extends AbstractBox {
      * @param bufferSizeDb decoding buffer size
      */
     public void setBufferSizeDb(long bufferSizeDb) {
+        ensureParsed();
         this.bufferSizeDb = bufferSizeDb;
     }
 
@@ -88,6 +90,7 @@ public final class BitRateBox extends AbstractBox {
      * @return max bit rate
      */
     public long getMaxBitrate() {
+        ensureParsed();
         return maxBitrate;
     }
 
@@ -96,6 +99,7 @@ public final class BitRateBox extends AbstractBox {
      * @param maxBitrate max bit rate
      */
     public void setMaxBitrate(long maxBitrate) {
+        ensureParsed();
         this.maxBitrate = maxBitrate;
     }
 
@@ -104,6 +108,7 @@ public final class BitRateBox extends AbstractBox {
      * @return average bit rate
      */
     public long getAvgBitrate() {
+        ensureParsed();
         return avgBitrate;
     }
 
@@ -112,6 +117,7 @@ public final class BitRateBox extends AbstractBox {
      * @param avgBitrate the track's average bit rate
      */
     public void setAvgBitrate(long avgBitrate) {
+        ensureParsed();
         this.avgBitrate = avgBitrate;
     }
 }
@@ -105,26 +105,32 @@ public class SampleAuxiliaryInformationOffsetsBox extends AbstractFullBox {
 
 
     public String getAuxInfoType() {
+        ensureParsed();
         return auxInfoType;
     }
 
     public void setAuxInfoType(String auxInfoType) {
+        ensureParsed();
         this.auxInfoType = auxInfoType;
     }
 
     public String getAuxInfoTypeParameter() {
+        ensureParsed();
         return auxInfoTypeParameter;
     }
 
     public void setAuxInfoTypeParameter(String auxInfoTypeParameter) {
+        ensureParsed();
         this.auxInfoTypeParameter = auxInfoTypeParameter;
     }
 
     public long[] getOffsets() {
+        ensureParsed();
         return offsets;
     }
 
     public void setOffsets(long[] offsets) {
+        ensureParsed();
         this.offsets = offsets;
     }
 }
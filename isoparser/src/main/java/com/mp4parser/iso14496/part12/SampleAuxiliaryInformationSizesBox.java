@@ -55,6 +55,7 @@ public class SampleAuxiliaryInformationSizesBox extends AbstractFullBox {
     }
 
     public short getSize(int index) {
+        ensureParsed();
         if (getDefaultSampleInfoSize() == 0) {
             return sampleInfoSizes[index];
         } else {
@@ -104,51 +105,62 @@ public class SampleAuxiliaryInformationSizesBox extends AbstractFullBox {
     }
 
     public String getAuxInfoType() {
+        ensureParsed();
         return auxInfoType;
     }
 
     public void setAuxInfoType(String auxInfoType) {
+        ensureParsed();
         this.auxInfoType = auxInfoType;
     }
 
     public String getAuxInfoTypeParameter() {
+        ensureParsed();
         return auxInfoTypeParameter;
     }
 
     public void setAuxInfoTypeParameter(String auxInfoTypeParameter) {
+        ensureParsed();
         this.auxInfoTypeParameter = auxInfoTypeParameter;
     }
 
     public int getDefaultSampleInfoSize() {
+        ensureParsed();
         return defaultSampleInfoSize;
     }
 
     public void setDefaultSampleInfoSize(int defaultSampleInfoSize) {
+        ensureParsed();
         assert defaultSampleInfoSize <= 255;
         this.defaultSampleInfoSize = (short) defaultSampleInfoSize;
     }
 
     public short[] getSampleInfoSizes() {
+        ensureParsed();
         short copy[] = new short[sampleInfoSizes.length];
         System.arraycopy(sampleInfoSizes, 0, copy, 0, sampleInfoSizes.length);
         return copy;
     }
 
     public void setSampleInfoSizes(short[] sampleInfoSizes) {
+        ensureParsed();
         this.sampleInfoSizes = new short[sampleInfoSizes.length];
         System.arraycopy(sampleInfoSizes, 0, this.sampleInfoSizes, 0, sampleInfoSizes.length);
     }
 
     public int getSampleCount() {
+        ensureParsed();
         return sampleCount;
     }
 
     public void setSampleCount(int sampleCount) {
+        ensureParsed();
         this.sampleCount = sampleCount;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "SampleAuxiliaryInformationSizesBox{" +
                 "defaultSampleInfoSize=" + defaultSampleInfoSize +
                 ", sampleCount=" + sampleCount +
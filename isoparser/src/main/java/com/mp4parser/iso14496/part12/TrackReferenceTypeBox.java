@@ -56,10 +56,12 @@ public class TrackReferenceTypeBox extends AbstractBox {
     }
 
     public long[] getTrackIds() {
+        ensureParsed();
         return trackIds;
     }
 
     public void setTrackIds(long[] trackIds) {
+        ensureParsed();
         this.trackIds = trackIds;
     }
 }
@@ -42,98 +42,122 @@ public final class AvcConfigurationBox extends AbstractBox {
     }
 
     public int getConfigurationVersion() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.configurationVersion;
     }
 
     public int getAvcProfileIndication() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.avcProfileIndication;
     }
 
     public int getProfileCompatibility() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.profileCompatibility;
     }
 
     public int getAvcLevelIndication() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.avcLevelIndication;
     }
 
     public int getLengthSizeMinusOne() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.lengthSizeMinusOne;
     }
 
     public List<byte[]> getSequenceParameterSets() {
+        ensureParsed();
         return Collections.unmodifiableList(avcDecoderConfigurationRecord.sequenceParameterSets);
     }
 
     public List<byte[]> getPictureParameterSets() {
+        ensureParsed();
         return Collections.unmodifiableList(avcDecoderConfigurationRecord.pictureParameterSets);
     }
 
     public void setConfigurationVersion(int configurationVersion) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.configurationVersion = configurationVersion;
     }
 
     public void setAvcProfileIndication(int avcProfileIndication) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.avcProfileIndication = avcProfileIndication;
     }
 
     public void setProfileCompatibility(int profileCompatibility) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.profileCompatibility = profileCompatibility;
     }
 
     public void setAvcLevelIndication(int avcLevelIndication) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.avcLevelIndication = avcLevelIndication;
     }
 
     public void setLengthSizeMinusOne(int lengthSizeMinusOne) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.lengthSizeMinusOne = lengthSizeMinusOne;
     }
 
     public void setSequenceParameterSets(List<byte[]> sequenceParameterSets) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.sequenceParameterSets = sequenceParameterSets;
     }
 
     public void setPictureParameterSets(List<byte[]> pictureParameterSets) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.pictureParameterSets = pictureParameterSets;
     }
 
     public int getChromaFormat() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.chromaFormat;
     }
 
     public void setChromaFormat(int chromaFormat) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.chromaFormat = chromaFormat;
     }
 
     public int getBitDepthLumaMinus8() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.bitDepthLumaMinus8;
     }
 
     public void setBitDepthLumaMinus8(int bitDepthLumaMinus8) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.bitDepthLumaMinus8 = bitDepthLumaMinus8;
     }
 
     public int getBitDepthChromaMinus8() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.bitDepthChromaMinus8;
     }
 
     public void setBitDepthChromaMinus8(int bitDepthChromaMinus8) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.bitDepthChromaMinus8 = bitDepthChromaMinus8;
     }
 
     public List<byte[]> getSequenceParameterSetExts() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.sequenceParameterSetExts;
     }
 
     public void setSequenceParameterSetExts(List<byte[]> sequenceParameterSetExts) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.sequenceParameterSetExts = sequenceParameterSetExts;
     }
 
     public boolean hasExts() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.hasExts;
     }
 
     public void setHasExts(boolean hasExts) {
+        ensureParsed();
         this.avcDecoderConfigurationRecord.hasExts = hasExts;
     }
 
@@ -145,31 +169,37 @@ public final class AvcConfigurationBox extends AbstractBox {
 
     @Override
     public long getContentSize() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getContentSize();
     }
 
 
     @Override
     public void getContent(ByteBuffer byteBuffer) {
+        ensureParsed();
         avcDecoderConfigurationRecord.getContent(byteBuffer);
     }
 
     // just to display sps in isoviewer no practical use
     public String[] getSPS() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getSPS();
     }
 
     public String[] getPPS() {
+        ensureParsed();
         return avcDecoderConfigurationRecord.getPPS();
     }
 
 
     public AvcDecoderConfigurationRecord getavcDecoderConfigurationRecord() {
+        ensureParsed();
         return avcDecoderConfigurationRecord;
     }
 
     @Override
     public String toString() {
+        ensureParsed();
         return "AvcConfigurationBox{" +
                 "avcDecoderConfigurationRecord=" + avcDecoderConfigurationRecord +
                 '}';
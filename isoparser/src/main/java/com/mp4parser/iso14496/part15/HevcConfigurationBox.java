@@ -36,15 +36,18 @@ public class HevcConfigurationBox extends AbstractBox {
     }
 
     public HevcDecoderConfigurationRecord getHevcDecoderConfigurationRecord() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord;
     }
 
     public void setHevcDecoderConfigurationRecord(HevcDecoderConfigurationRecord hevcDecoderConfigurationRecord) {
+        ensureParsed();
         this.hevcDecoderConfigurationRecord = hevcDecoderConfigurationRecord;
     }
 
     @Override
     public boolean equals(Object o) {
+        ensureParsed();
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
@@ -58,80 +61,99 @@ public class HevcConfigurationBox extends AbstractBox {
 
     @Override
     public int hashCode() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord != null ? hevcDecoderConfigurationRecord.hashCode() : 0;
     }
 
 
     public int getConfigurationVersion() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.configurationVersion;
     }
 
     public int getGeneral_profile_space() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_profile_space;
     }
 
     public boolean isGeneral_tier_flag() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_tier_flag;
     }
 
 
     public int getGeneral_profile_idc() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_profile_idc;
     }
 
     public long getGeneral_profile_compatibility_flags() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_profile_compatibility_flags;
     }
 
     public long getGeneral_constraint_indicator_flags() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_constraint_indicator_flags;
     }
 
     public int getGeneral_level_idc() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.general_level_idc;
     }
 
     public int getMin_spatial_segmentation_idc() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.min_spatial_segmentation_idc;
     }
 
     public int getParallelismType() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.parallelismType;
     }
 
     public int getChromaFormat() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.chromaFormat;
     }
 
     public int getBitDepthLumaMinus8() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.bitDepthLumaMinus8;
     }
 
     public int getBitDepthChromaMinus8() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.bitDepthChromaMinus8;
     }
 
     public int getAvgFrameRate() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.avgFrameRate;
     }
 
     public int getNumTemporalLayers() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.numTemporalLayers;
     }
 
     public int getLengthSizeMinusOne() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.lengthSizeMinusOne;
     }
 
     public boolean isTemporalIdNested() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.temporalIdNested;
     }
 
     public int getConstantFrameRate() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.constantFrameRate;
     }
 
     public List<HevcDecoderConfigurationRecord.Array> getArrays() {
+        ensureParsed();
         return hevcDecoderConfigurationRecord.arrays;
     }
 }
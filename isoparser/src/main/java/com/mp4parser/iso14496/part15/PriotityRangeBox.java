@@ -43,34 +43,42 @@ public class PriotityRangeBox extends AbstractBox {
     }
 
     public int getReserved1() {
+        ensureParsed();
         return reserved1;
     }
 
     public void setReserved1(int reserved1) {
+        ensureParsed();
         this.reserved1 = reserved1;
     }
 
     public int getMin_priorityId() {
+        ensureParsed();
         return min_priorityId;
     }
 
     public void setMin_priorityId(int min_priorityId) {
+        ensureParsed();
         this.min_priorityId = min_priorityId;
     }
 
     public int getReserved2() {
+        ensureParsed();
         return reserved2;
     }
 
     public void setReserved2(int reserved2) {
+        ensureParsed();
         this.reserved2 = reserved2;
     }
 
     public int getMax_priorityId() {
+        ensureParsed();
         return max_priorityId;
     }
 
     public void setMax_priorityId(int max_priorityId) {
+        ensureParsed();
         this.max_priorityId = max_priorityId;
     }
 }
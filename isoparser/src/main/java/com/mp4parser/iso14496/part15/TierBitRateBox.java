@@ -50,50 +50,62 @@ public class TierBitRateBox extends AbstractBox {
     }
 
     public long getBaseBitRate() {
+        ensureParsed();
         return baseBitRate;
     }
 
     public void setBaseBitRate(long baseBitRate) {
+        ensureParsed();
         this.baseBitRate = baseBitRate;
     }
 
     public long getMaxBitRate() {
+        ensureParsed();
         return maxBitRate;
     }
 
     public void setMaxBitRate(long maxBitRate) {
+        ensureParsed();
         this.maxBitRate = maxBitRate;
     }
 
     public long getAvgBitRate() {
+        ensureParsed();
         return avgBitRate;
     }
 
     public void setAvgBitRate(long avgBitRate) {
+        ensureParsed();
         this.avgBitRate = avgBitRate;
     }
 
     public long getTierBaseBitRate() {
+        ensureParsed();
         return tierBaseBitRate;
     }
 
     public void setTierBaseBitRate(long tierBaseBitRate) {
+        ensureParsed();
         this.tierBaseBitRate = tierBaseBitRate;
     }
 
     public long getTierMaxBitRate() {
+        ensureParsed();
         return tierMaxBitRate;
     }
 
     public void setTierMaxBitRate(long tierMaxBitRate) {
+        ensureParsed();
         this.tierMaxBitRate = tierMaxBitRate;
     }
 
     public long getTierAvgBitRate() {
+        ensureParsed();
         return tierAvgBitRate;
     }
 
     public void setTierAvgBitRate(long tierAvgBitRate) {
+        ensureParsed();
         this.tierAvgBitRate = tierAvgBitRate;
     }
 }
@@ -67,90 +67,112 @@ public class TierInfoBox extends AbstractBox {
     }
 
     public int getTierID() {
+        ensureParsed();
         return tierID;
     }
 
     public void setTierID(int tierID) {
+        ensureParsed();
         this.tierID = tierID;
     }
 
     public int getProfileIndication() {
+        ensureParsed();
         return profileIndication;
     }
 
     public void setProfileIndication(int profileIndication) {
+        ensureParsed();
         this.profileIndication = profileIndication;
     }
 
     public int getProfile_compatibility() {
+        ensureParsed();
         return profile_compatibility;
     }
 
     public void setProfile_compatibility(int profile_compatibility) {
+        ensureParsed();
         this.profile_compatibility = profile_compatibility;
     }
 
     public int getLevelIndication() {
+        ensureParsed();
         return levelIndication;
     }
 
     public void setLevelIndication(int levelIndication) {
+        ensureParsed();
         this.levelIndication = levelIndication;
     }
 
     public int getReserved1() {
+        ensureParsed();
         return reserved1;
     }
 
     public void setReserved1(int reserved1) {
+        ensureParsed();
         this.reserved1 = reserved1;
     }
 
     public int getVisualWidth() {
+        ensureParsed();
         return visualWidth;
     }
 
     public void setVisualWidth(int visualWidth) {
+        ensureParsed();
         this.visualWidth = visualWidth;
     }
 
     public int getVisualHeight() {
+        ensureParsed();
         return visualHeight;
     }
 
     public void setVisualHeight(int visualHeight) {
+        ensureParsed();
         this.visualHeight = visualHeight;
     }
 
     public int getDiscardable() {
+        ensureParsed();
         return discardable;
     }
 
     public void setDiscardable(int discardable) {
+        ensureParsed();
         this.discardable = discardable;
     }
 
     public int getConstantFrameRate() {
+        ensureParsed();
         return constantFrameRate;
     }
 
     public void setConstantFrameRate(int constantFrameRate) {
+        ensureParsed();
         this.constantFrameRate = constantFrameRate;
     }
 
     public int getReserved2() {
+        ensureParsed();
         return reserved2;
     }
 
     public void setReserved2(int reserved2) {
+        ensureParsed();
         this.reserved2 = reserved2;
     }
 
     public int getFrameRate() {
+        ensureParsed();
         return frameRate;
     }
 
     public void setFrameRate(int frameRate) {
+        ensureParsed();
         this.frameRate = frameRate;
     }
 }
\ No newline at end of file
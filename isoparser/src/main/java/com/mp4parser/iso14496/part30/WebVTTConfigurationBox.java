@@ -34,10 +34,12 @@ public class WebVTTConfigurationBox extends AbstractBox {
     }
 
     public String getConfig() {
+        ensureParsed();
         return config;
     }
 
     public void setConfig(String config) {
+        ensureParsed();
         this.config = config;
     }
 }
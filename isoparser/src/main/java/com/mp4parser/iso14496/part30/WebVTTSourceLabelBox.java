@@ -35,10 +35,12 @@ public class WebVTTSourceLabelBox extends AbstractBox {
     }
 
     public String getSourceLabel() {
+        ensureParsed();
         return sourceLabel;
     }
 
     public void setSourceLabel(String sourceLabel) {
+        ensureParsed();
         this.sourceLabel = sourceLabel;
     }
 }
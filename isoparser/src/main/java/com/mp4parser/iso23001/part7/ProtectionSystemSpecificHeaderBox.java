@@ -48,10 +48,12 @@ public class ProtectionSystemSpecificHeaderBox extends AbstractFullBox {
     }
 
     public List<UUID> getKeyIds() {
+        ensureParsed();
         return keyIds;
     }
 
     public void setKeyIds(List<UUID> keyIds) {
+        ensureParsed();
         this.keyIds = keyIds;
     }
 
@@ -59,19 +61,23 @@ public class ProtectionSystemSpecificHeaderBox extends AbstractFullBox {
 
 
     public byte[] getSystemId() {
+        ensureParsed();
         return systemId;
     }
 
     public void setSystemId(byte[] systemId) {
+        ensureParsed();
         assert systemId.length == 16;
         this.systemId = systemId;
     }
 
     public byte[] getContent() {
+        ensureParsed();
         return content;
     }
 
     public void setContent(byte[] content) {
+        ensureParsed();
         this.content = content;
     }
 
@@ -57,58 +57,72 @@ public class EventMessageBox extends AbstractFullBox {
     }
 
     public String getSchemeIdUri() {
+        ensureParsed();
         return schemeIdUri;
     }
 
     public void setSchemeIdUri(String schemeIdUri) {
+        ensureParsed();
         this.schemeIdUri = schemeIdUri;
     }
 
     public String getValue() {
+        ensureParsed();
         return value;
     }
 
     public void setValue(String value) {
+        ensureParsed();
         this.value = value;
     }
 
     public long getTimescale() {
+        ensureParsed();
         return timescale;
     }
 
     public void setTimescale(long timescale) {
+        ensureParsed();
         this.timescale = timescale;
     }
 
     public long getPresentationTimeDelta() {
+        ensureParsed();
         return presentationTimeDelta;
     }
 
     public void setPresentationTimeDelta(long presentationTimeDelta) {
+        ensureParsed();
         this.presentationTimeDelta = presentationTimeDelta;
     }
 
     public long getEventDuration() {
+        ensureParsed();
         return eventDuration;
     }
 
     public void setEventDuration(long eventDuration) {
+        ensureParsed();
         this.eventDuration = eventDuration;
     }
 
     public long getId() {
+        ensureParsed();
         return id;
     }
 
     public void setId(long id) {
+        ensureParsed();
         this.id = id;
     }
 
     public byte[] getMessageData() {
+        ensureParsed();
         return messageData;
     }
 
     public void setMessageData(byte[] messageData) {
+        ensureParsed();
         this.messageData = messageData;
     }
 }
@@ -0,0 +1,83 @@
+package com.coremedia.iso;
+
+import com.coremedia.iso.boxes.SampleSizeBox;
+import com.coremedia.iso.boxes.UnknownBox;
+import com.googlecode.mp4parser.FileDataSourceImpl;
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Map;
+
+public class ContentRetentionTest {
+    String filename = ContentRetentionTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+
+    private static byte[] unknownBox() {
+        ByteBuffer bb = ByteBuffer.allocate(16);
+        bb.putInt(16).put(IsoFile.fourCCtoBytes("abcd")).putInt(0x01020304).putInt(0x05060708);
+        return bb.array();
+    }
+
+    private static IsoFile open(byte[] data, ContentRetention contentRetention) throws Exception {
+        PropertyBoxParserImpl boxParser = new PropertyBoxParserImpl();
+        boxParser.setContentRetention(contentRetention);
+        return new IsoFile(new MemoryDataSourceImpl(data), boxParser);
+    }
+
+    private static byte[] write(IsoFile isoFile) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(baos));
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testSlice() throws Exception {
+        byte[] data = unknownBox();
+        IsoFile isoFile = open(data, ContentRetention.SLICE);
+        Assert.assertTrue(isoFile.getRetainedBytes().isEmpty());
+        ((UnknownBox) isoFile.getBoxes().get(0)).getData();
+        Assert.assertEquals(Long.valueOf(8), isoFile.getRetainedBytes().get("abcd"));
+
+        data[8] = 42;
+        Assert.assertEquals(42, write(isoFile)[8]); // still backed by the source
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        byte[] data = unknownBox();
+        IsoFile isoFile = open(data, ContentRetention.COPY);
+        ((UnknownBox) isoFile.getBoxes().get(0)).getData();
+        Assert.assertEquals(Long.valueOf(8), isoFile.getRetainedBytes().get("abcd"));
+
+        data[8] = 42;
+        Assert.assertArrayEquals(unknownBox(), write(isoFile));
+    }
+
+    @Test
+    public void testCopySampleTables() throws Exception {
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        PropertyBoxParserImpl boxParser = new PropertyBoxParserImpl();
+        boxParser.setContentRetention(ContentRetention.COPY);
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename), new ProfiledBoxParser(boxParser, ParseProfile.ALL));
+
+        List<SampleSizeBox> expected = reference.getBoxes(SampleSizeBox.class, true);
+        List<SampleSizeBox> actual = isoFile.getBoxes(SampleSizeBox.class, true);
+        Assert.assertEquals(expected.size(), actual.size());
+        long tableBytes = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals(expected.get(i).getSampleSizes(), actual.get(i).getSampleSizes());
+            if (actual.get(i).getSampleSize() == 0) {
+                tableBytes += actual.get(i).getSampleCount() * 4;
+            }
+        }
+        Map<String, Long> retained = isoFile.getRetainedBytes();
+        Assert.assertEquals(Long.valueOf(tableBytes), retained.get("stsz"));
+        Assert.assertArrayEquals(write(reference), write(isoFile));
+        isoFile.close();
+        reference.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.coremedia.iso;
+
+import com.coremedia.iso.boxes.FreeBox;
+import com.coremedia.iso.boxes.MovieBox;
+import com.coremedia.iso.boxes.MovieHeaderBox;
+import com.coremedia.iso.boxes.sampleentry.AudioSampleEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class FourCCTest {
+
+    @Test
+    public void testRoundtrip() {
+        Assert.assertEquals(0x6D6F6F76, FourCC.MOOV);
+        Assert.assertEquals("moov", FourCC.toString(FourCC.MOOV));
+        Assert.assertSame(FourCC.toString(FourCC.of("trun")), FourCC.toString(FourCC.of("trun")));
+        Assert.assertEquals("©nam", FourCC.toString(FourCC.of("©nam")));
+        Assert.assertEquals(0, FourCC.of(null));
+    }
+
+    @Test
+    public void testReadWrite() {
+        ByteBuffer bb = ByteBuffer.allocate(4);
+        FourCC.write(bb, FourCC.TRAF);
+        Assert.assertArrayEquals(IsoFile.fourCCtoBytes("traf"), bb.array());
+        bb.rewind();
+        Assert.assertEquals(FourCC.TRAF, FourCC.read(bb));
+        bb.rewind();
+        Assert.assertEquals(IsoTypeReader.read4cc(bb), FourCC.toString(FourCC.TRAF));
+    }
+
+    @Test
+    public void testOfBox() {
+        Assert.assertEquals(FourCC.MVHD, FourCC.typeOf(new MovieHeaderBox()));
+        Assert.assertEquals(FourCC.MOOV, FourCC.typeOf(new MovieBox()));
+        Assert.assertEquals(FourCC.FREE, FourCC.typeOf(new FreeBox()));
+        AudioSampleEntry audioSampleEntry = new AudioSampleEntry("mp4a");
+        audioSampleEntry.setType("enca");
+        Assert.assertEquals(FourCC.of("enca"), FourCC.typeOf(audioSampleEntry));
+    }
+}
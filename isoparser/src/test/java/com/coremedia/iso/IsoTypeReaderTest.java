@@ -4,6 +4,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
 /**
@@ -92,4 +93,55 @@ public class IsoTypeReaderTest {
 
     }
 
+    @Test
+    public void testBulkArrays() throws IOException {
+        int[] ints = new int[3000];
+        long[] uints = new long[ints.length];
+        long[] ulongs = new long[ints.length];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 0x01020305 - 7;
+            uints[i] = ints[i] & 0xFFFFFFFFL;
+            ulongs[i] = uints[i] << 31 | i;
+        }
+        for (ByteBuffer bb : new ByteBuffer[]{ByteBuffer.allocate(ints.length * 16 + 1), ByteBuffer.allocateDirect(ints.length * 16 + 1)}) {
+            bb.put((byte) 42);
+            IsoTypeWriter.writeInt32Array(bb, ints, 0, ints.length);
+            IsoTypeWriter.writeUInt32Array(bb, uints, 0, uints.length);
+            IsoTypeWriter.writeUInt64Array(bb, ulongs, 0, ulongs.length);
+            Assert.assertFalse(bb.hasRemaining());
+            bb.rewind();
+            for (ByteBuffer source : new ByteBuffer[]{bb.duplicate(), bb.asReadOnlyBuffer()}) {
+                source.get();
+                int[] intsRead = new int[ints.length + 1];
+                long[] uintsRead = new long[uints.length];
+                long[] ulongsRead = new long[ulongs.length];
+                IsoTypeReader.readInt32Array(source, intsRead, 1, ints.length);
+                IsoTypeReader.readUInt32Array(source, uintsRead, 0, uints.length);
+                IsoTypeReader.readUInt64Array(source, ulongsRead, 0, ulongs.length);
+                Assert.assertFalse(source.hasRemaining());
+                Assert.assertEquals(0, intsRead[0]);
+                for (int i = 0; i < ints.length; i++) {
+                    Assert.assertEquals(ints[i], intsRead[i + 1]);
+                }
+                Assert.assertArrayEquals(uints, uintsRead);
+                Assert.assertArrayEquals(ulongs, ulongsRead);
+            }
+        }
+
+        ByteBuffer bb = ByteBuffer.allocate(8);
+        try {
+            IsoTypeReader.readInt32Array(bb, new int[3], 0, 3);
+            Assert.fail("Expected BufferUnderflowException");
+        } catch (BufferUnderflowException e) {
+            Assert.assertEquals(0, bb.position());
+        }
+        bb.putLong(0, -1);
+        try {
+            IsoTypeReader.readUInt64Array(bb, new long[1], 0, 1);
+            Assert.fail("Expected RuntimeException for uint64 values that don't fit into a long");
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
 }
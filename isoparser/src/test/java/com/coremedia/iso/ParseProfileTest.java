@@ -0,0 +1,61 @@
+package com.coremedia.iso;
+
+import com.coremedia.iso.boxes.Box;
+import com.coremedia.iso.boxes.FileTypeBox;
+import com.coremedia.iso.boxes.MovieBox;
+import com.coremedia.iso.boxes.UnknownBox;
+import com.googlecode.mp4parser.FileDataSourceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+
+public class ParseProfileTest {
+    String filename = ParseProfileTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+
+    @Test
+    public void testIsSkipped() {
+        ParseProfile profile = ParseProfile.ALL.topLevel("moov").skip("udta");
+        Assert.assertFalse(profile.isSkipped(FourCC.MOOV, 0));
+        Assert.assertTrue(profile.isSkipped(FourCC.MDAT, 0));
+        Assert.assertTrue(profile.isSkipped(FourCC.UDTA, FourCC.MOOV));
+        Assert.assertFalse(profile.isSkipped(FourCC.TRAK, FourCC.MOOV));
+        Assert.assertFalse(ParseProfile.ALL.isSkipped(FourCC.MDAT, 0));
+    }
+
+    @Test
+    public void testMetadataProfile() throws Exception {
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename), ParseProfile.METADATA);
+
+        List<Box> boxes = isoFile.getBoxes();
+        Assert.assertEquals(reference.getBoxes().size(), boxes.size());
+        for (Box box : boxes) {
+            if (FourCC.typeOf(box) == FourCC.FTYP) {
+                Assert.assertTrue(box instanceof FileTypeBox);
+            } else if (FourCC.typeOf(box) == FourCC.MOOV) {
+                Assert.assertTrue(box instanceof MovieBox);
+            } else {
+                Assert.assertTrue(box instanceof UnknownBox);
+                Assert.assertFalse(((UnknownBox) box).isParsed());
+            }
+        }
+        Assert.assertEquals(reference.getMovieBox().getMovieHeaderBox().getDuration(),
+                isoFile.getMovieBox().getMovieHeaderBox().getDuration());
+        for (Box box : isoFile.getMovieBox().getBoxes()) {
+            if (FourCC.typeOf(box) == FourCC.UDTA) {
+                Assert.assertTrue(box instanceof UnknownBox);
+            }
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        reference.getBox(Channels.newChannel(expected));
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(actual));
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        isoFile.close();
+        reference.close();
+    }
+}
@@ -1,9 +1,23 @@
 package com.coremedia.iso;
 
+import com.coremedia.iso.boxes.Box;
+import com.coremedia.iso.boxes.FreeBox;
+import com.coremedia.iso.boxes.UnknownBox;
+import com.coremedia.iso.boxes.UserBox;
+import com.coremedia.iso.boxes.sampleentry.AudioSampleEntry;
+import com.googlecode.mp4parser.BasicContainer;
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
+import com.googlecode.mp4parser.boxes.apple.QuicktimeTextSampleEntry;
+import com.googlecode.mp4parser.boxes.piff.TfxdBox;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 public class PropertyBoxParserImplTest {
+    private static final byte[] USER_TYPE = Hex.decodeHex("0102030405060708090A0B0C0D0E0F10");
 
 
     @Test
@@ -12,4 +26,119 @@ public class PropertyBoxParserImplTest {
         Assert.assertEquals("b", bp.mapping.get("a"));
     }
 
+    @Test
+    public void testCreateBox() {
+        PropertyBoxParserImpl bp = new PropertyBoxParserImpl();
+        for (int i = 0; i < 2; i++) {
+            Box mp4a = bp.createBox("mp4a", null, "stsd");
+            Assert.assertTrue(mp4a instanceof AudioSampleEntry);
+            Assert.assertEquals("mp4a", mp4a.getType());
+            Box text = bp.createBox("text", null, "stsd");
+            Assert.assertTrue(text instanceof QuicktimeTextSampleEntry);
+            Box unknown = bp.createBox("text", null, "moov");
+            Assert.assertTrue(unknown instanceof UnknownBox);
+            Assert.assertEquals("text", unknown.getType());
+            Assert.assertTrue(bp.createBox("uuid", Hex.decodeHex("6D1D9B0542D544E680E2141DAFF757B2"), "traf") instanceof TfxdBox);
+            Assert.assertTrue(bp.createBox("uuid", new byte[16], "moov") instanceof UserBox);
+        }
+        Assert.assertNotSame(bp.createBox("mp4a", null, "stsd"), bp.createBox("mp4a", null, "stsd"));
+        // the uuid boxes have been looked up once per parent and user type
+        Assert.assertEquals(2, bp.userTypeFactories.size());
+    }
+
+    @Test
+    public void testParseBoxHeaders() throws Exception {
+        ByteBuffer bb = boxHeaders();
+        PropertyBoxParserImpl bp = new PropertyBoxParserImpl();
+        MemoryDataSourceImpl dataSource = new MemoryDataSourceImpl(bb);
+        BasicContainer parent = new BasicContainer();
+
+        Box free = bp.parseBox(dataSource, parent);
+        Assert.assertTrue(free instanceof FreeBox);
+        Assert.assertEquals(20, dataSource.position());
+        Assert.assertEquals(0x11223344, ((FreeBox) free).getData().getInt(0));
+
+        UserBox first = (UserBox) bp.parseBox(dataSource, parent);
+        UserBox second = (UserBox) bp.parseBox(dataSource, parent);
+        Assert.assertEquals(72, dataSource.position());
+        Assert.assertArrayEquals(USER_TYPE, first.getUserType());
+        Assert.assertArrayEquals(new byte[]{0, 0}, first.getData());
+        Assert.assertArrayEquals(new byte[]{0, 1}, second.getData());
+        // both boxes have the same user type - changing one box's copy must not leak into the other
+        first.getUserType()[0] = 42;
+        Assert.assertArrayEquals(USER_TYPE, first.getUserType());
+        Assert.assertArrayEquals(USER_TYPE, second.getUserType());
+        Assert.assertEquals(26, second.getSize());
+
+        try {
+            bp.parseBox(dataSource, parent);
+            Assert.fail("Truncated header must not be parsed");
+        } catch (EOFException e) {
+            Assert.assertEquals(72, dataSource.position());
+        }
+    }
+
+    /**
+     * A source that doesn't know its size yet - like a stream that is still being received - must not be
+     * asked for bytes beyond the box being parsed.
+     */
+    @Test
+    public void testParseBoxHeadersOfUnknownSize() throws Exception {
+        class UnknownSizeDataSource extends MemoryDataSourceImpl {
+            long furthest = 0;
+
+            UnknownSizeDataSource(ByteBuffer buffer) {
+                super(buffer);
+            }
+
+            @Override
+            public int read(ByteBuffer byteBuffer, long position) throws IOException {
+                furthest = Math.max(furthest, position + byteBuffer.remaining());
+                return super.read(byteBuffer, position);
+            }
+
+            @Override
+            public long size() throws IOException {
+                return Long.MAX_VALUE;
+            }
+        }
+        PropertyBoxParserImpl bp = new PropertyBoxParserImpl();
+        UnknownSizeDataSource dataSource = new UnknownSizeDataSource(boxHeaders());
+        BasicContainer parent = new BasicContainer();
+
+        Box free = bp.parseBox(dataSource, parent);
+        Assert.assertEquals(0x11223344, ((FreeBox) free).getData().getInt(0));
+        Assert.assertTrue(dataSource.furthest <= 20);
+        UserBox first = (UserBox) bp.parseBox(dataSource, parent);
+        Assert.assertArrayEquals(USER_TYPE, first.getUserType());
+        Assert.assertArrayEquals(new byte[]{0, 0}, first.getData());
+        Assert.assertTrue(dataSource.furthest <= 46);
+        UserBox second = (UserBox) bp.parseBox(dataSource, parent);
+        Assert.assertArrayEquals(new byte[]{0, 1}, second.getData());
+        Assert.assertTrue(dataSource.furthest <= 72);
+        Assert.assertEquals(72, dataSource.position());
+
+        try {
+            bp.parseBox(dataSource, parent);
+            Assert.fail("Truncated header must not be parsed");
+        } catch (EOFException e) {
+            Assert.assertEquals(72, dataSource.position());
+            Assert.assertEquals(80, dataSource.furthest);
+        }
+    }
+
+    private static ByteBuffer boxHeaders() {
+        ByteBuffer bb = ByteBuffer.allocate(100);
+        // largesize free box with 4 bytes of content
+        bb.putInt(1).put(IsoFile.fourCCtoBytes("free")).putLong(20).putInt(0x11223344);
+        // two uuid boxes of the same user type with 2 bytes of content each
+        for (int i = 0; i < 2; i++) {
+            bb.putInt(26).put(IsoFile.fourCCtoBytes("uuid")).put(USER_TYPE).putShort((short) i);
+        }
+        // truncated header
+        bb.putInt(8);
+        bb.flip();
+        return bb;
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.coremedia.iso.boxes;
+
+import com.coremedia.iso.IsoFile;
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+public class SampleSizeBoxTest {
+
+    @Test
+    public void testParsedView() throws IOException {
+        long[] sizes = new long[]{1, 0xFFFFFFFFL, 300, 4000, 50000};
+        SampleSizeBox stsz = new SampleSizeBox();
+        stsz.setSampleSizes(sizes);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        stsz.getBox(Channels.newChannel(baos));
+
+        IsoFile isoFile = new IsoFile(new MemoryDataSourceImpl(baos.toByteArray()));
+        SampleSizeBox parsed = (SampleSizeBox) isoFile.getBoxes().get(0);
+        Assert.assertEquals(sizes.length, parsed.getSampleCount());
+        for (int i = 0; i < sizes.length; i++) {
+            Assert.assertEquals(sizes[i], parsed.getSampleSizeAtIndex(i));
+        }
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        parsed.getBox(Channels.newChannel(written));
+        Assert.assertArrayEquals(baos.toByteArray(), written.toByteArray());
+
+        // modifying the materialized array changes the box
+        parsed.getSampleSizes()[0] = 2;
+        Assert.assertEquals(2, parsed.getSampleSizeAtIndex(0));
+    }
+
+    @Test
+    public void testChunkOffsetView() throws IOException {
+        long[] offsets = new long[]{8, 0xFFFFFFFFL + 1, 1L << 40};
+        ChunkOffset64BitBox co64 = new ChunkOffset64BitBox();
+        co64.setChunkOffsets(offsets);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        co64.getBox(Channels.newChannel(baos));
+
+        IsoFile isoFile = new IsoFile(new MemoryDataSourceImpl(baos.toByteArray()));
+        ChunkOffsetBox parsed = (ChunkOffsetBox) isoFile.getBoxes().get(0);
+        Assert.assertEquals(offsets.length, parsed.getChunkCount());
+        for (int i = 0; i < offsets.length; i++) {
+            Assert.assertEquals(offsets[i], parsed.getChunkOffset(i));
+        }
+        Assert.assertArrayEquals(offsets, parsed.getChunkOffsets());
+    }
+
+    @Test
+    public void testChunkedWrite() throws IOException {
+        long[] sizes = new long[50000];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = i * 7;
+        }
+        SampleSizeBox stsz = new SampleSizeBox();
+        stsz.setSampleSizes(sizes);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        stsz.getBox(Channels.newChannel(baos));
+        Assert.assertEquals(stsz.getSize(), baos.size());
+
+        IsoFile isoFile = new IsoFile(new MemoryDataSourceImpl(baos.toByteArray()));
+        SampleSizeBox parsed = (SampleSizeBox) isoFile.getBoxes().get(0);
+        Assert.assertEquals(sizes.length, parsed.getSampleCount());
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        parsed.getBox(Channels.newChannel(written));
+        Assert.assertArrayEquals(baos.toByteArray(), written.toByteArray());
+        Assert.assertArrayEquals(sizes, parsed.getSampleSizes());
+    }
+}
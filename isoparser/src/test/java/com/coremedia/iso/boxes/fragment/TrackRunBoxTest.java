@@ -1,15 +1,19 @@
 package com.coremedia.iso.boxes.fragment;
 
 import com.coremedia.iso.IsoFile;
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import com.googlecode.mp4parser.DataSource;
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
 
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.util.LinkedList;
 import java.util.List;
@@ -77,7 +81,44 @@ public class TrackRunBoxTest {
         Assert.assertEquals(trun.getDataOffset(), trun2.getDataOffset());
         Assert.assertEquals(trun.getFirstSampleFlags(), trun2.getFirstSampleFlags());
 
+        Assert.assertEquals(entries.size(), trun2.getSampleCount());
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertEquals(isSampleSizePresent ? entries.get(i).getSampleSize() : 0, trun2.getSampleSize(i));
+            Assert.assertEquals(isSampleDurationPresent ? entries.get(i).getSampleDuration() : 0, trun2.getSampleDuration(i));
+            Assert.assertEquals(isSampleCompositionTimeOffsetPresent ? entries.get(i).getSampleCompositionTimeOffset() : 0,
+                    trun2.getSampleCompositionTimeOffset(i));
+        }
+        ByteArrayOutputStream fromArrays = new ByteArrayOutputStream();
+        trun2.getBox(Channels.newChannel(fromArrays));
+        Assert.assertArrayEquals(FileUtils.readFileToByteArray(f), fromArrays.toByteArray());
+        Assert.assertEquals(trun2.getSampleSize(1), trun2.getEntries().get(1).getSampleSize());
+        ByteArrayOutputStream fromEntries = new ByteArrayOutputStream();
+        trun2.getBox(Channels.newChannel(fromEntries));
+        Assert.assertArrayEquals(fromArrays.toByteArray(), fromEntries.toByteArray());
+        isoFile.close();
 
     }
 
+    @Test
+    public void testSampleFlagsInt() throws IOException {
+        TrackRunBox trun = new TrackRunBox();
+        trun.setSampleFlagsPresent(true);
+        List<TrackRunBox.Entry> entries = new LinkedList<TrackRunBox.Entry>();
+        entries.add(new TrackRunBox.Entry(0, 0, new SampleFlags(0x02000000L), 0));
+        entries.add(new TrackRunBox.Entry(0, 0, new SampleFlags(0x01010000L), 0));
+        trun.setEntries(entries);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        trun.getBox(Channels.newChannel(baos));
+
+        TrackRunBox parsed = (TrackRunBox) new IsoFile(new MemoryDataSourceImpl(baos.toByteArray())).getBoxes().get(0);
+        Assert.assertEquals(0x02000000, parsed.getSampleFlagsInt(0));
+        Assert.assertEquals(0x01010000, parsed.getSampleFlagsInt(1));
+        Assert.assertTrue(parsed.getSampleFlags(1).isSampleIsDifferenceSample());
+        // same values once the entries have been created
+        parsed.getEntries();
+        Assert.assertEquals(0x02000000, parsed.getSampleFlagsInt(0));
+        Assert.assertEquals(0x01010000, parsed.getSampleFlagsInt(1));
+        Assert.assertEquals(0x01010000L, parsed.getSampleFlags(1).getValue());
+    }
+
 }
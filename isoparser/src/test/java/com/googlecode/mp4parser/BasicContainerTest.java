@@ -1,16 +1,34 @@
 package com.googlecode.mp4parser;
 
+import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.Box;
 import com.coremedia.iso.boxes.FileTypeBox;
+import com.coremedia.iso.boxes.FreeBox;
+import com.coremedia.iso.boxes.MovieBox;
+import com.coremedia.iso.boxes.SampleSizeBox;
+import com.coremedia.iso.boxes.SampleTableBox;
+import com.coremedia.iso.boxes.StaticChunkOffsetBox;
+import com.coremedia.iso.boxes.SyncSampleBox;
+import com.coremedia.iso.boxes.TimeToSampleBox;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 
@@ -61,4 +79,172 @@ public class BasicContainerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testParseParallel() throws IOException {
+        String filename = BasicContainerTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        isoFile.parseParallel(executor, false);
+        MovieBox moov = isoFile.getMovieBox();
+        moov.parseParallel(executor, true);
+        executor.shutdown();
+
+        List<Box> expected = reference.getBoxes(Box.class, true);
+        List<Box> actual = isoFile.getBoxes(Box.class, true);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            Assert.assertEquals(expected.get(i).getSize(), actual.get(i).getSize());
+        }
+        ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+        reference.getBox(Channels.newChannel(expectedBytes));
+        ByteArrayOutputStream actualBytes = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(actualBytes));
+        Assert.assertArrayEquals(expectedBytes.toByteArray(), actualBytes.toByteArray());
+        isoFile.close();
+        reference.close();
+    }
+
+    @Test
+    public void testGatheringWrite() throws IOException {
+        String filename = BasicContainerTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename));
+        // mix parsed, read but unparsed and unread boxes
+        isoFile.getMovieBox().getMovieHeaderBox();
+        isoFile.getBoxes(SampleSizeBox.class, true);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(expected));
+        File f = File.createTempFile("BasicContainerTest", ".mp4");
+        FileOutputStream fos = new FileOutputStream(f);
+        isoFile.getBox(fos.getChannel());
+        fos.close();
+        isoFile.close();
+
+        Assert.assertArrayEquals(expected.toByteArray(), IOUtils.toByteArray(new FileInputStream(f)));
+        Assert.assertArrayEquals(IOUtils.toByteArray(new FileInputStream(filename)), expected.toByteArray());
+        f.delete();
+    }
+
+    @Test
+    public void testAddBoxWhileIterating() throws IOException {
+        BasicContainer container = new BasicContainer();
+        container.addBox(new FreeBox(1));
+        container.addBox(new FreeBox(2));
+        int seen = 0;
+        for (Box box : container.getBoxes()) {
+            // boxes added during the iteration aren't visited
+            container.addBox(new FreeBox(3));
+            seen++;
+        }
+        Assert.assertEquals(2, seen);
+        Assert.assertEquals(4, container.getBoxes().size());
+
+        Iterator<Box> it = container.getBoxes().iterator();
+        container.getBoxes().remove(0);
+        Assert.assertEquals(9, it.next().getSize());
+        Assert.assertEquals(3, container.getBoxes().size());
+    }
+
+    @Test
+    public void testSizeFollowsChanges() throws IOException {
+        MovieBox moov = new MovieBox();
+        SampleTableBox stbl = new SampleTableBox();
+        StaticChunkOffsetBox stco = new StaticChunkOffsetBox();
+        stco.setChunkOffsets(new long[]{1, 2});
+        stbl.addBox(stco);
+        moov.addBox(stbl);
+        Assert.assertEquals(8 + 8 + 8 + 8 + 2 * 4, moov.getSize());
+
+        stco.setChunkOffsets(new long[]{1, 2, 3});
+        Assert.assertEquals(8 + 8 + 8 + 8 + 3 * 4, moov.getSize());
+
+        SyncSampleBox stss = new SyncSampleBox();
+        stss.setSampleNumber(new long[]{1});
+        stbl.addBox(stss);
+        Assert.assertEquals(8 + 8 + 8 + 8 + 3 * 4 + 8 + 8 + 4, moov.getSize());
+
+        // changing a list obtained before the size has been computed
+        TimeToSampleBox stts = new TimeToSampleBox();
+        List<TimeToSampleBox.Entry> entries = new ArrayList<TimeToSampleBox.Entry>();
+        stts.setEntries(entries);
+        stbl.addBox(stts);
+        Assert.assertEquals(8 + 8 + 8 + 8 + 3 * 4 + 8 + 8 + 4 + 8 + 8, moov.getSize());
+        entries.add(new TimeToSampleBox.Entry(10, 1000));
+        Assert.assertEquals(8 + 8 + 8 + 8 + 3 * 4 + 8 + 8 + 4 + 8 + 8 + 8, moov.getSize());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        moov.getBox(Channels.newChannel(baos));
+        Assert.assertEquals(moov.getSize(), baos.size());
+    }
+
+    @Test
+    public void testSizePass() throws IOException {
+        final int[] sizeCalls = new int[1];
+        FreeBox free = new FreeBox(4) {
+            @Override
+            public long getSize() {
+                sizeCalls[0]++;
+                return super.getSize();
+            }
+        };
+        MovieBox moov = new MovieBox();
+        SampleTableBox stbl = new SampleTableBox();
+        stbl.addBox(free);
+        moov.addBox(stbl);
+
+        long size;
+        boolean begun = BasicContainer.beginSizePass();
+        try {
+            Assert.assertTrue(begun);
+            Assert.assertFalse(BasicContainer.beginSizePass());
+            size = moov.getSize();
+            Assert.assertEquals(8 + 8 + 8 + 4, size);
+            Assert.assertEquals(size, moov.getSize());
+            Assert.assertEquals(size - 8, stbl.getSize());
+            Assert.assertEquals(1, sizeCalls[0]);
+        } finally {
+            BasicContainer.endSizePass(begun);
+        }
+
+        // sizes are computed again outside the pass
+        stbl.addBox(new FreeBox(1));
+        Assert.assertEquals(size + 8 + 1, moov.getSize());
+
+        // writing is a size pass of its own - the headers of moov and stbl don't sum up stbl twice
+        sizeCalls[0] = 0;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        moov.getBox(Channels.newChannel(baos));
+        Assert.assertEquals(size + 8 + 1, baos.size());
+        Assert.assertEquals(1, sizeCalls[0]);
+    }
+
+    @Test
+    public void testAddBoxToParsedContainer() throws IOException {
+        String filename = BasicContainerTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename));
+        int count = reference.getBoxes().size();
+
+        FreeBox free1 = new FreeBox(1);
+        FreeBox free2 = new FreeBox(2);
+        FreeBox free3 = new FreeBox(3);
+        isoFile.addBox(free1);
+        isoFile.addBoxes(Arrays.asList(free2, null, free3));
+
+        List<Box> boxes = isoFile.getBoxes();
+        Assert.assertEquals(count + 3, boxes.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(reference.getBoxes().get(i).getType(), boxes.get(i).getType());
+        }
+        Assert.assertSame(free1, boxes.get(count));
+        Assert.assertSame(free2, boxes.get(count + 1));
+        Assert.assertSame(free3, boxes.get(count + 2));
+        Assert.assertSame(isoFile, free3.getParent());
+        Assert.assertEquals(reference.getSize() + free1.getSize() + free2.getSize() + free3.getSize(), isoFile.getSize());
+        isoFile.close();
+        reference.close();
+    }
+
+}
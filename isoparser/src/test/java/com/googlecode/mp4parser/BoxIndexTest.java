@@ -0,0 +1,82 @@
+package com.googlecode.mp4parser;
+
+import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.Box;
+import com.coremedia.iso.boxes.TrackHeaderBox;
+import com.googlecode.mp4parser.util.Path;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.util.List;
+
+public class BoxIndexTest {
+    String filename = BoxIndexTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+
+    @Test
+    public void testScan() throws Exception {
+        IsoFile reference = new IsoFile(filename);
+        BoxIndex index = BoxIndex.scan(new File(filename));
+
+        int trak = index.find("/moov/trak[1]");
+        Assert.assertEquals("trak", index.getType(trak));
+        Assert.assertEquals("/moov[0]/trak[1]", index.getPath(trak));
+        Assert.assertEquals(Path.getPath(reference, "/moov[0]/trak[1]").getSize(), index.getSize(trak));
+        Assert.assertEquals(-1, index.find("/moov[0]/trak[5]"));
+        int mdat = index.find("/mdat");
+        Assert.assertEquals(reference.getBoxes().get(reference.getBoxes().size() - 1).getSize(), index.getSize(mdat));
+        reference.close();
+    }
+
+    @Test
+    public void testSidecar() throws Exception {
+        File sidecar = File.createTempFile("BoxIndexTest", ".idx");
+        sidecar.delete();
+        File file = new File(filename);
+        Assert.assertNull(BoxIndex.load(sidecar, file));
+        BoxIndex index = BoxIndex.loadOrScan(sidecar, file);
+        BoxIndex loaded = BoxIndex.load(sidecar, file);
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(index.getCount(), loaded.getCount());
+        for (int i = 0; i < index.getCount(); i++) {
+            Assert.assertEquals(index.getPath(i), loaded.getPath(i));
+            Assert.assertEquals(index.getOffset(i), loaded.getOffset(i));
+            Assert.assertEquals(index.getSize(i), loaded.getSize(i));
+        }
+
+        File copy = File.createTempFile("BoxIndexTest", ".3gp");
+        FileUtils.copyFile(file, copy);
+        copy.setLastModified(file.lastModified() - 10000);
+        Assert.assertNull(BoxIndex.load(sidecar, copy));
+        sidecar.delete();
+        copy.delete();
+    }
+
+    @Test
+    public void testIsoFileWithIndex() throws Exception {
+        IsoFile reference = new IsoFile(filename);
+        IsoFile isoFile = new IsoFile(new FileDataSourceImpl(filename), BoxIndex.scan(new File(filename)));
+
+        TrackHeaderBox tkhd = Path.getPath(isoFile, "/moov[0]/trak[1]/tkhd[0]");
+        TrackHeaderBox expected = Path.getPath(reference, "/moov[0]/trak[1]/tkhd[0]");
+        Assert.assertEquals(expected.getTrackId(), tkhd.getTrackId());
+        Assert.assertSame(tkhd, Path.getPath(isoFile, "/moov[0]/trak[1]/tkhd[0]"));
+
+        // materializing the children must reuse the boxes parsed so far
+        Assert.assertSame(tkhd.getParent(), isoFile.getMovieBox().getBoxes().get(2));
+
+        List<Box> expectedBoxes = reference.getBoxes(Box.class, true);
+        List<Box> actualBoxes = isoFile.getBoxes(Box.class, true);
+        Assert.assertEquals(expectedBoxes.size(), actualBoxes.size());
+        ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+        reference.getBox(Channels.newChannel(expectedBytes));
+        ByteArrayOutputStream actualBytes = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(actualBytes));
+        Assert.assertArrayEquals(expectedBytes.toByteArray(), actualBytes.toByteArray());
+        isoFile.close();
+        reference.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.googlecode.mp4parser;
+
+import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.TrackBox;
+import com.coremedia.iso.boxes.mdat.SampleList;
+import com.googlecode.mp4parser.authoring.Sample;
+import com.googlecode.mp4parser.util.DataSourceHelper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConcurrentFileDataSourceImplTest {
+    String filename = ConcurrentFileDataSourceImplTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+
+    @Test
+    public void testPositionalRead() throws Exception {
+        DataSource ds = new ConcurrentFileDataSourceImpl(filename);
+        ByteBuffer bb = ByteBuffer.allocate(8);
+        ds.position(100);
+        Assert.assertEquals(8, ds.read(bb, 4));
+        Assert.assertEquals(100, ds.position());
+        ByteBuffer ref = ds.map(4, 8);
+        bb.rewind();
+        Assert.assertEquals(ref, bb);
+        Assert.assertEquals(-1, ds.read(ByteBuffer.allocate(1), ds.size()));
+        ds.close();
+    }
+
+    @Test
+    public void testWrappersDelegateCapabilities() throws Exception {
+        DataSource ds = new ConcurrentFileDataSourceImpl(filename);
+        Assert.assertTrue(DataSourceHelper.supportsConcurrentReads(new ReadAheadDataSource(ds)));
+        Assert.assertTrue(DataSourceHelper.hasPositionPerThread(new ReadAheadDataSource(ds)));
+        DataSource fileDataSource = new FileDataSourceImpl(filename);
+        Assert.assertFalse(DataSourceHelper.supportsConcurrentReads(new ReadAheadDataSource(fileDataSource)));
+        Assert.assertFalse(DataSourceHelper.hasPositionPerThread(fileDataSource));
+        fileDataSource.close();
+        ds.close();
+    }
+
+    @Test
+    public void testConcurrentSampleAccess() throws Exception {
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        final IsoFile isoFile = new IsoFile(new ConcurrentFileDataSourceImpl(filename));
+        List<TrackBox> referenceTracks = reference.getMovieBox().getBoxes(TrackBox.class);
+        List<TrackBox> tracks = isoFile.getMovieBox().getBoxes(TrackBox.class);
+        ExecutorService es = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < tracks.size(); i++) {
+            // the box structure is parsed up front - sample access happens concurrently
+            final List<Sample> expected = new SampleList(referenceTracks.get(i));
+            final List<Sample> actual = new SampleList(tracks.get(i));
+            for (int j = 0; j < 4; j++) {
+                results.add(es.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        for (int k = actual.size() - 1; k >= 0; k--) {
+                            Assert.assertEquals(expected.get(k).asByteBuffer(), actual.get(k).asByteBuffer());
+                        }
+                        return true;
+                    }
+                }));
+            }
+        }
+        for (Future<Boolean> result : results) {
+            Assert.assertTrue(result.get());
+        }
+        es.shutdown();
+        isoFile.close();
+        reference.close();
+    }
+}
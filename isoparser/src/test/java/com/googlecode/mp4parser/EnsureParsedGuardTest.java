@@ -0,0 +1,146 @@
+package com.googlecode.mp4parser;
+
+import com.googlecode.mp4parser.annotations.DoNotParseDetail;
+import com.googlecode.mp4parser.annotations.ParseDetail;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Boxes parse their content lazily: every public method of an {@link AbstractBox} subclass has to call
+ * {@link AbstractBox#ensureParsed()} before it touches a parsed field. Nothing but this test checks that,
+ * it looks at the byte code of all boxes in this module.
+ */
+public class EnsureParsedGuardTest {
+    /**
+     * Public methods that work without the box's content - name and number of parameters.
+     */
+    private static final Set<String> UNGUARDED = new HashSet<String>(Arrays.asList(
+            "parseDetails/0",
+            "getNumOfBytesToFirstChild/0",
+            "getType/0",
+            "isParsed/0",
+            "getHeader/1",
+            "parse/0",
+            "getBox/1",
+            "getSize/0",
+            "getOffset/0",
+            "_parseDetails/1",
+            "parse/4",
+            "getIsoFile/0",
+            "getParent/0",
+            "setParent/1",
+            "getUserType/0",
+            "setUserType/1"));
+
+    @Test
+    public void testPublicBoxMethodsAreGuarded() throws Exception {
+        List<String> unguarded = new ArrayList<String>();
+        int boxes = 0;
+        for (Class<?> clazz : classesOfThisModule()) {
+            if (!AbstractBox.class.isAssignableFrom(clazz)) {
+                continue;
+            }
+            boxes++;
+            Set<String> guarded = methodsCallingEnsureParsed(clazz);
+            for (Method method : clazz.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isAbstract(modifiers) ||
+                        method.isBridge() || method.isSynthetic() ||
+                        method.isAnnotationPresent(DoNotParseDetail.class) ||
+                        UNGUARDED.contains(method.getName() + "/" + method.getParameterTypes().length)) {
+                    continue;
+                }
+                if (!guarded.contains(method.getName() + Type.getMethodDescriptor(method))) {
+                    unguarded.add(clazz.getName() + "." + method.getName());
+                }
+            }
+        }
+        Assert.assertTrue("No boxes found", boxes > 100);
+        Assert.assertTrue("Public methods not calling ensureParsed() - call it or annotate with @DoNotParseDetail: " +
+                unguarded, unguarded.isEmpty());
+    }
+
+    @Test
+    public void testParseDetailOnlyInBoxes() throws Exception {
+        List<String> misplaced = new ArrayList<String>();
+        for (Class<?> clazz : classesOfThisModule()) {
+            if (AbstractBox.class.isAssignableFrom(clazz)) {
+                continue;
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(ParseDetail.class)) {
+                    misplaced.add(clazz.getName() + "." + method.getName());
+                }
+            }
+        }
+        Assert.assertTrue("Only methods in subclasses of " + AbstractBox.class.getName() +
+                " can be annotated with ParseDetail: " + misplaced, misplaced.isEmpty());
+    }
+
+    private static List<Class<?>> classesOfThisModule() throws ClassNotFoundException {
+        File root = new File(AbstractBox.class.getProtectionDomain().getCodeSource().getLocation().getFile());
+        List<String> names = new ArrayList<String>();
+        collectClassNames(root, "", names);
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (String name : names) {
+            classes.add(Class.forName(name, false, EnsureParsedGuardTest.class.getClassLoader()));
+        }
+        return classes;
+    }
+
+    private static void collectClassNames(File dir, String pkg, List<String> names) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectClassNames(file, pkg + file.getName() + ".", names);
+            } else if (file.getName().endsWith(".class")) {
+                names.add(pkg + file.getName().substring(0, file.getName().length() - ".class".length()));
+            }
+        }
+    }
+
+    /**
+     * @return name and descriptor of each method of <code>clazz</code> that calls <code>ensureParsed()</code>
+     */
+    private static Set<String> methodsCallingEnsureParsed(Class<?> clazz) throws IOException {
+        final Set<String> guarded = new HashSet<String>();
+        InputStream is = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+        try {
+            new ClassReader(is).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, final String name, final String descriptor, String signature, String[] exceptions) {
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitMethodInsn(int opcode, String owner, String method, String methodDescriptor, boolean isInterface) {
+                            if (method.equals("ensureParsed") && methodDescriptor.equals("()V")) {
+                                guarded.add(name + descriptor);
+                            }
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } finally {
+            is.close();
+        }
+        return guarded;
+    }
+}
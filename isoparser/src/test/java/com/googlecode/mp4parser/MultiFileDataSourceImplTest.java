@@ -9,6 +9,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 
 public class MultiFileDataSourceImplTest {
@@ -40,6 +41,35 @@ public class MultiFileDataSourceImplTest {
         Assert.assertEquals("aaaaabbbbbbbbbbccccc", check(ds, 5, 20));
     }
 
+    @Test
+    public void testReadAndMap() throws Exception {
+        File empty = File.createTempFile("MultiFileDataSourceImplTest", "empty");
+        DataSource ds = new MultiFileDataSourceImpl(a, empty, b, c);
+        Assert.assertEquals(30, ds.size());
+        ds.position(8);
+        ByteBuffer bb = ByteBuffer.allocate(4);
+        Assert.assertEquals(4, ds.read(bb));
+        Assert.assertEquals("aabb", new String(bb.array()));
+        Assert.assertEquals(12, ds.position());
+        bb = ByteBuffer.allocate(15);
+        Assert.assertEquals(15, ds.read(bb, 10));
+        Assert.assertEquals("bbbbbbbbbbccccc", new String(bb.array()));
+        Assert.assertEquals(12, ds.position());
+        Assert.assertEquals(-1, ds.read(ByteBuffer.allocate(1), 30));
+
+        Assert.assertEquals("bbbbbbbbbb", toString(ds.map(10, 10)));
+        Assert.assertEquals("abbbbbbbbbbc", toString(ds.map(9, 12)));
+        Assert.assertEquals("aabbbbbbbbbbcccccccccc", check(ds, 8, 100));
+        ds.close();
+        empty.deleteOnExit();
+    }
+
+    private String toString(ByteBuffer bb) {
+        byte[] bytes = new byte[bb.remaining()];
+        bb.get(bytes);
+        return new String(bytes);
+    }
+
     public String check(DataSource ds, int a, int b) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         ds.transferTo(a, b, Channels.newChannel(baos));
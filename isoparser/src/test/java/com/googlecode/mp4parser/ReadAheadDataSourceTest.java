@@ -0,0 +1,105 @@
+package com.googlecode.mp4parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+public class ReadAheadDataSourceTest {
+
+    @Test
+    public void testSequentialMap() throws Exception {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        ReadAheadDataSource ds = new ReadAheadDataSource(new MemoryDataSourceImpl(data), 4096, 3);
+        int pos = 0;
+        int size = 100;
+        while (pos + size <= data.length) {
+            ByteBuffer bb = ds.map(pos, size);
+            Assert.assertEquals(size, bb.remaining());
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals("Position " + (pos + i), data[pos + i], bb.get());
+            }
+            pos += size + 10;
+            size = (size * 7) % 1000 + 1;
+        }
+        Assert.assertTrue(ds.getHits() > ds.getMisses());
+        Assert.assertTrue(ds.getBytesReadAhead() > 0);
+        ds.close();
+    }
+
+    @Test
+    public void testBlockBoundaries() throws Exception {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i ^ (i >> 8));
+        }
+        ReadAheadDataSource ds = new ReadAheadDataSource(new MemoryDataSourceImpl(data), 4096, 3);
+        assertMapped(data, ds, 0, 100);
+        // second forward request starts reading ahead: blocks at 200, 4296 and 8392
+        assertMapped(data, ds, 100, 100);
+        Assert.assertEquals(2, ds.getMisses());
+        // crosses a block boundary
+        assertMapped(data, ds, 4200, 200);
+        // spans two blocks
+        assertMapped(data, ds, 4400, 8000);
+        // ends exactly at the end of a block
+        assertMapped(data, ds, 12400, 88);
+        // exactly one block
+        assertMapped(data, ds, 12488, 4096);
+        Assert.assertEquals(4, ds.getHits());
+        Assert.assertEquals(2, ds.getMisses());
+
+        // continues in blocks 16584, 20680 and 24776 - each transfer stops at the end of a block
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(baos);
+        long position = 16584;
+        long count = 10000;
+        while (count > 0) {
+            long transferred = ds.transferTo(position, count, channel);
+            position += transferred;
+            count -= transferred;
+        }
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 16584, 26584), baos.toByteArray());
+        Assert.assertEquals(7, ds.getHits());
+        Assert.assertEquals(2, ds.getMisses());
+
+        // jumping back isn't read ahead
+        baos.reset();
+        Assert.assertEquals(300, ds.transferTo(1000, 300, channel));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 1000, 1300), baos.toByteArray());
+        Assert.assertEquals(3, ds.getMisses());
+        ds.close();
+    }
+
+    private static void assertMapped(byte[] expected, DataSource ds, int position, int size) throws Exception {
+        ByteBuffer bb = ds.map(position, size);
+        Assert.assertEquals(size, bb.remaining());
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals("Position " + (position + i), expected[position + i], bb.get());
+        }
+    }
+
+    @Test
+    public void testRandomMap() throws Exception {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        ReadAheadDataSource ds = new ReadAheadDataSource(new MemoryDataSourceImpl(data), 4096, 3);
+        for (int pos = data.length - 1000; pos > 0; pos -= 3000) {
+            ByteBuffer bb = ds.map(pos, 1000);
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(data[pos + i], bb.get());
+            }
+        }
+        Assert.assertEquals(0, ds.getHits());
+        ds.close();
+    }
+}
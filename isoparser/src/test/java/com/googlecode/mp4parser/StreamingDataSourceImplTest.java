@@ -0,0 +1,99 @@
+package com.googlecode.mp4parser;
+
+import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.MovieHeaderBox;
+import com.coremedia.iso.boxes.TrackBox;
+import com.coremedia.iso.boxes.mdat.SampleList;
+import com.googlecode.mp4parser.authoring.Sample;
+import com.googlecode.mp4parser.util.Path;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+
+public class StreamingDataSourceImplTest {
+    String filename = StreamingDataSourceImplTest.class.getProtectionDomain().getCodeSource().getLocation().getFile() + "/multiTrack.3gp";
+
+    @Test
+    public void testRoundtrip() throws Exception {
+        byte[] original = IOUtils.toByteArray(new FileInputStream(filename));
+        IsoFile isoFile = new IsoFile(new StreamingDataSourceImpl(
+                Channels.newChannel(new FileInputStream(filename)), -1, 4096, null));
+        MovieHeaderBox mvhd = (MovieHeaderBox) Path.getPath(isoFile, "/moov[0]/mvhd[0]");
+        Assert.assertTrue(mvhd.getDuration() > 0);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        isoFile.getBox(Channels.newChannel(baos));
+        Assert.assertArrayEquals(original, baos.toByteArray());
+        isoFile.close();
+    }
+
+    @Test
+    public void testSamples() throws Exception {
+        IsoFile reference = new IsoFile(new FileDataSourceImpl(filename));
+        IsoFile isoFile = new IsoFile(new StreamingDataSourceImpl(
+                Channels.newChannel(new FileInputStream(filename)), new File(filename).length(), 1024, null));
+        List<TrackBox> referenceTracks = reference.getMovieBox().getBoxes(TrackBox.class);
+        List<TrackBox> tracks = isoFile.getMovieBox().getBoxes(TrackBox.class);
+        for (int i = 0; i < tracks.size(); i++) {
+            List<Sample> expected = new SampleList(referenceTracks.get(i));
+            List<Sample> actual = new SampleList(tracks.get(i));
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < actual.size(); j++) {
+                Assert.assertEquals(expected.get(j).asByteBuffer(), actual.get(j).asByteBuffer());
+            }
+        }
+        isoFile.close();
+        reference.close();
+    }
+
+    @Test
+    public void testSmallestWindow() throws Exception {
+        byte[] data = new byte[101];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        StreamingDataSourceImpl dataSource = new StreamingDataSourceImpl(
+                Channels.newChannel(new ByteArrayInputStream(data)), -1, 2, null);
+        ByteBuffer bb = ByteBuffer.allocate(data.length);
+        while (bb.hasRemaining()) {
+            Assert.assertTrue(dataSource.read(bb) > 0);
+        }
+        Assert.assertArrayEquals(data, bb.array());
+        Assert.assertEquals(-1, dataSource.read(ByteBuffer.allocate(1)));
+        dataSource.close();
+    }
+
+    @Test
+    public void testEverythingBehindTheWindowIsSpilled() throws Exception {
+        byte[] data = new byte[101];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        StreamingDataSourceImpl dataSource = new StreamingDataSourceImpl(
+                Channels.newChannel(new ByteArrayInputStream(data)), -1, 8, null);
+        dataSource.position(data.length - 1);
+        ByteBuffer last = ByteBuffer.allocate(1);
+        Assert.assertEquals(1, dataSource.read(last));
+        Assert.assertEquals(100, last.get(0));
+        // nothing but the last byte has been read - still everything that left the window has been kept
+        Assert.assertTrue(dataSource.spilled() >= data.length - 8);
+        Assert.assertEquals(dataSource.map(0, dataSource.spilled()), ByteBuffer.wrap(data, 0, (int) dataSource.spilled()));
+        ByteBuffer all = ByteBuffer.allocate(data.length);
+        Assert.assertEquals(data.length, dataSource.read(all, 0));
+        Assert.assertArrayEquals(data, all.array());
+        dataSource.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowTooSmall() throws Exception {
+        new StreamingDataSourceImpl(Channels.newChannel(new ByteArrayInputStream(new byte[10])), -1, 1, null);
+    }
+}
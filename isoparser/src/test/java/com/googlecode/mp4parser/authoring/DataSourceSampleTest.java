@@ -0,0 +1,136 @@
+package com.googlecode.mp4parser.authoring;
+
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DataSourceSampleTest {
+
+    static class CountingDataSource extends MemoryDataSourceImpl {
+        int transfers = 0;
+
+        CountingDataSource(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            transfers++;
+            return super.transferTo(position, count, target);
+        }
+    }
+
+    @Test
+    public void testCoalescedWrite() throws Exception {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        CountingDataSource dataSource = new CountingDataSource(data);
+        List<Sample> samples = new ArrayList<Sample>();
+        samples.add(new DataSourceSample(dataSource, 0, 10));
+        samples.add(new DataSourceSample(dataSource, 10, 20));
+        samples.add(new DataSourceSample(dataSource, 30, 5));
+        samples.add(new SampleImpl(ByteBuffer.wrap(new byte[]{-1, -2})));
+        samples.add(new SampleImpl(ByteBuffer.wrap(new byte[]{-3})));
+        samples.add(new DataSourceSample(dataSource, 35, 5));
+        samples.add(new DataSourceSample(dataSource, 50, 10));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (Sample sample : samples) {
+            sample.writeTo(Channels.newChannel(expected));
+        }
+        dataSource.transfers = 0;
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        DataSourceSample.writeTo(samples, Channels.newChannel(actual));
+        Assert.assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+        Assert.assertEquals(3, dataSource.transfers);
+    }
+
+    @Test
+    public void testTargetAcceptingNothing() throws Exception {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        // accepts nothing on every other call - single misses are retried
+        WritableByteChannel channel = new WritableByteChannel() {
+            WritableByteChannel delegate = Channels.newChannel(actual);
+            boolean full = false;
+
+            public int write(ByteBuffer src) throws IOException {
+                full = !full;
+                if (full) {
+                    return 0;
+                }
+                ByteBuffer part = src.duplicate();
+                part.limit(Math.min(src.limit(), src.position() + 7));
+                int written = delegate.write(part);
+                src.position(src.position() + written);
+                return written;
+            }
+
+            public boolean isOpen() {
+                return true;
+            }
+
+            public void close() {
+            }
+        };
+        new DataSourceSample(new MemoryDataSourceImpl(data), 10, 50).writeTo(channel);
+        Assert.assertTrue(Arrays.equals(Arrays.copyOfRange(data, 10, 60), actual.toByteArray()));
+    }
+
+    @Test
+    public void testTargetNeverAccepting() throws Exception {
+        final int[] writes = new int[1];
+        WritableByteChannel channel = new WritableByteChannel() {
+            public int write(ByteBuffer src) {
+                writes[0]++;
+                return 0;
+            }
+
+            public boolean isOpen() {
+                return true;
+            }
+
+            public void close() {
+            }
+        };
+        try {
+            new DataSourceSample(new MemoryDataSourceImpl(new byte[100]), 10, 50).writeTo(channel);
+            Assert.fail("A target that never accepts anything must not be waited for");
+        } catch (IOException e) {
+            Assert.assertEquals(DataSourceSample.MAX_ZERO_TRANSFERS, writes[0]);
+        }
+    }
+
+    @Test
+    public void testLargeSampleIsWrittenDirectly() throws Exception {
+        byte[] large = new byte[100000];
+        large[large.length - 1] = 42;
+        List<Sample> samples = new ArrayList<Sample>();
+        samples.add(new SampleImpl(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        samples.add(new SampleImpl(ByteBuffer.wrap(large)));
+        samples.add(new SampleImpl(ByteBuffer.wrap(new byte[]{4})));
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        DataSourceSample.writeTo(samples, Channels.newChannel(actual));
+        byte[] written = actual.toByteArray();
+        Assert.assertEquals(3 + large.length + 1, written.length);
+        Assert.assertEquals(3, written[2]);
+        Assert.assertEquals(42, written[3 + large.length - 1]);
+        Assert.assertEquals(4, written[written.length - 1]);
+    }
+}
@@ -2,16 +2,26 @@ package com.googlecode.mp4parser.authoring.samples;
 
 import com.coremedia.iso.Hex;
 import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.TimeToSampleBox;
 import com.coremedia.iso.boxes.TrackBox;
 import com.coremedia.iso.boxes.mdat.SampleList;
+import com.googlecode.mp4parser.authoring.DataSourceSample;
+import com.googlecode.mp4parser.authoring.Sample;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Created by sannies on 1/9/14.
@@ -31,6 +41,84 @@ public class DefaultMp4SampleListTest {
         }
     }
 
+    @Test
+    public void testRandomAccess() throws IOException {
+        IsoFile isoFile = new IsoFile(this.getClass().getProtectionDomain().getCodeSource().getLocation().getFile() +
+                "/multiTrack.3gp");
+        for (TrackBox trackBox : isoFile.getMovieBox().getBoxes(TrackBox.class)) {
+            DefaultMp4SampleList sl = new DefaultMp4SampleList(trackBox.getTrackHeaderBox().getTrackId(), isoFile);
+            List<Sample> sequential = new ArrayList<Sample>();
+            for (Sample sample : sl) {
+                sequential.add(sample);
+            }
+            List<Integer> indices = new ArrayList<Integer>();
+            for (int i = 0; i < sl.size(); i++) {
+                indices.add(i);
+            }
+            Collections.shuffle(indices, new Random(42));
+            for (int i : indices) {
+                Assert.assertEquals(sequential.get(i).asByteBuffer(), sl.get(i).asByteBuffer());
+                Assert.assertEquals(sequential.get(i).getSize(), sl.getSampleSize(i));
+                ByteBuffer inFile = isoFile.getByteBuffer(sl.getSampleOffset(i), sl.getSampleSize(i));
+                Assert.assertEquals(inFile, sl.get(i).asByteBuffer());
+            }
+
+            long[] deltas = TimeToSampleBox.blowupTimeToSamples(
+                    trackBox.getSampleTableBox().getTimeToSampleBox().getEntries());
+            long time = 0;
+            for (int i = 0; i < sl.size(); i++) {
+                Assert.assertEquals(time, sl.getDecodingTime(i));
+                if (deltas[i] > 0) {
+                    Assert.assertEquals(i, sl.getSampleIndex(time));
+                    Assert.assertEquals(i, sl.getSampleIndex(time + deltas[i] - 1));
+                }
+                time += deltas[i];
+            }
+            Assert.assertEquals(-1, sl.getSampleIndex(-1));
+            Assert.assertEquals(sl.size() - 1, sl.getSampleIndex(Long.MAX_VALUE));
+        }
+        isoFile.close();
+    }
+
+    @Test
+    public void testEmptyTimeToSampleBox() throws IOException {
+        IsoFile isoFile = new IsoFile(this.getClass().getProtectionDomain().getCodeSource().getLocation().getFile() +
+                "/multiTrack.3gp");
+        TrackBox trackBox = isoFile.getMovieBox().getBoxes(TrackBox.class).get(0);
+        trackBox.getSampleTableBox().getTimeToSampleBox().setEntries(new ArrayList<TimeToSampleBox.Entry>());
+        DefaultMp4SampleList sl = new DefaultMp4SampleList(trackBox.getTrackHeaderBox().getTrackId(), isoFile);
+        Assert.assertTrue(sl.size() > 0);
+        Assert.assertEquals(0, sl.getDecodingTime(0));
+        Assert.assertEquals(0, sl.getDecodingTime(sl.size() - 1));
+        Assert.assertEquals(-1, sl.getSampleIndex(0));
+        isoFile.close();
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        IsoFile isoFile = new IsoFile(this.getClass().getProtectionDomain().getCodeSource().getLocation().getFile() +
+                "/multiTrack.3gp");
+        for (TrackBox trackBox : isoFile.getMovieBox().getBoxes(TrackBox.class)) {
+            DefaultMp4SampleList sl = new DefaultMp4SampleList(trackBox.getTrackHeaderBox().getTrackId(), isoFile);
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            ByteArrayOutputStream single = new ByteArrayOutputStream();
+            WritableByteChannel singleChannel = Channels.newChannel(single);
+            for (Sample sample : sl) {
+                Assert.assertTrue(sample instanceof DataSourceSample);
+                ByteBuffer content = sample.asByteBuffer();
+                byte[] bytes = new byte[content.remaining()];
+                content.get(bytes);
+                expected.write(bytes);
+                sample.writeTo(singleChannel);
+            }
+            ByteArrayOutputStream coalesced = new ByteArrayOutputStream();
+            DataSourceSample.writeTo(sl, Channels.newChannel(coalesced));
+            Assert.assertTrue(Arrays.equals(expected.toByteArray(), single.toByteArray()));
+            Assert.assertTrue(Arrays.equals(expected.toByteArray(), coalesced.toByteArray()));
+        }
+        isoFile.close();
+    }
+
     List<String> sampleChecksum = Arrays.asList(
             "E8B264863D89C0AA9DA412F5A875E962",
             "4E0EB2B74685E3C67FCD06C78592DE02",
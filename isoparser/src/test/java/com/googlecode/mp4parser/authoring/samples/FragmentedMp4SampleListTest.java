@@ -0,0 +1,79 @@
+package com.googlecode.mp4parser.authoring.samples;
+
+import com.coremedia.iso.IsoFile;
+import com.coremedia.iso.boxes.Container;
+import com.coremedia.iso.boxes.TrackBox;
+import com.googlecode.mp4parser.MemoryDataSourceImpl;
+import com.googlecode.mp4parser.authoring.Movie;
+import com.googlecode.mp4parser.authoring.Sample;
+import com.googlecode.mp4parser.authoring.Track;
+import com.googlecode.mp4parser.authoring.builder.FragmentedMp4Builder;
+import com.googlecode.mp4parser.authoring.builder.TwoSecondIntersectionFinder;
+import com.googlecode.mp4parser.authoring.container.mp4.MovieCreator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FragmentedMp4SampleListTest {
+
+    @Test
+    public void testRandomAccess() throws Exception {
+        Movie movie = MovieCreator.build(this.getClass().getProtectionDomain().getCodeSource().getLocation().getFile() +
+                "/Beethoven - Bagatelle op.119 no.11 i.m4a");
+        final Track track = movie.getTracks().get(0);
+        FragmentedMp4Builder builder = new FragmentedMp4Builder();
+        builder.setIntersectionFinder(new TwoSecondIntersectionFinder(movie, 1));
+        Container fragmented = builder.build(movie);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        fragmented.writeContainer(Channels.newChannel(baos));
+
+        IsoFile isoFile = new IsoFile(new MemoryDataSourceImpl(baos.toByteArray()));
+        TrackBox trackBox = isoFile.getMovieBox().getBoxes(TrackBox.class).get(0);
+        final FragmentedMp4SampleList sl = new FragmentedMp4SampleList(trackBox.getTrackHeaderBox().getTrackId(), isoFile);
+        Assert.assertEquals(track.getSamples().size(), sl.size());
+
+        final List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < sl.size(); i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices, new Random(42));
+        for (int i : indices) {
+            Sample expected = track.getSamples().get(i);
+            Assert.assertEquals(expected.getSize(), sl.getSampleSize(i));
+            Assert.assertEquals(expected.asByteBuffer(), sl.get(i).asByteBuffer());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            results.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    Random random = new Random(seed);
+                    for (int n = 0; n < 1000; n++) {
+                        int i = random.nextInt(sl.size());
+                        if (!track.getSamples().get(i).asByteBuffer().equals(sl.get(i).asByteBuffer())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            Assert.assertTrue(result.get());
+        }
+        executor.shutdown();
+        isoFile.close();
+    }
+}
@@ -27,6 +27,7 @@ import com.googlecode.mp4parser.util.Path;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -48,7 +49,9 @@ public class AACTrackImplTest {
 
         DefaultMp4Builder mp4Builder = new DefaultMp4Builder();
         Container c = mp4Builder.build(m);
-        WritableByteChannel fc = new FileOutputStream("aac-sample.mp4").getChannel();
+        File f = File.createTempFile(this.getClass().getSimpleName(), ".mp4");
+        f.deleteOnExit();
+        WritableByteChannel fc = new FileOutputStream(f).getChannel();
         c.writeContainer(fc);
         fc.close();
         IsoFile isoFileReference = new IsoFile(this.getClass().getProtectionDomain().getCodeSource().getLocation().getFile() + "/com/googlecode/mp4parser/authoring/tracks/aac-sample.mp4");
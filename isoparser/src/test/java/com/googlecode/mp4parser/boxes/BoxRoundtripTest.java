@@ -66,9 +66,11 @@ public abstract class BoxRoundtripTest {
             "parent",
             "parsed",
             "path",
+            "retainedBytes",
             "size",
             "offset",
             "type",
+            "typeInt",
             "userType",
             "version");
 
@@ -39,9 +39,11 @@ public abstract class BoxWriteReadBase<T extends Box> {
             "parent",
             "parsed",
             "path",
+            "retainedBytes",
             "size",
             "offset",
             "type",
+            "typeInt",
             "userType",
             "version");
 
@@ -129,7 +131,8 @@ public abstract class BoxWriteReadBase<T extends Box> {
 
         boolean output = false;
         for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-            if (!props.containsKey(propertyDescriptor.getName())) {
+            // indexed accessors like getSampleSize(int) have no plain property type
+            if (!props.containsKey(propertyDescriptor.getName()) && propertyDescriptor.getPropertyType() != null) {
                 if (!skipList.contains(propertyDescriptor.getName())) {
                     if (!output) {
                         System.out.println("No value given for the following properties: ");
@@ -0,0 +1,95 @@
+package com.googlecode.mp4parser.util;
+
+import com.coremedia.iso.boxes.MovieBox;
+import com.coremedia.iso.boxes.MovieHeaderBox;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ByteRangeCacheTest {
+    Object source = new Object();
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        ByteRangeCache cache = new ByteRangeCache(1000);
+        ByteBuffer data = ByteBuffer.allocate(100);
+        Assert.assertNull(cache.get(source, 0));
+        cache.put(source, 0, data);
+        Assert.assertSame(data, cache.get(source, 0)[0]);
+        Assert.assertSame(data, cache.get(source, 0)[0]);
+        Assert.assertNull(cache.get(source, 100));
+        Assert.assertNull(cache.get(new Object(), 0));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(0.4, cache.getHitRate(), 0.0001);
+        Assert.assertEquals(100, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        ByteRangeCache cache = new ByteRangeCache(1000);
+        for (int i = 0; i < 100; i++) {
+            cache.put(source, i * 300, ByteBuffer.allocate(300));
+            Assert.assertTrue(cache.getCachedBytes() <= 1000);
+        }
+        Assert.assertEquals(97, cache.getEvictions());
+        Assert.assertNotNull(cache.get(source, 99 * 300));
+
+        // the most recent range is kept even if it exceeds the budget
+        cache.put(source, 0, ByteBuffer.allocate(2000));
+        Assert.assertEquals(2000, cache.getCachedBytes());
+        Assert.assertNotNull(cache.get(source, 0));
+
+        cache.setMaxBytes(100);
+        cache.put(source, 1, ByteBuffer.allocate(10));
+        Assert.assertEquals(10, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testScanResistance() throws Exception {
+        ByteRangeCache cache = new ByteRangeCache(1000);
+        cache.put(source, 0, ByteBuffer.allocate(100));
+        cache.put(source, 1, ByteBuffer.allocate(100));
+        cache.get(source, 0);
+        cache.get(source, 1);
+        // a long scan of ranges read only once doesn't push out ranges that have been requested again
+        for (int i = 0; i < 100; i++) {
+            cache.put(source, 1000 + i, ByteBuffer.allocate(100));
+        }
+        Assert.assertNotNull(cache.get(source, 0));
+        Assert.assertNotNull(cache.get(source, 1));
+        Assert.assertNull(cache.get(source, 1000));
+        Assert.assertNotNull(cache.get(source, 1099));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        ByteRangeCache cache = new ByteRangeCache(1000);
+        Object other = new Object();
+        cache.put(source, 0, ByteBuffer.allocate(100), ByteBuffer.allocate(50));
+        cache.get(source, 0);
+        cache.put(source, 1, ByteBuffer.allocate(100));
+        cache.put(other, 0, ByteBuffer.allocate(100));
+        Assert.assertEquals(350, cache.getCachedBytes());
+        cache.invalidate(source);
+        Assert.assertEquals(100, cache.getCachedBytes());
+        Assert.assertNull(cache.get(source, 0));
+        Assert.assertNull(cache.get(source, 1));
+        Assert.assertNotNull(cache.get(other, 0));
+    }
+
+    @Test
+    public void testInvalidateDropsRangesOfChildren() throws Exception {
+        ByteRangeCache cache = new ByteRangeCache(1000);
+        MovieBox moov = new MovieBox();
+        MovieHeaderBox mvhd = new MovieHeaderBox();
+        moov.addBox(mvhd);
+        cache.put(mvhd, 0, ByteBuffer.allocate(100));
+        cache.put(moov, 0, ByteBuffer.allocate(100));
+        cache.invalidate(moov);
+        Assert.assertNull(cache.get(mvhd, 0));
+        Assert.assertNull(cache.get(moov, 0));
+        Assert.assertEquals(0, cache.getCachedBytes());
+    }
+}
@@ -0,0 +1,81 @@
+package com.googlecode.mp4parser.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedRegionCacheTest {
+    File f;
+    FileChannel fc;
+
+    @Before
+    public void setUp() throws Exception {
+        f = File.createTempFile("MappedRegionCacheTest", "bin");
+        FileOutputStream fos = new FileOutputStream(f);
+        for (int i = 0; i < 10000; i++) {
+            fos.write(i);
+        }
+        fos.close();
+        fc = new FileInputStream(f).getChannel();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        fc.close();
+        f.deleteOnExit();
+    }
+
+    @Test
+    public void testContent() throws Exception {
+        MappedRegionCache cache = new MappedRegionCache(fc, 2048, 1024);
+        for (int start = 0; start < 10000; start += 77) {
+            int size = java.lang.Math.min(600, 10000 - start);
+            ByteBuffer bb = cache.map(start, size);
+            Assert.assertEquals(size, bb.remaining());
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals((byte) (start + i), bb.get());
+            }
+        }
+        Assert.assertTrue(cache.getCachedBytes() <= 2048);
+        Assert.assertTrue(cache.getEvictions() > 0);
+        cache.close();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        MappedRegionCache cache = new MappedRegionCache(fc, 4096, 1024);
+        cache.map(0, 100);
+        cache.map(100, 100);
+        cache.map(400, 100);
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(2, cache.getHits());
+        // exceeds half the region size and crosses a region boundary - not cached
+        cache.map(500, 1000);
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(1024, cache.getCachedBytes());
+        cache.close();
+        Assert.assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testBuffersStayValidAfterClose() throws Exception {
+        MappedRegionCache cache = new MappedRegionCache(fc, 1024, 1024);
+        ByteBuffer evicted = cache.map(0, 100).slice();
+        ByteBuffer cached = cache.map(5000, 100);
+        Assert.assertEquals(1, cache.getEvictions());
+        cache.close();
+        Assert.assertEquals(0, cache.getCachedBytes());
+        Assert.assertEquals(2048, cache.getMappedBytes());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals((byte) i, evicted.get(i));
+            Assert.assertEquals((byte) (5000 + i), cached.get(i));
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.Test;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
 
 public class PathTest {
     IsoFile isoFile;
@@ -42,4 +43,47 @@ public class PathTest {
         Assert.assertTrue(Path.component.matcher("xml [1]").matches());
         Assert.assertTrue(Path.component.matcher("..").matches());
     }
+
+    @Test
+    public void testCompiledPath() throws Exception {
+        CompiledPath traks = CompiledPath.compile("moov[0]/trak");
+        List<TrackBox> expected = isoFile.getMovieBox().getBoxes(TrackBox.class);
+        Assert.assertEquals(expected, traks.getPaths(isoFile));
+        Assert.assertEquals(expected, traks.getPaths(isoFile)); // memoized
+        Assert.assertSame(expected.get(0), traks.getPath(isoFile));
+        Assert.assertSame(expected.get(1), CompiledPath.compile("/moov/trak[1]").getPath(expected.get(0)));
+        Assert.assertSame(expected.get(1).getSampleTableBox().getSampleDescriptionBox().getBoxes().get(0),
+                CompiledPath.compile("trak[1]/mdia/minf/stbl/stsd/....").getPath(isoFile.getMovieBox()));
+        Assert.assertSame(isoFile.getMovieBox(), CompiledPath.compile("trak/..").getPath(isoFile.getMovieBox()));
+        Assert.assertNull(CompiledPath.compile("moov/xxxx").getPath(isoFile));
+
+        TrackBox added = new TrackBox();
+        isoFile.getMovieBox().addBox(added);
+        List<TrackBox> all = traks.getPaths(isoFile);
+        Assert.assertEquals(expected.size() + 1, all.size());
+        Assert.assertSame(added, all.get(all.size() - 1));
+    }
+
+    @Test
+    public void testCompiledPathAfterChangingGetBoxes() throws Exception {
+        CompiledPath traks = CompiledPath.compile("moov[0]/trak");
+        List<TrackBox> before = traks.getPaths(isoFile);
+        Assert.assertSame(before.get(0), traks.getPath(isoFile));
+
+        List<Box> children = isoFile.getMovieBox().getBoxes();
+        children.remove(before.get(0));
+        List<TrackBox> after = traks.getPaths(isoFile);
+        Assert.assertEquals(before.size() - 1, after.size());
+        Assert.assertFalse(after.contains(before.get(0)));
+        Assert.assertSame(before.get(1), traks.getPath(isoFile));
+
+        children.clear();
+        Assert.assertTrue(traks.getPaths(isoFile).isEmpty());
+        Assert.assertNull(traks.getPath(isoFile));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidPath() {
+        CompiledPath.compile("moov/tr");
+    }
 }